@@ -4,10 +4,16 @@ import ITS.com.vn.course_service.dto.external.UserProfileResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient(name = "user-profile-service", url = "${application.config.user-profile-url}")
 public interface ProfileClient {
 
     @GetMapping("/api/v1/profiles/{userId}")
     UserProfileResponse getProfile(@PathVariable("userId") String userId);
+
+    @GetMapping("/api/v1/profiles/users")
+    List<UserProfileResponse> getProfiles(@RequestParam("ids") List<String> userIds);
 }
@@ -0,0 +1,32 @@
+package ITS.com.vn.course_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AssetUploadConfig {
+
+    /**
+     * Executor that receives upload chunks
+     * Slow uploads block these threads instead of the servlet request threads, and the pool is
+     * bounded so a burst of uploads is rejected (503) rather than queued without limit
+     */
+    @Bean
+    public ThreadPoolTaskExecutor assetUploadExecutor(
+            @Value("${application.storage.upload.max-concurrent:16}") int maxConcurrent,
+            @Value("${application.storage.upload.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("asset-upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
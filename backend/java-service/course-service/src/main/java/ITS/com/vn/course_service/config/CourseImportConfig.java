@@ -0,0 +1,32 @@
+package ITS.com.vn.course_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class CourseImportConfig {
+
+    /**
+     * Executor that reads and writes course packages
+     * An import holds one database connection and transaction for its whole duration, so only a
+     * few run at once; further packages are rejected (503) instead of queued without limit
+     */
+    @Bean
+    public ThreadPoolTaskExecutor courseImportExecutor(
+            @Value("${application.course-import.max-concurrent:2}") int maxConcurrent,
+            @Value("${application.course-import.queue-capacity:4}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("course-import-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+}
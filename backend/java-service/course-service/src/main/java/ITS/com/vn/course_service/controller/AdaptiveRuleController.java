@@ -0,0 +1,83 @@
+package ITS.com.vn.course_service.controller;
+
+import ITS.com.vn.course_service.dto.request.CreateAdaptiveRuleRequest;
+import ITS.com.vn.course_service.dto.request.EvaluateAdaptiveRulesRequest;
+import ITS.com.vn.course_service.dto.response.AdaptiveDecisionResponse;
+import ITS.com.vn.course_service.dto.response.AdaptiveRuleResponse;
+import ITS.com.vn.course_service.security.SecurityUtils;
+import ITS.com.vn.course_service.service.AdaptiveRuleService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Adaptive Rule Controller - REST API endpoints for lesson branching rules
+ * Base path: /api/v1/lessons/{lessonId}/adaptive-rules
+ */
+@RestController
+@RequestMapping("/api/v1/lessons/{lessonId}/adaptive-rules")
+@RequiredArgsConstructor
+@Slf4j
+public class AdaptiveRuleController {
+
+    private final AdaptiveRuleService adaptiveRuleService;
+
+    /**
+     * Create an adaptive rule
+     * POST /api/v1/lessons/{lessonId}/adaptive-rules
+     */
+    @PostMapping
+    public ResponseEntity<AdaptiveRuleResponse> createRule(
+            @PathVariable Long lessonId,
+            @Valid @RequestBody CreateAdaptiveRuleRequest request,
+            Authentication authentication) {
+
+        Long instructorId = SecurityUtils.getUserIdAsLong(authentication, true);
+        AdaptiveRuleResponse response = adaptiveRuleService.createRule(lessonId, request, instructorId);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Get the rules of a lesson in evaluation order
+     * GET /api/v1/lessons/{lessonId}/adaptive-rules
+     */
+    @GetMapping
+    public ResponseEntity<List<AdaptiveRuleResponse>> getRules(@PathVariable Long lessonId) {
+        return ResponseEntity.ok(adaptiveRuleService.getRules(lessonId));
+    }
+
+    /**
+     * Delete an adaptive rule
+     * DELETE /api/v1/lessons/{lessonId}/adaptive-rules/{ruleId}
+     */
+    @DeleteMapping("/{ruleId}")
+    public ResponseEntity<Void> deleteRule(
+            @PathVariable Long lessonId,
+            @PathVariable Long ruleId,
+            Authentication authentication) {
+
+        Long instructorId = SecurityUtils.getUserIdAsLong(authentication, true);
+        adaptiveRuleService.deleteRule(lessonId, ruleId, instructorId);
+
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Decide the next lesson for a learner's results
+     * POST /api/v1/lessons/{lessonId}/adaptive-rules/evaluate
+     */
+    @PostMapping("/evaluate")
+    public ResponseEntity<AdaptiveDecisionResponse> evaluate(
+            @PathVariable Long lessonId,
+            @Valid @RequestBody EvaluateAdaptiveRulesRequest request) {
+
+        return ResponseEntity.ok(adaptiveRuleService.evaluate(lessonId, request));
+    }
+}
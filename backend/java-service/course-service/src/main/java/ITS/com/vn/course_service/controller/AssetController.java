@@ -0,0 +1,216 @@
+package ITS.com.vn.course_service.controller;
+
+import ITS.com.vn.course_service.service.AssetDeliveryService;
+import ITS.com.vn.course_service.service.AssetDeliveryService.AssetDownload;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Asset Controller - Streams lesson media (video, PDF, ...)
+ * Supports single byte ranges for seeking and conditional requests (ETag / Last-Modified).
+ * Local files are sent with Tomcat sendfile when the connector supports it, otherwise with
+ * FileChannel.transferTo, so memory use does not depend on the file size.
+ * Base path: /api/v1/lessons/{lessonId}/assets
+ */
+@RestController
+@RequestMapping("/api/v1/lessons/{lessonId}/assets")
+@RequiredArgsConstructor
+@Slf4j
+public class AssetController {
+
+    // Tomcat request attributes for zero-copy (sendfile) responses
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final AssetDeliveryService assetDeliveryService;
+
+    /**
+     * Stream asset content
+     * GET /api/v1/lessons/{lessonId}/assets/{assetId}/content
+     */
+    @RequestMapping(value = "/{assetId}/content", method = { RequestMethod.GET, RequestMethod.HEAD })
+    public void streamAsset(
+            @PathVariable Long lessonId,
+            @PathVariable Long assetId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        AssetDownload asset = assetDeliveryService.getAsset(lessonId, assetId);
+
+        // Spring only evaluates If-Match / If-Unmodified-Since for unsafe methods, but a download
+        // resumed with them must not splice bytes of a newer version
+        if (isPreconditionFailed(request, asset)) {
+            response.setStatus(HttpServletResponse.SC_PRECONDITION_FAILED);
+            return;
+        }
+
+        // 304 Not Modified (also sets ETag and Last-Modified)
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        boolean notModified = asset.lastModified() >= 0
+                ? webRequest.checkNotModified(asset.eTag(), asset.lastModified())
+                : webRequest.checkNotModified(asset.eTag());
+        if (notModified) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setContentType(asset.mimeType() != null ? asset.mimeType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        if (asset.fileName() != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                    .filename(asset.fileName(), StandardCharsets.UTF_8)
+                    .build()
+                    .toString());
+        }
+
+        long size = asset.size();
+        long start = 0;
+        long end = size - 1;
+
+        Optional<HttpRange> range = requestedRange(request, asset);
+        if (range.isPresent()) {
+            start = range.get().getRangeStart(size);
+            end = range.get().getRangeEnd(size);
+            if (start >= size || end < start) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+
+        long length = Math.max(0, end - start + 1);
+        response.setContentLengthLong(length);
+        if (length == 0 || RequestMethod.HEAD.name().equals(request.getMethod())) {
+            return;
+        }
+
+        transfer(asset, start, length, request, response);
+    }
+
+    private boolean isPreconditionFailed(HttpServletRequest request, AssetDownload asset) {
+        List<String> ifMatch = Collections.list(request.getHeaders(HttpHeaders.IF_MATCH));
+        if (!ifMatch.isEmpty()) {
+            return ifMatch.stream()
+                    .flatMap(value -> Arrays.stream(value.split(",")))
+                    .map(String::trim)
+                    .noneMatch(tag -> tag.equals("*") || tag.equals(asset.eTag())); // Strong comparison
+        }
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_UNMODIFIED_SINCE);
+            return date >= 0 && asset.lastModified() >= 0 && asset.lastModified() / 1000 > date / 1000;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    // Single range only; multi-range, malformed or stale (If-Range) requests get the full content
+    private Optional<HttpRange> requestedRange(HttpServletRequest request, AssetDownload asset) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !isIfRangeSatisfied(request, asset)) {
+            return Optional.empty();
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? Optional.of(ranges.get(0)) : Optional.empty();
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private boolean isIfRangeSatisfied(HttpServletRequest request, AssetDownload asset) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(asset.eTag()); // Strong comparison
+        }
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return asset.lastModified() >= 0 && asset.lastModified() / 1000 == date / 1000;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    private void transfer(AssetDownload asset, long start, long length,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Path> localFile = asset.storage().localFile(asset.storageUrl());
+
+        // Zero-copy: Tomcat sends the file region itself after the handler returns
+        if (localFile.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, localFile.get().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        try (SeekableByteChannel channel = asset.storage().openForRead(asset.storageUrl())) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            if (channel instanceof FileChannel fileChannel) {
+                long position = start;
+                long remaining = length;
+                while (remaining > 0) {
+                    long sent = fileChannel.transferTo(position, remaining, out);
+                    if (sent <= 0) {
+                        break;
+                    }
+                    position += sent;
+                    remaining -= sent;
+                }
+            } else {
+                channel.position(start);
+                ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(COPY_BUFFER_SIZE, length));
+                long remaining = length;
+                while (remaining > 0) {
+                    buffer.clear();
+                    if (remaining < buffer.capacity()) {
+                        buffer.limit((int) remaining);
+                    }
+                    int read = channel.read(buffer);
+                    if (read < 0) {
+                        break;
+                    }
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    remaining -= read;
+                }
+            }
+        } catch (IOException ex) {
+            // Usually the player closed the connection while seeking
+            log.debug("Asset transfer of {} aborted: {}", asset.storageUrl(), ex.getMessage());
+        }
+    }
+}
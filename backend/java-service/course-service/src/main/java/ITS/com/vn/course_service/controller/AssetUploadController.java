@@ -0,0 +1,121 @@
+package ITS.com.vn.course_service.controller;
+
+import ITS.com.vn.course_service.dto.request.CreateAssetUploadRequest;
+import ITS.com.vn.course_service.dto.response.AssetUploadResponse;
+import ITS.com.vn.course_service.security.SecurityUtils;
+import ITS.com.vn.course_service.service.AssetUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.InputStream;
+
+/**
+ * Asset Upload Controller - Resumable chunked uploads of lesson assets
+ * A client creates an upload, sends the file in chunks with PATCH (Upload-Offset header = bytes
+ * already received) and, after a dropped connection, asks for the offset with GET and resumes.
+ * Chunks are received on a bounded upload executor so servlet threads are not held by slow clients.
+ * Base path: /api/v1/lessons/{lessonId}/assets/uploads
+ */
+@RestController
+@RequestMapping("/api/v1/lessons/{lessonId}/assets/uploads")
+@Slf4j
+@RequiredArgsConstructor
+public class AssetUploadController {
+
+    public static final String UPLOAD_OFFSET = "Upload-Offset";
+    public static final String UPLOAD_LENGTH = "Upload-Length";
+
+    private static final long CHUNK_TIMEOUT_MS = 10 * 60 * 1000L;
+
+    private final AssetUploadService assetUploadService;
+
+    private final ThreadPoolTaskExecutor assetUploadExecutor; // Resolved by name
+
+    /**
+     * Create an upload session
+     * POST /api/v1/lessons/{lessonId}/assets/uploads
+     */
+    @PostMapping
+    public ResponseEntity<AssetUploadResponse> startUpload(
+            @PathVariable Long lessonId,
+            @Valid @RequestBody CreateAssetUploadRequest request,
+            Authentication authentication) {
+
+        Long instructorId = SecurityUtils.getUserIdAsLong(authentication, true);
+        AssetUploadResponse response = assetUploadService.startUpload(lessonId, request, instructorId);
+
+        return withOffset(ResponseEntity.status(HttpStatus.CREATED), response);
+    }
+
+    /**
+     * Get upload status (offset to resume from)
+     * GET /api/v1/lessons/{lessonId}/assets/uploads/{uploadId}
+     */
+    @RequestMapping(value = "/{uploadId}", method = { RequestMethod.GET, RequestMethod.HEAD })
+    public ResponseEntity<AssetUploadResponse> getUpload(
+            @PathVariable Long lessonId,
+            @PathVariable String uploadId,
+            Authentication authentication) {
+
+        Long instructorId = SecurityUtils.getUserIdAsLong(authentication, true);
+        AssetUploadResponse response = assetUploadService.getUpload(lessonId, uploadId, instructorId);
+
+        return withOffset(ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, "no-store"), response);
+    }
+
+    /**
+     * Upload a chunk; the request body is the raw bytes starting at Upload-Offset
+     * PATCH /api/v1/lessons/{lessonId}/assets/uploads/{uploadId}
+     */
+    @PatchMapping("/{uploadId}")
+    public WebAsyncTask<ResponseEntity<AssetUploadResponse>> uploadChunk(
+            @PathVariable Long lessonId,
+            @PathVariable String uploadId,
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            HttpServletRequest request,
+            Authentication authentication) {
+
+        Long instructorId = SecurityUtils.getUserIdAsLong(authentication, true);
+
+        return new WebAsyncTask<>(CHUNK_TIMEOUT_MS, assetUploadExecutor, () -> {
+            try (InputStream body = request.getInputStream()) {
+                AssetUploadResponse response = assetUploadService.appendChunk(lessonId, uploadId, offset, body,
+                        instructorId);
+                return withOffset(ResponseEntity.ok(), response);
+            }
+        });
+    }
+
+    /**
+     * Abort an upload
+     * DELETE /api/v1/lessons/{lessonId}/assets/uploads/{uploadId}
+     */
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> abortUpload(
+            @PathVariable Long lessonId,
+            @PathVariable String uploadId,
+            Authentication authentication) {
+
+        Long instructorId = SecurityUtils.getUserIdAsLong(authentication, true);
+        assetUploadService.abortUpload(lessonId, uploadId, instructorId);
+
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity<AssetUploadResponse> withOffset(ResponseEntity.BodyBuilder builder,
+            AssetUploadResponse response) {
+        return builder
+                .header(UPLOAD_OFFSET, String.valueOf(response.getReceivedBytes()))
+                .header(UPLOAD_LENGTH, String.valueOf(response.getTotalSize()))
+                .body(response);
+    }
+}
@@ -1,10 +1,12 @@
 package ITS.com.vn.course_service.controller;
 
 import ITS.com.vn.course_service.dto.request.CreateChapterRequest;
+import ITS.com.vn.course_service.dto.request.MoveChapterRequest;
 import ITS.com.vn.course_service.dto.request.ReorderChaptersRequest;
 import ITS.com.vn.course_service.dto.response.ChapterResponse;
 import ITS.com.vn.course_service.security.SecurityUtils;
 import ITS.com.vn.course_service.service.ChapterService;
+import ITS.com.vn.course_service.service.ContentETagService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +14,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,6 +29,7 @@ import java.util.List;
 public class ChapterController {
 
     private final ChapterService chapterService;
+    private final ContentETagService contentETagService;
 
     /**
      * Create a new chapter
@@ -44,23 +48,24 @@ public class ChapterController {
     }
 
     /**
-     * Get all chapters for a course
+     * Get all chapters for a course (conditional: answers If-None-Match with 304)
      * GET /api/v1/courses/{courseId}/chapters
      */
     @GetMapping
-    public ResponseEntity<List<ChapterResponse>> getChaptersByCourse(@PathVariable Long courseId) {
-        List<ChapterResponse> response = chapterService.getChaptersByCourse(courseId);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<List<ChapterResponse>> getChaptersByCourse(@PathVariable Long courseId,
+            WebRequest webRequest) {
+        return ConditionalResponses.withETag(webRequest, contentETagService.getChapterListETag(courseId),
+                () -> chapterService.getChaptersByCourse(courseId));
     }
 
     /**
-     * Get chapter by ID
+     * Get chapter by ID (conditional: answers If-None-Match with 304)
      * GET /api/v1/chapters/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ChapterResponse> getChapterById(@PathVariable Long id) {
-        ChapterResponse response = chapterService.getChapterById(id);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<ChapterResponse> getChapterById(@PathVariable Long id, WebRequest webRequest) {
+        return ConditionalResponses.withETag(webRequest, contentETagService.getChapterETag(id),
+                () -> chapterService.getChapterById(id));
     }
 
     /**
@@ -95,6 +100,23 @@ public class ChapterController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Move a chapter after another one (or to the front)
+     * PUT /api/v1/courses/{courseId}/chapters/{id}/position
+     */
+    @PutMapping("/{id}/position")
+    public ResponseEntity<List<ChapterResponse>> moveChapter(
+            @PathVariable Long courseId,
+            @PathVariable Long id,
+            @RequestBody MoveChapterRequest request,
+            Authentication authentication) {
+
+        Long instructorId = SecurityUtils.getUserIdAsLong(authentication, true);
+        List<ChapterResponse> response = chapterService.moveChapter(courseId, id, request, instructorId);
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Delete chapter
      * DELETE /api/v1/chapters/{id}
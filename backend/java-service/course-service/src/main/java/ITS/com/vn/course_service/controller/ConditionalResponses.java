@@ -0,0 +1,39 @@
+package ITS.com.vn.course_service.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET helpers for read endpoints
+ * The ETag is checked against If-None-Match before the body is loaded, so a match costs only the
+ * fingerprint query
+ */
+final class ConditionalResponses {
+
+    // Bodies may carry per-user fields: keep them in private caches only, and revalidate on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * Answer 304 if the request's If-None-Match matches the ETag, otherwise 200 with the loaded body
+     *
+     * @param eTag Current strong ETag, or null if unknown (the body is then always loaded)
+     * @param body Loads the response body
+     */
+    static <T> ResponseEntity<T> withETag(WebRequest request, String eTag, Supplier<T> body) {
+        if (eTag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        // Also sets the ETag response header
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body.get());
+    }
+}
@@ -1,11 +1,17 @@
 package ITS.com.vn.course_service.controller;
 
 import ITS.com.vn.course_service.dto.request.CreateCourseRequest;
+import ITS.com.vn.course_service.dto.request.FacetSearchRequest;
 import ITS.com.vn.course_service.dto.request.UpdateCourseRequest;
 import ITS.com.vn.course_service.dto.response.CourseResponse;
 import ITS.com.vn.course_service.dto.response.CourseStatsResponse;
+import ITS.com.vn.course_service.dto.response.CourseStructureResponse;
+import ITS.com.vn.course_service.dto.response.CursorPageResponse;
+import ITS.com.vn.course_service.dto.response.FacetSearchResponse;
 import ITS.com.vn.course_service.security.SecurityUtils;
+import ITS.com.vn.course_service.service.ContentETagService;
 import ITS.com.vn.course_service.service.CourseService;
+import ITS.com.vn.course_service.service.CourseStructureService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +24,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Course Controller - REST API endpoints for course management
@@ -30,6 +37,8 @@ import org.springframework.web.bind.annotation.*;
 public class CourseController {
 
     private final CourseService courseService;
+    private final CourseStructureService courseStructureService;
+    private final ContentETagService contentETagService;
 
     /**
      * Create a new course
@@ -47,16 +56,17 @@ public class CourseController {
     }
 
     /**
-     * Get course by ID
+     * Get course by ID (conditional: answers If-None-Match with 304)
      * GET /api/v1/courses/{id}
      */
     @GetMapping("/{id}")
     public ResponseEntity<CourseResponse> getCourseById(
             @PathVariable Long id,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest webRequest) {
         Long userId = SecurityUtils.getUserIdAsLong(authentication, false);
-        CourseResponse response = courseService.getCourseById(id, userId);
-        return ResponseEntity.ok(response);
+        return ConditionalResponses.withETag(webRequest, contentETagService.getCourseETag(id, userId),
+                () -> courseService.getCourseById(id, userId));
     }
 
     /**
@@ -75,6 +85,23 @@ public class CourseController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get all courses with keyset (cursor) pagination, newest first
+     * GET /api/v1/courses/cursor?cursor=...&size=20
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponse<CourseResponse>> getAllCoursesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String semester,
+            Authentication authentication) {
+
+        Long userId = SecurityUtils.getUserIdAsLong(authentication, false);
+        CursorPageResponse<CourseResponse> response = courseService.getAllCoursesByCursor(cursor, size, userId,
+                semester);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get courses by instructor
      * GET /api/v1/courses/instructor/{instructorId}
@@ -88,6 +115,21 @@ public class CourseController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get courses by instructor with keyset (cursor) pagination
+     * GET /api/v1/courses/instructor/{instructorId}/cursor?cursor=...&size=20
+     */
+    @GetMapping("/instructor/{instructorId}/cursor")
+    public ResponseEntity<CursorPageResponse<CourseResponse>> getCoursesByInstructorByCursor(
+            @PathVariable Long instructorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CursorPageResponse<CourseResponse> response = courseService.getCoursesByInstructorByCursor(instructorId,
+                cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get my courses (current instructor)
      * GET /api/v1/courses/my-courses
@@ -118,7 +160,24 @@ public class CourseController {
     }
 
     /**
-     * Search courses by title
+     * Get published courses with keyset (cursor) pagination over (publishedAt, id)
+     * GET /api/v1/courses/published/cursor?cursor=...&size=20
+     */
+    @GetMapping("/published/cursor")
+    public ResponseEntity<CursorPageResponse<CourseResponse>> getPublishedCoursesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String semester,
+            Authentication authentication) {
+
+        Long userId = SecurityUtils.getUserIdAsLong(authentication, false);
+        CursorPageResponse<CourseResponse> response = courseService.getPublishedCoursesByCursor(cursor, size,
+                userId, semester);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Full-text search over title, code, tags, objectives and description (ranked)
      * GET /api/v1/courses/search?keyword=java
      */
     @GetMapping("/search")
@@ -130,6 +189,30 @@ public class CourseController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Filter courses by AND/OR/NOT combinations of facets, with facet counts
+     * POST /api/v1/courses/facets/search
+     */
+    @PostMapping("/facets/search")
+    public ResponseEntity<FacetSearchResponse> searchByFacets(@Valid @RequestBody FacetSearchRequest request) {
+        FacetSearchResponse response = courseService.searchByFacets(request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Search courses with keyset (cursor) pagination, newest first
+     * GET /api/v1/courses/search/cursor?keyword=java&cursor=...&size=20
+     */
+    @GetMapping("/search/cursor")
+    public ResponseEntity<CursorPageResponse<CourseResponse>> searchCoursesByCursor(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CursorPageResponse<CourseResponse> response = courseService.searchCoursesByCursor(keyword, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Update course
      * PUT /api/v1/courses/{id}
@@ -201,4 +284,14 @@ public class CourseController {
         CourseStatsResponse stats = courseService.getCourseStats(id);
         return ResponseEntity.ok(stats);
     }
+
+    /**
+     * Get chapter/lesson tree of a course (syllabus, no lesson content)
+     * GET /api/v1/courses/{id}/structure
+     */
+    @GetMapping("/{id}/structure")
+    public ResponseEntity<CourseStructureResponse> getCourseStructure(@PathVariable Long id) {
+        CourseStructureResponse structure = courseStructureService.getStructure(id);
+        return ResponseEntity.ok(structure);
+    }
 }
@@ -0,0 +1,102 @@
+package ITS.com.vn.course_service.controller;
+
+import ITS.com.vn.course_service.dto.response.CourseImportResponse;
+import ITS.com.vn.course_service.security.SecurityUtils;
+import ITS.com.vn.course_service.service.CourseImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Course Import Controller - Creates a whole course tree from one package
+ * The package is streamed from the request body on a bounded import executor; while it runs its
+ * progress can be polled with GET. See CourseImportService for the package format.
+ * Base path: /api/v1/courses/imports
+ */
+@RestController
+@RequestMapping("/api/v1/courses/imports")
+@Slf4j
+@RequiredArgsConstructor
+public class CourseImportController {
+
+    private static final long IMPORT_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final CourseImportService courseImportService;
+
+    private final ThreadPoolTaskExecutor courseImportExecutor; // Resolved by name
+
+    /**
+     * Import a course package (JSON document)
+     * POST /api/v1/courses/imports (Content-Type: application/json)
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    public WebAsyncTask<ResponseEntity<CourseImportResponse>> importJson(
+            HttpServletRequest request,
+            Authentication authentication) {
+        return importPackage(request, false, authentication);
+    }
+
+    /**
+     * Import a course package (ZIP archive with course.json and asset files)
+     * POST /api/v1/courses/imports (Content-Type: application/zip)
+     */
+    @PostMapping(consumes = { "application/zip", "application/x-zip-compressed" })
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    public WebAsyncTask<ResponseEntity<CourseImportResponse>> importZip(
+            HttpServletRequest request,
+            Authentication authentication) {
+        return importPackage(request, true, authentication);
+    }
+
+    /**
+     * Get running and recently finished imports of the current instructor
+     * GET /api/v1/courses/imports
+     */
+    @GetMapping
+    public ResponseEntity<List<CourseImportResponse>> getImports(Authentication authentication) {
+        Long instructorId = SecurityUtils.getUserIdAsLong(authentication, true);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(courseImportService.getImports(instructorId));
+    }
+
+    /**
+     * Get progress of an import
+     * GET /api/v1/courses/imports/{importId}
+     */
+    @GetMapping("/{importId}")
+    public ResponseEntity<CourseImportResponse> getImport(
+            @PathVariable String importId,
+            Authentication authentication) {
+        Long instructorId = SecurityUtils.getUserIdAsLong(authentication, true);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(courseImportService.getImport(importId, instructorId));
+    }
+
+    private WebAsyncTask<ResponseEntity<CourseImportResponse>> importPackage(HttpServletRequest request, boolean zip,
+            Authentication authentication) {
+        Long instructorId = SecurityUtils.getUserIdAsLong(authentication, true);
+        log.info("Instructor {} importing a course package ({} bytes)", instructorId, request.getContentLengthLong());
+
+        return new WebAsyncTask<>(IMPORT_TIMEOUT_MS, courseImportExecutor, () -> {
+            try (InputStream body = request.getInputStream()) {
+                CourseImportResponse response = courseImportService.importPackage(body, zip, instructorId);
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            }
+        });
+    }
+}
@@ -1,16 +1,26 @@
 package ITS.com.vn.course_service.controller;
 
+import ITS.com.vn.course_service.domain.enums.EnrollmentStatus;
+import ITS.com.vn.course_service.dto.request.BulkEnrollmentRequest;
+import ITS.com.vn.course_service.dto.response.BulkEnrollmentResponse;
 import ITS.com.vn.course_service.dto.response.EnrollmentResponse;
+import ITS.com.vn.course_service.exception.BadRequestException;
 import ITS.com.vn.course_service.security.SecurityUtils;
 import ITS.com.vn.course_service.service.EnrollmentService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -39,6 +49,49 @@ public class EnrollmentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Đăng ký danh sách sinh viên vào khóa học (Teacher only)
+     * POST /api/v1/courses/{courseId}/enrollments/bulk
+     */
+    @PostMapping(value = "/courses/{courseId}/enrollments/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<BulkEnrollmentResponse> enrollRoster(
+            @PathVariable Long courseId,
+            @Valid @RequestBody BulkEnrollmentRequest request,
+            Authentication authentication) {
+
+        log.info("Bulk enrolling {} students in course {}", request.getStudentIds().size(), courseId);
+
+        BulkEnrollmentResponse response = enrollmentService.enrollStudents(courseId, request.getStudentIds(),
+                rosterOwnerId(authentication));
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Đăng ký danh sách sinh viên từ file CSV (Teacher only)
+     * POST /api/v1/courses/{courseId}/enrollments/bulk (Content-Type: text/csv)
+     */
+    @PostMapping(value = "/courses/{courseId}/enrollments/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<BulkEnrollmentResponse> enrollRosterCsv(
+            @PathVariable Long courseId,
+            InputStream csv,
+            Authentication authentication) {
+
+        log.info("Bulk enrolling students in course {} from CSV", courseId);
+
+        BulkEnrollmentResponse response = enrollmentService.enrollStudentsFromCsv(courseId, csv,
+                rosterOwnerId(authentication));
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    // Admins may enroll into any course; teachers only into their own
+    private static Long rosterOwnerId(Authentication authentication) {
+        return SecurityUtils.hasRole(authentication, "ADMIN")
+                ? null
+                : SecurityUtils.getUserIdAsLong(authentication, true);
+    }
+
     /**
      * Lấy tất cả khóa học của student hiện tại
      * GET /api/v1/courses/my-courses
@@ -52,15 +105,24 @@ public class EnrollmentController {
         Long studentId = SecurityUtils.getUserIdAsLong(authentication, true);
         log.debug("Getting courses for student {}, status filter: {}", studentId, status);
 
-        List<EnrollmentResponse> enrollments = enrollmentService.getMyEnrollments(studentId);
+        List<EnrollmentResponse> enrollments = enrollmentService.getMyEnrollments(studentId, parseStatus(status));
+        return ResponseEntity.ok(enrollments);
+    }
 
-        // Filter by status if provided
-        if (status != null && !status.isEmpty()) {
-            enrollments = enrollments.stream()
-                    .filter(e -> e.getStatus().name().equalsIgnoreCase(status))
-                    .toList();
-        }
+    /**
+     * Lấy lịch sử học tập (transcript) của student hiện tại, gồm cả khóa học của các kỳ trước
+     * GET /api/v1/courses/my-courses/transcript
+     */
+    @GetMapping("/courses/my-courses/transcript")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<List<EnrollmentResponse>> getMyTranscript(
+            Authentication authentication,
+            @RequestParam(required = false) String status) {
 
+        Long studentId = SecurityUtils.getUserIdAsLong(authentication, true);
+        log.debug("Getting transcript for student {}, status filter: {}", studentId, status);
+
+        List<EnrollmentResponse> enrollments = enrollmentService.getTranscript(studentId, parseStatus(status));
         return ResponseEntity.ok(enrollments);
     }
 
@@ -76,18 +138,45 @@ public class EnrollmentController {
 
         log.debug("Getting enrollments for course {}, status filter: {}", courseId, status);
 
-        List<EnrollmentResponse> enrollments = enrollmentService.getCourseEnrollments(courseId);
+        List<EnrollmentResponse> enrollments = enrollmentService.getCourseEnrollments(courseId, parseStatus(status));
+        return ResponseEntity.ok(enrollments);
+    }
+
+    /**
+     * Lấy danh sách sinh viên đã enroll vào course theo trang (Teacher only)
+     * GET /api/v1/courses/{courseId}/enrollments/page?page=0&size=50&sort=enrolledAt,desc
+     */
+    @GetMapping("/courses/{courseId}/enrollments/page")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<Page<EnrollmentResponse>> getCourseEnrollmentsPage(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) String status,
+            @PageableDefault(size = 50, sort = "id") Pageable pageable) {
 
-        // Filter by status if provided
-        if (status != null && !status.isEmpty()) {
-            enrollments = enrollments.stream()
-                    .filter(e -> e.getStatus().name().equalsIgnoreCase(status))
-                    .toList();
-        }
+        log.debug("Getting enrollments page for course {}, status filter: {}", courseId, status);
 
+        Page<EnrollmentResponse> enrollments = enrollmentService.getCourseEnrollments(courseId, parseStatus(status),
+                pageable);
         return ResponseEntity.ok(enrollments);
     }
 
+    /**
+     * Đánh dấu hoàn thành bài học (tiến độ được tính lại từ các bài đã hoàn thành)
+     * POST /api/v1/lessons/{lessonId}/complete
+     */
+    @PostMapping("/lessons/{lessonId}/complete")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<EnrollmentResponse> completeLesson(
+            @PathVariable Long lessonId,
+            Authentication authentication) {
+
+        Long studentId = SecurityUtils.getUserIdAsLong(authentication, true);
+        log.info("Student {} completing lesson {}", studentId, lessonId);
+
+        EnrollmentResponse response = enrollmentService.completeLesson(lessonId, studentId);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Cập nhật tiến độ học tập
      * PATCH /api/v1/enrollments/{enrollmentId}/progress
@@ -154,4 +243,15 @@ public class EnrollmentController {
         boolean enrolled = enrollmentService.isEnrolled(courseId, studentId);
         return ResponseEntity.ok(Map.of("enrolled", enrolled));
     }
+
+    private EnrollmentStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return EnrollmentStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid enrollment status: " + status);
+        }
+    }
 }
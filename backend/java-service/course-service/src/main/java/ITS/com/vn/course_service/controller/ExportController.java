@@ -0,0 +1,80 @@
+package ITS.com.vn.course_service.controller;
+
+import ITS.com.vn.course_service.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+/**
+ * Export Controller - NDJSON exports for the analytics warehouse (Admin only)
+ * Every endpoint streams the whole result without paging. The Export-Watermark response header
+ * (ISO date-time) is where the export stops; pass it as updatedSince of the next export for an
+ * incremental one.
+ * Base path: /api/v1/exports
+ */
+@RestController
+@RequestMapping("/api/v1/exports")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+public class ExportController {
+
+    public static final String EXPORT_WATERMARK = "Export-Watermark";
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ExportService exportService;
+
+    /**
+     * Export courses
+     * GET /api/v1/exports/courses?updatedSince=2025-01-01T00:00:00
+     */
+    @GetMapping("/courses")
+    public ResponseEntity<StreamingResponseBody> exportCourses(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince) {
+        log.info("Exporting courses updated since {}", updatedSince);
+        LocalDateTime watermark = exportService.watermark();
+        return ndjson(watermark, out -> exportService.exportCourses(updatedSince, watermark, out));
+    }
+
+    /**
+     * Export course structure (one line per lesson, with its chapter and version)
+     * GET /api/v1/exports/structure?updatedSince=2025-01-01T00:00:00
+     */
+    @GetMapping("/structure")
+    public ResponseEntity<StreamingResponseBody> exportStructure(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince) {
+        log.info("Exporting course structure updated since {}", updatedSince);
+        LocalDateTime watermark = exportService.watermark();
+        return ndjson(watermark, out -> exportService.exportStructure(updatedSince, watermark, out));
+    }
+
+    /**
+     * Export enrollments, including archived ones
+     * GET /api/v1/exports/enrollments?updatedSince=2025-01-01T00:00:00&courseId=1
+     */
+    @GetMapping("/enrollments")
+    public ResponseEntity<StreamingResponseBody> exportEnrollments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(required = false) Long courseId) {
+        log.info("Exporting enrollments updated since {} (course {})", updatedSince, courseId);
+        LocalDateTime watermark = exportService.watermark();
+        return ndjson(watermark, out -> exportService.exportEnrollments(updatedSince, watermark, courseId, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(LocalDateTime watermark, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .header(EXPORT_WATERMARK, watermark.toString())
+                .body(body);
+    }
+}
@@ -1,16 +1,23 @@
 package ITS.com.vn.course_service.controller;
 
 import ITS.com.vn.course_service.dto.request.CreateLessonRequest;
+import ITS.com.vn.course_service.dto.request.MoveLessonRequest;
+import ITS.com.vn.course_service.dto.request.ReorderLessonsRequest;
+import ITS.com.vn.course_service.dto.response.ChapterCompletionResponse;
 import ITS.com.vn.course_service.dto.response.LessonResponse;
 import ITS.com.vn.course_service.security.SecurityUtils;
+import ITS.com.vn.course_service.service.ContentETagService;
 import ITS.com.vn.course_service.service.LessonService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,6 +32,7 @@ import java.util.List;
 public class LessonController {
 
     private final LessonService lessonService;
+    private final ContentETagService contentETagService;
 
     /**
      * Create a new lesson
@@ -43,23 +51,42 @@ public class LessonController {
     }
 
     /**
-     * Get all lessons for a chapter
+     * Get all lessons for a chapter (conditional: answers If-None-Match with 304)
      * GET /api/v1/chapters/{chapterId}/lessons
      */
     @GetMapping
-    public ResponseEntity<List<LessonResponse>> getLessonsByChapter(@PathVariable Long chapterId) {
-        List<LessonResponse> response = lessonService.getLessonsByChapter(chapterId);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<List<LessonResponse>> getLessonsByChapter(@PathVariable Long chapterId,
+            WebRequest webRequest) {
+        return ConditionalResponses.withETag(webRequest, contentETagService.getLessonListETag(chapterId),
+                () -> lessonService.getLessonsByChapter(chapterId));
+    }
+
+    /**
+     * Get completion of the chapter's lessons for the current student
+     * GET /api/v1/chapters/{chapterId}/lessons/completion
+     */
+    @GetMapping("/completion")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<ChapterCompletionResponse> getChapterCompletion(
+            @PathVariable Long chapterId,
+            Authentication authentication) {
+
+        Long studentId = SecurityUtils.getUserIdAsLong(authentication, true);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(lessonService.getChapterCompletion(chapterId, studentId));
     }
 
     /**
-     * Get lesson by ID
+     * Get lesson by ID (conditional: answers If-None-Match with 304)
      * GET /api/v1/lessons/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<LessonResponse> getLessonById(@PathVariable Long id) {
-        LessonResponse response = lessonService.getLessonById(id);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<LessonResponse> getLessonById(@PathVariable Long id, WebRequest webRequest,
+            Authentication authentication) {
+        Long userId = SecurityUtils.getUserIdAsLong(authentication, false);
+        return ConditionalResponses.withETag(webRequest, contentETagService.getLessonETag(id, userId),
+                () -> lessonService.getLessonById(id, userId));
     }
 
     /**
@@ -78,6 +105,39 @@ public class LessonController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Reorder the lessons of a chapter
+     * PUT /api/v1/chapters/{chapterId}/lessons/reorder
+     */
+    @PutMapping("/reorder")
+    public ResponseEntity<List<LessonResponse>> reorderLessons(
+            @PathVariable Long chapterId,
+            @Valid @RequestBody ReorderLessonsRequest request,
+            Authentication authentication) {
+
+        Long instructorId = SecurityUtils.getUserIdAsLong(authentication, true);
+        List<LessonResponse> response = lessonService.reorderLessons(chapterId, request, instructorId);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Move a lesson after another one, optionally into another chapter of the same version
+     * PUT /api/v1/chapters/{chapterId}/lessons/{id}/position
+     */
+    @PutMapping("/{id}/position")
+    public ResponseEntity<List<LessonResponse>> moveLesson(
+            @PathVariable Long chapterId,
+            @PathVariable Long id,
+            @RequestBody MoveLessonRequest request,
+            Authentication authentication) {
+
+        Long instructorId = SecurityUtils.getUserIdAsLong(authentication, true);
+        List<LessonResponse> response = lessonService.moveLesson(chapterId, id, request, instructorId);
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Delete lesson
      * DELETE /api/v1/lessons/{id}
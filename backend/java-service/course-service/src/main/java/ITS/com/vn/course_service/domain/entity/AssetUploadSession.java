@@ -0,0 +1,74 @@
+package ITS.com.vn.course_service.domain.entity;
+
+import ITS.com.vn.course_service.domain.enums.UploadStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumable upload of a lesson asset
+ * Chunks are appended to a staging file; receivedBytes is the offset the next chunk must start at
+ */
+@Entity
+@Table(name = "asset_upload_sessions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AssetUploadSession {
+
+    @Id
+    @Column(length = 36)
+    private String id; // UUID, also names the staging file
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "lesson_id", nullable = false)
+    private Lesson lesson;
+
+    @Column(name = "instructor_id", nullable = false)
+    private Long instructorId;
+
+    @Column(nullable = false, length = 255)
+    private String fileName;
+
+    @Column(nullable = false, length = 100)
+    private String mimeType;
+
+    @Column(nullable = false)
+    private Long totalSize;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long receivedBytes = 0L;
+
+    @Column(length = 255)
+    private String expectedChecksum; // Optional sha256:... sent by the client
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private UploadStatus status = UploadStatus.IN_PROGRESS;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "asset_id")
+    private AssetMetadata asset;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public boolean isComplete() {
+        return receivedBytes.equals(totalSize);
+    }
+}
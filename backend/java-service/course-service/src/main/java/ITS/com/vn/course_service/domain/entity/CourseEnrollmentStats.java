@@ -0,0 +1,51 @@
+package ITS.com.vn.course_service.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Counter row per course, maintained by EnrollmentStatsService in the same transaction
+ * as the enrollment write so catalog and stats reads are single-row lookups
+ */
+@Entity
+@Table(name = "course_enrollment_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseEnrollmentStats {
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(name = "total_count", nullable = false)
+    @Builder.Default
+    private Long totalCount = 0L; // All enrollments, including dropped
+
+    @Column(name = "current_count", nullable = false)
+    @Builder.Default
+    private Long currentCount = 0L; // Non-dropped enrollments
+
+    @Column(name = "active_count", nullable = false)
+    @Builder.Default
+    private Long activeCount = 0L;
+
+    @Column(name = "completed_count", nullable = false)
+    @Builder.Default
+    private Long completedCount = 0L;
+
+    @Column(name = "active_progress_sum", nullable = false)
+    @Builder.Default
+    private Long activeProgressSum = 0L; // Sum of progress over ACTIVE enrollments
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public double getAverageProgress() {
+        return activeCount > 0 ? (double) activeProgressSum / activeCount : 0.0;
+    }
+}
@@ -15,8 +15,10 @@ import java.time.LocalDateTime;
 @Builder
 public class CourseTag {
 
+    // Pooled sequence ids (see V11) let Hibernate batch child inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "courseTagIdGenerator")
+    @SequenceGenerator(name = "courseTagIdGenerator", sequenceName = "course_tags_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
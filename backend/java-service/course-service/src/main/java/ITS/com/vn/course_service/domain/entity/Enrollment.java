@@ -41,6 +41,12 @@ public class Enrollment {
     @Builder.Default
     private Integer progress = 0; // 0-100, cache tiến độ để query nhanh
 
+    @Column(name = "completed_lessons")
+    private byte[] completedLessons; // Bitmap bài học đã hoàn thành, theo vị trí trong completion layout
+
+    @Column(name = "completion_layout_id")
+    private Long completionLayoutId; // Thứ tự bài học (lesson_layouts) mà bitmap được ghi theo
+
     @Column(name = "last_access_at")
     private LocalDateTime lastAccessAt; // Lần truy cập cuối
 
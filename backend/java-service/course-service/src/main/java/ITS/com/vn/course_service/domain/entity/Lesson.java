@@ -9,6 +9,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @Entity
 @Table(name = "lessons")
@@ -27,6 +28,9 @@ public class Lesson {
     @JoinColumn(name = "chapter_id", nullable = false)
     private Chapter chapter;
 
+    @Column(name = "lesson_key", nullable = false, updatable = false)
+    private UUID lessonKey; // Stable across course versions: completions carry over by this key
+
     @Column(nullable = false, length = 255)
     private String title;
 
@@ -70,6 +74,13 @@ public class Lesson {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    @PrePersist
+    void assignLessonKey() {
+        if (lessonKey == null) {
+            lessonKey = UUID.randomUUID();
+        }
+    }
+
     // Helper methods
     public void addAsset(AssetMetadata asset) {
         assets.add(asset);
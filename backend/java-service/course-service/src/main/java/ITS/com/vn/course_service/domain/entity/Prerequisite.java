@@ -16,8 +16,10 @@ import java.time.LocalDateTime;
 @Builder
 public class Prerequisite {
 
+    // Pooled sequence ids (see V11) let Hibernate batch child inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "prerequisiteIdGenerator")
+    @SequenceGenerator(name = "prerequisiteIdGenerator", sequenceName = "prerequisites_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
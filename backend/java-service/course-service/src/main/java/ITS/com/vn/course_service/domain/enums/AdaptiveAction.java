@@ -0,0 +1,18 @@
+package ITS.com.vn.course_service.domain.enums;
+
+public enum AdaptiveAction {
+    REDIRECT_TO_REMEDIATION(true), // Send the learner to a remedial lesson
+    UNLOCK_CHALLENGE(true), // Open an optional harder lesson
+    REPEAT_LESSON(false), // Retake the source lesson
+    CONTINUE(false); // Go on normally (also the decision when no rule matches)
+
+    private final boolean requiresTarget;
+
+    AdaptiveAction(boolean requiresTarget) {
+        this.requiresTarget = requiresTarget;
+    }
+
+    public boolean requiresTarget() {
+        return requiresTarget;
+    }
+}
@@ -0,0 +1,9 @@
+package ITS.com.vn.course_service.domain.enums;
+
+public enum CourseFacet {
+    STATUS, // CourseStatus name
+    VISIBILITY, // CourseVisibility name
+    SEMESTER,
+    CREDITS,
+    TAG // Tag ID
+}
@@ -0,0 +1,7 @@
+package ITS.com.vn.course_service.domain.enums;
+
+public enum ImportStatus {
+    IN_PROGRESS,
+    COMPLETED,
+    FAILED
+}
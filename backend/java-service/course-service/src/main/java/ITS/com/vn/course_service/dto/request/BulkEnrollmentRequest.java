@@ -0,0 +1,22 @@
+package ITS.com.vn.course_service.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentRequest {
+
+    @NotEmpty(message = "Student IDs list cannot be empty")
+    @Size(max = 5000, message = "A roster must not exceed 5000 students")
+    private List<@NotNull Long> studentIds;
+}
@@ -0,0 +1,29 @@
+package ITS.com.vn.course_service.dto.request;
+
+import ITS.com.vn.course_service.domain.enums.AdaptiveAction;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreateAdaptiveRuleRequest {
+
+    @NotBlank(message = "Condition is required")
+    @Size(max = 100, message = "Condition must not exceed 100 characters")
+    private String condition; // e.g., "SCORE < 60%", "SCORE >= 95% AND ATTEMPTS <= 1"
+
+    @NotNull(message = "Action is required")
+    private AdaptiveAction action;
+
+    private Long targetLessonId; // Required for REDIRECT_TO_REMEDIATION and UNLOCK_CHALLENGE
+
+    @Size(max = 5000, message = "Description must not exceed 5000 characters")
+    private String description;
+}
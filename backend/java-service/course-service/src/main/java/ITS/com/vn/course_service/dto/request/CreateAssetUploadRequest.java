@@ -0,0 +1,33 @@
+package ITS.com.vn.course_service.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreateAssetUploadRequest {
+
+    @NotBlank(message = "File name is required")
+    @Size(max = 255, message = "File name must not exceed 255 characters")
+    private String fileName;
+
+    @NotBlank(message = "MIME type is required")
+    @Size(max = 100, message = "MIME type must not exceed 100 characters")
+    private String mimeType;
+
+    @NotNull(message = "Total size is required")
+    @Positive(message = "Total size must be positive")
+    private Long totalSize;
+
+    @Pattern(regexp = "sha256:[0-9a-fA-F]{64}", message = "Checksum must look like sha256:<64 hex digits>")
+    private String checksum; // Optional, verified when the upload completes
+}
@@ -11,6 +11,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.UUID;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,4 +36,6 @@ public class CreateLessonRequest {
     private String content; // For TEXT type lessons
 
     private Integer estimatedDuration; // in minutes
+
+    private UUID lessonKey; // Key of the same lesson in an earlier version, so completions carry over
 }
@@ -0,0 +1,27 @@
+package ITS.com.vn.course_service.dto.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EvaluateAdaptiveRulesRequest {
+
+    @DecimalMin(value = "0.0", message = "Score must be between 0 and 100")
+    @DecimalMax(value = "100.0", message = "Score must be between 0 and 100")
+    private Double score; // Percent of the maximum score
+
+    @DecimalMin(value = "0.0", message = "Mastery must be between 0 and 100")
+    @DecimalMax(value = "100.0", message = "Mastery must be between 0 and 100")
+    private Double mastery; // Percent
+
+    @Min(value = 0, message = "Attempts must not be negative")
+    private Integer attempts;
+}
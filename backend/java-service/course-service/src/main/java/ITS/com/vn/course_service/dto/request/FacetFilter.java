@@ -0,0 +1,40 @@
+package ITS.com.vn.course_service.dto.request;
+
+import ITS.com.vn.course_service.domain.enums.CourseFacet;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Boolean filter over course facets; the node type is deduced from its property:
+ * {"facet": "SEMESTER", "values": ["2024-1", "2024-2"]} matches any of the values,
+ * {"and": [...]}, {"or": [...]} and {"not": {...}} combine filters
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.DEDUCTION)
+@JsonSubTypes({
+        @JsonSubTypes.Type(FacetFilter.Match.class),
+        @JsonSubTypes.Type(FacetFilter.And.class),
+        @JsonSubTypes.Type(FacetFilter.Or.class),
+        @JsonSubTypes.Type(FacetFilter.Not.class)
+})
+public sealed interface FacetFilter {
+
+    record Match(@NotNull(message = "Facet is required") CourseFacet facet,
+            @NotEmpty(message = "At least one facet value is required") List<String> values) implements FacetFilter {
+    }
+
+    record And(@NotEmpty(message = "AND needs at least one filter") List<@Valid @NotNull FacetFilter> and)
+            implements FacetFilter {
+    }
+
+    record Or(@NotEmpty(message = "OR needs at least one filter") List<@Valid @NotNull FacetFilter> or)
+            implements FacetFilter {
+    }
+
+    record Not(@Valid @NotNull(message = "NOT needs a filter") FacetFilter not) implements FacetFilter {
+    }
+}
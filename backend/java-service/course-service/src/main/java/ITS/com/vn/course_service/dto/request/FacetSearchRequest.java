@@ -0,0 +1,33 @@
+package ITS.com.vn.course_service.dto.request;
+
+import ITS.com.vn.course_service.domain.enums.CourseFacet;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetSearchRequest {
+
+    @Valid
+    private FacetFilter filter; // Null matches all courses
+
+    @Builder.Default
+    @Min(value = 0, message = "Page must not be negative")
+    private int page = 0;
+
+    @Builder.Default
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 100, message = "Size must be at most 100")
+    private int size = 20;
+
+    private Set<CourseFacet> facets; // Facets to count; null counts all
+}
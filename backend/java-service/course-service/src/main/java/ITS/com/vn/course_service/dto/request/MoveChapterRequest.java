@@ -0,0 +1,15 @@
+package ITS.com.vn.course_service.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MoveChapterRequest {
+
+    private Long afterChapterId; // Chapter to place it after; null to move it to the front
+}
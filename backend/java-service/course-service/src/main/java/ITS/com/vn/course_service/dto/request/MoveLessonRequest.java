@@ -0,0 +1,16 @@
+package ITS.com.vn.course_service.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MoveLessonRequest {
+
+    private Long targetChapterId; // Chapter of the same version to move it to; null to stay in its chapter
+    private Long afterLessonId; // Lesson to place it after; null to move it to the front
+}
@@ -0,0 +1,19 @@
+package ITS.com.vn.course_service.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReorderLessonsRequest {
+
+    @NotEmpty(message = "Lesson IDs list cannot be empty")
+    private List<Long> lessonIds;
+}
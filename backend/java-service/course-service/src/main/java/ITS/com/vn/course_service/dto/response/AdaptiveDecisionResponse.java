@@ -0,0 +1,20 @@
+package ITS.com.vn.course_service.dto.response;
+
+import ITS.com.vn.course_service.domain.enums.AdaptiveAction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdaptiveDecisionResponse {
+
+    private Long lessonId;
+    private AdaptiveAction action; // CONTINUE when no rule matched
+    private Long nextLessonId; // Lesson the action leads to, null for CONTINUE
+    private Long ruleId; // Rule that decided, null when none matched
+    private String condition;
+}
@@ -0,0 +1,23 @@
+package ITS.com.vn.course_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdaptiveRuleResponse {
+
+    private Long id;
+    private Long sourceLessonId;
+    private Long targetLessonId;
+    private String condition;
+    private String action;
+    private String description;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,23 @@
+package ITS.com.vn.course_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AssetResponse {
+
+    private Long id;
+    private String storageUrl;
+    private String mimeType;
+    private Long sizeBytes;
+    private String checksum;
+    private String originalFileName;
+    private LocalDateTime uploadedAt;
+}
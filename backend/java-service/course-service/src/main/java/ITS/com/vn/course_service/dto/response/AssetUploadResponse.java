@@ -0,0 +1,27 @@
+package ITS.com.vn.course_service.dto.response;
+
+import ITS.com.vn.course_service.domain.enums.UploadStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AssetUploadResponse {
+
+    private String uploadId;
+    private Long lessonId;
+    private String fileName;
+    private String mimeType;
+    private Long totalSize;
+    private Long receivedBytes; // Offset the next chunk must start at
+    private Long maxChunkSize;
+    private UploadStatus status;
+    private LocalDateTime expiresAt;
+    private AssetResponse asset; // Set once the upload is completed
+}
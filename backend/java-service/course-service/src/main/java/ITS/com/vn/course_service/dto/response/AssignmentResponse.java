@@ -0,0 +1,27 @@
+package ITS.com.vn.course_service.dto.response;
+
+import ITS.com.vn.course_service.domain.enums.AssignmentType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AssignmentResponse {
+
+    private Long id;
+    private String title;
+    private String description;
+    private AssignmentType type;
+    private LocalDateTime dueDate;
+    private Integer maxScore;
+    private Map<String, Object> config;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
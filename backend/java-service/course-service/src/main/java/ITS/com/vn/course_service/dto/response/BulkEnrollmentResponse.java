@@ -0,0 +1,21 @@
+package ITS.com.vn.course_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentResponse {
+
+    private Long courseId;
+    private Integer requestedCount; // Distinct student IDs in the roster
+    private Integer enrolledCount;
+    private List<Long> enrolledStudentIds;
+    private List<Long> alreadyEnrolledStudentIds; // Skipped
+}
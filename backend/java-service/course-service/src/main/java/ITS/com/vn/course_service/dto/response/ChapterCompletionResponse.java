@@ -0,0 +1,22 @@
+package ITS.com.vn.course_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChapterCompletionResponse {
+
+    private Long chapterId;
+    private Integer lessonCount;
+    private Integer completedCount;
+    private Boolean isCompleted; // Every lesson of the chapter is completed
+    private List<Long> completedLessonIds; // In reading order
+    private Long nextLessonId; // First lesson of the chapter not completed yet, null if none
+}
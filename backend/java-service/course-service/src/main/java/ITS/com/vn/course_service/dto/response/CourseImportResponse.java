@@ -0,0 +1,27 @@
+package ITS.com.vn.course_service.dto.response;
+
+import ITS.com.vn.course_service.domain.enums.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseImportResponse {
+
+    private String importId;
+    private ImportStatus status;
+    private Long courseId; // Set once the course row is created
+    private Long receivedBytes;
+    private Integer chapters; // Chapters read so far
+    private Integer lessons; // Lessons read so far
+    private Integer assets; // Assets stored so far
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error; // Set when the import failed
+}
@@ -0,0 +1,34 @@
+package ITS.com.vn.course_service.dto.response;
+
+import ITS.com.vn.course_service.domain.enums.LessonType;
+import ITS.com.vn.course_service.domain.enums.VersionStatus;
+
+import java.util.List;
+
+/**
+ * Immutable chapter/lesson tree of a course version (no lesson content)
+ * Instances are cached and shared between requests
+ */
+public record CourseStructureResponse(
+        Long courseId,
+        Long versionId,
+        String version,
+        VersionStatus versionStatus,
+        int totalLessons,
+        int totalDuration, // in minutes
+        List<ChapterNode> chapters) {
+
+    public CourseStructureResponse {
+        chapters = List.copyOf(chapters);
+    }
+
+    public record ChapterNode(Long id, String title, Integer sequence, List<LessonNode> lessons) {
+
+        public ChapterNode {
+            lessons = List.copyOf(lessons);
+        }
+    }
+
+    public record LessonNode(Long id, String title, Integer sequence, LessonType type, Integer estimatedDuration) {
+    }
+}
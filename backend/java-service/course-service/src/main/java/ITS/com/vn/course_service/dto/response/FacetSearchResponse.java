@@ -0,0 +1,23 @@
+package ITS.com.vn.course_service.dto.response;
+
+import ITS.com.vn.course_service.domain.enums.CourseFacet;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetSearchResponse {
+
+    private List<CourseResponse> content; // Newest first
+    private int page;
+    private int size;
+    private long totalElements;
+    private Map<CourseFacet, Map<String, Long>> facets; // Facet value -> number of matching courses
+}
@@ -7,6 +7,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 
 @Data
 @NoArgsConstructor
@@ -15,15 +17,19 @@ import java.time.LocalDateTime;
 public class LessonResponse {
 
     private Long id;
+    private UUID lessonKey; // Stable across course versions
     private String title;
     private String description;
     private LessonType type;
     private Integer sequence;
     private Double masteryThreshold;
-    private String content;
+    private String content; // Only on lesson detail, null in lists
     private Integer estimatedDuration;
     private Boolean isCompleted; // Computed for current user
-    private Long nextLessonId;
+    private Long previousLessonId; // In reading order, across chapters
+    private Long nextLessonId; // In reading order, across chapters
+    private List<AssetResponse> assets; // Only on lesson detail
+    private List<AssignmentResponse> assignments; // Only on lesson detail
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -5,6 +5,7 @@ import ITS.com.vn.course_service.dto.request.CreateChapterRequest;
 import ITS.com.vn.course_service.dto.request.CreateCourseRequest;
 import ITS.com.vn.course_service.dto.request.CreateLessonRequest;
 import ITS.com.vn.course_service.dto.response.*;
+import ITS.com.vn.course_service.repository.LessonRepository.LessonSummary;
 import org.mapstruct.*;
 
 import java.util.List;
@@ -65,6 +66,11 @@ public interface CourseMapper {
     @Mapping(target = "lessons", source = "lessons")
     ChapterResponse toResponse(Chapter chapter);
 
+    // Chapter without lessons; callers attach lesson summaries loaded separately
+    @Named("withoutLessons")
+    @Mapping(target = "lessons", ignore = true)
+    ChapterResponse toResponseWithoutLessons(Chapter chapter);
+
     List<ChapterResponse> toChapterResponseList(List<Chapter> chapters);
 
     // Lesson mappings
@@ -79,11 +85,33 @@ public interface CourseMapper {
     Lesson toEntity(CreateLessonRequest request);
 
     @Mapping(target = "isCompleted", ignore = true)
+    @Mapping(target = "previousLessonId", ignore = true)
     @Mapping(target = "nextLessonId", ignore = true)
+    @Mapping(target = "assets", ignore = true)
+    @Mapping(target = "assignments", ignore = true)
     LessonResponse toResponse(Lesson lesson);
 
     List<LessonResponse> toLessonResponseList(List<Lesson> lessons);
 
+    // Lesson list item (no content)
+    @Mapping(target = "content", ignore = true)
+    @Mapping(target = "isCompleted", ignore = true)
+    @Mapping(target = "previousLessonId", ignore = true)
+    @Mapping(target = "nextLessonId", ignore = true)
+    @Mapping(target = "assets", ignore = true)
+    @Mapping(target = "assignments", ignore = true)
+    LessonResponse toResponse(LessonSummary lesson);
+
+    List<LessonResponse> toLessonSummaryResponseList(List<LessonSummary> lessons);
+
+    AssetResponse toResponse(AssetMetadata asset);
+
+    List<AssetResponse> toAssetResponseList(List<AssetMetadata> assets);
+
+    AssignmentResponse toResponse(Assignment assignment);
+
+    List<AssignmentResponse> toAssignmentResponseList(List<Assignment> assignments);
+
     // Tag mappings
     TagResponse toResponse(Tag tag);
 
@@ -0,0 +1,41 @@
+package ITS.com.vn.course_service.repository;
+
+import ITS.com.vn.course_service.domain.entity.AdaptiveRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AdaptiveRuleRepository extends JpaRepository<AdaptiveRule, Long> {
+
+    // Rule columns needed to compile the rules of a lesson, in evaluation (creation) order
+    @Query("SELECT r.id AS id, r.condition AS condition, r.action AS action, t.id AS targetLessonId, " +
+            "r.description AS description, r.createdAt AS createdAt " +
+            "FROM AdaptiveRule r LEFT JOIN r.targetLesson t " +
+            "WHERE r.sourceLesson.id = :lessonId ORDER BY r.id")
+    List<RuleDefinition> findDefinitionsBySourceLessonId(@Param("lessonId") Long lessonId);
+
+    // Hash of a lesson's existence and its rules (with their targets), to check cached compiled rules are current
+    @Query(value = "SELECT md5(concat((SELECT count(*) FROM lessons WHERE id = :lessonId), '|', " +
+            "(SELECT string_agg(concat(r.id, ':', r.target_lesson_id), ',' ORDER BY r.id) " +
+            "FROM adaptive_rules r WHERE r.source_lesson_id = :lessonId)))", nativeQuery = true)
+    String findRulesStamp(@Param("lessonId") Long lessonId);
+
+    interface RuleDefinition {
+        Long getId();
+
+        String getCondition();
+
+        String getAction();
+
+        Long getTargetLessonId();
+
+        String getDescription();
+
+        LocalDateTime getCreatedAt();
+    }
+}
@@ -0,0 +1,14 @@
+package ITS.com.vn.course_service.repository;
+
+import ITS.com.vn.course_service.domain.entity.AssetMetadata;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AssetMetadataRepository extends JpaRepository<AssetMetadata, Long> {
+
+    // Find assets by lesson ID
+    List<AssetMetadata> findByLessonIdOrderByIdAsc(Long lessonId);
+}
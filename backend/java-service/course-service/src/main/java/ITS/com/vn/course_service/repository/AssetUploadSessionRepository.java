@@ -0,0 +1,32 @@
+package ITS.com.vn.course_service.repository;
+
+import ITS.com.vn.course_service.domain.entity.AssetUploadSession;
+import ITS.com.vn.course_service.domain.enums.UploadStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AssetUploadSessionRepository extends JpaRepository<AssetUploadSession, String> {
+
+    /**
+     * Move the upload offset forward, only if nobody else moved it since it was read
+     *
+     * @return 1 if the offset was updated, 0 if the session changed meanwhile
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE AssetUploadSession s SET s.receivedBytes = :receivedBytes, s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.id = :id AND s.receivedBytes = :expectedBytes AND s.status = :status")
+    int advanceOffset(@Param("id") String id,
+            @Param("expectedBytes") Long expectedBytes,
+            @Param("receivedBytes") Long receivedBytes,
+            @Param("status") UploadStatus status);
+
+    // Sessions that were not finished in time
+    List<AssetUploadSession> findByStatusAndExpiresAtBefore(UploadStatus status, LocalDateTime time);
+}
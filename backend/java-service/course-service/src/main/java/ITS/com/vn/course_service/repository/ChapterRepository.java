@@ -15,6 +15,11 @@ public interface ChapterRepository extends JpaRepository<Chapter, Long> {
     // Find chapters by version ID
     List<Chapter> findByVersionIdOrderBySequenceAsc(Long versionId);
 
+    // Chapter outline (no description) for the course structure snapshot
+    @Query("SELECT c.id AS id, c.title AS title, c.sequence AS sequence FROM Chapter c " +
+            "WHERE c.version.id = :versionId ORDER BY c.sequence ASC")
+    List<ChapterOutline> findOutlinesByVersionId(@Param("versionId") Long versionId);
+
     // Find chapter with lessons
     @Query("SELECT c FROM Chapter c LEFT JOIN FETCH c.lessons WHERE c.id = :id")
     Optional<Chapter> findByIdWithLessons(@Param("id") Long id);
@@ -22,4 +27,12 @@ public interface ChapterRepository extends JpaRepository<Chapter, Long> {
     // Get max sequence for a version
     @Query("SELECT COALESCE(MAX(c.sequence), 0) FROM Chapter c WHERE c.version.id = :versionId")
     Integer getMaxSequenceByVersionId(@Param("versionId") Long versionId);
+
+    interface ChapterOutline {
+        Long getId();
+
+        String getTitle();
+
+        Integer getSequence();
+    }
 }
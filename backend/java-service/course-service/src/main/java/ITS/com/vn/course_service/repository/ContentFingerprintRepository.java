@@ -0,0 +1,117 @@
+package ITS.com.vn.course_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cheap version fingerprints of course content for conditional GETs (ETags)
+ * A fingerprint is built from the ids and xmin (last writing transaction) of every row a response
+ * is mapped from, so any committed insert, update or delete of those rows changes it; unlike
+ * updated_at it does not depend on when concurrent transactions commit
+ * An empty result means the resource does not exist (the regular read then answers 404)
+ */
+@Repository
+@RequiredArgsConstructor
+public class ContentFingerprintRepository {
+
+    private static final String COURSE_FINGERPRINT = """
+            SELECT format('%s|%s|%s|%s', cc.xmin, s.xmin, e.id, e.xmin)
+            FROM course_catalog cc
+            LEFT JOIN course_enrollment_stats s ON s.course_id = cc.course_id
+            LEFT JOIN enrollments e ON e.course_id = cc.course_id AND e.student_id = ?
+            WHERE cc.course_id = ?
+            """;
+
+    // Active version as resolved by ChapterService.getChaptersByCourse
+    private static final String CHAPTER_LIST_FINGERPRINT = """
+            SELECT format('%s|%s|%s', v.id,
+                   (SELECT md5(COALESCE(string_agg(c.id || ':' || c.xmin, ',' ORDER BY c.id), ''))
+                    FROM chapters c WHERE c.version_id = v.id),
+                   (SELECT md5(COALESCE(string_agg(l.id || ':' || l.xmin, ',' ORDER BY l.id), ''))
+                    FROM lessons l JOIN chapters c ON c.id = l.chapter_id WHERE c.version_id = v.id))
+            FROM (SELECT id FROM course_versions
+                  WHERE course_id = ? AND status IN ('DRAFT', 'PUBLISHED')
+                  ORDER BY id DESC LIMIT 1) v
+            """;
+
+    private static final String CHAPTER_FINGERPRINT = """
+            SELECT format('%s|%s', c.xmin,
+                   (SELECT md5(COALESCE(string_agg(l.id || ':' || l.xmin, ',' ORDER BY l.id), ''))
+                    FROM lessons l WHERE l.chapter_id = c.id))
+            FROM chapters c
+            WHERE c.id = ?
+            """;
+
+    private static final String LESSON_LIST_FINGERPRINT = """
+            SELECT md5(COALESCE(string_agg(l.id || ':' || l.xmin, ',' ORDER BY l.id), ''))
+            FROM chapters c
+            LEFT JOIN lessons l ON l.chapter_id = c.id
+            WHERE c.id = ?
+            GROUP BY c.id
+            """;
+
+    // The viewer's enrollment row changes whenever a lesson completion is recorded
+    private static final String LESSON_FINGERPRINT = """
+            SELECT c.version_id,
+                   format('%s|%s|%s|%s|%s', l.xmin,
+                          (SELECT md5(COALESCE(string_agg(a.id || ':' || a.xmin, ',' ORDER BY a.id), ''))
+                           FROM asset_metadata a WHERE a.lesson_id = l.id),
+                          (SELECT md5(COALESCE(string_agg(a.id || ':' || a.xmin, ',' ORDER BY a.id), ''))
+                           FROM assignments a WHERE a.lesson_id = l.id),
+                          e.id, e.xmin) AS fingerprint
+            FROM lessons l
+            JOIN chapters c ON c.id = l.chapter_id
+            JOIN course_versions v ON v.id = c.version_id
+            LEFT JOIN enrollments e ON e.course_id = v.course_id AND e.student_id = ?
+            WHERE l.id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Fingerprint of a course detail response (course, counters and the viewer's enrollment)
+     *
+     * @param userId Viewer (nullable)
+     */
+    public Optional<String> findCourseFingerprint(Long courseId, Long userId) {
+        return single(jdbcTemplate.queryForList(COURSE_FINGERPRINT, String.class, userId, courseId));
+    }
+
+    /**
+     * Fingerprint of the chapter list (with lesson summaries) of a course's active version
+     */
+    public Optional<String> findChapterListFingerprint(Long courseId) {
+        return single(jdbcTemplate.queryForList(CHAPTER_LIST_FINGERPRINT, String.class, courseId));
+    }
+
+    public Optional<String> findChapterFingerprint(Long chapterId) {
+        return single(jdbcTemplate.queryForList(CHAPTER_FINGERPRINT, String.class, chapterId));
+    }
+
+    public Optional<String> findLessonListFingerprint(Long chapterId) {
+        return single(jdbcTemplate.queryForList(LESSON_LIST_FINGERPRINT, String.class, chapterId));
+    }
+
+    /**
+     * Fingerprint of a lesson detail response (lesson, assets, assignments and the viewer's
+     * enrollment), with the lesson's version so callers can add its navigation
+     *
+     * @param userId Viewer (nullable)
+     */
+    public Optional<LessonFingerprint> findLessonFingerprint(Long lessonId, Long userId) {
+        return single(jdbcTemplate.query(LESSON_FINGERPRINT,
+                (rs, rowNum) -> new LessonFingerprint(rs.getLong("version_id"), rs.getString("fingerprint")),
+                userId, lessonId));
+    }
+
+    private static <T> Optional<T> single(List<T> rows) {
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    public record LessonFingerprint(Long versionId, String fingerprint) {
+    }
+}
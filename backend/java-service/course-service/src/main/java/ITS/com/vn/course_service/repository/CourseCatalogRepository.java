@@ -0,0 +1,278 @@
+package ITS.com.vn.course_service.repository;
+
+import ITS.com.vn.course_service.domain.enums.CourseStatus;
+import ITS.com.vn.course_service.domain.enums.CourseVisibility;
+import ITS.com.vn.course_service.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads of the denormalized course catalog (course_catalog, see V10 migration)
+ * Every listing is one indexed query; current student counts are joined from the incrementally
+ * maintained course_enrollment_stats, so enrollment writes never touch catalog rows
+ */
+@Repository
+@RequiredArgsConstructor
+public class CourseCatalogRepository {
+
+    private static final String SELECT_ENTRIES = """
+            SELECT cc.course_id, cc.title, cc.description, cc.status, cc.visibility, cc.instructor_id,
+                   cc.instructor_name, cc.instructor_avatar_url, cc.thumbnail_url, cc.objectives, cc.code,
+                   cc.credits, cc.semester, cc.schedule, cc.max_students, cc.start_date, cc.end_date,
+                   cc.tags, cc.prerequisites, cc.created_at, cc.updated_at, cc.published_at,
+                   COALESCE(s.current_count, 0) AS current_students%s
+            FROM course_catalog cc
+            LEFT JOIN course_enrollment_stats s ON s.course_id = cc.course_id
+            """;
+
+    private static final String COUNT_ENTRIES = "SELECT COUNT(*) FROM course_catalog cc";
+
+    private static final String FIND_INSTRUCTOR_IDS = "SELECT DISTINCT instructor_id FROM course_catalog";
+
+    private static final String UPDATE_INSTRUCTOR = """
+            UPDATE course_catalog
+            SET instructor_name = ?, instructor_avatar_url = ?
+            WHERE instructor_id = ?
+              AND (instructor_name IS DISTINCT FROM ? OR instructor_avatar_url IS DISTINCT FROM ?)
+            """;
+
+    // Sortable course properties (as used by the Pageable API) and their catalog columns
+    private static final Map<String, String> SORT_COLUMNS = Map.ofEntries(
+            Map.entry("id", "cc.course_id"),
+            Map.entry("title", "cc.title"),
+            Map.entry("status", "cc.status"),
+            Map.entry("code", "cc.code"),
+            Map.entry("credits", "cc.credits"),
+            Map.entry("semester", "cc.semester"),
+            Map.entry("maxStudents", "cc.max_students"),
+            Map.entry("startDate", "cc.start_date"),
+            Map.entry("endDate", "cc.end_date"),
+            Map.entry("createdAt", "cc.created_at"),
+            Map.entry("updatedAt", "cc.updated_at"),
+            Map.entry("publishedAt", "cc.published_at"));
+
+    private static final RowMapper<CourseCatalogEntry> ENTRY_MAPPER = CourseCatalogRepository::mapEntry;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Get a page of catalog entries; the total is computed by the same query (COUNT(*) OVER())
+     *
+     * @throws BadRequestException if the page is sorted by an unsupported property
+     */
+    public Page<CourseCatalogEntry> findPage(CatalogFilter filter, Pageable pageable) {
+        List<Object> args = new ArrayList<>();
+        String sql = SELECT_ENTRIES.formatted(", COUNT(*) OVER () AS total_count")
+                + where(filter, args)
+                + orderBy(pageable.getSort())
+                + " LIMIT ? OFFSET ?";
+        args.add(pageable.getPageSize());
+        args.add(pageable.getOffset());
+
+        long[] total = {0};
+        List<CourseCatalogEntry> content = query(sql, args, (rs, rowNum) -> {
+            total[0] = rs.getLong("total_count");
+            return mapEntry(rs, rowNum);
+        });
+        if (content.isEmpty() && pageable.getOffset() > 0) {
+            // Past the last page: no row carried the total
+            List<Object> countArgs = new ArrayList<>();
+            String countSql = COUNT_ENTRIES + where(filter, countArgs);
+            total[0] = query(countSql, countArgs, (rs, rowNum) -> rs.getLong(1)).get(0);
+        }
+        return new PageImpl<>(content, pageable, total[0]);
+    }
+
+    /**
+     * Get catalog entries newest first by id, starting after the given id (keyset pagination)
+     */
+    public List<CourseCatalogEntry> findAfterId(CatalogFilter filter, long lastId, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = SELECT_ENTRIES.formatted("")
+                + where(filter, args) + " AND cc.course_id < ?"
+                + " ORDER BY cc.course_id DESC LIMIT ?";
+        args.add(lastId);
+        args.add(limit);
+        return query(sql, args, ENTRY_MAPPER);
+    }
+
+    /**
+     * Get catalog entries ordered by (publishedAt, id) descending, starting after the given key
+     *
+     * @param publishedAt Published time of the last returned entry (null for the first page)
+     */
+    public List<CourseCatalogEntry> findAfterPublished(CatalogFilter filter, LocalDateTime publishedAt, Long id,
+            int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT_ENTRIES.formatted("")).append(where(filter, args));
+        if (publishedAt != null) {
+            sql.append(" AND (cc.published_at, cc.course_id) < (?, ?)");
+            args.add(Timestamp.valueOf(publishedAt));
+            args.add(id);
+        }
+        sql.append(" ORDER BY cc.published_at DESC, cc.course_id DESC LIMIT ?");
+        args.add(limit);
+        return query(sql.toString(), args, ENTRY_MAPPER);
+    }
+
+    /**
+     * Get catalog entries by course IDs (in no particular order)
+     */
+    public List<CourseCatalogEntry> findAllById(Collection<Long> courseIds) {
+        if (courseIds.isEmpty()) {
+            return List.of();
+        }
+        List<Object> args = new ArrayList<>();
+        String sql = SELECT_ENTRIES.formatted("") + where(CatalogFilter.ofIds(courseIds), args);
+        return query(sql, args, ENTRY_MAPPER);
+    }
+
+    public List<Long> findInstructorIds() {
+        return jdbcTemplate.queryForList(FIND_INSTRUCTOR_IDS, Long.class);
+    }
+
+    /**
+     * Set the denormalized instructor name/avatar on all catalog rows of an instructor
+     *
+     * @return Number of rows that actually changed
+     */
+    public int updateInstructor(Long instructorId, String fullName, String avatarUrl) {
+        return jdbcTemplate.update(UPDATE_INSTRUCTOR, fullName, avatarUrl, instructorId, fullName, avatarUrl);
+    }
+
+    private <T> List<T> query(String sql, List<Object> args, RowMapper<T> rowMapper) {
+        return jdbcTemplate.query(connection -> prepare(connection, sql, args), rowMapper);
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, List<Object> args)
+            throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(sql);
+        for (int i = 0; i < args.size(); i++) {
+            Object arg = args.get(i);
+            if (arg instanceof Collection<?> values) {
+                ps.setArray(i + 1, connection.createArrayOf("bigint", values.toArray()));
+            } else {
+                ps.setObject(i + 1, arg);
+            }
+        }
+        return ps;
+    }
+
+    private static String where(CatalogFilter filter, List<Object> args) {
+        StringBuilder where = new StringBuilder(" WHERE TRUE");
+        if (filter.status() != null) {
+            where.append(" AND cc.status = ?");
+            args.add(filter.status().name());
+        }
+        if (filter.semester() != null) {
+            where.append(" AND cc.semester = ?");
+            args.add(filter.semester());
+        }
+        if (filter.instructorId() != null) {
+            where.append(" AND cc.instructor_id = ?");
+            args.add(filter.instructorId());
+        }
+        if (filter.courseIds() != null) {
+            where.append(" AND cc.course_id = ANY(?)");
+            args.add(filter.courseIds());
+        }
+        return where.toString();
+    }
+
+    private static String orderBy(Sort sort) {
+        List<String> orders = new ArrayList<>();
+        boolean byId = false;
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new BadRequestException("Unsupported sort property: " + order.getProperty());
+            }
+            byId |= "id".equals(order.getProperty());
+            orders.add(column + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        if (!byId) {
+            // Unique tie-breaker keeps pages stable
+            orders.add("cc.course_id DESC");
+        }
+        return " ORDER BY " + String.join(", ", orders);
+    }
+
+    private static CourseCatalogEntry mapEntry(ResultSet rs, int rowNum) throws SQLException {
+        return new CourseCatalogEntry(
+                rs.getLong("course_id"),
+                rs.getString("title"),
+                rs.getString("description"),
+                CourseStatus.valueOf(rs.getString("status")),
+                CourseVisibility.valueOf(rs.getString("visibility")),
+                rs.getLong("instructor_id"),
+                rs.getString("instructor_name"),
+                rs.getString("instructor_avatar_url"),
+                rs.getString("thumbnail_url"),
+                rs.getString("objectives"),
+                rs.getString("code"),
+                rs.getObject("credits", Integer.class),
+                rs.getString("semester"),
+                rs.getString("schedule"),
+                rs.getObject("max_students", Integer.class),
+                toLocalDate(rs.getDate("start_date")),
+                toLocalDate(rs.getDate("end_date")),
+                rs.getString("tags"),
+                rs.getString("prerequisites"),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at")),
+                toLocalDateTime(rs.getTimestamp("published_at")),
+                rs.getLong("current_students"));
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    /**
+     * Catalog filter; null fields do not restrict the listing
+     */
+    public record CatalogFilter(CourseStatus status, String semester, Long instructorId, Collection<Long> courseIds) {
+
+        public static CatalogFilter all() {
+            return new CatalogFilter(null, null, null, null);
+        }
+
+        public static CatalogFilter ofIds(Collection<Long> courseIds) {
+            return new CatalogFilter(null, null, null, courseIds);
+        }
+    }
+
+    /**
+     * Catalog row; tags and prerequisites are JSON arrays shaped like TagResponse / PrerequisiteResponse
+     */
+    public record CourseCatalogEntry(Long courseId, String title, String description, CourseStatus status,
+            CourseVisibility visibility, Long instructorId, String instructorName, String instructorAvatarUrl,
+            String thumbnailUrl, String objectives, String code, Integer credits, String semester,
+            String schedule, Integer maxStudents, LocalDate startDate, LocalDate endDate, String tags,
+            String prerequisites, LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime publishedAt,
+            long currentStudents) {
+    }
+}
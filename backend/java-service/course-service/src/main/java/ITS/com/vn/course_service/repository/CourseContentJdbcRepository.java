@@ -0,0 +1,113 @@
+package ITS.com.vn.course_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * Set-based ordering writes for chapters and lessons
+ * A whole reorder is one UPDATE joined to the new (id, sequence) pairs, touching only rows whose
+ * sequence actually changes
+ */
+@Repository
+@RequiredArgsConstructor
+public class CourseContentJdbcRepository {
+
+    private static final String UPDATE_CHAPTER_SEQUENCES = """
+            UPDATE chapters c
+            SET sequence = v.sequence, updated_at = CURRENT_TIMESTAMP
+            FROM unnest(?, ?) AS v(id, sequence)
+            WHERE c.id = v.id AND c.version_id = ? AND c.sequence <> v.sequence
+            """;
+
+    private static final String UPDATE_LESSON_SEQUENCES = """
+            UPDATE lessons l
+            SET sequence = v.sequence, updated_at = CURRENT_TIMESTAMP
+            FROM unnest(?, ?) AS v(id, sequence)
+            WHERE l.id = v.id AND l.chapter_id = ? AND l.sequence <> v.sequence
+            """;
+
+    private static final String RENUMBER_CHAPTERS = """
+            UPDATE chapters c
+            SET sequence = r.position * ?, updated_at = CURRENT_TIMESTAMP
+            FROM (SELECT id, ROW_NUMBER() OVER (ORDER BY sequence, id) AS position
+                  FROM chapters WHERE version_id = ?) r
+            WHERE c.id = r.id
+            """;
+
+    private static final String RENUMBER_LESSONS = """
+            UPDATE lessons l
+            SET sequence = r.position * ?, updated_at = CURRENT_TIMESTAMP
+            FROM (SELECT id, ROW_NUMBER() OVER (ORDER BY sequence, id) AS position
+                  FROM lessons WHERE chapter_id = ?) r
+            WHERE l.id = r.id
+            """;
+
+    private static final String MOVE_CHAPTER = """
+            UPDATE chapters SET sequence = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?
+            """;
+
+    private static final String MOVE_LESSON = """
+            UPDATE lessons SET chapter_id = ?, sequence = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Set the sequences of chapters of a version in one statement
+     *
+     * @param chapterIds Chapter IDs
+     * @param sequences  New sequence of each chapter (same order)
+     * @return Number of chapters whose sequence changed
+     */
+    public int updateChapterSequences(Long versionId, List<Long> chapterIds, List<Integer> sequences) {
+        return updateSequences(UPDATE_CHAPTER_SEQUENCES, versionId, chapterIds, sequences);
+    }
+
+    /**
+     * Set the sequences of lessons of a chapter in one statement
+     *
+     * @return Number of lessons whose sequence changed
+     */
+    public int updateLessonSequences(Long chapterId, List<Long> lessonIds, List<Integer> sequences) {
+        return updateSequences(UPDATE_LESSON_SEQUENCES, chapterId, lessonIds, sequences);
+    }
+
+    /**
+     * Respace the chapters of a version to multiples of the gap, keeping their order
+     */
+    public void renumberChapters(Long versionId, int gap) {
+        jdbcTemplate.update(RENUMBER_CHAPTERS, gap, versionId);
+    }
+
+    /**
+     * Respace the lessons of a chapter to multiples of the gap, keeping their order
+     */
+    public void renumberLessons(Long chapterId, int gap) {
+        jdbcTemplate.update(RENUMBER_LESSONS, gap, chapterId);
+    }
+
+    public void moveChapter(Long chapterId, int sequence) {
+        jdbcTemplate.update(MOVE_CHAPTER, sequence, chapterId);
+    }
+
+    public void moveLesson(Long lessonId, Long chapterId, int sequence) {
+        jdbcTemplate.update(MOVE_LESSON, chapterId, sequence, lessonId);
+    }
+
+    private int updateSequences(String sql, Long parentId, List<Long> ids, List<Integer> sequences) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            ps.setArray(2, connection.createArrayOf("integer", sequences.toArray()));
+            ps.setLong(3, parentId);
+            return ps;
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package ITS.com.vn.course_service.repository;
+
+import ITS.com.vn.course_service.domain.entity.CourseEnrollmentStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CourseEnrollmentStatsRepository extends JpaRepository<CourseEnrollmentStats, Long> {
+
+    /**
+     * Atomically add deltas to the counters of a course (creates the row on first use)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO course_enrollment_stats AS s " +
+            "(course_id, total_count, current_count, active_count, completed_count, active_progress_sum, updated_at) " +
+            "VALUES (:courseId, :total, :current, :active, :completed, :progressSum, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (course_id) DO UPDATE SET " +
+            "total_count = s.total_count + EXCLUDED.total_count, " +
+            "current_count = s.current_count + EXCLUDED.current_count, " +
+            "active_count = s.active_count + EXCLUDED.active_count, " +
+            "completed_count = s.completed_count + EXCLUDED.completed_count, " +
+            "active_progress_sum = s.active_progress_sum + EXCLUDED.active_progress_sum, " +
+            "updated_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    int applyDelta(@Param("courseId") Long courseId,
+            @Param("total") long total,
+            @Param("current") long current,
+            @Param("active") long active,
+            @Param("completed") long completed,
+            @Param("progressSum") long progressSum);
+
+    /**
+     * Atomically reserve seats for new ACTIVE enrollments if the course has enough capacity left
+     * The counter row is locked by the upsert, so concurrent reservations serialize on it
+     * and re-check the capacity against the latest committed count
+     *
+     * @return 1 if the seats were reserved, 0 if the course does not have enough seats left
+     */
+    @Modifying
+    @Query(value = "INSERT INTO course_enrollment_stats AS s " +
+            "(course_id, total_count, current_count, active_count, completed_count, active_progress_sum, updated_at) " +
+            "VALUES (:courseId, :seats, :seats, :seats, 0, 0, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (course_id) DO UPDATE SET " +
+            "total_count = s.total_count + EXCLUDED.total_count, " +
+            "current_count = s.current_count + EXCLUDED.current_count, " +
+            "active_count = s.active_count + EXCLUDED.active_count, " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHERE s.active_count + EXCLUDED.active_count <= :maxStudents",
+            nativeQuery = true)
+    int tryReserveSeats(@Param("courseId") Long courseId, @Param("seats") long seats,
+            @Param("maxStudents") int maxStudents);
+}
@@ -0,0 +1,167 @@
+package ITS.com.vn.course_service.repository;
+
+import ITS.com.vn.course_service.domain.enums.CourseFacet;
+import ITS.com.vn.course_service.dto.request.FacetFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet values of courses, for the in-memory facet index, and the SQL evaluation of facet
+ * filters used while the index is not built yet
+ */
+@Repository
+@RequiredArgsConstructor
+public class CourseFacetRepository {
+
+    private static final String SELECT_FACETS = """
+            SELECT c.id, c.status, c.visibility, c.semester, c.credits,
+                   ARRAY(SELECT ct.tag_id FROM course_tags ct WHERE ct.course_id = c.id ORDER BY ct.tag_id) AS tag_ids
+            FROM courses c
+            ORDER BY c.id
+            """;
+
+    private static final String SELECT_MATCHING_IDS = """
+            SELECT c.id FROM courses c WHERE %s ORDER BY c.id DESC LIMIT ? OFFSET ?
+            """;
+
+    private static final String COUNT_FACETS = """
+            WITH m AS (SELECT c.id, c.status, c.visibility, c.semester, c.credits FROM courses c WHERE %s)
+            SELECT 'STATUS' AS facet, status AS value, COUNT(*) AS count FROM m GROUP BY status
+            UNION ALL
+            SELECT 'VISIBILITY', visibility, COUNT(*) FROM m GROUP BY visibility
+            UNION ALL
+            SELECT 'SEMESTER', semester, COUNT(*) FROM m WHERE semester IS NOT NULL GROUP BY semester
+            UNION ALL
+            SELECT 'CREDITS', credits::text, COUNT(*) FROM m WHERE credits IS NOT NULL GROUP BY credits
+            UNION ALL
+            SELECT 'TAG', ct.tag_id::text, COUNT(*) FROM m JOIN course_tags ct ON ct.course_id = m.id GROUP BY ct.tag_id
+            """;
+
+    private static final RowMapper<CourseFacets> FACETS_MAPPER = (rs, rowNum) -> new CourseFacets(
+            rs.getLong("id"),
+            rs.getString("status"),
+            rs.getString("visibility"),
+            rs.getString("semester"),
+            rs.getObject("credits", Integer.class),
+            toLongList(rs.getArray("tag_ids")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Get facet values of all courses, in ID order
+     */
+    public List<CourseFacets> findAllFacets() {
+        return jdbcTemplate.query(SELECT_FACETS, FACETS_MAPPER);
+    }
+
+    /**
+     * Get a page of IDs of courses matching a filter, newest first
+     *
+     * @param filter Filter with normalized values (see CourseFacetIndex), or null for all courses
+     */
+    public List<Long> findMatchingIds(FacetFilter filter, long offset, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = SELECT_MATCHING_IDS.formatted(where(filter, args));
+        args.add(limit);
+        args.add(offset);
+        return jdbcTemplate.query(connection -> prepare(connection, sql, args), (rs, rowNum) -> rs.getLong(1));
+    }
+
+    /**
+     * Count courses matching a filter per facet value (values without matches are absent)
+     */
+    public Map<CourseFacet, Map<String, Long>> countFacets(FacetFilter filter) {
+        List<Object> args = new ArrayList<>();
+        String sql = COUNT_FACETS.formatted(where(filter, args));
+        Map<CourseFacet, Map<String, Long>> counts = new EnumMap<>(CourseFacet.class);
+        jdbcTemplate.query(connection -> prepare(connection, sql, args), (ResultSet rs) -> {
+            counts.computeIfAbsent(CourseFacet.valueOf(rs.getString("facet")), facet -> new LinkedHashMap<>())
+                    .put(rs.getString("value"), rs.getLong("count"));
+        });
+        return counts;
+    }
+
+    private static String where(FacetFilter filter, List<Object> args) {
+        if (filter == null) {
+            return "TRUE";
+        }
+        return switch (filter) {
+            case FacetFilter.Match match -> match(match, args);
+            case FacetFilter.And and -> join(and.and(), " AND ", args);
+            case FacetFilter.Or or -> join(or.or(), " OR ", args);
+            case FacetFilter.Not not -> "NOT (" + where(not.not(), args) + ")";
+        };
+    }
+
+    private static String join(List<FacetFilter> filters, String operator, List<Object> args) {
+        List<String> parts = new ArrayList<>(filters.size());
+        for (FacetFilter filter : filters) {
+            parts.add("(" + where(filter, args) + ")");
+        }
+        return String.join(operator, parts);
+    }
+
+    private static String match(FacetFilter.Match match, List<Object> args) {
+        List<String> values = match.values();
+        return switch (match.facet()) {
+            case STATUS -> arrayMatch("c.status", "text", values.toArray(), args);
+            case VISIBILITY -> arrayMatch("c.visibility", "text", values.toArray(), args);
+            case SEMESTER -> arrayMatch("c.semester", "text", values.toArray(), args);
+            case CREDITS -> arrayMatch("c.credits", "integer",
+                    values.stream().map(Integer::valueOf).toArray(), args);
+            case TAG -> {
+                args.add(new SqlArray("bigint", values.stream().map(Long::valueOf).toArray()));
+                yield "EXISTS (SELECT 1 FROM course_tags ct WHERE ct.course_id = c.id AND ct.tag_id = ANY(?))";
+            }
+        };
+    }
+
+    private static String arrayMatch(String column, String type, Object[] values, List<Object> args) {
+        args.add(new SqlArray(type, values));
+        return column + " = ANY(?)";
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, List<Object> args)
+            throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(sql);
+        for (int i = 0; i < args.size(); i++) {
+            if (args.get(i) instanceof SqlArray array) {
+                ps.setArray(i + 1, connection.createArrayOf(array.type(), array.values()));
+            } else {
+                ps.setObject(i + 1, args.get(i));
+            }
+        }
+        return ps;
+    }
+
+    private static List<Long> toLongList(Array array) throws SQLException {
+        List<Long> values = new ArrayList<>();
+        for (Object value : (Object[]) array.getArray()) {
+            values.add(((Number) value).longValue());
+        }
+        return values;
+    }
+
+    private record SqlArray(String type, Object[] values) {
+    }
+
+    /**
+     * Facet values of one course; tag IDs are sorted
+     */
+    public record CourseFacets(Long courseId, String status, String visibility, String semester, Integer credits,
+            List<Long> tagIds) {
+    }
+}
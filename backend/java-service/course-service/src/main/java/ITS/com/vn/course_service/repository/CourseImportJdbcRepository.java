@@ -0,0 +1,115 @@
+package ITS.com.vn.course_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Batched writes of an imported course tree (see CourseImportService)
+ * Chapter and lesson ids are taken from their sequences up front, so children can reference their
+ * parent before it is written and every level is inserted as a JDBC batch (IDENTITY ids would
+ * force one round trip per row)
+ */
+@Repository
+@RequiredArgsConstructor
+public class CourseImportJdbcRepository {
+
+    public static final String CHAPTER_SEQUENCE = "chapters_id_seq";
+    public static final String LESSON_SEQUENCE = "lessons_id_seq";
+
+    private static final String NEXT_IDS = "SELECT nextval(?::regclass) FROM generate_series(1, ?)";
+
+    private static final String INSERT_VERSION = """
+            INSERT INTO course_versions (course_id, version, status, change_log, created_at, updated_at)
+            VALUES (?, ?, 'DRAFT', ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            RETURNING id
+            """;
+
+    private static final String INSERT_CHAPTER = """
+            INSERT INTO chapters (id, version_id, title, description, sequence, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            """;
+
+    private static final String INSERT_LESSON = """
+            INSERT INTO lessons (id, chapter_id, title, description, type, sequence, mastery_threshold, content,
+                                 estimated_duration, lesson_key, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, COALESCE(?::uuid, gen_random_uuid()), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            """;
+
+    private static final String INSERT_ASSET = """
+            INSERT INTO asset_metadata (lesson_id, storage_url, mime_type, size_bytes, checksum, original_file_name,
+                                        uploaded_at)
+            VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Take the next ids of a sequence in one round trip
+     *
+     * @param sequence Sequence name (CHAPTER_SEQUENCE or LESSON_SEQUENCE)
+     */
+    public List<Long> nextIds(String sequence, int count) {
+        return jdbcTemplate.queryForList(NEXT_IDS, Long.class, sequence, count);
+    }
+
+    /**
+     * Create the DRAFT version that holds the imported content
+     *
+     * @return Version ID
+     */
+    public Long insertVersion(Long courseId, String version, String changeLog) {
+        return jdbcTemplate.queryForObject(INSERT_VERSION, Long.class, courseId, version, changeLog);
+    }
+
+    public void insertChapters(List<ChapterRow> chapters) {
+        jdbcTemplate.batchUpdate(INSERT_CHAPTER, chapters, chapters.size(), (ps, chapter) -> {
+            ps.setLong(1, chapter.id());
+            ps.setLong(2, chapter.versionId());
+            ps.setString(3, chapter.title());
+            ps.setString(4, chapter.description());
+            ps.setInt(5, chapter.sequence());
+        });
+    }
+
+    public void insertLessons(List<LessonRow> lessons) {
+        jdbcTemplate.batchUpdate(INSERT_LESSON, lessons, lessons.size(), (ps, lesson) -> {
+            ps.setLong(1, lesson.id());
+            ps.setLong(2, lesson.chapterId());
+            ps.setString(3, lesson.title());
+            ps.setString(4, lesson.description());
+            ps.setString(5, lesson.type());
+            ps.setInt(6, lesson.sequence());
+            ps.setDouble(7, lesson.masteryThreshold());
+            ps.setString(8, lesson.content());
+            ps.setObject(9, lesson.estimatedDuration(), Types.INTEGER);
+            ps.setObject(10, lesson.lessonKey(), Types.OTHER);
+        });
+    }
+
+    public void insertAssets(List<AssetRow> assets) {
+        jdbcTemplate.batchUpdate(INSERT_ASSET, assets, assets.size(), (ps, asset) -> {
+            ps.setLong(1, asset.lessonId());
+            ps.setString(2, asset.storageUrl());
+            ps.setString(3, asset.mimeType());
+            ps.setLong(4, asset.sizeBytes());
+            ps.setString(5, asset.checksum());
+            ps.setString(6, asset.originalFileName());
+        });
+    }
+
+    public record ChapterRow(Long id, Long versionId, String title, String description, int sequence) {
+    }
+
+    public record LessonRow(Long id, Long chapterId, String title, String description, String type, int sequence,
+            double masteryThreshold, String content, Integer estimatedDuration, UUID lessonKey) {
+    }
+
+    public record AssetRow(Long lessonId, String storageUrl, String mimeType, long sizeBytes, String checksum,
+            String originalFileName) {
+    }
+}
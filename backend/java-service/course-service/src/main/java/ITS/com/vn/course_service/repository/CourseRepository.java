@@ -6,10 +6,12 @@ import ITS.com.vn.course_service.domain.enums.CourseVisibility;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,27 +36,64 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     // Find by instructor and status
     Page<Course> findByInstructorIdAndStatus(Long instructorId, CourseStatus status, Pageable pageable);
 
-    // Search by title
-    @Query("SELECT c FROM Course c WHERE LOWER(c.title) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    Page<Course> searchByTitle(@Param("keyword") String keyword, Pageable pageable);
-
-    // Search published courses by title
-    @Query("SELECT c FROM Course c WHERE c.status = :status AND LOWER(c.title) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    Page<Course> searchByTitleAndStatus(@Param("keyword") String keyword, @Param("status") CourseStatus status,
-            Pageable pageable);
-
-    @Query("SELECT c FROM Course c WHERE c.status = :status AND c.semester = :semester")
-    Page<Course> findByStatusAndSemester(@Param("status") CourseStatus status,
-            @Param("semester") String semester, Pageable pageable);
-
-    Page<Course> findByIdIn(List<Long> ids, Pageable pageable);
-
-    Page<Course> findByIdInAndSemester(List<Long> ids, String semester, Pageable pageable);
+    // Full-text search (prefix matching on the search document, typo-tolerant on title), ranked by relevance
+    // Returns IDs only; course cards are read from the catalog
+    @Query(value = "SELECT c.id FROM courses c " +
+            "WHERE c.search_vector @@ to_tsquery('simple', :tsQuery) " +
+            "OR lower(:keyword) <% lower(c.title) " +
+            "ORDER BY ts_rank_cd(c.search_vector, to_tsquery('simple', :tsQuery)) " +
+            "+ word_similarity(lower(:keyword), lower(c.title)) DESC, c.id DESC",
+            countQuery = "SELECT COUNT(*) FROM courses c " +
+                    "WHERE c.search_vector @@ to_tsquery('simple', :tsQuery) " +
+                    "OR lower(:keyword) <% lower(c.title)",
+            nativeQuery = true)
+    Page<Long> searchIds(@Param("tsQuery") String tsQuery, @Param("keyword") String keyword, Pageable pageable);
+
+    // Rebuild the search document of a course (after its fields or tags changed; tag renames are
+    // refreshed by a trigger, see V17)
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE courses SET search_vector = course_search_vector(id) WHERE id = :courseId",
+            nativeQuery = true)
+    int refreshSearchVector(@Param("courseId") Long courseId);
+
+    // Re-project a course into its catalog row (after its fields, tags or prerequisites changed)
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO course_catalog (course_id, title, description, status, visibility, instructor_id, " +
+            "thumbnail_url, objectives, code, credits, semester, schedule, max_students, start_date, end_date, " +
+            "tags, prerequisites, created_at, updated_at, published_at) " +
+            "SELECT course_id, title, description, status, visibility, instructor_id, " +
+            "thumbnail_url, objectives, code, credits, semester, schedule, max_students, start_date, end_date, " +
+            "tags, prerequisites, created_at, updated_at, published_at " +
+            "FROM course_catalog_source WHERE course_id = :courseId " +
+            "ON CONFLICT (course_id) DO UPDATE SET title = EXCLUDED.title, description = EXCLUDED.description, " +
+            "status = EXCLUDED.status, visibility = EXCLUDED.visibility, instructor_id = EXCLUDED.instructor_id, " +
+            "thumbnail_url = EXCLUDED.thumbnail_url, objectives = EXCLUDED.objectives, code = EXCLUDED.code, " +
+            "credits = EXCLUDED.credits, semester = EXCLUDED.semester, schedule = EXCLUDED.schedule, " +
+            "max_students = EXCLUDED.max_students, start_date = EXCLUDED.start_date, " +
+            "end_date = EXCLUDED.end_date, tags = EXCLUDED.tags, prerequisites = EXCLUDED.prerequisites, " +
+            "created_at = EXCLUDED.created_at, updated_at = EXCLUDED.updated_at, " +
+            "published_at = EXCLUDED.published_at, refreshed_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    int refreshCatalog(@Param("courseId") Long courseId);
 
     // Find courses with tags
     @Query("SELECT DISTINCT c FROM Course c JOIN c.courseTags ct WHERE ct.tag.id IN :tagIds")
     Page<Course> findByTagIds(@Param("tagIds") List<Long> tagIds, Pageable pageable);
 
+    // Full-text search matches, newest first (pass Long.MAX_VALUE for the first page)
+    @Query(value = "SELECT c.id FROM courses c " +
+            "WHERE (c.search_vector @@ to_tsquery('simple', :tsQuery) OR lower(:keyword) <% lower(c.title)) " +
+            "AND c.id < :id " +
+            "ORDER BY c.id DESC " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<Long> searchIdsAfter(@Param("tsQuery") String tsQuery, @Param("keyword") String keyword,
+            @Param("id") Long id, @Param("limit") int limit);
+
+    // IDs among the given ones that exist (set-based existence check)
+    @Query("SELECT c.id FROM Course c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     // Check if course exists and belongs to instructor
     boolean existsByIdAndInstructorId(Long id, Long instructorId);
 
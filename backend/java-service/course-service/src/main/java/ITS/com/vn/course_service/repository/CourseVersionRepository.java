@@ -0,0 +1,40 @@
+package ITS.com.vn.course_service.repository;
+
+import ITS.com.vn.course_service.domain.entity.CourseVersion;
+import ITS.com.vn.course_service.domain.enums.VersionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CourseVersionRepository extends JpaRepository<CourseVersion, Long> {
+
+    // Latest version of a course with the given status
+    Optional<CourseVersion> findFirstByCourseIdAndStatusOrderByIdDesc(Long courseId, VersionStatus status);
+
+    // Versions of a course with any of the given statuses, newest first
+    List<CourseVersion> findByCourseIdAndStatusInOrderByIdDesc(Long courseId, Collection<VersionStatus> statuses);
+
+    // Hash of everything the course structure is built from (published and draft versions, their chapter
+    // and lesson outlines), to check a cached structure is current
+    @Query(value = """
+            SELECT md5(concat_ws('|',
+                (SELECT count(*) FROM courses WHERE id = :courseId),
+                (SELECT string_agg(concat(v.id, ':', v.status, ':', v.version), ',' ORDER BY v.id)
+                 FROM course_versions v
+                 WHERE v.course_id = :courseId AND v.status IN ('PUBLISHED', 'DRAFT')),
+                (SELECT string_agg(concat(c.id, ':', c.sequence, ':', c.title), ',' ORDER BY c.id)
+                 FROM chapters c JOIN course_versions v ON v.id = c.version_id
+                 WHERE v.course_id = :courseId AND v.status IN ('PUBLISHED', 'DRAFT')),
+                (SELECT string_agg(concat(l.id, ':', l.chapter_id, ':', l.sequence, ':', l.type, ':',
+                                          l.estimated_duration, ':', l.title), ',' ORDER BY l.id)
+                 FROM lessons l JOIN chapters c ON c.id = l.chapter_id JOIN course_versions v ON v.id = c.version_id
+                 WHERE v.course_id = :courseId AND v.status IN ('PUBLISHED', 'DRAFT'))))
+            """, nativeQuery = true)
+    String findStructureStamp(@Param("courseId") Long courseId);
+}
@@ -0,0 +1,84 @@
+package ITS.com.vn.course_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Archived (cold) enrollments, see V13 migration
+ * Finished enrollments of ended courses are moved out of the hot enrollments table; they stay
+ * readable for transcripts and prerequisite checks
+ */
+@Repository
+@RequiredArgsConstructor
+public class EnrollmentArchiveRepository {
+
+    // Rows locked by a concurrent run (or still being written) are skipped and picked up next time
+    private static final String ARCHIVE_BATCH = """
+            WITH batch AS (
+                SELECT e.id
+                FROM courses c
+                JOIN enrollments e ON e.course_id = c.id AND e.status IN ('COMPLETED', 'DROPPED')
+                WHERE c.end_date < ?
+                ORDER BY e.id
+                LIMIT ?
+                FOR UPDATE OF e SKIP LOCKED
+            ), moved AS (
+                DELETE FROM enrollments e
+                USING batch b
+                WHERE e.id = b.id
+                RETURNING e.id, e.course_id, e.student_id, e.status, e.progress, e.enrolled_at, e.completed_at,
+                          e.last_access_at, e.updated_at, e.completed_lessons, e.completion_layout_id
+            )
+            INSERT INTO enrollments_archive (id, course_id, student_id, status, progress, enrolled_at, completed_at,
+                                             last_access_at, updated_at, completed_lessons, completion_layout_id)
+            SELECT id, course_id, student_id, status, progress, enrolled_at, completed_at, last_access_at, updated_at,
+                   completed_lessons, completion_layout_id
+            FROM moved
+            """;
+
+    private static final String EXISTS = """
+            SELECT EXISTS (SELECT 1 FROM enrollments_archive WHERE course_id = ? AND student_id = ?)
+            """;
+
+    private static final String FIND_STUDENT_IDS = """
+            SELECT student_id FROM enrollments_archive WHERE course_id = ? AND student_id = ANY(?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Move one batch of COMPLETED/DROPPED enrollments of courses that ended before the given date
+     * to the archive, in one statement
+     *
+     * @return Number of archived enrollments
+     */
+    public int archiveFinished(LocalDate endedBefore, int limit) {
+        return jdbcTemplate.update(ARCHIVE_BATCH, Date.valueOf(endedBefore), limit);
+    }
+
+    public boolean existsByCourseIdAndStudentId(Long courseId, Long studentId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS, Boolean.class, courseId, studentId));
+    }
+
+    /**
+     * Get student IDs among the given ones with an archived enrollment in the course
+     */
+    public List<Long> findStudentIds(Long courseId, Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(FIND_STUDENT_IDS);
+            ps.setLong(1, courseId);
+            ps.setArray(2, connection.createArrayOf("bigint", studentIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+}
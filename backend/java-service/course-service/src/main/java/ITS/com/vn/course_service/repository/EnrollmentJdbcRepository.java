@@ -0,0 +1,139 @@
+package ITS.com.vn.course_service.repository;
+
+import ITS.com.vn.course_service.domain.enums.EnrollmentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Set-based enrollment writes that bypass Hibernate (IDENTITY ids disable its insert batching,
+ * and progress flushes do not need entity state)
+ */
+@Repository
+@RequiredArgsConstructor
+public class EnrollmentJdbcRepository {
+
+    private static final String INSERT_ACTIVE_ENROLLMENTS = """
+            INSERT INTO enrollments (course_id, student_id, status, progress, enrolled_at, updated_at)
+            SELECT ?, s.student_id, 'ACTIVE', 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+            FROM unnest(?) AS s(student_id)
+            ON CONFLICT (course_id, student_id) DO NOTHING
+            RETURNING id, student_id, enrolled_at
+            """;
+
+    private static final String FIND_STATE = "SELECT student_id, status FROM enrollments WHERE id = ?";
+
+    // Row locks (in id order) give the persisted progress each update replaces
+    private static final String LOCK_ACTIVE_PROGRESS = """
+            SELECT id, course_id, progress, last_access_at
+            FROM enrollments
+            WHERE id = ANY(?) AND status = 'ACTIVE'
+            ORDER BY id
+            FOR UPDATE
+            """;
+
+    private static final String UPDATE_PROGRESS = """
+            UPDATE enrollments
+            SET progress = ?, last_access_at = ?, updated_at = CURRENT_TIMESTAMP
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert ACTIVE enrollments for a roster of students in one statement
+     * Students that are already enrolled (e.g. by a concurrent request) are skipped
+     *
+     * @return Inserted rows
+     */
+    public List<InsertedEnrollment> insertActiveEnrollments(Long courseId, Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_ACTIVE_ENROLLMENTS);
+            ps.setLong(1, courseId);
+            ps.setArray(2, connection.createArrayOf("bigint", studentIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> new InsertedEnrollment(
+                rs.getLong("id"),
+                rs.getLong("student_id"),
+                rs.getTimestamp("enrolled_at").toLocalDateTime()));
+    }
+
+    /**
+     * Get the owner and status of an enrollment (one primary key read, no lock)
+     */
+    public Optional<EnrollmentState> findState(Long enrollmentId) {
+        List<EnrollmentState> rows = jdbcTemplate.query(FIND_STATE, (rs, rowNum) -> new EnrollmentState(
+                rs.getLong("student_id"), EnrollmentStatus.valueOf(rs.getString("status"))), enrollmentId);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    /**
+     * Write buffered progress of ACTIVE enrollments as one JDBC batch
+     * Enrollments that are no longer ACTIVE (completed or dropped meanwhile), or whose progress was
+     * written directly after the buffered update (last access is newer), are left untouched
+     *
+     * @return Written enrollment IDs and the change of the summed progress per course ID, for the
+     * enrollment counters
+     */
+    public ProgressFlush updateActiveProgress(List<ProgressUpdate> updates) {
+        if (updates.isEmpty()) {
+            return new ProgressFlush(Map.of(), Set.of());
+        }
+        Map<Long, ProgressUpdate> updatesById = new HashMap<>();
+        updates.forEach(update -> updatesById.put(update.enrollmentId(), update));
+
+        Map<Long, Long> progressDeltaByCourse = new TreeMap<>(); // Course order keeps counter locks ordered
+        List<ProgressUpdate> lockedUpdates = new ArrayList<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOCK_ACTIVE_PROGRESS);
+            ps.setArray(1, connection.createArrayOf("bigint", updatesById.keySet().toArray()));
+            return ps;
+        }, rs -> {
+            ProgressUpdate update = updatesById.get(rs.getLong("id"));
+            Timestamp lastAccessAt = rs.getTimestamp("last_access_at");
+            if (lastAccessAt != null && lastAccessAt.toLocalDateTime().isAfter(update.lastAccessAt())) {
+                return; // Superseded by a direct write
+            }
+            progressDeltaByCourse.merge(rs.getLong("course_id"),
+                    (long) update.progress() - rs.getInt("progress"), Long::sum);
+            lockedUpdates.add(update);
+        });
+
+        jdbcTemplate.batchUpdate(UPDATE_PROGRESS, lockedUpdates, lockedUpdates.size(), (ps, update) -> {
+            ps.setInt(1, update.progress());
+            ps.setTimestamp(2, Timestamp.valueOf(update.lastAccessAt()));
+            ps.setLong(3, update.enrollmentId());
+        });
+        Set<Long> writtenIds = new HashSet<>();
+        lockedUpdates.forEach(update -> writtenIds.add(update.enrollmentId()));
+        return new ProgressFlush(progressDeltaByCourse, writtenIds);
+    }
+
+    public record ProgressUpdate(Long enrollmentId, int progress, LocalDateTime lastAccessAt) {
+    }
+
+    public record ProgressFlush(Map<Long, Long> progressDeltaByCourse, Set<Long> writtenIds) {
+    }
+
+    public record EnrollmentState(Long studentId, EnrollmentStatus status) {
+    }
+
+    public record InsertedEnrollment(Long id, Long studentId, LocalDateTime enrolledAt) {
+    }
+}
@@ -2,11 +2,14 @@ package ITS.com.vn.course_service.repository;
 
 import ITS.com.vn.course_service.domain.entity.Enrollment;
 import ITS.com.vn.course_service.domain.enums.EnrollmentStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,11 +21,33 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
      */
     Optional<Enrollment> findByCourseIdAndStudentId(Long courseId, Long studentId);
 
+    /**
+     * Tìm và khóa enrollment theo ID (SELECT ... FOR UPDATE), để tiến độ đọc được không bị flush của
+     * progress buffer ghi đè giữa chừng
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Enrollment e WHERE e.id = :id")
+    Optional<Enrollment> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Tìm và khóa enrollment (SELECT ... FOR UPDATE) để cập nhật bitmap hoàn thành bài học
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Enrollment e WHERE e.course.id = :courseId AND e.studentId = :studentId")
+    Optional<Enrollment> findForUpdate(@Param("courseId") Long courseId, @Param("studentId") Long studentId);
+
     /**
      * Kiểm tra student đã enroll vào course chưa
      */
     boolean existsByCourseIdAndStudentId(Long courseId, Long studentId);
 
+    /**
+     * Lấy student IDs đã enroll vào course trong một danh sách (set-based check cho bulk enroll)
+     */
+    @Query("SELECT e.studentId FROM Enrollment e WHERE e.course.id = :courseId AND e.studentId IN :studentIds")
+    List<Long> findEnrolledStudentIds(@Param("courseId") Long courseId,
+            @Param("studentIds") Collection<Long> studentIds);
+
     /**
      * Lấy tất cả enrollments của một student
      */
@@ -33,6 +58,30 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
      */
     List<Enrollment> findByStudentIdAndStatus(Long studentId, EnrollmentStatus status);
 
+    /**
+     * Lấy IDs các course mà student đã hoàn thành (kiểm tra prerequisite khi enroll)
+     * Bao gồm cả enrollments đã archive (enrollments_archive)
+     */
+    @Query(value = """
+            SELECT course_id FROM enrollments WHERE student_id = :studentId AND status = 'COMPLETED'
+            UNION
+            SELECT course_id FROM enrollments_archive WHERE student_id = :studentId AND status = 'COMPLETED'
+            """, nativeQuery = true)
+    List<Long> findCompletedCourseIds(@Param("studentId") Long studentId);
+
+    /**
+     * Lấy các course đã hoàn thành của nhiều student cùng lúc (kiểm tra prerequisite khi bulk enroll)
+     * Bao gồm cả enrollments đã archive (enrollments_archive)
+     */
+    @Query(value = """
+            SELECT student_id AS studentId, course_id AS courseId
+            FROM enrollments WHERE student_id IN (:studentIds) AND status = 'COMPLETED'
+            UNION
+            SELECT student_id, course_id
+            FROM enrollments_archive WHERE student_id IN (:studentIds) AND status = 'COMPLETED'
+            """, nativeQuery = true)
+    List<CompletedCourse> findCompletedCourses(@Param("studentIds") Collection<Long> studentIds);
+
     /**
      * Lấy tất cả enrollments của một course
      */
@@ -77,4 +126,13 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
      */
     @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.course.id = :courseId AND e.status <> 'DROPPED'")
     Long countCurrentByCourseId(@Param("courseId") Long courseId);
+
+    /**
+     * Course hoàn thành của một student
+     */
+    interface CompletedCourse {
+        Long getStudentId();
+
+        Long getCourseId();
+    }
 }
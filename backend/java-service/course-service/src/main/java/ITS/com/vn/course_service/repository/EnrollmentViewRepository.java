@@ -0,0 +1,197 @@
+package ITS.com.vn.course_service.repository;
+
+import ITS.com.vn.course_service.domain.enums.EnrollmentStatus;
+import ITS.com.vn.course_service.dto.response.EnrollmentResponse;
+import ITS.com.vn.course_service.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enrollment listings projected straight into EnrollmentResponse
+ * Enrollment and course card fields (with the instructor from course_catalog) come from one joined
+ * query, so listing N enrollments never loads N Course entities
+ * Only transcripts read archived enrollments; every other listing reads the hot table only
+ */
+@Repository
+@RequiredArgsConstructor
+public class EnrollmentViewRepository {
+
+    private static final String SELECT_ENROLLMENTS = """
+            SELECT e.id, e.student_id, e.status, e.progress, e.enrolled_at, e.completed_at, e.last_access_at,
+                   e.updated_at, c.id AS course_id, c.title, c.code, c.semester, c.schedule, c.credits,
+                   c.max_students, c.thumbnail_url, cc.instructor_name, cc.instructor_avatar_url%s
+            FROM enrollments e
+            JOIN courses c ON c.id = e.course_id
+            LEFT JOIN course_catalog cc ON cc.course_id = e.course_id
+            """;
+
+    // Hot and archived enrollments (see V13 migration)
+    private static final String SELECT_ALL_ENROLLMENTS = """
+            SELECT e.id, e.student_id, e.status, e.progress, e.enrolled_at, e.completed_at, e.last_access_at,
+                   e.updated_at, c.id AS course_id, c.title, c.code, c.semester, c.schedule, c.credits,
+                   c.max_students, c.thumbnail_url, cc.instructor_name, cc.instructor_avatar_url
+            FROM (SELECT id, course_id, student_id, status, progress, enrolled_at, completed_at, last_access_at,
+                         updated_at
+                  FROM enrollments
+                  WHERE student_id = ?
+                  UNION ALL
+                  SELECT id, course_id, student_id, status, progress, enrolled_at, completed_at, last_access_at,
+                         updated_at
+                  FROM enrollments_archive
+                  WHERE student_id = ?) e
+            JOIN courses c ON c.id = e.course_id
+            LEFT JOIN course_catalog cc ON cc.course_id = e.course_id
+            """;
+
+    private static final String COUNT_ENROLLMENTS = "SELECT COUNT(*) FROM enrollments e";
+
+    // Sortable enrollment properties (as used by the Pageable API) and their columns
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "e.id",
+            "studentId", "e.student_id",
+            "status", "e.status",
+            "progress", "e.progress",
+            "enrolledAt", "e.enrolled_at",
+            "completedAt", "e.completed_at",
+            "lastAccessAt", "e.last_access_at");
+
+    private static final RowMapper<EnrollmentResponse> RESPONSE_MAPPER = EnrollmentViewRepository::mapResponse;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Get enrollments of a student, most recent first
+     *
+     * @param status Only enrollments with this status (nullable)
+     */
+    public List<EnrollmentResponse> findByStudent(Long studentId, EnrollmentStatus status) {
+        List<Object> args = new ArrayList<>();
+        String sql = SELECT_ENROLLMENTS.formatted("")
+                + where("e.student_id", studentId, status, args)
+                + " ORDER BY e.enrolled_at DESC, e.id DESC";
+        return jdbcTemplate.query(sql, RESPONSE_MAPPER, args.toArray());
+    }
+
+    /**
+     * Get enrollments of a student including archived ones, most recent first
+     *
+     * @param status Only enrollments with this status (nullable)
+     */
+    public List<EnrollmentResponse> findTranscript(Long studentId, EnrollmentStatus status) {
+        List<Object> args = new ArrayList<>(List.of(studentId, studentId));
+        StringBuilder sql = new StringBuilder(SELECT_ALL_ENROLLMENTS);
+        if (status != null) {
+            sql.append(" WHERE e.status = ?");
+            args.add(status.name());
+        }
+        sql.append(" ORDER BY e.enrolled_at DESC, e.id DESC");
+        return jdbcTemplate.query(sql.toString(), RESPONSE_MAPPER, args.toArray());
+    }
+
+    /**
+     * Get all enrollments of a course, in enrollment order
+     *
+     * @param status Only enrollments with this status (nullable)
+     */
+    public List<EnrollmentResponse> findByCourse(Long courseId, EnrollmentStatus status) {
+        List<Object> args = new ArrayList<>();
+        String sql = SELECT_ENROLLMENTS.formatted("")
+                + where("e.course_id", courseId, status, args)
+                + " ORDER BY e.id";
+        return jdbcTemplate.query(sql, RESPONSE_MAPPER, args.toArray());
+    }
+
+    /**
+     * Get a page of a course's enrollments; the total is computed by the same query (COUNT(*) OVER())
+     *
+     * @param status Only enrollments with this status (nullable)
+     * @throws BadRequestException if the page is sorted by an unsupported property
+     */
+    public Page<EnrollmentResponse> findPageByCourse(Long courseId, EnrollmentStatus status, Pageable pageable) {
+        List<Object> args = new ArrayList<>();
+        String sql = SELECT_ENROLLMENTS.formatted(", COUNT(*) OVER () AS total_count")
+                + where("e.course_id", courseId, status, args)
+                + orderBy(pageable.getSort())
+                + " LIMIT ? OFFSET ?";
+        args.add(pageable.getPageSize());
+        args.add(pageable.getOffset());
+
+        long[] total = {0};
+        List<EnrollmentResponse> content = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            total[0] = rs.getLong("total_count");
+            return mapResponse(rs, rowNum);
+        }, args.toArray());
+        if (content.isEmpty() && pageable.getOffset() > 0) {
+            // Past the last page: no row carried the total
+            List<Object> countArgs = new ArrayList<>();
+            String countSql = COUNT_ENROLLMENTS + where("e.course_id", courseId, status, countArgs);
+            total[0] = jdbcTemplate.queryForObject(countSql, Long.class, countArgs.toArray());
+        }
+        return new PageImpl<>(content, pageable, total[0]);
+    }
+
+    private static String where(String column, Long id, EnrollmentStatus status, List<Object> args) {
+        StringBuilder where = new StringBuilder(" WHERE ").append(column).append(" = ?");
+        args.add(id);
+        if (status != null) {
+            where.append(" AND e.status = ?");
+            args.add(status.name());
+        }
+        return where.toString();
+    }
+
+    // Ties (and unsorted pages) fall back to enrollment order, so pages are stable
+    private static String orderBy(Sort sort) {
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new BadRequestException("Unsupported sort property: " + order.getProperty());
+            }
+            orders.add(column + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        orders.add("e.id");
+        return " ORDER BY " + String.join(", ", orders);
+    }
+
+    private static EnrollmentResponse mapResponse(ResultSet rs, int rowNum) throws SQLException {
+        return EnrollmentResponse.builder()
+                .id(rs.getLong("id"))
+                .courseId(rs.getLong("course_id"))
+                .courseTitle(rs.getString("title"))
+                .courseCode(rs.getString("code"))
+                .courseSemester(rs.getString("semester"))
+                .courseSchedule(rs.getString("schedule"))
+                .courseCredits(rs.getObject("credits", Integer.class))
+                .courseMaxStudents(rs.getObject("max_students", Integer.class))
+                .courseThumbnailUrl(rs.getString("thumbnail_url"))
+                .instructorName(rs.getString("instructor_name"))
+                .instructorAvatarUrl(rs.getString("instructor_avatar_url"))
+                .studentId(rs.getLong("student_id"))
+                .status(EnrollmentStatus.valueOf(rs.getString("status")))
+                .progress(rs.getInt("progress"))
+                .enrolledAt(toLocalDateTime(rs.getTimestamp("enrolled_at")))
+                .completedAt(toLocalDateTime(rs.getTimestamp("completed_at")))
+                .lastAccessAt(toLocalDateTime(rs.getTimestamp("last_access_at")))
+                .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,210 @@
+package ITS.com.vn.course_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Row streams for bulk exports (see ExportService)
+ * Queries run with a fetch size, so inside a transaction PostgreSQL hands rows out through a
+ * server-side cursor and memory stays constant however many rows match. Streams hold their
+ * connection until closed
+ * Rows are selected by a window of updated_at: updatedSince inclusive, updatedBefore exclusive.
+ * Consecutive windows thus export every change exactly once
+ */
+@Repository
+@RequiredArgsConstructor
+public class ExportRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_COURSES = """
+            SELECT c.id, c.code, c.title, c.description, c.status, c.visibility, c.instructor_id, c.semester,
+                   c.credits, c.schedule, c.max_students, c.start_date, c.end_date, c.thumbnail_url,
+                   ARRAY(SELECT ct.tag_id FROM course_tags ct WHERE ct.course_id = c.id ORDER BY ct.tag_id) AS tag_ids,
+                   ARRAY(SELECT p.required_course_id FROM prerequisites p WHERE p.course_id = c.id
+                         ORDER BY p.required_course_id) AS prerequisite_ids,
+                   c.created_at, c.updated_at, c.published_at
+            FROM courses c
+            WHERE c.updated_at >= ? AND c.updated_at < ?
+            ORDER BY c.id
+            """;
+
+    private static final String SELECT_LESSONS = """
+            SELECT v.course_id, v.id AS version_id, v.version, v.status AS version_status,
+                   ch.id AS chapter_id, ch.title AS chapter_title, ch.sequence AS chapter_sequence,
+                   l.id AS lesson_id, l.title, l.type, l.sequence, l.mastery_threshold, l.estimated_duration,
+                   (SELECT COUNT(*) FROM asset_metadata a WHERE a.lesson_id = l.id) AS asset_count,
+                   GREATEST(v.updated_at, ch.updated_at, l.updated_at) AS updated_at
+            FROM lessons l
+            JOIN chapters ch ON ch.id = l.chapter_id
+            JOIN course_versions v ON v.id = ch.version_id
+            WHERE (l.updated_at >= ? OR ch.updated_at >= ? OR v.updated_at >= ?)
+              AND GREATEST(v.updated_at, ch.updated_at, l.updated_at) < ?
+            ORDER BY v.course_id, v.id, ch.sequence, l.sequence, l.id
+            """;
+
+    // Archived rows also match once their archival is newer than the watermark
+    private static final String SELECT_ENROLLMENTS = """
+            SELECT id, course_id, student_id, status, progress, enrolled_at, completed_at, last_access_at,
+                   updated_at, archived_at
+            FROM (SELECT id, course_id, student_id, status, progress, enrolled_at, completed_at, last_access_at,
+                         updated_at, NULL::timestamp AS archived_at
+                  FROM enrollments
+                  WHERE updated_at >= ? AND updated_at < ? %1$s
+                  UNION ALL
+                  SELECT id, course_id, student_id, status, progress, enrolled_at, completed_at, last_access_at,
+                         updated_at, archived_at
+                  FROM enrollments_archive
+                  WHERE (updated_at >= ? OR archived_at >= ?) AND GREATEST(updated_at, archived_at) < ? %1$s) e
+            ORDER BY id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stream courses updated within the window, in ID order
+     */
+    public Stream<CourseExportRow> streamCourses(LocalDateTime updatedSince, LocalDateTime updatedBefore) {
+        return stream(SELECT_COURSES, (rs, rowNum) -> new CourseExportRow(
+                rs.getLong("id"),
+                rs.getString("code"),
+                rs.getString("title"),
+                rs.getString("description"),
+                rs.getString("status"),
+                rs.getString("visibility"),
+                rs.getLong("instructor_id"),
+                rs.getString("semester"),
+                rs.getObject("credits", Integer.class),
+                rs.getString("schedule"),
+                rs.getObject("max_students", Integer.class),
+                rs.getObject("start_date", LocalDate.class),
+                rs.getObject("end_date", LocalDate.class),
+                rs.getString("thumbnail_url"),
+                toLongList(rs.getArray("tag_ids")),
+                toLongList(rs.getArray("prerequisite_ids")),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at")),
+                toLocalDateTime(rs.getTimestamp("published_at"))),
+                List.of(timestamp(updatedSince), Timestamp.valueOf(updatedBefore)));
+    }
+
+    /**
+     * Stream lessons (with their chapter and version) of all course versions whose lesson, chapter or
+     * version changed within the window, in course structure order
+     */
+    public Stream<LessonExportRow> streamLessons(LocalDateTime updatedSince, LocalDateTime updatedBefore) {
+        return stream(SELECT_LESSONS, (rs, rowNum) -> new LessonExportRow(
+                rs.getLong("course_id"),
+                rs.getLong("version_id"),
+                rs.getString("version"),
+                rs.getString("version_status"),
+                rs.getLong("chapter_id"),
+                rs.getString("chapter_title"),
+                rs.getInt("chapter_sequence"),
+                rs.getLong("lesson_id"),
+                rs.getString("title"),
+                rs.getString("type"),
+                rs.getInt("sequence"),
+                rs.getDouble("mastery_threshold"),
+                rs.getObject("estimated_duration", Integer.class),
+                rs.getInt("asset_count"),
+                toLocalDateTime(rs.getTimestamp("updated_at"))),
+                List.of(timestamp(updatedSince), timestamp(updatedSince), timestamp(updatedSince),
+                        Timestamp.valueOf(updatedBefore)));
+    }
+
+    /**
+     * Stream enrollments, current and archived, changed within the window, in ID order
+     *
+     * @param courseId Only enrollments of this course (nullable)
+     */
+    public Stream<EnrollmentExportRow> streamEnrollments(LocalDateTime updatedSince, LocalDateTime updatedBefore,
+            Long courseId) {
+        Timestamp since = timestamp(updatedSince);
+        Timestamp before = Timestamp.valueOf(updatedBefore);
+        List<Object> args = new ArrayList<>();
+        args.add(since);
+        args.add(before);
+        if (courseId != null) {
+            args.add(courseId);
+        }
+        args.add(since);
+        args.add(since);
+        args.add(before);
+        if (courseId != null) {
+            args.add(courseId);
+        }
+        String sql = SELECT_ENROLLMENTS.formatted(courseId != null ? "AND course_id = ?" : "");
+        return stream(sql, (rs, rowNum) -> new EnrollmentExportRow(
+                rs.getLong("id"),
+                rs.getLong("course_id"),
+                rs.getLong("student_id"),
+                rs.getString("status"),
+                rs.getInt("progress"),
+                toLocalDateTime(rs.getTimestamp("enrolled_at")),
+                toLocalDateTime(rs.getTimestamp("completed_at")),
+                toLocalDateTime(rs.getTimestamp("last_access_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at")),
+                rs.getTimestamp("archived_at") != null,
+                toLocalDateTime(rs.getTimestamp("archived_at"))),
+                args);
+    }
+
+    private <T> Stream<T> stream(String sql, RowMapper<T> rowMapper, List<Object> args) {
+        return jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, rowMapper);
+    }
+
+    // A full export uses the epoch as its watermark
+    private static Timestamp timestamp(LocalDateTime updatedSince) {
+        return Timestamp.valueOf(updatedSince != null ? updatedSince : LocalDateTime.of(1970, 1, 1, 0, 0));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static List<Long> toLongList(Array array) throws SQLException {
+        List<Long> values = new ArrayList<>();
+        for (Object value : (Object[]) array.getArray()) {
+            values.add(((Number) value).longValue());
+        }
+        return values;
+    }
+
+    public record CourseExportRow(Long id, String code, String title, String description, String status,
+            String visibility, Long instructorId, String semester, Integer credits, String schedule,
+            Integer maxStudents, LocalDate startDate, LocalDate endDate, String thumbnailUrl, List<Long> tagIds,
+            List<Long> prerequisiteCourseIds, LocalDateTime createdAt, LocalDateTime updatedAt,
+            LocalDateTime publishedAt) {
+    }
+
+    public record LessonExportRow(Long courseId, Long versionId, String version, String versionStatus,
+            Long chapterId, String chapterTitle, int chapterSequence, Long lessonId, String title, String type,
+            int sequence, double masteryThreshold, Integer estimatedDuration, int assetCount,
+            LocalDateTime updatedAt) {
+    }
+
+    public record EnrollmentExportRow(Long id, Long courseId, Long studentId, String status, int progress,
+            LocalDateTime enrolledAt, LocalDateTime completedAt, LocalDateTime lastAccessAt,
+            LocalDateTime updatedAt, boolean archived, LocalDateTime archivedAt) {
+    }
+}
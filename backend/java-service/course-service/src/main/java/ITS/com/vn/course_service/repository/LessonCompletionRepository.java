@@ -0,0 +1,134 @@
+package ITS.com.vn.course_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Lesson completion bitmaps of enrollments and the lesson layouts they are written against
+ * (see LessonCompletionService)
+ */
+@Repository
+@RequiredArgsConstructor
+public class LessonCompletionRepository {
+
+    // The version students take is resolved as in CourseStructureService: latest PUBLISHED, else latest DRAFT
+    private static final String FIND_LESSON_PLACEMENT = """
+            SELECT v.course_id, c.version_id,
+                   (SELECT sv.id FROM course_versions sv
+                    WHERE sv.course_id = v.course_id AND sv.status IN ('PUBLISHED', 'DRAFT')
+                    ORDER BY sv.status = 'PUBLISHED' DESC, sv.id DESC
+                    LIMIT 1) AS student_version_id
+            FROM lessons l
+            JOIN chapters c ON c.id = l.chapter_id
+            JOIN course_versions v ON v.id = c.version_id
+            WHERE l.id = ?
+            """;
+
+    // The enrollment of the student in the course the version belongs to
+    private static final String FIND_COMPLETION = """
+            SELECT e.completed_lessons, e.completion_layout_id
+            FROM course_versions v
+            JOIN enrollments e ON e.course_id = v.course_id AND e.student_id = ?
+            WHERE v.id = ?
+            """;
+
+    private static final String FIND_LAYOUT = "SELECT lesson_keys FROM lesson_layouts WHERE id = ?";
+
+    private static final String FIND_LAYOUT_ID = """
+            SELECT id FROM lesson_layouts WHERE version_id = ? AND fingerprint = ?
+            """;
+
+    // Concurrent writers of the same layout both get the one row
+    private static final String INSERT_LAYOUT = """
+            INSERT INTO lesson_layouts (version_id, fingerprint, lesson_ids, lesson_keys, created_at)
+            VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (version_id, fingerprint) DO UPDATE SET fingerprint = EXCLUDED.fingerprint
+            RETURNING id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Course and version a lesson belongs to, with the version of the course students take
+     */
+    public Optional<LessonPlacement> findLessonPlacement(Long lessonId) {
+        return single(jdbcTemplate.query(FIND_LESSON_PLACEMENT,
+                (rs, rowNum) -> new LessonPlacement(rs.getLong("course_id"), rs.getLong("version_id"),
+                        rs.getObject("student_version_id", Long.class)),
+                lessonId));
+    }
+
+    /**
+     * Completion bitmap of a student's enrollment in the course of a version
+     *
+     * @return Empty if the student is not enrolled; a bitmap with a null layout if nothing was completed yet
+     */
+    public Optional<StoredCompletion> findCompletion(Long versionId, Long studentId) {
+        return single(jdbcTemplate.query(FIND_COMPLETION,
+                (rs, rowNum) -> new StoredCompletion(rs.getBytes("completed_lessons"),
+                        rs.getObject("completion_layout_id", Long.class)),
+                studentId, versionId));
+    }
+
+    /**
+     * Lesson keys of a layout, in the reading order its bitmaps are indexed by (null for lessons
+     * deleted before the keys were recorded)
+     */
+    public Optional<UUID[]> findLayout(Long layoutId) {
+        return single(jdbcTemplate.query(FIND_LAYOUT, (rs, rowNum) -> {
+            Object[] keys = (Object[]) rs.getArray("lesson_keys").getArray();
+            UUID[] lessonKeys = new UUID[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                lessonKeys[i] = (UUID) keys[i];
+            }
+            return lessonKeys;
+        }, layoutId));
+    }
+
+    /**
+     * Get the ID of a version's layout, recording it first if this reading order is new
+     *
+     * @param fingerprint Hash of the lesson IDs (see LessonNavigation.getFingerprint)
+     */
+    public Long saveLayout(Long versionId, long fingerprint, long[] lessonIds, UUID[] lessonKeys) {
+        List<Long> existing = jdbcTemplate.queryForList(FIND_LAYOUT_ID, Long.class, versionId, fingerprint);
+        if (!existing.isEmpty()) {
+            return existing.get(0);
+        }
+        Long[] ids = new Long[lessonIds.length];
+        for (int i = 0; i < lessonIds.length; i++) {
+            ids[i] = lessonIds[i];
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_LAYOUT);
+            ps.setLong(1, versionId);
+            ps.setLong(2, fingerprint);
+            ps.setArray(3, connection.createArrayOf("bigint", ids));
+            ps.setArray(4, connection.createArrayOf("uuid", lessonKeys));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1)).get(0);
+    }
+
+    private static <T> Optional<T> single(List<T> rows) {
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    public record LessonPlacement(Long courseId, Long versionId, Long studentVersionId) {
+
+        /**
+         * Whether the lesson belongs to the version students take (the one completions are recorded for)
+         */
+        public boolean isInStudentVersion() {
+            return versionId.equals(studentVersionId);
+        }
+    }
+
+    public record StoredCompletion(byte[] completedLessons, Long layoutId) {
+    }
+}
@@ -7,32 +7,96 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface LessonRepository extends JpaRepository<Lesson, Long> {
 
+    String LESSON_SUMMARY_COLUMNS = "l.id AS id, l.lessonKey AS lessonKey, l.chapter.id AS chapterId, " +
+            "l.title AS title, l.description AS description, l.type AS type, l.sequence AS sequence, " +
+            "l.masteryThreshold AS masteryThreshold, l.estimatedDuration AS estimatedDuration, " +
+            "l.createdAt AS createdAt, l.updatedAt AS updatedAt";
+
     // Find lessons by chapter ID
     List<Lesson> findByChapterIdOrderBySequenceAsc(Long chapterId);
 
+    // Lesson list items (no content) of a chapter
+    @Query("SELECT " + LESSON_SUMMARY_COLUMNS + " FROM Lesson l WHERE l.chapter.id = :chapterId " +
+            "ORDER BY l.sequence ASC")
+    List<LessonSummary> findSummariesByChapterId(@Param("chapterId") Long chapterId);
+
+    // Lesson list items (no content) of several chapters in one query
+    @Query("SELECT " + LESSON_SUMMARY_COLUMNS + " FROM Lesson l WHERE l.chapter.id IN :chapterIds " +
+            "ORDER BY l.chapter.id, l.sequence ASC")
+    List<LessonSummary> findSummariesByChapterIdIn(@Param("chapterIds") Collection<Long> chapterIds);
+
+    // Lesson outlines (no content) of a whole version for the course structure snapshot
+    @Query("SELECT l.id AS id, l.lessonKey AS lessonKey, l.chapter.id AS chapterId, l.title AS title, " +
+            "l.sequence AS sequence, l.type AS type, l.estimatedDuration AS estimatedDuration FROM Lesson l " +
+            "WHERE l.chapter.version.id = :versionId ORDER BY l.chapter.id, l.sequence ASC")
+    List<LessonOutline> findOutlinesByVersionId(@Param("versionId") Long versionId);
+
+    // Hash of the version's chapter and lesson IDs in reading order, to check a cached navigation is current
+    @Query(value = "SELECT md5(COALESCE(string_agg(concat(c.id, ':', l.id), ',' " +
+            "ORDER BY c.sequence, c.id, l.sequence, l.id), '')) FROM lessons l " +
+            "JOIN chapters c ON c.id = l.chapter_id WHERE c.version_id = :versionId", nativeQuery = true)
+    String findReadingOrderStamp(@Param("versionId") Long versionId);
+
+    // Whether a lesson of the version already has the key
+    boolean existsByLessonKeyAndChapter_Version_Id(UUID lessonKey, Long versionId);
+
     // Find lessons by type
     List<Lesson> findByType(LessonType type);
 
-    // Find lesson with all relationships
-    @Query("SELECT l FROM Lesson l " +
-            "LEFT JOIN FETCH l.assets " +
-            "LEFT JOIN FETCH l.assignments " +
-            "LEFT JOIN FETCH l.adaptiveRules " +
-            "WHERE l.id = :id")
+    // Find lesson with its chapter (assets and assignments are loaded by their own queries)
+    @Query("SELECT l FROM Lesson l JOIN FETCH l.chapter WHERE l.id = :id")
     Optional<Lesson> findByIdWithDetails(@Param("id") Long id);
 
     // Get max sequence for a chapter
     @Query("SELECT COALESCE(MAX(l.sequence), 0) FROM Lesson l WHERE l.chapter.id = :chapterId")
     Integer getMaxSequenceByChapterId(@Param("chapterId") Long chapterId);
 
-    // Find next lesson in sequence
-    @Query("SELECT l FROM Lesson l WHERE l.chapter.id = :chapterId AND l.sequence > :currentSequence ORDER BY l.sequence ASC")
-    Optional<Lesson> findNextLesson(@Param("chapterId") Long chapterId,
-            @Param("currentSequence") Integer currentSequence);
+    interface LessonSummary {
+        Long getId();
+
+        UUID getLessonKey();
+
+        Long getChapterId();
+
+        String getTitle();
+
+        String getDescription();
+
+        LessonType getType();
+
+        Integer getSequence();
+
+        Double getMasteryThreshold();
+
+        Integer getEstimatedDuration();
+
+        LocalDateTime getCreatedAt();
+
+        LocalDateTime getUpdatedAt();
+    }
+
+    interface LessonOutline {
+        Long getId();
+
+        UUID getLessonKey();
+
+        Long getChapterId();
+
+        String getTitle();
+
+        Integer getSequence();
+
+        LessonType getType();
+
+        Integer getEstimatedDuration();
+    }
 }
@@ -0,0 +1,128 @@
+package ITS.com.vn.course_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Outbox Event Repository - Storage for the transactional outbox
+ * Plain JDBC so that bulk operations write all their events in one batch
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxEventRepository {
+
+    private static final String INSERT_EVENT = """
+            INSERT INTO outbox_events (aggregate_id, event_type, exchange, routing_key, type_id, payload)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    // SKIP LOCKED lets several relay instances drain disjoint batches
+    private static final String LOCK_DUE_EVENTS = """
+            SELECT id, event_type, exchange, routing_key, type_id, payload, attempts, created_at
+            FROM outbox_events
+            WHERE available_at <= CURRENT_TIMESTAMP
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String MARK_FAILED = """
+            UPDATE outbox_events
+            SET attempts = attempts + 1, last_error = ?, available_at = ?
+            WHERE id = ANY(?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Append events; must run inside the transaction of the change that produced them
+     */
+    public void append(List<NewOutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (ps, event) -> {
+            ps.setObject(1, event.aggregateId());
+            ps.setString(2, event.eventType());
+            ps.setString(3, event.exchange());
+            ps.setString(4, event.routingKey());
+            ps.setString(5, event.typeId());
+            ps.setString(6, event.payload());
+        });
+    }
+
+    /**
+     * Lock the next due events (oldest first); rows locked by another relay are skipped
+     */
+    public List<OutboxEvent> lockDueEvents(int limit) {
+        return jdbcTemplate.query(LOCK_DUE_EVENTS, (rs, rowNum) -> new OutboxEvent(
+                rs.getLong("id"),
+                rs.getString("event_type"),
+                rs.getString("exchange"),
+                rs.getString("routing_key"),
+                rs.getString("type_id"),
+                rs.getString("payload"),
+                rs.getInt("attempts"),
+                rs.getTimestamp("created_at").toLocalDateTime()), limit);
+    }
+
+    /**
+     * Remove events confirmed by the broker
+     */
+    public void delete(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement("DELETE FROM outbox_events WHERE id = ANY(?)");
+            ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Record a failed relay attempt and postpone the events
+     */
+    public void markFailed(Collection<Long> ids, String error, Duration retryAfter) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(MARK_FAILED);
+            ps.setString(1, error);
+            ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now().plus(retryAfter)));
+            ps.setArray(3, connection.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Count pending events and get the creation time of the oldest one (null if empty)
+     */
+    public Backlog getBacklog() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) AS pending, MIN(created_at) AS oldest FROM outbox_events",
+                (rs, rowNum) -> {
+                    Timestamp oldest = rs.getTimestamp("oldest");
+                    return new Backlog(rs.getLong("pending"), oldest != null ? oldest.toLocalDateTime() : null);
+                });
+    }
+
+    public record NewOutboxEvent(Long aggregateId, String eventType, String exchange, String routingKey,
+            String typeId, String payload) {
+    }
+
+    public record OutboxEvent(Long id, String eventType, String exchange, String routingKey, String typeId,
+            String payload, int attempts, LocalDateTime createdAt) {
+    }
+
+    public record Backlog(long pending, LocalDateTime oldestCreatedAt) {
+    }
+}
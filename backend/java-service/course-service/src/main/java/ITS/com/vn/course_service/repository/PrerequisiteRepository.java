@@ -0,0 +1,45 @@
+package ITS.com.vn.course_service.repository;
+
+import ITS.com.vn.course_service.domain.entity.Prerequisite;
+import ITS.com.vn.course_service.domain.enums.PrerequisiteType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PrerequisiteRepository extends JpaRepository<Prerequisite, Long> {
+
+    // All prerequisite edges whose required course still exists (required_course_id has no foreign key)
+    @Query("SELECT p.course.id AS courseId, p.requiredCourseId AS requiredCourseId, p.type AS type " +
+            "FROM Prerequisite p WHERE EXISTS (SELECT 1 FROM Course c WHERE c.id = p.requiredCourseId)")
+    List<PrerequisiteEdge> findAllEdges();
+
+    // Transaction-scoped lock serialising prerequisite edits across instances
+    @Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock(hashtext('prerequisites'))) AS l",
+            nativeQuery = true)
+    long lockEdits();
+
+    // Whether a course is a direct or transitive prerequisite of any of the given courses
+    @Query(value = """
+            WITH RECURSIVE reach(id) AS (
+                SELECT p.required_course_id FROM prerequisites p WHERE p.course_id IN (:courseIds)
+                UNION
+                SELECT p.required_course_id FROM prerequisites p JOIN reach r ON p.course_id = r.id
+            )
+            SELECT EXISTS (SELECT 1 FROM reach WHERE id = :requiredCourseId)
+            """, nativeQuery = true)
+    boolean isRequiredByAny(@Param("courseIds") Collection<Long> courseIds,
+            @Param("requiredCourseId") Long requiredCourseId);
+
+    interface PrerequisiteEdge {
+        Long getCourseId();
+
+        Long getRequiredCourseId();
+
+        PrerequisiteType getType();
+    }
+}
@@ -39,6 +39,18 @@ public final class SecurityUtils {
         return null;
     }
 
+    /**
+     * Check whether the user has the given role (as in hasRole(...) of @PreAuthorize)
+     */
+    public static boolean hasRole(Authentication authentication, String role) {
+        if (authentication == null) {
+            return false;
+        }
+        String authority = "ROLE_" + role;
+        return authentication.getAuthorities().stream()
+                .anyMatch(granted -> authority.equals(granted.getAuthority()));
+    }
+
     public static Long getUserIdAsLong(Authentication authentication) {
         return getUserIdAsLong(authentication, false);
     }
@@ -0,0 +1,273 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.AdaptiveRule;
+import ITS.com.vn.course_service.domain.entity.Lesson;
+import ITS.com.vn.course_service.domain.enums.AdaptiveAction;
+import ITS.com.vn.course_service.dto.request.CreateAdaptiveRuleRequest;
+import ITS.com.vn.course_service.dto.request.EvaluateAdaptiveRulesRequest;
+import ITS.com.vn.course_service.dto.response.AdaptiveDecisionResponse;
+import ITS.com.vn.course_service.dto.response.AdaptiveRuleResponse;
+import ITS.com.vn.course_service.exception.BadRequestException;
+import ITS.com.vn.course_service.exception.ResourceNotFoundException;
+import ITS.com.vn.course_service.exception.UnauthorizedException;
+import ITS.com.vn.course_service.repository.AdaptiveRuleRepository;
+import ITS.com.vn.course_service.repository.AdaptiveRuleRepository.RuleDefinition;
+import ITS.com.vn.course_service.repository.LessonRepository;
+import ITS.com.vn.course_service.service.adaptive.CompiledRule;
+import ITS.com.vn.course_service.service.adaptive.CompiledRuleSet;
+import ITS.com.vn.course_service.service.adaptive.LearnerMetrics;
+import ITS.com.vn.course_service.service.adaptive.RuleConditionCompiler;
+import ITS.com.vn.course_service.service.adaptive.RuleSyntaxException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Adaptive Rule Service - Manages lesson branching rules and decides where a learner goes next
+ * Conditions are validated and compiled when a rule is created; the compiled rules of a source
+ * lesson are cached, so evaluating a learner's results does not touch the database or re-parse text.
+ * Rules created or deleted on other instances are picked up by checking cached rules older than the
+ * validation interval against a hash of the lesson's rules
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class AdaptiveRuleService {
+
+    private final AdaptiveRuleRepository adaptiveRuleRepository;
+    private final LessonRepository lessonRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long validateAfterMillis;
+    private final GuardedLruCache<Long, CachedRules> cache;
+
+    public AdaptiveRuleService(AdaptiveRuleRepository adaptiveRuleRepository,
+            LessonRepository lessonRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.cache.adaptive-rules.max-size:5000}") int maxSize,
+            @Value("${application.cache.adaptive-rules.validate-after:PT10S}") Duration validateAfter) {
+        this.adaptiveRuleRepository = adaptiveRuleRepository;
+        this.lessonRepository = lessonRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.validateAfterMillis = validateAfter.toMillis();
+        this.cache = new GuardedLruCache<>(maxSize);
+    }
+
+    /**
+     * Create an adaptive rule on a lesson
+     * The condition is compiled here, so invalid rules are rejected instead of being stored
+     *
+     * @param lessonId     Source lesson ID
+     * @param request      Condition, action and target lesson
+     * @param instructorId ID of the instructor creating the rule
+     * @return Created rule
+     */
+    @Transactional
+    public AdaptiveRuleResponse createRule(Long lessonId, CreateAdaptiveRuleRequest request, Long instructorId) {
+        log.info("Creating adaptive rule for lesson {}: {} -> {}", lessonId, request.getCondition(),
+                request.getAction());
+
+        Lesson source = lessonRepository.findById(lessonId)
+                .orElseThrow(() -> new ResourceNotFoundException("Lesson", "id", lessonId));
+
+        // Check authorization
+        if (!source.getChapter().getVersion().getCourse().getInstructorId().equals(instructorId)) {
+            throw new UnauthorizedException("You are not authorized to add rules to this lesson");
+        }
+
+        String condition = request.getCondition().trim();
+        try {
+            RuleConditionCompiler.compile(condition);
+        } catch (RuleSyntaxException ex) {
+            throw new BadRequestException("Invalid rule condition: " + ex.getMessage());
+        }
+
+        Lesson target = null;
+        if (request.getAction().requiresTarget()) {
+            if (request.getTargetLessonId() == null) {
+                throw new BadRequestException("Action " + request.getAction() + " requires a target lesson");
+            }
+            if (request.getTargetLessonId().equals(lessonId)) {
+                throw new BadRequestException("Target lesson must differ from the source lesson");
+            }
+            target = lessonRepository.findById(request.getTargetLessonId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Lesson", "id", request.getTargetLessonId()));
+            // Branch only within the same course version
+            if (!target.getChapter().getVersion().getId().equals(source.getChapter().getVersion().getId())) {
+                throw new BadRequestException("Target lesson must belong to the same course version");
+            }
+        } else if (request.getTargetLessonId() != null) {
+            throw new BadRequestException("Action " + request.getAction() + " does not take a target lesson");
+        }
+
+        AdaptiveRule rule = adaptiveRuleRepository.save(AdaptiveRule.builder()
+                .sourceLesson(source)
+                .targetLesson(target)
+                .condition(condition)
+                .action(request.getAction().name())
+                .description(request.getDescription())
+                .build());
+        evict(lessonId);
+        log.info("Adaptive rule created with ID: {}", rule.getId());
+
+        return AdaptiveRuleResponse.builder()
+                .id(rule.getId())
+                .sourceLessonId(lessonId)
+                .targetLessonId(target != null ? target.getId() : null)
+                .condition(rule.getCondition())
+                .action(rule.getAction())
+                .description(rule.getDescription())
+                .createdAt(rule.getCreatedAt())
+                .build();
+    }
+
+    /**
+     * Get the rules of a lesson in evaluation order
+     */
+    public List<AdaptiveRuleResponse> getRules(Long lessonId) {
+        if (!lessonRepository.existsById(lessonId)) {
+            throw new ResourceNotFoundException("Lesson", "id", lessonId);
+        }
+        return adaptiveRuleRepository.findDefinitionsBySourceLessonId(lessonId).stream()
+                .map(rule -> AdaptiveRuleResponse.builder()
+                        .id(rule.getId())
+                        .sourceLessonId(lessonId)
+                        .targetLessonId(rule.getTargetLessonId())
+                        .condition(rule.getCondition())
+                        .action(rule.getAction())
+                        .description(rule.getDescription())
+                        .createdAt(rule.getCreatedAt())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Delete an adaptive rule
+     */
+    @Transactional
+    public void deleteRule(Long lessonId, Long ruleId, Long instructorId) {
+        log.info("Deleting adaptive rule {} of lesson {}", ruleId, lessonId);
+
+        AdaptiveRule rule = adaptiveRuleRepository.findById(ruleId)
+                .filter(r -> r.getSourceLesson().getId().equals(lessonId))
+                .orElseThrow(() -> new ResourceNotFoundException("Adaptive rule", "id", ruleId));
+
+        // Check authorization
+        if (!rule.getSourceLesson().getChapter().getVersion().getCourse().getInstructorId().equals(instructorId)) {
+            throw new UnauthorizedException("You are not authorized to delete this rule");
+        }
+
+        adaptiveRuleRepository.delete(rule);
+        evict(lessonId);
+    }
+
+    /**
+     * Decide where a learner goes after a lesson
+     * The first rule (in creation order) whose condition matches decides; CONTINUE if none matches
+     *
+     * @param lessonId Source lesson ID
+     * @param request  Learner's score, mastery and attempts
+     * @return Decision with the next lesson
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AdaptiveDecisionResponse evaluate(Long lessonId, EvaluateAdaptiveRulesRequest request) {
+        LearnerMetrics metrics = LearnerMetrics.of(request.getScore(), request.getMastery(), request.getAttempts());
+        CompiledRule rule = getCompiledRules(lessonId).firstMatch(metrics);
+
+        if (rule == null) {
+            return AdaptiveDecisionResponse.builder()
+                    .lessonId(lessonId)
+                    .action(AdaptiveAction.CONTINUE)
+                    .build();
+        }
+        return AdaptiveDecisionResponse.builder()
+                .lessonId(lessonId)
+                .action(rule.action())
+                .nextLessonId(rule.action() == AdaptiveAction.REPEAT_LESSON ? lessonId : rule.targetLessonId())
+                .ruleId(rule.ruleId())
+                .condition(rule.condition())
+                .build();
+    }
+
+    /**
+     * Get the compiled rules of a lesson, compiling and caching them on first use
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompiledRuleSet getCompiledRules(Long lessonId) {
+        CachedRules cached = cache.get(lessonId);
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.validatedAt() < validateAfterMillis) {
+            return cached.rules();
+        }
+
+        CachedRules current = cache.load(lessonId, () -> readOnlyTransaction.execute(status -> {
+            String stamp = adaptiveRuleRepository.findRulesStamp(lessonId);
+            if (cached != null && Objects.equals(cached.stamp(), stamp)) {
+                return new CachedRules(cached.rules(), stamp, now);
+            }
+            return new CachedRules(load(lessonId), stamp, now);
+        }));
+        return current.rules();
+    }
+
+    /**
+     * Evict the compiled rules of a lesson once the current transaction commits
+     */
+    public void evict(Long lessonId) {
+        cache.evict(lessonId);
+    }
+
+    /**
+     * Evict all compiled rules once the current transaction commits
+     * Call when a lesson is deleted, since rules of other lessons may have pointed to it
+     */
+    public void evictAll() {
+        cache.evictAll();
+    }
+
+    private CompiledRuleSet load(Long lessonId) {
+        List<RuleDefinition> definitions = adaptiveRuleRepository.findDefinitionsBySourceLessonId(lessonId);
+        if (definitions.isEmpty()) {
+            if (!lessonRepository.existsById(lessonId)) {
+                throw new ResourceNotFoundException("Lesson", "id", lessonId);
+            }
+            return CompiledRuleSet.EMPTY;
+        }
+
+        List<CompiledRule> rules = new ArrayList<>(definitions.size());
+        for (RuleDefinition definition : definitions) {
+            try {
+                AdaptiveAction action = AdaptiveAction.valueOf(definition.getAction().trim());
+                if (action.requiresTarget() && definition.getTargetLessonId() == null) {
+                    log.debug("Skipping adaptive rule {}: target lesson was deleted", definition.getId());
+                    continue;
+                }
+                rules.add(new CompiledRule(definition.getId(), definition.getCondition(),
+                        RuleConditionCompiler.compile(definition.getCondition()), action,
+                        definition.getTargetLessonId()));
+            } catch (IllegalArgumentException ex) {
+                // Rules stored before conditions were validated
+                log.warn("Skipping invalid adaptive rule {} of lesson {}: {}", definition.getId(), lessonId,
+                        ex.getMessage());
+            }
+        }
+        log.debug("Compiled {} adaptive rules for lesson {}", rules.size(), lessonId);
+        return new CompiledRuleSet(rules);
+    }
+
+    /**
+     * @param stamp       Hash of the lesson's rules read before they were compiled
+     * @param validatedAt When the stamp was last read
+     */
+    private record CachedRules(CompiledRuleSet rules, String stamp, long validatedAt) {
+    }
+}
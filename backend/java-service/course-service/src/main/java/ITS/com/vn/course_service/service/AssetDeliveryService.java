@@ -0,0 +1,72 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.AssetMetadata;
+import ITS.com.vn.course_service.exception.ResourceNotFoundException;
+import ITS.com.vn.course_service.repository.AssetMetadataRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Asset Delivery Service - Resolves lesson assets to their stored bytes for streaming
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class AssetDeliveryService {
+
+    private final AssetMetadataRepository assetMetadataRepository;
+    private final List<AssetStorage> storages;
+
+    /**
+     * Get a lesson asset ready for delivery
+     *
+     * @param lessonId Lesson ID
+     * @param assetId  Asset ID
+     * @return Asset with its storage, size and validators
+     */
+    public AssetDownload getAsset(Long lessonId, Long assetId) {
+        AssetMetadata asset = assetMetadataRepository.findById(assetId)
+                .filter(a -> a.getLesson().getId().equals(lessonId))
+                .orElseThrow(() -> new ResourceNotFoundException("Asset", "id", assetId));
+
+        AssetStorage storage = storages.stream()
+                .filter(s -> s.supports(asset.getStorageUrl()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                        "No storage configured for asset URL: " + asset.getStorageUrl()));
+
+        long size;
+        try {
+            // The stored object is the source of truth for the length, not sizeBytes
+            size = storage.size(asset.getStorageUrl());
+        } catch (NoSuchFileException ex) {
+            log.warn("Asset {} is missing from storage: {}", assetId, asset.getStorageUrl());
+            throw new ResourceNotFoundException("Asset content", "id", assetId);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        long lastModified = asset.getUploadedAt() != null
+                ? asset.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+        String eTag = asset.getChecksum() != null
+                ? "\"" + asset.getChecksum() + "\""
+                : "\"" + assetId + "-" + size + "-" + lastModified + "\"";
+
+        return new AssetDownload(asset.getStorageUrl(), asset.getMimeType(), asset.getOriginalFileName(),
+                size, eTag, lastModified, storage);
+    }
+
+    public record AssetDownload(String storageUrl, String mimeType, String fileName, long size, String eTag,
+            long lastModified, AssetStorage storage) {
+    }
+}
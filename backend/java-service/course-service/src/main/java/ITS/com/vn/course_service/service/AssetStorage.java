@@ -0,0 +1,64 @@
+package ITS.com.vn.course_service.service;
+
+import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Storage backend for lesson asset bytes, addressed by AssetMetadata.storageUrl
+ * Implementations are picked by the URL scheme they support
+ */
+public interface AssetStorage {
+
+    /**
+     * Check whether this storage holds objects with the given URL
+     *
+     * @param storageUrl Storage URL (e.g. local://lessons/12/intro.mp4)
+     * @return true if this storage can serve the URL
+     */
+    boolean supports(String storageUrl);
+
+    /**
+     * Get size of a stored object
+     *
+     * @throws java.nio.file.NoSuchFileException if the object does not exist
+     */
+    long size(String storageUrl) throws IOException;
+
+    /**
+     * Open a stored object for reading; callers position the channel for range reads
+     *
+     * @throws java.nio.file.NoSuchFileException if the object does not exist
+     */
+    SeekableByteChannel openForRead(String storageUrl) throws IOException;
+
+    /**
+     * Get the local file backing a stored object, if any, so it can be sent with zero-copy transfers
+     *
+     * @return Local file, or empty for remote storages
+     */
+    Optional<Path> localFile(String storageUrl);
+
+    /**
+     * Move a fully received file into the storage
+     *
+     * @param key    Object key (relative path, e.g. lessons/12/intro.mp4)
+     * @param source Local file to import; it no longer exists afterwards
+     * @return Storage URL of the imported object
+     */
+    String importFile(String key, Path source) throws IOException;
+
+    /**
+     * Move an imported object back out of the storage, undoing importFile when the transaction
+     * that references it rolls back
+     *
+     * @param target Local file to move the object to
+     */
+    void releaseFile(String storageUrl, Path target) throws IOException;
+
+    /**
+     * Delete a stored object; does nothing if it does not exist
+     */
+    void delete(String storageUrl) throws IOException;
+}
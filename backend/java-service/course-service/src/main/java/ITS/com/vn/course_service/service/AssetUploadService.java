@@ -0,0 +1,426 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.AssetMetadata;
+import ITS.com.vn.course_service.domain.entity.AssetUploadSession;
+import ITS.com.vn.course_service.domain.entity.Lesson;
+import ITS.com.vn.course_service.domain.enums.UploadStatus;
+import ITS.com.vn.course_service.dto.request.CreateAssetUploadRequest;
+import ITS.com.vn.course_service.dto.response.AssetUploadResponse;
+import ITS.com.vn.course_service.exception.BadRequestException;
+import ITS.com.vn.course_service.exception.ResourceNotFoundException;
+import ITS.com.vn.course_service.exception.UnauthorizedException;
+import ITS.com.vn.course_service.mapper.CourseMapper;
+import ITS.com.vn.course_service.repository.AssetMetadataRepository;
+import ITS.com.vn.course_service.repository.AssetUploadSessionRepository;
+import ITS.com.vn.course_service.repository.LessonRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asset Upload Service - Resumable, chunked uploads of lesson assets
+ * Chunks are streamed from the request straight into a staging file at their offset, and the
+ * SHA-256 is updated as bytes arrive. The digest state lives in memory; after a restart (or on
+ * another instance) it is rebuilt once by re-reading the bytes already received. When the last
+ * byte arrives the file is moved into asset storage and its AssetMetadata row is created; if that
+ * transaction rolls back, the file is moved back so completing can be retried
+ */
+@Service
+@Slf4j
+public class AssetUploadService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final AssetUploadSessionRepository sessionRepository;
+    private final LessonRepository lessonRepository;
+    private final AssetMetadataRepository assetMetadataRepository;
+    private final AssetStorage assetStorage;
+    private final CourseMapper courseMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Path stagingDir;
+    private final long maxChunkSize;
+    private final Duration sessionTtl;
+
+    private final Map<String, UploadState> states = new ConcurrentHashMap<>();
+
+    public AssetUploadService(AssetUploadSessionRepository sessionRepository,
+            LessonRepository lessonRepository,
+            AssetMetadataRepository assetMetadataRepository,
+            AssetStorage assetStorage,
+            CourseMapper courseMapper,
+            TransactionTemplate transactionTemplate,
+            @Value("${application.storage.upload.staging-dir:./data/uploads}") String stagingDir,
+            @Value("${application.storage.upload.max-chunk-size:64MB}") DataSize maxChunkSize,
+            @Value("${application.storage.upload.session-ttl:PT24H}") Duration sessionTtl) {
+        this.sessionRepository = sessionRepository;
+        this.lessonRepository = lessonRepository;
+        this.assetMetadataRepository = assetMetadataRepository;
+        this.assetStorage = assetStorage;
+        this.courseMapper = courseMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.stagingDir = Path.of(stagingDir).toAbsolutePath().normalize();
+        this.maxChunkSize = maxChunkSize.toBytes();
+        this.sessionTtl = sessionTtl;
+    }
+
+    /**
+     * Start a resumable upload for a lesson asset
+     *
+     * @param lessonId     Lesson ID
+     * @param request      File name, MIME type, total size and optional checksum
+     * @param instructorId ID of the instructor uploading
+     * @return Upload session (offset 0)
+     */
+    public AssetUploadResponse startUpload(Long lessonId, CreateAssetUploadRequest request, Long instructorId) {
+        log.info("Starting upload of {} ({} bytes) for lesson {}", request.getFileName(), request.getTotalSize(),
+                lessonId);
+
+        AssetUploadSession session = transactionTemplate.execute(status -> {
+            Lesson lesson = lessonRepository.findById(lessonId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Lesson", "id", lessonId));
+
+            // Check authorization
+            if (!lesson.getChapter().getVersion().getCourse().getInstructorId().equals(instructorId)) {
+                throw new UnauthorizedException("You are not authorized to upload assets to this lesson");
+            }
+
+            return sessionRepository.save(AssetUploadSession.builder()
+                    .id(UUID.randomUUID().toString())
+                    .lesson(lesson)
+                    .instructorId(instructorId)
+                    .fileName(request.getFileName())
+                    .mimeType(request.getMimeType())
+                    .totalSize(request.getTotalSize())
+                    .expectedChecksum(request.getChecksum() != null ? request.getChecksum().toLowerCase() : null)
+                    .expiresAt(LocalDateTime.now().plus(sessionTtl))
+                    .build());
+        });
+
+        try {
+            Files.createDirectories(stagingDir);
+            Files.deleteIfExists(stagingFile(session.getId()));
+            Files.createFile(stagingFile(session.getId()));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        states.put(session.getId(), new UploadState(newDigest(), 0));
+
+        return toResponse(session, lessonId);
+    }
+
+    /**
+     * Get upload status; receivedBytes is where a resumed upload must continue
+     */
+    public AssetUploadResponse getUpload(Long lessonId, String uploadId, Long instructorId) {
+        return transactionTemplate.execute(status -> {
+            AssetUploadSession session = loadOwned(lessonId, uploadId, instructorId);
+            return toResponse(session, lessonId);
+        });
+    }
+
+    /**
+     * Append a chunk read from the request body
+     * If the connection drops mid-chunk, the bytes that did arrive are kept and acknowledged,
+     * so the client resumes from the offset reported by getUpload
+     *
+     * @param offset Offset the chunk starts at; must equal the bytes received so far
+     * @param body   Chunk bytes (at most max-chunk-size)
+     * @return Upload session after the chunk (with the asset once the last chunk arrived)
+     */
+    public AssetUploadResponse appendChunk(Long lessonId, String uploadId, long offset, InputStream body,
+            Long instructorId) throws IOException {
+        AssetUploadSession session = transactionTemplate.execute(status -> {
+            AssetUploadSession s = loadOwned(lessonId, uploadId, instructorId);
+            s.getAsset(); // Initialize before the transaction ends
+            return s;
+        });
+        if (session.getStatus() != UploadStatus.IN_PROGRESS) {
+            throw new IllegalStateException("Upload is already " + session.getStatus());
+        }
+        if (offset != session.getReceivedBytes()) {
+            throw new IllegalStateException("Upload offset mismatch. Expected offset: " + session.getReceivedBytes());
+        }
+
+        UploadState state = states.computeIfAbsent(uploadId, id -> new UploadState(newDigest(), -1));
+        if (!state.lock.tryLock()) {
+            throw new IllegalStateException("Another chunk of this upload is being received");
+        }
+        try {
+            Path stagingFile = stagingFile(uploadId);
+            syncDigest(state, stagingFile, offset);
+
+            long limit = Math.min(maxChunkSize, session.getTotalSize() - offset);
+            long written = 0;
+            IOException readFailure = null;
+
+            try (FileChannel channel = FileChannel.open(stagingFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE)) {
+                // Drop bytes of an earlier chunk that were written but never acknowledged
+                channel.truncate(offset);
+                channel.position(offset);
+
+                byte[] buffer = new byte[BUFFER_SIZE];
+                while (true) {
+                    int read;
+                    try {
+                        read = body.read(buffer, 0, (int) Math.min(buffer.length, limit - written + 1));
+                    } catch (IOException ex) {
+                        readFailure = ex; // Connection dropped: keep what arrived
+                        break;
+                    }
+                    if (read < 0) {
+                        break;
+                    }
+                    if (written + read > limit) {
+                        channel.truncate(offset);
+                        state.digestedBytes = -1; // Digest already saw part of this chunk
+                        throw new BadRequestException("Chunk is larger than allowed. Maximum bytes: " + limit);
+                    }
+                    ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                    state.digest.update(buffer, 0, read);
+                    written += read;
+                }
+                // Bytes must be on disk before the offset says they were received
+                channel.force(false);
+            } catch (IOException ex) {
+                state.digestedBytes = -1;
+                throw ex;
+            }
+
+            long receivedBytes = offset + written;
+            state.digestedBytes = receivedBytes;
+            Integer updated = transactionTemplate.execute(status -> sessionRepository.advanceOffset(
+                    uploadId, offset, receivedBytes, UploadStatus.IN_PROGRESS));
+            if (updated == null || updated == 0) {
+                state.digestedBytes = -1;
+                throw new IllegalStateException("Upload was modified concurrently, query its offset and retry");
+            }
+            session.setReceivedBytes(receivedBytes);
+
+            if (readFailure != null) {
+                log.info("Upload {} interrupted at {} of {} bytes: {}", uploadId, receivedBytes,
+                        session.getTotalSize(), readFailure.getMessage());
+            }
+            if (readFailure == null && session.isComplete()) {
+                return complete(lessonId, session, state);
+            }
+            return toResponse(session, lessonId);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    /**
+     * Abort an upload and delete its staging file
+     */
+    public void abortUpload(Long lessonId, String uploadId, Long instructorId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            AssetUploadSession session = loadOwned(lessonId, uploadId, instructorId);
+            if (session.getStatus() == UploadStatus.COMPLETED) {
+                throw new IllegalStateException("Upload is already COMPLETED");
+            }
+            session.setStatus(UploadStatus.ABORTED);
+        });
+        discard(uploadId);
+        log.info("Upload {} aborted", uploadId);
+    }
+
+    /**
+     * Abort uploads that were not finished in time
+     */
+    @Scheduled(fixedDelayString = "${application.storage.upload.cleanup-interval:PT1H}")
+    public void abortExpiredUploads() {
+        var expired = transactionTemplate.execute(status -> {
+            var sessions = sessionRepository.findByStatusAndExpiresAtBefore(UploadStatus.IN_PROGRESS,
+                    LocalDateTime.now());
+            sessions.forEach(session -> session.setStatus(UploadStatus.ABORTED));
+            return sessions.stream().map(AssetUploadSession::getId).toList();
+        });
+        if (expired != null && !expired.isEmpty()) {
+            expired.forEach(this::discard);
+            log.info("Aborted {} expired uploads", expired.size());
+        }
+    }
+
+    private AssetUploadResponse complete(Long lessonId, AssetUploadSession session, UploadState state) {
+        String checksum = "sha256:" + HexFormat.of().formatHex(state.digest.digest());
+        states.remove(session.getId());
+
+        if (session.getExpectedChecksum() != null && !session.getExpectedChecksum().equals(checksum)) {
+            transactionTemplate.executeWithoutResult(status -> sessionRepository.findById(session.getId())
+                    .ifPresent(s -> s.setStatus(UploadStatus.ABORTED)));
+            discard(session.getId());
+            throw new BadRequestException("Checksum mismatch: expected " + session.getExpectedChecksum()
+                    + " but received " + checksum);
+        }
+
+        return transactionTemplate.execute(status -> {
+            AssetUploadSession managed = sessionRepository.findById(session.getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Upload", "id", session.getId()));
+
+            String storageUrl;
+            try {
+                storageUrl = assetStorage.importFile(
+                        "lessons/" + lessonId + "/" + managed.getId() + "/" + safeFileName(managed.getFileName()),
+                        stagingFile(managed.getId()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            // The session stays IN_PROGRESS on rollback: put the bytes back so the last chunk can be retried
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int completionStatus) {
+                    if (completionStatus == STATUS_ROLLED_BACK) {
+                        release(managed.getId(), storageUrl);
+                    }
+                }
+            });
+
+            AssetMetadata asset = assetMetadataRepository.save(AssetMetadata.builder()
+                    .lesson(managed.getLesson())
+                    .storageUrl(storageUrl)
+                    .mimeType(managed.getMimeType())
+                    .sizeBytes(managed.getTotalSize())
+                    .checksum(checksum)
+                    .originalFileName(managed.getFileName())
+                    .build());
+
+            managed.setAsset(asset);
+            managed.setStatus(UploadStatus.COMPLETED);
+            log.info("Upload {} completed: asset {} ({} bytes, {})", managed.getId(), asset.getId(),
+                    managed.getTotalSize(), checksum);
+
+            AssetUploadResponse response = toResponse(managed, lessonId);
+            response.setAsset(courseMapper.toResponse(asset));
+            return response;
+        });
+    }
+
+    // Rebuild the digest from the staging file when it does not cover exactly the received bytes
+    private void syncDigest(UploadState state, Path stagingFile, long receivedBytes) throws IOException {
+        if (state.digestedBytes == receivedBytes) {
+            return;
+        }
+        log.debug("Rebuilding SHA-256 of {} from {} received bytes", stagingFile.getFileName(), receivedBytes);
+        MessageDigest digest = newDigest();
+        try (FileChannel channel = FileChannel.open(stagingFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long remaining = receivedBytes;
+            while (remaining > 0) {
+                buffer.clear();
+                if (remaining < buffer.capacity()) {
+                    buffer.limit((int) remaining);
+                }
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    throw new IllegalStateException("Staging file is shorter than the received bytes");
+                }
+                buffer.flip();
+                digest.update(buffer);
+                remaining -= read;
+            }
+        }
+        state.digest = digest;
+        state.digestedBytes = receivedBytes;
+    }
+
+    private AssetUploadSession loadOwned(Long lessonId, String uploadId, Long instructorId) {
+        AssetUploadSession session = sessionRepository.findById(uploadId)
+                .filter(s -> s.getLesson().getId().equals(lessonId))
+                .orElseThrow(() -> new ResourceNotFoundException("Upload", "id", uploadId));
+
+        // Check authorization
+        if (!session.getInstructorId().equals(instructorId)) {
+            throw new UnauthorizedException("You are not authorized to access this upload");
+        }
+        return session;
+    }
+
+    private void release(String uploadId, String storageUrl) {
+        try {
+            assetStorage.releaseFile(storageUrl, stagingFile(uploadId));
+            log.info("Upload {} was not completed, staging file restored", uploadId);
+        } catch (IOException ex) {
+            log.warn("Failed to restore staging file of upload {} from {}: {}", uploadId, storageUrl,
+                    ex.getMessage());
+        }
+    }
+
+    private void discard(String uploadId) {
+        states.remove(uploadId);
+        try {
+            Files.deleteIfExists(stagingFile(uploadId));
+        } catch (IOException ex) {
+            log.warn("Failed to delete staging file of upload {}: {}", uploadId, ex.getMessage());
+        }
+    }
+
+    private Path stagingFile(String uploadId) {
+        return stagingDir.resolve(uploadId + ".part");
+    }
+
+    private String safeFileName(String fileName) {
+        String safe = fileName.replaceAll("[^A-Za-z0-9._-]", "_");
+        return safe.isBlank() || safe.chars().allMatch(c -> c == '.') ? "asset" : safe;
+    }
+
+    private AssetUploadResponse toResponse(AssetUploadSession session, Long lessonId) {
+        return AssetUploadResponse.builder()
+                .uploadId(session.getId())
+                .lessonId(lessonId)
+                .fileName(session.getFileName())
+                .mimeType(session.getMimeType())
+                .totalSize(session.getTotalSize())
+                .receivedBytes(session.getReceivedBytes())
+                .maxChunkSize(maxChunkSize)
+                .status(session.getStatus())
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static final class UploadState {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private MessageDigest digest;
+        private long digestedBytes; // -1 when the digest must be rebuilt from the staging file
+
+        private UploadState(MessageDigest digest, long digestedBytes) {
+            this.digest = digest;
+            this.digestedBytes = digestedBytes;
+        }
+    }
+}
@@ -5,20 +5,32 @@ import ITS.com.vn.course_service.domain.entity.Course;
 import ITS.com.vn.course_service.domain.entity.CourseVersion;
 import ITS.com.vn.course_service.domain.enums.VersionStatus;
 import ITS.com.vn.course_service.dto.request.CreateChapterRequest;
+import ITS.com.vn.course_service.dto.request.MoveChapterRequest;
 import ITS.com.vn.course_service.dto.request.ReorderChaptersRequest;
 import ITS.com.vn.course_service.dto.response.ChapterResponse;
+import ITS.com.vn.course_service.dto.response.LessonResponse;
 import ITS.com.vn.course_service.exception.BadRequestException;
 import ITS.com.vn.course_service.exception.ResourceNotFoundException;
 import ITS.com.vn.course_service.exception.UnauthorizedException;
 import ITS.com.vn.course_service.mapper.CourseMapper;
 import ITS.com.vn.course_service.repository.ChapterRepository;
+import ITS.com.vn.course_service.repository.ChapterRepository.ChapterOutline;
+import ITS.com.vn.course_service.repository.CourseContentJdbcRepository;
 import ITS.com.vn.course_service.repository.CourseRepository;
+import ITS.com.vn.course_service.repository.CourseVersionRepository;
+import ITS.com.vn.course_service.repository.LessonRepository;
+import ITS.com.vn.course_service.repository.LessonRepository.LessonSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Chapter Service - Manages chapter CRUD operations
@@ -32,6 +44,11 @@ public class ChapterService {
 
     private final ChapterRepository chapterRepository;
     private final CourseRepository courseRepository;
+    private final CourseVersionRepository courseVersionRepository;
+    private final LessonRepository lessonRepository;
+    private final CourseContentJdbcRepository courseContentJdbcRepository;
+    private final CourseStructureService courseStructureService;
+    private final LessonNavigationService lessonNavigationService;
     private final CourseMapper courseMapper;
 
     /**
@@ -41,7 +58,7 @@ public class ChapterService {
     public ChapterResponse createChapter(Long courseId, CreateChapterRequest request, Long instructorId) {
         log.info("Creating new chapter for course: {}", courseId);
 
-        Course course = courseRepository.findByIdWithDetails(courseId)
+        Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course", "id", courseId));
 
         // Check authorization
@@ -50,28 +67,29 @@ public class ChapterService {
         }
 
         // Get or create active version
-        CourseVersion activeVersion = course.getVersions().stream()
-                .filter(v -> v.getStatus() == VersionStatus.DRAFT)
-                .findFirst()
-                .orElseGet(() -> {
-                    CourseVersion newVersion = CourseVersion.builder()
-                            .course(course)
-                            .version("1.0.0")
-                            .status(VersionStatus.DRAFT)
-                            .build();
-                    course.addVersion(newVersion);
-                    return newVersion;
-                });
+        CourseVersion activeVersion = courseVersionRepository
+                .findFirstByCourseIdAndStatusOrderByIdDesc(courseId, VersionStatus.DRAFT)
+                .orElseGet(() -> courseVersionRepository.save(CourseVersion.builder()
+                        .course(course)
+                        .version("1.0.0")
+                        .status(VersionStatus.DRAFT)
+                        .build()));
 
         // Map request to entity
         Chapter chapter = courseMapper.toEntity(request);
         chapter.setVersion(activeVersion);
 
-        // Set sequence (next available)
-        Integer maxSequence = chapterRepository.getMaxSequenceByVersionId(activeVersion.getId());
-        chapter.setSequence(maxSequence + 1);
+        // Set sequence (after the last chapter, leaving a gap for later moves)
+        int sequence = SequencePositions.after(chapterRepository.getMaxSequenceByVersionId(activeVersion.getId()));
+        if (sequence < 0) {
+            courseContentJdbcRepository.renumberChapters(activeVersion.getId(), SequencePositions.GAP);
+            sequence = SequencePositions.after(chapterRepository.getMaxSequenceByVersionId(activeVersion.getId()));
+        }
+        chapter.setSequence(sequence);
 
         Chapter savedChapter = chapterRepository.save(chapter);
+        courseStructureService.evict(courseId);
+        lessonNavigationService.evict(activeVersion.getId());
         log.info("Chapter created successfully with ID: {}", savedChapter.getId());
 
         return courseMapper.toResponse(savedChapter);
@@ -83,10 +101,10 @@ public class ChapterService {
     public ChapterResponse getChapterById(Long id) {
         log.info("Fetching chapter with ID: {}", id);
 
-        Chapter chapter = chapterRepository.findByIdWithLessons(id)
+        Chapter chapter = chapterRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Chapter", "id", id));
 
-        return courseMapper.toResponse(chapter);
+        return toResponsesWithLessonSummaries(List.of(chapter)).get(0);
     }
 
     /**
@@ -95,17 +113,19 @@ public class ChapterService {
     public List<ChapterResponse> getChaptersByCourse(Long courseId) {
         log.info("Fetching chapters for course: {}", courseId);
 
-        Course course = courseRepository.findByIdWithDetails(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Course", "id", courseId));
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course", "id", courseId);
+        }
 
         // Get active version
-        CourseVersion activeVersion = course.getVersions().stream()
-                .filter(v -> v.getStatus() == VersionStatus.DRAFT || v.getStatus() == VersionStatus.PUBLISHED)
+        CourseVersion activeVersion = courseVersionRepository
+                .findByCourseIdAndStatusInOrderByIdDesc(courseId, List.of(VersionStatus.DRAFT, VersionStatus.PUBLISHED))
+                .stream()
                 .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("No active version found for course: " + courseId));
 
         List<Chapter> chapters = chapterRepository.findByVersionIdOrderBySequenceAsc(activeVersion.getId());
-        return courseMapper.toChapterResponseList(chapters);
+        return toResponsesWithLessonSummaries(chapters);
     }
 
     /**
@@ -133,56 +153,120 @@ public class ChapterService {
         }
 
         Chapter updatedChapter = chapterRepository.save(chapter);
+        courseStructureService.evict(course.getId());
         log.info("Chapter updated successfully with ID: {}", updatedChapter.getId());
 
-        return courseMapper.toResponse(updatedChapter);
+        return toResponsesWithLessonSummaries(List.of(updatedChapter)).get(0);
     }
 
     /**
      * Reorder chapters within a course
+     * All chapters of the draft version must be listed; their sequences are rewritten in one statement
      */
     @Transactional
     public List<ChapterResponse> reorderChapters(Long courseId, ReorderChaptersRequest request, Long instructorId) {
         log.info("Reordering chapters for course: {}", courseId);
 
-        Course course = courseRepository.findByIdWithDetails(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Course", "id", courseId));
+        CourseVersion activeVersion = getEditableVersion(courseId, instructorId);
+        Long versionId = activeVersion.getId();
 
-        // Check authorization
-        if (!course.getInstructorId().equals(instructorId)) {
-            throw new UnauthorizedException("You are not authorized to reorder chapters in this course");
+        // Validate that exactly the chapters of the version are provided, each once
+        Set<Long> existingIds = chapterRepository.findOutlinesByVersionId(versionId).stream()
+                .map(ChapterOutline::getId)
+                .collect(Collectors.toSet());
+        List<Long> chapterIds = request.getChapterIds();
+        if (existingIds.size() != chapterIds.size() || new HashSet<>(chapterIds).size() != chapterIds.size()) {
+            throw new BadRequestException("All chapter IDs must be provided for reordering");
+        }
+        for (Long chapterId : chapterIds) {
+            if (!existingIds.contains(chapterId)) {
+                throw new BadRequestException("Chapter not found with ID: " + chapterId);
+            }
         }
 
-        // Get active version
-        CourseVersion activeVersion = course.getVersions().stream()
-                .filter(v -> v.getStatus() == VersionStatus.DRAFT)
-                .findFirst()
-                .orElseThrow(() -> new BadRequestException("Cannot reorder chapters in a published course"));
+        List<Integer> sequences = new ArrayList<>(chapterIds.size());
+        for (int i = 0; i < chapterIds.size(); i++) {
+            sequences.add(SequencePositions.atPosition(i));
+        }
+        int changed = courseContentJdbcRepository.updateChapterSequences(versionId, chapterIds, sequences);
+        evictStructure(courseId, versionId);
+        log.info("Chapters reordered successfully for course: {} ({} moved)", courseId, changed);
 
-        // Fetch all chapters
-        List<Chapter> chapters = chapterRepository.findByVersionIdOrderBySequenceAsc(activeVersion.getId());
+        return toResponsesWithLessonSummaries(chapterRepository.findByVersionIdOrderBySequenceAsc(versionId));
+    }
 
-        // Validate that all chapter IDs are provided
-        if (chapters.size() != request.getChapterIds().size()) {
-            throw new BadRequestException("All chapter IDs must be provided for reordering");
+    /**
+     * Move one chapter after another (or to the front); only the moved chapter's row is updated
+     * unless its new neighbours have no free sequence between them
+     */
+    @Transactional
+    public List<ChapterResponse> moveChapter(Long courseId, Long chapterId, MoveChapterRequest request,
+            Long instructorId) {
+        log.info("Moving chapter {} after {} in course: {}", chapterId, request.getAfterChapterId(), courseId);
+
+        CourseVersion activeVersion = getEditableVersion(courseId, instructorId);
+        Long versionId = activeVersion.getId();
+
+        int sequence = newChapterSequence(versionId, chapterId, request.getAfterChapterId());
+        if (sequence < 0) {
+            // Neighbours are adjacent: respace the version once, then there is room
+            courseContentJdbcRepository.renumberChapters(versionId, SequencePositions.GAP);
+            sequence = newChapterSequence(versionId, chapterId, request.getAfterChapterId());
         }
+        if (sequence > 0) {
+            courseContentJdbcRepository.moveChapter(chapterId, sequence);
+            evictStructure(courseId, versionId);
+        }
+
+        return toResponsesWithLessonSummaries(chapterRepository.findByVersionIdOrderBySequenceAsc(versionId));
+    }
+
+    // Sequence that places the chapter after the given one; 0 if it is already there, -1 if there is no room
+    private int newChapterSequence(Long versionId, Long chapterId, Long afterChapterId) {
+        List<ChapterOutline> chapters = chapterRepository.findOutlinesByVersionId(versionId);
+        int from = -1;
+        int after = -1;
+        for (int i = 0; i < chapters.size(); i++) {
+            if (chapters.get(i).getId().equals(chapterId)) {
+                from = i;
+            }
+            if (chapters.get(i).getId().equals(afterChapterId)) {
+                after = i;
+            }
+        }
+        if (from < 0) {
+            throw new BadRequestException("Chapter not found with ID: " + chapterId);
+        }
+        if (afterChapterId != null && (after < 0 || after == from)) {
+            throw new BadRequestException("Invalid chapter to move after: " + afterChapterId);
+        }
+
+        if (after + 1 == from) {
+            return 0; // Already in place
+        }
+        int previous = after >= 0 ? chapters.get(after).getSequence() : 0;
+        Integer next = after + 1 < chapters.size() ? chapters.get(after + 1).getSequence() : null;
+        return SequencePositions.between(previous, next);
+    }
 
-        // Update sequences
-        for (int i = 0; i < request.getChapterIds().size(); i++) {
-            Long chapterId = request.getChapterIds().get(i);
-            Chapter chapter = chapters.stream()
-                    .filter(c -> c.getId().equals(chapterId))
-                    .findFirst()
-                    .orElseThrow(() -> new BadRequestException("Chapter not found with ID: " + chapterId));
+    private CourseVersion getEditableVersion(Long courseId, Long instructorId) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course", "id", courseId));
 
-            chapter.setSequence(i + 1);
+        // Check authorization
+        if (!course.getInstructorId().equals(instructorId)) {
+            throw new UnauthorizedException("You are not authorized to reorder chapters in this course");
         }
 
-        chapterRepository.saveAll(chapters);
-        log.info("Chapters reordered successfully for course: {}", courseId);
+        // Get active version
+        return courseVersionRepository
+                .findFirstByCourseIdAndStatusOrderByIdDesc(courseId, VersionStatus.DRAFT)
+                .orElseThrow(() -> new BadRequestException("Cannot reorder chapters in a published course"));
+    }
 
-        return courseMapper.toChapterResponseList(
-                chapterRepository.findByVersionIdOrderBySequenceAsc(activeVersion.getId()));
+    private void evictStructure(Long courseId, Long versionId) {
+        courseStructureService.evict(courseId);
+        lessonNavigationService.evict(versionId);
     }
 
     /**
@@ -207,6 +291,28 @@ public class ChapterService {
         }
 
         chapterRepository.delete(chapter);
+        courseStructureService.evict(course.getId());
+        lessonNavigationService.evict(chapter.getVersion().getId());
         log.info("Chapter deleted successfully with ID: {}", id);
     }
+
+    // Map chapters with their lessons as list items (no content), loaded in one query
+    private List<ChapterResponse> toResponsesWithLessonSummaries(List<Chapter> chapters) {
+        if (chapters.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<LessonResponse>> lessonsByChapter = lessonRepository
+                .findSummariesByChapterIdIn(chapters.stream().map(Chapter::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(LessonSummary::getChapterId,
+                        Collectors.mapping(courseMapper::toResponse, Collectors.toList())));
+
+        return chapters.stream()
+                .map(chapter -> {
+                    ChapterResponse response = courseMapper.toResponseWithoutLessons(chapter);
+                    response.setLessons(lessonsByChapter.getOrDefault(chapter.getId(), new ArrayList<>()));
+                    return response;
+                })
+                .toList();
+    }
 }
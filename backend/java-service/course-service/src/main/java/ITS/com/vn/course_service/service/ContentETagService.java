@@ -0,0 +1,107 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.repository.ContentFingerprintRepository;
+import ITS.com.vn.course_service.repository.ContentFingerprintRepository.LessonFingerprint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content ETag Service - Strong ETags for course, chapter and lesson reads
+ * Tags are computed from one fingerprint query, without loading or mapping entities, so a
+ * matching If-None-Match can be answered with 304 straight away
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ContentETagService {
+
+    // Bump when the shape of the tagged responses changes, so cached bodies are not revalidated
+    private static final String RESPONSE_FORMAT = "1";
+
+    private final ContentFingerprintRepository fingerprintRepository;
+    private final LessonNavigationService lessonNavigationService;
+
+    /**
+     * Get the ETag of a course detail response
+     *
+     * @param courseId Course ID
+     * @param userId   Current authenticated user ID (nullable); enrollment info is part of the response
+     * @return Quoted strong ETag, or null if the course does not exist
+     */
+    public String getCourseETag(Long courseId, Long userId) {
+        return fingerprintRepository.findCourseFingerprint(courseId, userId)
+                .map(fingerprint -> toETag("course", courseId, userId, fingerprint))
+                .orElse(null);
+    }
+
+    /**
+     * Get the ETag of the chapter list of a course
+     *
+     * @return Quoted strong ETag, or null if the course has no active version
+     */
+    public String getChapterListETag(Long courseId) {
+        return fingerprintRepository.findChapterListFingerprint(courseId)
+                .map(fingerprint -> toETag("chapters", courseId, fingerprint))
+                .orElse(null);
+    }
+
+    /**
+     * Get the ETag of a chapter response
+     *
+     * @return Quoted strong ETag, or null if the chapter does not exist
+     */
+    public String getChapterETag(Long chapterId) {
+        return fingerprintRepository.findChapterFingerprint(chapterId)
+                .map(fingerprint -> toETag("chapter", chapterId, fingerprint))
+                .orElse(null);
+    }
+
+    /**
+     * Get the ETag of the lesson list of a chapter
+     *
+     * @return Quoted strong ETag, or null if the chapter does not exist
+     */
+    public String getLessonListETag(Long chapterId) {
+        return fingerprintRepository.findLessonListFingerprint(chapterId)
+                .map(fingerprint -> toETag("lessons", chapterId, fingerprint))
+                .orElse(null);
+    }
+
+    /**
+     * Get the ETag of a lesson detail response, including its previous/next navigation
+     *
+     * @param userId Current authenticated user ID (nullable); the user's completion is part of the response
+     * @return Quoted strong ETag, or null if the lesson does not exist
+     */
+    public String getLessonETag(Long lessonId, Long userId) {
+        LessonFingerprint lesson = fingerprintRepository.findLessonFingerprint(lessonId, userId).orElse(null);
+        if (lesson == null) {
+            return null;
+        }
+        LessonNavigation navigation = lessonNavigationService.getNavigation(lesson.versionId());
+        return toETag("lesson", lessonId, userId, lesson.fingerprint(), navigation.previous(lessonId),
+                navigation.next(lessonId));
+    }
+
+    private String toETag(Object... parts) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+        digest.update(RESPONSE_FORMAT.getBytes(StandardCharsets.UTF_8));
+        for (Object part : parts) {
+            digest.update((byte) '|');
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+        }
+        // 128 bits are plenty to tell versions of one resource apart
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+}
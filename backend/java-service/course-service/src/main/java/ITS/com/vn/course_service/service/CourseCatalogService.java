@@ -0,0 +1,190 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.Course;
+import ITS.com.vn.course_service.dto.response.CourseResponse;
+import ITS.com.vn.course_service.dto.response.InstructorSummaryResponse;
+import ITS.com.vn.course_service.dto.response.PrerequisiteResponse;
+import ITS.com.vn.course_service.dto.response.TagResponse;
+import ITS.com.vn.course_service.repository.CourseCatalogRepository;
+import ITS.com.vn.course_service.repository.CourseCatalogRepository.CatalogFilter;
+import ITS.com.vn.course_service.repository.CourseCatalogRepository.CourseCatalogEntry;
+import ITS.com.vn.course_service.repository.CourseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Course Catalog Service - Maintains and serves the denormalized course catalog read model
+ * Course writes re-project their catalog row inside the same transaction; listings read one
+ * catalog query per page instead of walking Course aggregates and their lazy collections
+ */
+@Service
+@Slf4j
+public class CourseCatalogService {
+
+    private static final int INSTRUCTOR_REFRESH_BATCH_SIZE = 200;
+
+    private final CourseRepository courseRepository;
+    private final CourseCatalogRepository catalogRepository;
+    private final InstructorProfileService instructorProfileService;
+    private final ObjectReader tagsReader;
+    private final ObjectReader prerequisitesReader;
+
+    public CourseCatalogService(CourseRepository courseRepository, CourseCatalogRepository catalogRepository,
+            InstructorProfileService instructorProfileService, ObjectMapper objectMapper) {
+        this.courseRepository = courseRepository;
+        this.catalogRepository = catalogRepository;
+        this.instructorProfileService = instructorProfileService;
+        this.tagsReader = objectMapper.readerForListOf(TagResponse.class);
+        this.prerequisitesReader = objectMapper.readerForListOf(PrerequisiteResponse.class);
+    }
+
+    /**
+     * Re-project a course into the catalog after its fields, tags or prerequisites changed
+     * Runs in the caller's write transaction, so the catalog commits (or rolls back) with the course
+     */
+    @Transactional
+    public void refresh(Course course) {
+        courseRepository.refreshCatalog(course.getId());
+        InstructorSummaryResponse instructor = instructorProfileService.getInstructor(course.getInstructorId());
+        if (instructor != null) {
+            catalogRepository.updateInstructor(course.getInstructorId(), instructor.getFullName(),
+                    instructor.getAvatarUrl());
+        }
+    }
+
+    /**
+     * Copy changed instructor names/avatars from user-profile-service into the catalog
+     * Profiles are owned by another service, so they are pulled periodically rather than on write
+     */
+    @Scheduled(initialDelayString = "${application.catalog.instructor-refresh-interval:PT10M}",
+            fixedDelayString = "${application.catalog.instructor-refresh-interval:PT10M}")
+    public void refreshInstructors() {
+        List<Long> instructorIds = catalogRepository.findInstructorIds();
+        int updated = 0;
+        for (int from = 0; from < instructorIds.size(); from += INSTRUCTOR_REFRESH_BATCH_SIZE) {
+            List<Long> batch = instructorIds.subList(from,
+                    Math.min(from + INSTRUCTOR_REFRESH_BATCH_SIZE, instructorIds.size()));
+            for (Map.Entry<Long, InstructorSummaryResponse> entry : instructorProfileService.getInstructors(batch)
+                    .entrySet()) {
+                updated += catalogRepository.updateInstructor(entry.getKey(), entry.getValue().getFullName(),
+                        entry.getValue().getAvatarUrl());
+            }
+        }
+        if (updated > 0) {
+            log.info("Refreshed instructor details on {} catalog rows", updated);
+        }
+    }
+
+    /**
+     * Get a page of catalog courses
+     *
+     * @param filter   Catalog filter
+     * @param pageable Pagination parameters
+     * @return Page of course responses (without per-user enrollment info)
+     */
+    public Page<CourseResponse> getPage(CatalogFilter filter, Pageable pageable) {
+        Page<CourseCatalogEntry> entries = catalogRepository.findPage(filter, pageable);
+        return new PageImpl<>(toResponses(entries.getContent()), pageable, entries.getTotalElements());
+    }
+
+    /**
+     * Get catalog courses newest first by id, after the given id (keyset pagination)
+     */
+    public List<CourseResponse> getAfterId(CatalogFilter filter, long lastId, int limit) {
+        return toResponses(catalogRepository.findAfterId(filter, lastId, limit));
+    }
+
+    /**
+     * Get catalog courses ordered by (publishedAt, id) descending, after the given key (keyset pagination)
+     */
+    public List<CourseResponse> getAfterPublished(CatalogFilter filter, LocalDateTime publishedAt, Long id,
+            int limit) {
+        return toResponses(catalogRepository.findAfterPublished(filter, publishedAt, id, limit));
+    }
+
+    /**
+     * Get catalog courses by IDs, in the order of the given IDs
+     */
+    public List<CourseResponse> getAllById(List<Long> courseIds) {
+        Map<Long, CourseResponse> byId = toResponses(catalogRepository.findAllById(courseIds)).stream()
+                .collect(Collectors.toMap(CourseResponse::getId, Function.identity()));
+        return courseIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private List<CourseResponse> toResponses(List<CourseCatalogEntry> entries) {
+        // Rows projected while user-profile-service was unavailable have no instructor name yet
+        Map<Long, InstructorSummaryResponse> missingInstructors = instructorProfileService.getInstructors(
+                entries.stream()
+                        .filter(entry -> entry.instructorName() == null)
+                        .map(CourseCatalogEntry::instructorId)
+                        .collect(Collectors.toSet()));
+        return entries.stream()
+                .map(entry -> toResponse(entry, missingInstructors.get(entry.instructorId())))
+                .toList();
+    }
+
+    private CourseResponse toResponse(CourseCatalogEntry entry, InstructorSummaryResponse fallbackInstructor) {
+        InstructorSummaryResponse instructor = entry.instructorName() != null
+                ? InstructorSummaryResponse.builder()
+                        .id(entry.instructorId())
+                        .fullName(entry.instructorName())
+                        .avatarUrl(entry.instructorAvatarUrl())
+                        .build()
+                : fallbackInstructor;
+
+        return CourseResponse.builder()
+                .id(entry.courseId())
+                .title(entry.title())
+                .description(entry.description())
+                .status(entry.status())
+                .visibility(entry.visibility())
+                .instructorId(entry.instructorId())
+                .instructorName(instructor != null ? instructor.getFullName() : null)
+                .instructorAvatarUrl(instructor != null ? instructor.getAvatarUrl() : null)
+                .instructor(instructor)
+                .thumbnailUrl(entry.thumbnailUrl())
+                .objectives(entry.objectives())
+                .code(entry.code())
+                .credits(entry.credits())
+                .semester(entry.semester())
+                .schedule(entry.schedule())
+                .maxStudents(entry.maxStudents())
+                .startDate(entry.startDate())
+                .endDate(entry.endDate())
+                .currentStudents(Math.toIntExact(entry.currentStudents()))
+                .enrolled(false)
+                .tags(readJson(tagsReader, entry.tags(), entry.courseId()))
+                .prerequisites(readJson(prerequisitesReader, entry.prerequisites(), entry.courseId()))
+                .createdAt(entry.createdAt())
+                .updatedAt(entry.updatedAt())
+                .publishedAt(entry.publishedAt())
+                .build();
+    }
+
+    private <T> List<T> readJson(ObjectReader reader, String json, Long courseId) {
+        try {
+            return reader.readValue(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Malformed catalog row for course " + courseId, ex);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.dto.response.CourseResponse;
+import ITS.com.vn.course_service.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for course listings
+ * Encodes the sort key of the last returned row: (publishedAt, id) or (id)
+ */
+record CourseCursor(LocalDateTime publishedAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    static CourseCursor afterId(CourseResponse course) {
+        return new CourseCursor(null, course.getId());
+    }
+
+    static CourseCursor afterPublished(CourseResponse course) {
+        return new CourseCursor(course.getPublishedAt(), course.getId());
+    }
+
+    String encode() {
+        String raw = publishedAt != null ? publishedAt + SEPARATOR + id : String.valueOf(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static CourseCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return new CourseCursor(null, Long.parseLong(raw));
+            }
+            return new CourseCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
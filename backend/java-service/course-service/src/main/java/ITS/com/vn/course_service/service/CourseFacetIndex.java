@@ -0,0 +1,490 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.Course;
+import ITS.com.vn.course_service.domain.enums.CourseFacet;
+import ITS.com.vn.course_service.domain.enums.CourseStatus;
+import ITS.com.vn.course_service.domain.enums.CourseVisibility;
+import ITS.com.vn.course_service.dto.request.FacetFilter;
+import ITS.com.vn.course_service.exception.BadRequestException;
+import ITS.com.vn.course_service.repository.CourseFacetRepository;
+import ITS.com.vn.course_service.repository.CourseFacetRepository.CourseFacets;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Course Facet Index - In-memory bitmaps of courses per facet value (status, visibility, semester,
+ * credits, tag)
+ * Courses are numbered densely in ID order; a filter is evaluated as bitset AND/OR/NOT and facet
+ * counts are intersection cardinalities, so any combination costs the same and needs no query.
+ * Snapshots are immutable; a course write copies only the bitsets of the values it changes.
+ * Until the first build completes, searches are evaluated in SQL instead.
+ */
+@Service
+@Slf4j
+public class CourseFacetIndex {
+
+    private static final int MAX_FILTER_DEPTH = 16;
+
+    private final CourseFacetRepository facetRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Object rebuildLock = new Object();
+
+    private volatile Snapshot snapshot; // Null while cold
+
+    // Updates applied while a rebuild reads the database, replayed onto the rebuilt snapshot (guarded by this)
+    private List<UnaryOperator<Snapshot>> journal;
+
+    public CourseFacetIndex(CourseFacetRepository facetRepository, PlatformTransactionManager transactionManager) {
+        this.facetRepository = facetRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Rebuild the index from the database
+     * Runs at startup and periodically, to pick up edits made through other instances and to
+     * compact positions of deleted courses
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${application.facet-index.refresh-interval:PT5M}",
+            fixedDelayString = "${application.facet-index.refresh-interval:PT5M}")
+    public void rebuild() {
+        // Startup and scheduled runs may coincide: a second run must not reset the journal of the first
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                journal = new ArrayList<>();
+            }
+            try {
+                List<CourseFacets> rows = readOnlyTransaction.execute(status -> facetRepository.findAllFacets());
+                Snapshot rebuilt = Snapshot.build(rows);
+                synchronized (this) {
+                    for (UnaryOperator<Snapshot> update : journal) {
+                        rebuilt = update.apply(rebuilt);
+                    }
+                    snapshot = rebuilt;
+                }
+                log.info("Course facet index built: {} courses", rows.size());
+            } finally {
+                synchronized (this) {
+                    journal = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Search courses by a facet filter
+     *
+     * @param filter Filter, or null for all courses
+     * @param offset Number of matching courses to skip (newest first)
+     * @param limit  Maximum number of course IDs to return
+     * @param facets Facets to count, or null for all
+     * @return Page of matching course IDs (newest first), total and facet counts among all matches
+     * @throws BadRequestException if the filter is too deep or has invalid facet values
+     */
+    public FacetSearchResult search(FacetFilter filter, long offset, int limit, Set<CourseFacet> facets) {
+        FacetFilter normalized = normalize(filter, 0);
+        Set<CourseFacet> counted = facets == null || facets.isEmpty() ? Set.of(CourseFacet.values()) : facets;
+
+        Snapshot current = snapshot;
+        if (current == null) {
+            return searchDatabase(normalized, offset, limit, counted);
+        }
+        BitSet matches = normalized == null ? current.live : current.evaluate(normalized);
+        return new FacetSearchResult(current.page(matches, offset, limit), matches.cardinality(),
+                current.count(matches, counted));
+    }
+
+    /**
+     * Re-index a created or edited course once the current transaction commits
+     * Facet values are taken from the entity now, while its tags can still be loaded
+     */
+    public void updateAfterCommit(Course course) {
+        CourseFacets facets = new CourseFacets(course.getId(),
+                course.getStatus().name(),
+                course.getVisibility().name(),
+                course.getSemester(),
+                course.getCredits(),
+                course.getCourseTags().stream()
+                        .map(courseTag -> courseTag.getTag().getId())
+                        .sorted()
+                        .toList());
+        afterCommit(current -> current.withCourse(facets));
+    }
+
+    /**
+     * Remove a deleted course once the current transaction commits
+     */
+    public void removeAfterCommit(Long courseId) {
+        afterCommit(current -> current.withoutCourse(courseId));
+    }
+
+    private void afterCommit(UnaryOperator<Snapshot> update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(update);
+                }
+            });
+        } else {
+            apply(update);
+        }
+    }
+
+    private synchronized void apply(UnaryOperator<Snapshot> update) {
+        if (snapshot != null) {
+            snapshot = update.apply(snapshot);
+        }
+        if (journal != null) {
+            journal.add(update);
+        }
+    }
+
+    private FacetSearchResult searchDatabase(FacetFilter filter, long offset, int limit, Set<CourseFacet> counted) {
+        return readOnlyTransaction.execute(status -> {
+            Map<CourseFacet, Map<String, Long>> counts = facetRepository.countFacets(filter);
+            // Every course has exactly one status
+            long total = counts.getOrDefault(CourseFacet.STATUS, Map.of()).values().stream()
+                    .mapToLong(Long::longValue)
+                    .sum();
+            counts.keySet().retainAll(counted);
+            List<Long> courseIds = total > offset ? facetRepository.findMatchingIds(filter, offset, limit) : List.of();
+            return new FacetSearchResult(courseIds, total, counts);
+        });
+    }
+
+    /**
+     * Validate a filter and bring its values into their indexed form (enum names, plain numbers)
+     */
+    private static FacetFilter normalize(FacetFilter filter, int depth) {
+        if (filter == null) {
+            return null;
+        }
+        if (depth > MAX_FILTER_DEPTH) {
+            throw new BadRequestException("Facet filter is nested deeper than " + MAX_FILTER_DEPTH + " levels");
+        }
+        return switch (filter) {
+            case FacetFilter.Match match -> new FacetFilter.Match(match.facet(), match.values().stream()
+                    .map(value -> normalizeValue(match.facet(), value))
+                    .distinct()
+                    .toList());
+            case FacetFilter.And and -> new FacetFilter.And(and.and().stream()
+                    .map(child -> normalize(child, depth + 1))
+                    .toList());
+            case FacetFilter.Or or -> new FacetFilter.Or(or.or().stream()
+                    .map(child -> normalize(child, depth + 1))
+                    .toList());
+            case FacetFilter.Not not -> new FacetFilter.Not(normalize(not.not(), depth + 1));
+        };
+    }
+
+    private static String normalizeValue(CourseFacet facet, String value) {
+        if (value == null || value.isBlank()) {
+            throw new BadRequestException("Blank " + facet + " facet value");
+        }
+        String trimmed = value.trim();
+        try {
+            return switch (facet) {
+                case STATUS -> CourseStatus.valueOf(trimmed.toUpperCase(Locale.ROOT)).name();
+                case VISIBILITY -> CourseVisibility.valueOf(trimmed.toUpperCase(Locale.ROOT)).name();
+                case SEMESTER -> trimmed;
+                case CREDITS -> String.valueOf(Integer.parseInt(trimmed));
+                case TAG -> String.valueOf(Long.parseLong(trimmed));
+            };
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid " + facet + " facet value: " + value);
+        }
+    }
+
+    private static Map<CourseFacet, List<String>> valuesOf(CourseFacets facets) {
+        Map<CourseFacet, List<String>> values = new EnumMap<>(CourseFacet.class);
+        values.put(CourseFacet.STATUS, List.of(facets.status()));
+        values.put(CourseFacet.VISIBILITY, List.of(facets.visibility()));
+        values.put(CourseFacet.SEMESTER, facets.semester() != null ? List.of(facets.semester()) : List.of());
+        values.put(CourseFacet.CREDITS, facets.credits() != null ? List.of(String.valueOf(facets.credits())) : List.of());
+        values.put(CourseFacet.TAG, facets.tagIds().stream().map(String::valueOf).toList());
+        return values;
+    }
+
+    public record FacetSearchResult(List<Long> courseIds, long total, Map<CourseFacet, Map<String, Long>> facets) {
+    }
+
+    /**
+     * Immutable snapshot of the index; bitsets are never modified once published
+     */
+    private static final class Snapshot {
+
+        private final Map<Long, Integer> positions;
+        private final long[] ids; // Course ID by position, ascending; kept for deleted courses
+        private final CourseFacets[] rows; // By position; null for deleted courses
+        private final BitSet live;
+        private final Map<CourseFacet, Map<String, BitSet>> bitmaps;
+
+        private Snapshot(Map<Long, Integer> positions, long[] ids, CourseFacets[] rows, BitSet live,
+                Map<CourseFacet, Map<String, BitSet>> bitmaps) {
+            this.positions = positions;
+            this.ids = ids;
+            this.rows = rows;
+            this.live = live;
+            this.bitmaps = bitmaps;
+        }
+
+        static Snapshot build(List<CourseFacets> rows) {
+            Map<Long, Integer> positions = new HashMap<>(rows.size() * 2);
+            BitSet live = new BitSet(rows.size());
+            Map<CourseFacet, Map<String, BitSet>> bitmaps = new EnumMap<>(CourseFacet.class);
+            for (CourseFacet facet : CourseFacet.values()) {
+                bitmaps.put(facet, new HashMap<>());
+            }
+            for (int position = 0; position < rows.size(); position++) {
+                CourseFacets row = rows.get(position);
+                positions.put(row.courseId(), position);
+                live.set(position);
+                for (Map.Entry<CourseFacet, List<String>> entry : valuesOf(row).entrySet()) {
+                    for (String value : entry.getValue()) {
+                        bitmaps.get(entry.getKey()).computeIfAbsent(value, v -> new BitSet()).set(position);
+                    }
+                }
+            }
+            return new Snapshot(positions, rows.stream().mapToLong(CourseFacets::courseId).toArray(),
+                    rows.toArray(new CourseFacets[0]), live, bitmaps);
+        }
+
+        Snapshot withCourse(CourseFacets facets) {
+            Integer position = positions.get(facets.courseId());
+            if (position == null) {
+                int insertion = -Arrays.binarySearch(ids, facets.courseId()) - 1;
+                // New courses usually have the highest ID; one committed out of order is slotted in
+                Snapshot widened = insertion == ids.length
+                        ? append(facets.courseId())
+                        : insert(facets.courseId(), insertion);
+                return widened.withCourse(facets);
+            }
+            CourseFacets[] newRows = rows.clone();
+            CourseFacets previous = newRows[position];
+            newRows[position] = facets;
+
+            Editor editor = new Editor(bitmaps);
+            Map<CourseFacet, List<String>> oldValues = previous != null ? valuesOf(previous) : Map.of();
+            Map<CourseFacet, List<String>> newValues = valuesOf(facets);
+            for (CourseFacet facet : CourseFacet.values()) {
+                List<String> before = oldValues.getOrDefault(facet, List.of());
+                List<String> after = newValues.get(facet);
+                for (String value : before) {
+                    if (!after.contains(value)) {
+                        editor.clear(facet, value, position);
+                    }
+                }
+                for (String value : after) {
+                    if (!before.contains(value)) {
+                        editor.set(facet, value, position);
+                    }
+                }
+            }
+            BitSet newLive = live;
+            if (!live.get(position)) {
+                newLive = (BitSet) live.clone();
+                newLive.set(position);
+            }
+            return new Snapshot(positions, ids, newRows, newLive, editor.bitmaps);
+        }
+
+        // An empty, not yet live slot for a course after all others
+        private Snapshot append(Long courseId) {
+            Map<Long, Integer> newPositions = new HashMap<>(positions);
+            newPositions.put(courseId, ids.length);
+            long[] newIds = Arrays.copyOf(ids, ids.length + 1);
+            newIds[ids.length] = courseId;
+            return new Snapshot(newPositions, newIds, Arrays.copyOf(rows, rows.length + 1), live, bitmaps);
+        }
+
+        // An empty, not yet live slot at a position in the middle: later positions move up by one
+        private Snapshot insert(Long courseId, int position) {
+            long[] newIds = new long[ids.length + 1];
+            System.arraycopy(ids, 0, newIds, 0, position);
+            newIds[position] = courseId;
+            System.arraycopy(ids, position, newIds, position + 1, ids.length - position);
+            CourseFacets[] newRows = new CourseFacets[rows.length + 1];
+            System.arraycopy(rows, 0, newRows, 0, position);
+            System.arraycopy(rows, position, newRows, position + 1, rows.length - position);
+
+            Map<Long, Integer> newPositions = new HashMap<>(positions);
+            for (int i = position; i < newIds.length; i++) {
+                newPositions.put(newIds[i], i);
+            }
+            Map<CourseFacet, Map<String, BitSet>> newBitmaps = new EnumMap<>(CourseFacet.class);
+            bitmaps.forEach((facet, values) -> {
+                Map<String, BitSet> shifted = new HashMap<>(values.size() * 2);
+                values.forEach((value, bitmap) -> shifted.put(value, withGap(bitmap, position)));
+                newBitmaps.put(facet, shifted);
+            });
+            return new Snapshot(newPositions, newIds, newRows, withGap(live, position), newBitmaps);
+        }
+
+        private static BitSet withGap(BitSet bits, int position) {
+            if (bits.length() <= position) {
+                return bits;
+            }
+            BitSet shifted = bits.get(0, position);
+            bits.stream().filter(bit -> bit >= position).forEach(bit -> shifted.set(bit + 1));
+            return shifted;
+        }
+
+        Snapshot withoutCourse(Long courseId) {
+            Integer position = positions.get(courseId);
+            if (position == null || rows[position] == null) {
+                return this;
+            }
+            Editor editor = new Editor(bitmaps);
+            valuesOf(rows[position]).forEach((facet, values) ->
+                    values.forEach(value -> editor.clear(facet, value, position)));
+            CourseFacets[] newRows = rows.clone();
+            newRows[position] = null;
+            BitSet newLive = (BitSet) live.clone();
+            newLive.clear(position);
+            // The position stays reserved until the next rebuild compacts it
+            return new Snapshot(positions, ids, newRows, newLive, editor.bitmaps);
+        }
+
+        BitSet evaluate(FacetFilter filter) {
+            return switch (filter) {
+                case FacetFilter.Match match -> {
+                    BitSet result = new BitSet();
+                    Map<String, BitSet> values = bitmaps.get(match.facet());
+                    for (String value : match.values()) {
+                        BitSet bitmap = values.get(value);
+                        if (bitmap != null) {
+                            result.or(bitmap);
+                        }
+                    }
+                    yield result;
+                }
+                case FacetFilter.And and -> {
+                    BitSet result = (BitSet) live.clone();
+                    for (FacetFilter child : and.and()) {
+                        result.and(evaluate(child));
+                        if (result.isEmpty()) {
+                            break;
+                        }
+                    }
+                    yield result;
+                }
+                case FacetFilter.Or or -> {
+                    BitSet result = new BitSet();
+                    for (FacetFilter child : or.or()) {
+                        result.or(evaluate(child));
+                    }
+                    yield result;
+                }
+                case FacetFilter.Not not -> {
+                    BitSet result = (BitSet) live.clone();
+                    result.andNot(evaluate(not.not()));
+                    yield result;
+                }
+            };
+        }
+
+        List<Long> page(BitSet matches, long offset, int limit) {
+            List<Long> courseIds = new ArrayList<>(limit);
+            long skipped = 0;
+            for (int position = matches.previousSetBit(rows.length - 1); position >= 0 && courseIds.size() < limit;
+                    position = matches.previousSetBit(position - 1)) {
+                if (skipped++ >= offset) {
+                    courseIds.add(rows[position].courseId());
+                }
+            }
+            return courseIds;
+        }
+
+        Map<CourseFacet, Map<String, Long>> count(BitSet matches, Set<CourseFacet> facets) {
+            Map<CourseFacet, Map<String, Long>> counts = new EnumMap<>(CourseFacet.class);
+            for (CourseFacet facet : facets) {
+                Map<String, Long> valueCounts = new LinkedHashMap<>();
+                bitmaps.get(facet).forEach((value, bitmap) -> {
+                    long count;
+                    if (matches == live) {
+                        count = bitmap.cardinality();
+                    } else {
+                        BitSet intersection = (BitSet) bitmap.clone();
+                        intersection.and(matches);
+                        count = intersection.cardinality();
+                    }
+                    if (count > 0) {
+                        valueCounts.put(value, count);
+                    }
+                });
+                counts.put(facet, valueCounts);
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Copy-on-write editing of a snapshot's bitmaps: each touched value bitset is cloned once
+     */
+    private static final class Editor {
+
+        private final Map<CourseFacet, Map<String, BitSet>> bitmaps;
+        private final Set<CourseFacet> copiedFacets = new HashSet<>();
+        private final Set<BitSet> copiedBitmaps = Collections.newSetFromMap(new IdentityHashMap<>()); // BitSet equality is by content
+
+        Editor(Map<CourseFacet, Map<String, BitSet>> source) {
+            this.bitmaps = new EnumMap<>(source);
+        }
+
+        void set(CourseFacet facet, String value, int position) {
+            values(facet).compute(value, (v, bitmap) -> {
+                BitSet copy = copy(bitmap);
+                copy.set(position);
+                return copy;
+            });
+        }
+
+        void clear(CourseFacet facet, String value, int position) {
+            values(facet).computeIfPresent(value, (v, bitmap) -> {
+                BitSet copy = copy(bitmap);
+                copy.clear(position);
+                return copy.isEmpty() ? null : copy;
+            });
+        }
+
+        private Map<String, BitSet> values(CourseFacet facet) {
+            if (copiedFacets.add(facet)) {
+                bitmaps.put(facet, new HashMap<>(bitmaps.get(facet)));
+            }
+            return bitmaps.get(facet);
+        }
+
+        private BitSet copy(BitSet bitmap) {
+            if (bitmap != null && copiedBitmaps.contains(bitmap)) {
+                return bitmap;
+            }
+            BitSet copy = bitmap != null ? (BitSet) bitmap.clone() : new BitSet();
+            copiedBitmaps.add(copy);
+            return copy;
+        }
+    }
+}
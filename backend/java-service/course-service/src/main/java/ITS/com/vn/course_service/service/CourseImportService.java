@@ -0,0 +1,674 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.enums.ImportStatus;
+import ITS.com.vn.course_service.dto.request.CreateChapterRequest;
+import ITS.com.vn.course_service.dto.request.CreateCourseRequest;
+import ITS.com.vn.course_service.dto.request.CreateLessonRequest;
+import ITS.com.vn.course_service.dto.response.CourseImportResponse;
+import ITS.com.vn.course_service.exception.BadRequestException;
+import ITS.com.vn.course_service.exception.ResourceNotFoundException;
+import ITS.com.vn.course_service.exception.UnauthorizedException;
+import ITS.com.vn.course_service.repository.CourseImportJdbcRepository;
+import ITS.com.vn.course_service.repository.CourseImportJdbcRepository.AssetRow;
+import ITS.com.vn.course_service.repository.CourseImportJdbcRepository.ChapterRow;
+import ITS.com.vn.course_service.repository.CourseImportJdbcRepository.LessonRow;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Course Import Service - Creates a whole course from one package
+ * A package is a JSON document, or a ZIP archive with that document as course.json next to the
+ * asset files it references:
+ * <pre>
+ * { "course": { ...CreateCourseRequest },
+ *   "version": "1.0.0", "changeLog": "...",
+ *   "chapters": [ { "title": "...", "description": "...",
+ *                   "lessons": [ { ...CreateLessonRequest,
+ *                                  "assets": [ { "file": "media/intro.mp4", "mimeType": "video/mp4" } ] } ] } ] }
+ * </pre>
+ * "course" and "version" must come before "chapters". The whole package is first staged to disk,
+ * so no transaction is open while it is received. The document is then read with a streaming
+ * parser, one lesson at a time, and the tree is written in one transaction with batched inserts
+ * (ids prefetched from the sequences), so a large course costs a handful of round trips. Asset
+ * files are moved into storage by that transaction and deleted again if it rolls back. Progress
+ * of running and recently finished imports is kept in memory on the importing instance
+ */
+@Service
+@Slf4j
+public class CourseImportService {
+
+    private static final String PACKAGE_DOCUMENT = "course.json";
+    private static final String DEFAULT_VERSION = "1.0.0";
+    private static final double DEFAULT_MASTERY_THRESHOLD = 0.8;
+
+    private final CourseService courseService;
+    private final CourseImportJdbcRepository importRepository;
+    private final CourseStructureService courseStructureService;
+    private final LessonNavigationService lessonNavigationService;
+    private final AssetStorage assetStorage;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final Path stagingDir;
+    private final int batchSize;
+    private final long maxPackageSize;
+    private final Duration retention;
+
+    private final Map<String, ImportProgress> imports = new ConcurrentHashMap<>();
+
+    public CourseImportService(CourseService courseService,
+            CourseImportJdbcRepository importRepository,
+            CourseStructureService courseStructureService,
+            LessonNavigationService lessonNavigationService,
+            AssetStorage assetStorage,
+            ObjectMapper objectMapper,
+            Validator validator,
+            TransactionTemplate transactionTemplate,
+            @Value("${application.storage.upload.staging-dir:./data/uploads}") String stagingDir,
+            @Value("${application.course-import.batch-size:500}") int batchSize,
+            @Value("${application.course-import.max-package-size:2GB}") DataSize maxPackageSize,
+            @Value("${application.course-import.retention:PT1H}") Duration retention) {
+        this.courseService = courseService;
+        this.importRepository = importRepository;
+        this.courseStructureService = courseStructureService;
+        this.lessonNavigationService = lessonNavigationService;
+        this.assetStorage = assetStorage;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.stagingDir = Path.of(stagingDir).toAbsolutePath().normalize().resolve("imports");
+        this.batchSize = batchSize;
+        this.maxPackageSize = maxPackageSize.toBytes();
+        this.retention = retention;
+    }
+
+    /**
+     * Import a course package; the course is created as DRAFT and owned by the instructor
+     *
+     * @param body         Package bytes
+     * @param zip          true for a ZIP package, false for a bare JSON document
+     * @param instructorId ID of the instructor importing
+     * @return Finished import
+     * @throws BadRequestException if the package is malformed or invalid (nothing is written)
+     */
+    public CourseImportResponse importPackage(InputStream body, boolean zip, Long instructorId) {
+        ImportProgress progress = new ImportProgress(UUID.randomUUID().toString(), instructorId);
+        imports.put(progress.importId, progress);
+        log.info("Starting course import {} ({}) for instructor {}", progress.importId, zip ? "ZIP" : "JSON",
+                instructorId);
+
+        Path workDir = stagingDir.resolve(progress.importId);
+        try {
+            StagedPackage staged = new StagedPackage(workDir);
+            try {
+                InputStream input = new CountingInputStream(body, progress);
+                if (zip) {
+                    stageZip(input, staged);
+                } else {
+                    staged.stage(PACKAGE_DOCUMENT, input);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            StagedFile document = staged.files.remove(PACKAGE_DOCUMENT);
+            if (document == null) {
+                throw new BadRequestException("Package does not contain " + PACKAGE_DOCUMENT);
+            }
+
+            ImportWriter writer = new ImportWriter(progress, staged.files);
+            transactionTemplate.executeWithoutResult(status -> {
+                try (InputStream input = Files.newInputStream(document.path())) {
+                    readDocument(input, writer);
+                } catch (JsonProcessingException ex) {
+                    throw new BadRequestException("Invalid course package: " + ex.getOriginalMessage());
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                writer.finish();
+            });
+
+            courseStructureService.evict(writer.courseId);
+            lessonNavigationService.evict(writer.versionId);
+            progress.finish(ImportStatus.COMPLETED, null);
+            log.info("Course import {} completed: course {} with {} chapters, {} lessons, {} assets",
+                    progress.importId, writer.courseId, progress.chapters, progress.lessons, progress.assets);
+        } catch (RuntimeException ex) {
+            progress.finish(ImportStatus.FAILED, ex.getMessage());
+            log.warn("Course import {} failed: {}", progress.importId, ex.getMessage());
+            throw ex;
+        } finally {
+            deleteStaging(workDir);
+        }
+        return progress.toResponse();
+    }
+
+    /**
+     * Get running and recently finished imports of an instructor, newest first
+     */
+    public List<CourseImportResponse> getImports(Long instructorId) {
+        return imports.values().stream()
+                .filter(progress -> progress.instructorId.equals(instructorId))
+                .sorted(Comparator.comparing((ImportProgress progress) -> progress.startedAt).reversed())
+                .map(ImportProgress::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get progress of an import
+     */
+    public CourseImportResponse getImport(String importId, Long instructorId) {
+        ImportProgress progress = imports.get(importId);
+        if (progress == null) {
+            throw new ResourceNotFoundException("Import", "id", importId);
+        }
+        if (!progress.instructorId.equals(instructorId)) {
+            throw new UnauthorizedException("You are not authorized to view this import");
+        }
+        return progress.toResponse();
+    }
+
+    /**
+     * Forget finished imports once the retention has passed
+     */
+    @Scheduled(fixedDelayString = "${application.course-import.cleanup-interval:PT10M}")
+    public void cleanup() {
+        LocalDateTime finishedBefore = LocalDateTime.now().minus(retention);
+        imports.values().removeIf(progress -> progress.finishedAt != null
+                && progress.finishedAt.isBefore(finishedBefore));
+    }
+
+    // Every entry is staged, as assets may be referenced before or after course.json
+    private static void stageZip(InputStream input, StagedPackage staged) throws IOException {
+        ZipInputStream zip = new ZipInputStream(input);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            String name = normalizeEntryName(entry.getName());
+            if (entry.isDirectory() || name.isEmpty()) {
+                continue;
+            }
+            staged.stage(name, zip);
+        }
+    }
+
+    private void readDocument(InputStream input, ImportWriter writer) throws IOException {
+        JsonParser parser = objectMapper.createParser(input);
+        expect(parser.nextToken(), JsonToken.START_OBJECT, "package");
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "course" -> writer.createCourse(validated(parser.readValueAs(CreateCourseRequest.class), "course"));
+                case "version" -> writer.setVersion(parser.getValueAsString());
+                case "changeLog" -> writer.setChangeLog(parser.getValueAsString());
+                case "chapters" -> readChapters(parser, writer);
+                default -> parser.skipChildren();
+            }
+        }
+        parser.close();
+    }
+
+    private void readChapters(JsonParser parser, ImportWriter writer) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_ARRAY, "chapters");
+        int index = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            expect(parser.currentToken(), JsonToken.START_OBJECT, "chapters[" + index + "]");
+            readChapter(parser, writer, "chapters[" + index + "]");
+            index++;
+        }
+    }
+
+    // Lessons may precede the chapter's own fields, so the chapter row is completed at its end
+    private void readChapter(JsonParser parser, ImportWriter writer, String path) throws IOException {
+        Long chapterId = writer.openChapter(path);
+        CreateChapterRequest chapter = new CreateChapterRequest();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "title" -> chapter.setTitle(parser.getValueAsString());
+                case "description" -> chapter.setDescription(parser.getValueAsString());
+                case "lessons" -> {
+                    expect(parser.currentToken(), JsonToken.START_ARRAY, path + ".lessons");
+                    int index = 0;
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        readLesson(parser, writer, chapterId, path + ".lessons[" + index + "]");
+                        index++;
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        writer.closeChapter(chapterId, validated(chapter, path));
+    }
+
+    private void readLesson(JsonParser parser, ImportWriter writer, Long chapterId, String path) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_OBJECT, path);
+        ObjectNode node = parser.readValueAsTree();
+        JsonNode assets = node.remove("assets");
+        CreateLessonRequest lesson = validated(objectMapper.treeToValue(node, CreateLessonRequest.class), path);
+        Long lessonId = writer.addLesson(chapterId, lesson);
+
+        if (assets != null && !assets.isNull()) {
+            if (!assets.isArray()) {
+                throw new BadRequestException(path + ".assets must be an array");
+            }
+            for (int i = 0; i < assets.size(); i++) {
+                JsonNode asset = assets.get(i);
+                String file = asset.path("file").asText(null);
+                if (file == null || normalizeEntryName(file).isEmpty()) {
+                    throw new BadRequestException(path + ".assets[" + i + "].file is required");
+                }
+                writer.addAsset(lessonId, normalizeEntryName(file), asset.path("mimeType").asText(null),
+                        asset.path("fileName").asText(null));
+            }
+        }
+    }
+
+    private <T> T validated(T request, String path) {
+        Set<ConstraintViolation<T>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new BadRequestException(violations.stream()
+                    .map(violation -> path + "." + violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return request;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, String path) {
+        if (actual != expected) {
+            throw new BadRequestException("Invalid course package: " + path + " must be "
+                    + (expected == JsonToken.START_ARRAY ? "an array" : "an object"));
+        }
+    }
+
+    // Package paths are only names within the package: segments like ".." are rejected, not resolved
+    static String normalizeEntryName(String name) {
+        String normalized = name.replace('\\', '/');
+        while (normalized.startsWith("./") || normalized.startsWith("/")) {
+            normalized = normalized.substring(normalized.startsWith("/") ? 1 : 2);
+        }
+        for (String segment : normalized.split("/")) {
+            if (segment.equals("..")) {
+                throw new BadRequestException("Invalid path in package: " + name);
+            }
+        }
+        return normalized;
+    }
+
+    private static String safeFileName(String fileName) {
+        String baseName = fileName.substring(fileName.lastIndexOf('/') + 1);
+        String safe = baseName.replaceAll("[^A-Za-z0-9._-]", "_");
+        return safe.isBlank() || safe.chars().allMatch(c -> c == '.') ? "asset" : safe;
+    }
+
+    private void deleteStored(Collection<String> storageUrls) {
+        for (String storageUrl : storageUrls) {
+            try {
+                assetStorage.delete(storageUrl);
+            } catch (IOException ex) {
+                log.warn("Failed to delete imported asset {}: {}", storageUrl, ex.getMessage());
+            }
+        }
+    }
+
+    private void deleteStaging(Path workDir) {
+        try {
+            FileSystemUtils.deleteRecursively(workDir);
+        } catch (IOException ex) {
+            log.warn("Failed to delete import staging directory {}: {}", workDir, ex.getMessage());
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * Files of one package staged to disk before anything is written
+     */
+    private final class StagedPackage {
+
+        private final Path workDir;
+        private final Map<String, StagedFile> files = new HashMap<>();
+        private long stagedBytes;
+
+        private StagedPackage(Path workDir) {
+            this.workDir = workDir;
+        }
+
+        void stage(String name, InputStream entry) throws IOException {
+            if (files.containsKey(name)) {
+                throw new BadRequestException("Package contains " + name + " more than once");
+            }
+            Files.createDirectories(workDir);
+            Path file = workDir.resolve(String.valueOf(files.size()));
+            MessageDigest digest = newDigest();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(file), digest)) {
+                size = entry.transferTo(out);
+            }
+            stagedBytes += size;
+            if (stagedBytes > maxPackageSize) {
+                throw new BadRequestException("Package content exceeds " + maxPackageSize + " bytes");
+            }
+            files.put(name, new StagedFile(file, size, "sha256:" + HexFormat.of().formatHex(digest.digest())));
+        }
+    }
+
+    /**
+     * Writes one import's rows in batches; used inside the import transaction
+     */
+    private final class ImportWriter {
+
+        private final ImportProgress progress;
+        private final Map<String, StagedFile> stagedFiles;
+
+        private final Deque<Long> chapterIds = new ArrayDeque<>();
+        private final Deque<Long> lessonIds = new ArrayDeque<>();
+        private final List<ChapterRow> chapters = new ArrayList<>();
+        private final List<LessonRow> lessons = new ArrayList<>();
+        private final List<PendingAsset> assets = new ArrayList<>();
+        private final Map<Long, Integer> lessonCounts = new HashMap<>();
+        private final Set<UUID> lessonKeys = new HashSet<>();
+
+        private Long courseId;
+        private Long versionId;
+        private String version = DEFAULT_VERSION;
+        private String changeLog;
+        private int chapterCount;
+
+        private ImportWriter(ImportProgress progress, Map<String, StagedFile> stagedFiles) {
+            this.progress = progress;
+            this.stagedFiles = stagedFiles;
+        }
+
+        void createCourse(CreateCourseRequest request) {
+            if (courseId != null) {
+                throw new BadRequestException("Invalid course package: \"course\" must appear once");
+            }
+            // Same path as POST /courses: tags, prerequisites, search vector, catalog and indexes
+            courseId = courseService.createCourse(request, progress.instructorId).getId();
+            progress.courseId = courseId;
+        }
+
+        void setVersion(String version) {
+            requireNoVersion("version");
+            if (version == null || version.isBlank() || version.length() > 20) {
+                throw new BadRequestException("Invalid course package: version must have 1 to 20 characters");
+            }
+            this.version = version;
+        }
+
+        void setChangeLog(String changeLog) {
+            requireNoVersion("changeLog");
+            this.changeLog = changeLog;
+        }
+
+        Long openChapter(String path) {
+            if (courseId == null) {
+                throw new BadRequestException("Invalid course package: \"course\" must come before " + path);
+            }
+            if (versionId == null) {
+                versionId = importRepository.insertVersion(courseId, version, changeLog);
+            }
+            return nextId(chapterIds, CourseImportJdbcRepository.CHAPTER_SEQUENCE);
+        }
+
+        void closeChapter(Long chapterId, CreateChapterRequest chapter) {
+            chapters.add(new ChapterRow(chapterId, versionId, chapter.getTitle(), chapter.getDescription(),
+                    SequencePositions.atPosition(chapterCount++)));
+            progress.chapters.incrementAndGet();
+            // Lessons reference their chapter: they are only written once it is
+            if (lessons.size() >= batchSize) {
+                flushLessons();
+            } else if (chapters.size() >= batchSize) {
+                flushChapters();
+            }
+        }
+
+        Long addLesson(Long chapterId, CreateLessonRequest lesson) {
+            if (lesson.getLessonKey() != null && !lessonKeys.add(lesson.getLessonKey())) {
+                throw new BadRequestException("Lesson key used more than once: " + lesson.getLessonKey());
+            }
+            Long lessonId = nextId(lessonIds, CourseImportJdbcRepository.LESSON_SEQUENCE);
+            int position = lessonCounts.merge(chapterId, 1, Integer::sum) - 1;
+            lessons.add(new LessonRow(lessonId, chapterId, lesson.getTitle(), lesson.getDescription(),
+                    lesson.getType().name(), SequencePositions.atPosition(position),
+                    lesson.getMasteryThreshold() != null ? lesson.getMasteryThreshold() : DEFAULT_MASTERY_THRESHOLD,
+                    lesson.getContent(), lesson.getEstimatedDuration(), lesson.getLessonKey()));
+            progress.lessons.incrementAndGet();
+            return lessonId;
+        }
+
+        void addAsset(Long lessonId, String file, String mimeType, String fileName) {
+            assets.add(new PendingAsset(lessonId, file, mimeType, fileName));
+        }
+
+        void finish() {
+            if (courseId == null) {
+                throw new BadRequestException("Invalid course package: \"course\" is required");
+            }
+            if (versionId == null) {
+                versionId = importRepository.insertVersion(courseId, version, changeLog);
+            }
+            flushLessons();
+            storeAssets();
+        }
+
+        private void requireNoVersion(String field) {
+            if (versionId != null) {
+                throw new BadRequestException("Invalid course package: \"" + field + "\" must come before \"chapters\"");
+            }
+        }
+
+        private Long nextId(Deque<Long> pool, String sequence) {
+            if (pool.isEmpty()) {
+                pool.addAll(importRepository.nextIds(sequence, batchSize));
+            }
+            return pool.poll();
+        }
+
+        private void flushChapters() {
+            if (!chapters.isEmpty()) {
+                importRepository.insertChapters(chapters);
+                chapters.clear();
+            }
+        }
+
+        private void flushLessons() {
+            flushChapters();
+            for (int from = 0; from < lessons.size(); from += batchSize) {
+                importRepository.insertLessons(lessons.subList(from, Math.min(from + batchSize, lessons.size())));
+            }
+            lessons.clear();
+        }
+
+        // A file referenced by several lessons is stored once
+        private void storeAssets() {
+            Map<String, String> storageUrls = new HashMap<>();
+            // Files moved into storage are only referenced if this transaction commits
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int completionStatus) {
+                    if (completionStatus == STATUS_ROLLED_BACK) {
+                        deleteStored(storageUrls.values());
+                    }
+                }
+            });
+            List<AssetRow> rows = new ArrayList<>();
+            for (PendingAsset asset : assets) {
+                StagedFile staged = stagedFiles.get(asset.file());
+                if (staged == null) {
+                    throw new BadRequestException("Asset file not found in package: " + asset.file());
+                }
+                String storageUrl = storageUrls.computeIfAbsent(asset.file(), file -> {
+                    try {
+                        return assetStorage.importFile("lessons/" + asset.lessonId() + "/import-"
+                                + progress.importId + "/" + safeFileName(file), staged.path());
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                String fileName = asset.fileName() != null
+                        ? asset.fileName()
+                        : asset.file().substring(asset.file().lastIndexOf('/') + 1);
+                String mimeType = asset.mimeType() != null
+                        ? asset.mimeType()
+                        : URLConnection.guessContentTypeFromName(fileName);
+                rows.add(new AssetRow(asset.lessonId(), storageUrl,
+                        mimeType != null ? mimeType : "application/octet-stream",
+                        staged.size(), staged.checksum(), fileName));
+                progress.assets.incrementAndGet();
+                if (rows.size() >= batchSize) {
+                    importRepository.insertAssets(rows);
+                    rows.clear();
+                }
+            }
+            if (!rows.isEmpty()) {
+                importRepository.insertAssets(rows);
+            }
+        }
+    }
+
+    private record PendingAsset(Long lessonId, String file, String mimeType, String fileName) {
+    }
+
+    private record StagedFile(Path path, long size, String checksum) {
+    }
+
+    /**
+     * Live progress of one import, read by status requests while the import runs
+     */
+    private static final class ImportProgress {
+
+        private final String importId;
+        private final Long instructorId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong receivedBytes = new AtomicLong();
+        private final AtomicInteger chapters = new AtomicInteger();
+        private final AtomicInteger lessons = new AtomicInteger();
+        private final AtomicInteger assets = new AtomicInteger();
+        private volatile Long courseId;
+        private volatile ImportStatus status = ImportStatus.IN_PROGRESS;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private ImportProgress(String importId, Long instructorId) {
+            this.importId = importId;
+            this.instructorId = instructorId;
+        }
+
+        void finish(ImportStatus status, String error) {
+            if (status == ImportStatus.FAILED) {
+                this.courseId = null; // Rolled back
+            }
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        CourseImportResponse toResponse() {
+            return CourseImportResponse.builder()
+                    .importId(importId)
+                    .status(status)
+                    .courseId(courseId)
+                    .receivedBytes(receivedBytes.get())
+                    .chapters(chapters.get())
+                    .lessons(lessons.get())
+                    .assets(assets.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+
+    /**
+     * Counts package bytes for progress and enforces the maximum package size
+     */
+    private final class CountingInputStream extends FilterInputStream {
+
+        private final ImportProgress progress;
+
+        private CountingInputStream(InputStream in, ImportProgress progress) {
+            super(in);
+            this.progress = progress;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(long bytes) {
+            if (progress.receivedBytes.addAndGet(bytes) > maxPackageSize) {
+                throw new BadRequestException("Package exceeds " + maxPackageSize + " bytes");
+            }
+        }
+    }
+}
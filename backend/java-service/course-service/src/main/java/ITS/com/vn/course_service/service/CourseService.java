@@ -1,34 +1,46 @@
 package ITS.com.vn.course_service.service;
 
-import ITS.com.vn.course_service.client.ProfileClient;
 import ITS.com.vn.course_service.domain.entity.*;
 import ITS.com.vn.course_service.domain.enums.CourseStatus;
 import ITS.com.vn.course_service.domain.enums.EnrollmentStatus;
 import ITS.com.vn.course_service.domain.enums.PrerequisiteType;
-import ITS.com.vn.course_service.dto.external.UserProfileResponse;
 import ITS.com.vn.course_service.dto.request.CreateCourseRequest;
+import ITS.com.vn.course_service.dto.request.FacetSearchRequest;
 import ITS.com.vn.course_service.dto.request.UpdateCourseRequest;
 import ITS.com.vn.course_service.dto.response.CourseResponse;
 import ITS.com.vn.course_service.dto.response.CourseStatsResponse;
+import ITS.com.vn.course_service.dto.response.CursorPageResponse;
+import ITS.com.vn.course_service.dto.response.FacetSearchResponse;
 import ITS.com.vn.course_service.dto.response.InstructorSummaryResponse;
 import ITS.com.vn.course_service.exception.BadRequestException;
 import ITS.com.vn.course_service.exception.ResourceNotFoundException;
 import ITS.com.vn.course_service.exception.UnauthorizedException;
 import ITS.com.vn.course_service.mapper.CourseMapper;
+import ITS.com.vn.course_service.repository.CourseCatalogRepository.CatalogFilter;
 import ITS.com.vn.course_service.repository.CourseRepository;
 import ITS.com.vn.course_service.repository.EnrollmentRepository;
 import ITS.com.vn.course_service.repository.TagRepository;
+import ITS.com.vn.course_service.service.CourseFacetIndex.FacetSearchResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -42,11 +54,19 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class CourseService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final Pattern SEARCH_TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
     private final CourseRepository courseRepository;
     private final TagRepository tagRepository;
     private final CourseMapper courseMapper;
     private final EnrollmentRepository enrollmentRepository;
-    private final ProfileClient profileClient;
+    private final EnrollmentStatsService enrollmentStatsService;
+    private final CourseStructureService courseStructureService;
+    private final InstructorProfileService instructorProfileService;
+    private final PrerequisiteGraphIndex prerequisiteGraphIndex;
+    private final CourseCatalogService courseCatalogService;
+    private final CourseFacetIndex courseFacetIndex;
 
     /**
      * Create a new course
@@ -64,36 +84,19 @@ public class CourseService {
         course.setInstructorId(instructorId);
         course.setStatus(CourseStatus.DRAFT);
 
-        // Handle tags
+        // Handle tags and prerequisites (inserted as JDBC batches on flush)
         if (request.getTagIds() != null && !request.getTagIds().isEmpty()) {
-            List<Tag> tags = tagRepository.findAllById(request.getTagIds());
-            for (Tag tag : tags) {
-                CourseTag courseTag = CourseTag.builder()
-                        .course(course)
-                        .tag(tag)
-                        .build();
-                course.addTag(courseTag);
-            }
+            applyTags(course, request.getTagIds());
         }
-
-        // Handle prerequisites
         if (request.getPrerequisiteCourseIds() != null && !request.getPrerequisiteCourseIds().isEmpty()) {
-            for (Long prereqId : request.getPrerequisiteCourseIds()) {
-                // Verify prerequisite course exists
-                if (!courseRepository.existsById(prereqId)) {
-                    throw new BadRequestException("Prerequisite course not found with ID: " + prereqId);
-                }
-
-                Prerequisite prerequisite = Prerequisite.builder()
-                        .course(course)
-                        .requiredCourseId(prereqId)
-                        .type(PrerequisiteType.HARD)
-                        .build();
-                course.addPrerequisite(prerequisite);
-            }
+            applyPrerequisites(course, request.getPrerequisiteCourseIds());
         }
 
         Course savedCourse = courseRepository.save(course);
+        courseRepository.refreshSearchVector(savedCourse.getId());
+        courseCatalogService.refresh(savedCourse);
+        courseFacetIndex.updateAfterCommit(savedCourse);
+        prerequisiteGraphIndex.updateAfterCommit(savedCourse.getId(), prerequisiteTypes(savedCourse));
         log.info("Course created successfully with ID: {}", savedCourse.getId());
 
         return decorateCourseResponse(savedCourse, null, 0L);
@@ -127,7 +130,7 @@ public class CourseService {
             enrollment = enrollmentRepository.findByCourseIdAndStudentId(id, userId).orElse(null);
         }
 
-        return decorateCourseResponse(course, enrollment, enrollmentRepository.countCurrentByCourseId(id));
+        return decorateCourseResponse(course, enrollment, enrollmentStatsService.getCurrentCount(id));
     }
 
     /**
@@ -151,7 +154,7 @@ public class CourseService {
     public Page<CourseResponse> getAllCourses(Pageable pageable, Long userId, String semester, String enrollmentStatus) {
         log.info("Fetching all courses with pagination");
 
-        Page<Course> courses;
+        CatalogFilter filter;
         if (enrollmentStatus != null && !enrollmentStatus.isBlank() && userId != null) {
             EnrollmentStatus status = parseEnrollmentStatus(enrollmentStatus);
             List<Enrollment> enrollments = enrollmentRepository.findByStudentIdAndStatus(userId, status);
@@ -161,21 +164,15 @@ public class CourseService {
             if (courseIds.isEmpty()) {
                 return Page.empty(pageable);
             }
-            courses = (semester != null && !semester.isBlank())
-                    ? courseRepository.findByIdInAndSemester(courseIds, semester, pageable)
-                    : courseRepository.findByIdIn(courseIds, pageable);
-        } else if (semester != null && !semester.isBlank()) {
-            courses = courseRepository.findBySemester(semester, pageable);
+            filter = new CatalogFilter(null, blankToNull(semester), null, courseIds);
         } else {
-            courses = courseRepository.findAll(pageable);
+            filter = new CatalogFilter(null, blankToNull(semester), null, null);
         }
 
+        Page<CourseResponse> courses = courseCatalogService.getPage(filter, pageable);
         Map<Long, Enrollment> enrollmentMap = buildEnrollmentMap(userId, enrollmentStatus);
-        Map<Long, Long> studentCounts = countCurrentEnrollments(courses.getContent());
-
-        return courses.map(course -> decorateCourseResponse(course,
-                enrollmentMap.get(course.getId()),
-                studentCounts.get(course.getId())));
+        courses.forEach(course -> applyEnrollment(course, enrollmentMap.get(course.getId())));
+        return courses;
     }
 
     /**
@@ -188,9 +185,7 @@ public class CourseService {
     public Page<CourseResponse> getCoursesByInstructor(Long instructorId, Pageable pageable) {
         log.info("Fetching courses for instructor: {}", instructorId);
 
-        Page<Course> courses = courseRepository.findByInstructorId(instructorId, pageable);
-        Map<Long, Long> studentCounts = countCurrentEnrollments(courses.getContent());
-        return courses.map(course -> decorateCourseResponse(course, null, studentCounts.get(course.getId())));
+        return courseCatalogService.getPage(new CatalogFilter(null, null, instructorId, null), pageable);
     }
 
     /**
@@ -209,34 +204,129 @@ public class CourseService {
     public Page<CourseResponse> getPublishedCourses(Pageable pageable, Long userId, String semester) {
         log.info("Fetching published courses");
 
-        Page<Course> courses;
-        if (semester != null && !semester.isBlank()) {
-            courses = courseRepository.findByStatusAndSemester(CourseStatus.PUBLISHED, semester, pageable);
-        } else {
-            courses = courseRepository.findByStatus(CourseStatus.PUBLISHED, pageable);
-        }
-
+        Page<CourseResponse> courses = courseCatalogService.getPage(
+                new CatalogFilter(CourseStatus.PUBLISHED, blankToNull(semester), null, null), pageable);
         Map<Long, Enrollment> enrollmentMap = buildEnrollmentMap(userId, null);
-        Map<Long, Long> studentCounts = countCurrentEnrollments(courses.getContent());
-
-        return courses.map(course -> decorateCourseResponse(course,
-                enrollmentMap.get(course.getId()),
-                studentCounts.get(course.getId())));
+        courses.forEach(course -> applyEnrollment(course, enrollmentMap.get(course.getId())));
+        return courses;
     }
 
     /**
-     * Search courses by title
+     * Search courses by title, code, tags, objectives and description
+     * Results are ranked by relevance; prefix and typo-tolerant matching are supported
      * 
      * @param keyword  Search keyword
-     * @param pageable Pagination parameters
+     * @param pageable Pagination parameters (sort is ignored, results are ordered by rank)
      * @return Page of matching course responses
      */
     public Page<CourseResponse> searchCourses(String keyword, Pageable pageable) {
         log.info("Searching courses with keyword: {}", keyword);
 
-        Page<Course> courses = courseRepository.searchByTitle(keyword, pageable);
-        Map<Long, Long> studentCounts = countCurrentEnrollments(courses.getContent());
-        return courses.map(course -> decorateCourseResponse(course, null, studentCounts.get(course.getId())));
+        String tsQuery = toPrefixTsQuery(keyword);
+        if (tsQuery.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        Page<Long> courseIds = courseRepository.searchIds(tsQuery, keyword.trim(),
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        return new PageImpl<>(courseCatalogService.getAllById(courseIds.getContent()), courseIds.getPageable(),
+                courseIds.getTotalElements());
+    }
+
+    /**
+     * Filter courses by any AND/OR/NOT combination of facets (status, visibility, semester, credits, tag)
+     * and count the matches per facet value, served from the in-memory facet index
+     *
+     * @param request Filter, page and facets to count
+     * @return Page of matching courses (newest first) with facet counts
+     */
+    public FacetSearchResponse searchByFacets(FacetSearchRequest request) {
+        log.info("Searching courses by facets");
+
+        FacetSearchResult result = courseFacetIndex.search(request.getFilter(),
+                (long) request.getPage() * request.getSize(), request.getSize(), request.getFacets());
+
+        return FacetSearchResponse.builder()
+                .content(courseCatalogService.getAllById(result.courseIds()))
+                .page(request.getPage())
+                .size(request.getSize())
+                .totalElements(result.total())
+                .facets(result.facets())
+                .build();
+    }
+
+    /**
+     * Get all courses using keyset (cursor) pagination, newest first
+     *
+     * @param cursor   Opaque cursor from the previous page (null for the first page)
+     * @param size     Page size
+     * @param userId   Optional user for enrollment progress
+     * @param semester Optional semester filter
+     * @return Cursor page of course responses
+     */
+    public CursorPageResponse<CourseResponse> getAllCoursesByCursor(String cursor, int size, Long userId,
+            String semester) {
+        log.info("Fetching all courses with cursor pagination");
+
+        List<CourseResponse> rows = courseCatalogService.getAfterId(
+                new CatalogFilter(null, blankToNull(semester), null, null),
+                lastIdOf(CourseCursor.decode(cursor)), clampCursorPageSize(size) + 1);
+
+        return toCursorPage(rows, clampCursorPageSize(size), userId, CourseCursor::afterId);
+    }
+
+    /**
+     * Get published courses using keyset (cursor) pagination over (publishedAt, id)
+     */
+    public CursorPageResponse<CourseResponse> getPublishedCoursesByCursor(String cursor, int size, Long userId,
+            String semester) {
+        log.info("Fetching published courses with cursor pagination");
+
+        CourseCursor after = CourseCursor.decode(cursor);
+        if (after != null && after.publishedAt() == null) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+
+        List<CourseResponse> rows = courseCatalogService.getAfterPublished(
+                new CatalogFilter(CourseStatus.PUBLISHED, blankToNull(semester), null, null),
+                after != null ? after.publishedAt() : null,
+                after != null ? after.id() : null,
+                clampCursorPageSize(size) + 1);
+
+        return toCursorPage(rows, clampCursorPageSize(size), userId, CourseCursor::afterPublished);
+    }
+
+    /**
+     * Get courses by instructor using keyset (cursor) pagination, newest first
+     */
+    public CursorPageResponse<CourseResponse> getCoursesByInstructorByCursor(Long instructorId, String cursor,
+            int size) {
+        log.info("Fetching courses for instructor {} with cursor pagination", instructorId);
+
+        List<CourseResponse> rows = courseCatalogService.getAfterId(
+                new CatalogFilter(null, null, instructorId, null),
+                lastIdOf(CourseCursor.decode(cursor)), clampCursorPageSize(size) + 1);
+
+        return toCursorPage(rows, clampCursorPageSize(size), null, CourseCursor::afterId);
+    }
+
+    /**
+     * Search courses using keyset (cursor) pagination
+     * Matches like {@link #searchCourses(String, Pageable)} but orders by newest first instead of rank
+     */
+    public CursorPageResponse<CourseResponse> searchCoursesByCursor(String keyword, String cursor, int size) {
+        log.info("Searching courses with keyword: {} (cursor pagination)", keyword);
+
+        String tsQuery = toPrefixTsQuery(keyword);
+        if (tsQuery.isEmpty()) {
+            return toCursorPage(List.of(), clampCursorPageSize(size), null, CourseCursor::afterId);
+        }
+
+        List<Long> courseIds = courseRepository.searchIdsAfter(tsQuery, keyword.trim(),
+                lastIdOf(CourseCursor.decode(cursor)), clampCursorPageSize(size) + 1);
+
+        return toCursorPage(courseCatalogService.getAllById(courseIds), clampCursorPageSize(size), null,
+                CourseCursor::afterId);
     }
 
     /**
@@ -297,46 +387,35 @@ public class CourseService {
             course.setObjectives(request.getObjectives());
         }
 
-        // Update tags if provided
+        // Update tags if provided (only the difference is written)
         if (request.getTagIds() != null) {
-            // Clear existing tags
-            course.getCourseTags().clear();
-
-            // Add new tags
-            List<Tag> tags = tagRepository.findAllById(request.getTagIds());
-            for (Tag tag : tags) {
-                CourseTag courseTag = CourseTag.builder()
-                        .course(course)
-                        .tag(tag)
-                        .build();
-                course.addTag(courseTag);
-            }
+            applyTags(course, request.getTagIds());
         }
 
         // Update prerequisites if provided
         if (request.getPrerequisiteCourseIds() != null) {
-            // Clear existing prerequisites
-            course.getPrerequisites().clear();
-
-            // Add new prerequisites
-            for (Long prereqId : request.getPrerequisiteCourseIds()) {
-                if (!courseRepository.existsById(prereqId)) {
-                    throw new BadRequestException("Prerequisite course not found with ID: " + prereqId);
-                }
-
-                Prerequisite prerequisite = Prerequisite.builder()
-                        .course(course)
-                        .requiredCourseId(prereqId)
-                        .type(PrerequisiteType.HARD)
-                        .build();
-                course.addPrerequisite(prerequisite);
+            // Reject prerequisites that would (transitively) require this course itself
+            List<Long> cycle = prerequisiteGraphIndex.findCycleForUpdate(course.getId(),
+                    request.getPrerequisiteCourseIds());
+            if (!cycle.isEmpty()) {
+                throw new BadRequestException("Prerequisites would create a cycle: " + cycle.stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(" -> ")));
             }
+
+            applyPrerequisites(course, request.getPrerequisiteCourseIds());
         }
 
         Course updatedCourse = courseRepository.save(course);
+        courseRepository.refreshSearchVector(updatedCourse.getId());
+        courseCatalogService.refresh(updatedCourse);
+        courseFacetIndex.updateAfterCommit(updatedCourse);
+        if (request.getPrerequisiteCourseIds() != null) {
+            prerequisiteGraphIndex.updateAfterCommit(updatedCourse.getId(), prerequisiteTypes(updatedCourse));
+        }
         log.info("Course updated successfully with ID: {}", updatedCourse.getId());
 
-        return decorateCourseResponse(updatedCourse, null, enrollmentRepository.countCurrentByCourseId(updatedCourse.getId()));
+        return decorateCourseResponse(updatedCourse, null, enrollmentStatsService.getCurrentCount(updatedCourse.getId()));
     }
 
     /**
@@ -362,11 +441,14 @@ public class CourseService {
         course.publish();
 
         Course publishedCourse = courseRepository.save(course);
+        courseCatalogService.refresh(publishedCourse);
+        courseFacetIndex.updateAfterCommit(publishedCourse);
+        courseStructureService.evict(publishedCourse.getId());
         log.info("Course published successfully with ID: {}", publishedCourse.getId());
 
         // TODO: Emit COURSE_PUBLISHED event to RabbitMQ
 
-        return decorateCourseResponse(publishedCourse, null, enrollmentRepository.countCurrentByCourseId(publishedCourse.getId()));
+        return decorateCourseResponse(publishedCourse, null, enrollmentStatsService.getCurrentCount(publishedCourse.getId()));
     }
 
     /**
@@ -391,9 +473,11 @@ public class CourseService {
         course.archive();
 
         Course archivedCourse = courseRepository.save(course);
+        courseCatalogService.refresh(archivedCourse);
+        courseFacetIndex.updateAfterCommit(archivedCourse);
         log.info("Course archived successfully with ID: {}", archivedCourse.getId());
 
-        return decorateCourseResponse(archivedCourse, null, enrollmentRepository.countCurrentByCourseId(archivedCourse.getId()));
+        return decorateCourseResponse(archivedCourse, null, enrollmentStatsService.getCurrentCount(archivedCourse.getId()));
     }
 
     /**
@@ -421,6 +505,9 @@ public class CourseService {
         }
 
         courseRepository.delete(course);
+        courseStructureService.evict(id);
+        prerequisiteGraphIndex.removeAfterCommit(id);
+        courseFacetIndex.removeAfterCommit(id);
         log.info("Course deleted successfully with ID: {}", id);
     }
 
@@ -431,20 +518,41 @@ public class CourseService {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course", "id", courseId));
 
-        Long total = enrollmentRepository.countByCourseId(courseId);
-        Long active = enrollmentRepository.countActiveByCourseId(courseId);
-        Long completed = enrollmentRepository.countCompletedByCourseId(courseId);
-        Double avgProgress = enrollmentRepository.getAverageProgressByCourseId(courseId);
+        CourseEnrollmentStats stats = enrollmentStatsService.getStats(courseId);
 
         return CourseStatsResponse.builder()
                 .courseId(course.getId())
-                .totalEnrollments(total)
-                .activeEnrollments(active)
-                .completedEnrollments(completed)
-                .averageProgress(avgProgress != null ? avgProgress : 0.0)
+                .totalEnrollments(stats.getTotalCount())
+                .activeEnrollments(stats.getActiveCount())
+                .completedEnrollments(stats.getCompletedCount())
+                .averageProgress(stats.getAverageProgress())
                 .build();
     }
 
+    private CursorPageResponse<CourseResponse> toCursorPage(List<CourseResponse> rows, int size, Long userId,
+            Function<CourseResponse, CourseCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<CourseResponse> content = hasNext ? rows.subList(0, size) : rows;
+
+        Map<Long, Enrollment> enrollmentMap = buildEnrollmentMap(userId, null);
+        content.forEach(course -> applyEnrollment(course, enrollmentMap.get(course.getId())));
+
+        return CursorPageResponse.<CourseResponse>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null)
+                .build();
+    }
+
+    private Long lastIdOf(CourseCursor cursor) {
+        return cursor != null ? cursor.id() : Long.MAX_VALUE;
+    }
+
+    private int clampCursorPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+
     private Map<Long, Enrollment> buildEnrollmentMap(Long userId, String enrollmentStatus) {
         if (userId == null) {
             return Map.of();
@@ -462,37 +570,41 @@ public class CourseService {
                 .collect(Collectors.toMap(e -> e.getCourse().getId(), e -> e, (a, b) -> a));
     }
 
-    private Map<Long, Long> countCurrentEnrollments(List<Course> courses) {
-        if (courses == null || courses.isEmpty()) {
-            return Map.of();
-        }
-        List<Long> courseIds = courses.stream()
-                .map(Course::getId)
-                .toList();
-        Map<Long, Long> counts = new HashMap<>();
-        enrollmentRepository.countByCourseIds(courseIds).forEach(row -> {
-            if (row != null && row.length >= 2) {
-                Long courseId = row[0] != null ? ((Number) row[0]).longValue() : null;
-                Long total = row[1] != null ? ((Number) row[1]).longValue() : null;
-                if (courseId != null && total != null) {
-                    counts.put(courseId, total);
-                }
-            }
-        });
-        return counts;
+    private CourseResponse decorateCourseResponse(Course course, Enrollment enrollment, Long currentStudents) {
+        return decorateCourseResponse(course, enrollment, currentStudents,
+                instructorProfileService.getInstructor(course.getInstructorId()));
     }
 
-    private CourseResponse decorateCourseResponse(Course course, Enrollment enrollment, Long currentStudents) {
+    private CourseResponse decorateCourseResponse(Course course, Enrollment enrollment, Long currentStudents,
+            InstructorSummaryResponse instructor) {
         CourseResponse response = courseMapper.toResponse(course);
+        applyEnrollment(response, enrollment);
+        response.setCurrentStudents(safeLongToInt(currentStudents));
+        applyInstructor(response, instructor);
+        return response;
+    }
+
+    private void applyEnrollment(CourseResponse response, Enrollment enrollment) {
         if (enrollment != null) {
             response.setEnrolled(true);
             response.setProgress(enrollment.getProgress());
         } else {
             response.setEnrolled(false);
         }
-        response.setCurrentStudents(safeLongToInt(currentStudents));
-        enrichInstructor(response, course.getInstructorId());
-        return response;
+    }
+
+    private String blankToNull(String value) {
+        return value != null && !value.isBlank() ? value : null;
+    }
+
+    private String toPrefixTsQuery(String keyword) {
+        if (keyword == null) {
+            return "";
+        }
+        return SEARCH_TOKEN_SEPARATOR.splitAsStream(keyword.toLowerCase(Locale.ROOT))
+                .filter(token -> !token.isBlank())
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
     }
 
     private EnrollmentStatus parseEnrollmentStatus(String status) {
@@ -510,23 +622,89 @@ public class CourseService {
         return Math.toIntExact(value);
     }
 
-    private void enrichInstructor(CourseResponse response, Long instructorId) {
-        if (instructorId == null) {
+    private void applyInstructor(CourseResponse response, InstructorSummaryResponse instructor) {
+        if (instructor == null) {
             return;
         }
-        try {
-            UserProfileResponse profile = profileClient.getProfile(String.valueOf(instructorId));
-            if (profile != null) {
-                response.setInstructorName(profile.getFullName());
-                response.setInstructorAvatarUrl(profile.getAvatarUrl());
-                response.setInstructor(InstructorSummaryResponse.builder()
-                        .id(profile.getId())
-                        .fullName(profile.getFullName())
-                        .avatarUrl(profile.getAvatarUrl())
+        response.setInstructorName(instructor.getFullName());
+        response.setInstructorAvatarUrl(instructor.getAvatarUrl());
+        response.setInstructor(instructor);
+    }
+
+    /**
+     * Make the course's tags exactly the given ones: links to other tags are removed, missing ones
+     * added, and unchanged links are left alone (unknown tag IDs are ignored)
+     */
+    private void applyTags(Course course, Collection<Long> tagIds) {
+        Set<Long> wanted = new HashSet<>(tagIds);
+        Set<Long> current = new HashSet<>();
+        boolean changed = course.getCourseTags().removeIf(courseTag -> {
+            Long tagId = courseTag.getTag().getId();
+            return !wanted.contains(tagId) || !current.add(tagId);
+        });
+
+        wanted.removeAll(current);
+        if (!wanted.isEmpty()) {
+            for (Tag tag : tagRepository.findAllById(wanted)) {
+                course.addTag(CourseTag.builder()
+                        .course(course)
+                        .tag(tag)
+                        .build());
+                changed = true;
+            }
+        }
+        if (changed) {
+            touch(course);
+        }
+    }
+
+    /**
+     * Make the course's prerequisites exactly the given required courses, validating all of them
+     * with one query; unchanged prerequisites are left alone
+     *
+     * @throws BadRequestException if a required course does not exist
+     */
+    private void applyPrerequisites(Course course, Collection<Long> requiredCourseIds) {
+        Set<Long> wanted = new LinkedHashSet<>(requiredCourseIds);
+        if (!wanted.isEmpty()) {
+            Set<Long> missing = new LinkedHashSet<>(wanted);
+            courseRepository.findExistingIds(wanted).forEach(missing::remove);
+            if (!missing.isEmpty()) {
+                throw new BadRequestException("Prerequisite course not found with ID: " + missing.stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+
+        Set<Long> current = new HashSet<>();
+        boolean changed = course.getPrerequisites().removeIf(
+                prerequisite -> !wanted.contains(prerequisite.getRequiredCourseId())
+                        || !current.add(prerequisite.getRequiredCourseId()));
+
+        for (Long requiredCourseId : wanted) {
+            if (!current.contains(requiredCourseId)) {
+                course.addPrerequisite(Prerequisite.builder()
+                        .course(course)
+                        .requiredCourseId(requiredCourseId)
+                        .type(PrerequisiteType.HARD)
                         .build());
+                changed = true;
             }
-        } catch (Exception ex) {
-            log.warn("Failed to fetch instructor profile for {}: {}", instructorId, ex.getMessage());
         }
+        if (changed) {
+            touch(course);
+        }
+    }
+
+    // Tag and prerequisite links are rows of their own tables: dirty the course so its updatedAt
+    // moves and incremental exports pick the change up
+    private static void touch(Course course) {
+        course.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private Map<Long, PrerequisiteType> prerequisiteTypes(Course course) {
+        return course.getPrerequisites().stream()
+                .collect(Collectors.toMap(Prerequisite::getRequiredCourseId, Prerequisite::getType,
+                        (a, b) -> a == PrerequisiteType.HARD ? a : b));
     }
 }
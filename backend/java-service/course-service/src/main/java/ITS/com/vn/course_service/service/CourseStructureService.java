@@ -0,0 +1,144 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.CourseVersion;
+import ITS.com.vn.course_service.domain.enums.VersionStatus;
+import ITS.com.vn.course_service.dto.response.CourseStructureResponse;
+import ITS.com.vn.course_service.dto.response.CourseStructureResponse.ChapterNode;
+import ITS.com.vn.course_service.dto.response.CourseStructureResponse.LessonNode;
+import ITS.com.vn.course_service.exception.ResourceNotFoundException;
+import ITS.com.vn.course_service.repository.ChapterRepository;
+import ITS.com.vn.course_service.repository.ChapterRepository.ChapterOutline;
+import ITS.com.vn.course_service.repository.CourseRepository;
+import ITS.com.vn.course_service.repository.CourseVersionRepository;
+import ITS.com.vn.course_service.repository.LessonRepository;
+import ITS.com.vn.course_service.repository.LessonRepository.LessonOutline;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Course Structure Service - Serves the chapter/lesson tree of a course from memory
+ * The tree of the published version (or the latest draft if none is published) is built
+ * once from two outline queries and cached until a structural edit evicts it. Evictions only reach
+ * this instance, so a cached tree older than the validation interval is checked against a hash of
+ * the course's outlines first
+ */
+@Service
+@Slf4j
+public class CourseStructureService {
+
+    private final CourseRepository courseRepository;
+    private final CourseVersionRepository courseVersionRepository;
+    private final ChapterRepository chapterRepository;
+    private final LessonRepository lessonRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long validateAfterMillis;
+    private final GuardedLruCache<Long, CachedStructure> cache;
+
+    public CourseStructureService(CourseRepository courseRepository,
+            CourseVersionRepository courseVersionRepository,
+            ChapterRepository chapterRepository,
+            LessonRepository lessonRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.cache.course-structure.max-size:2000}") int maxSize,
+            @Value("${application.cache.course-structure.validate-after:PT10S}") Duration validateAfter) {
+        this.courseRepository = courseRepository;
+        this.courseVersionRepository = courseVersionRepository;
+        this.chapterRepository = chapterRepository;
+        this.lessonRepository = lessonRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.validateAfterMillis = validateAfter.toMillis();
+        this.cache = new GuardedLruCache<>(maxSize);
+    }
+
+    /**
+     * Get the chapter/lesson tree of a course
+     *
+     * @param courseId Course ID
+     * @return Immutable course structure
+     */
+    public CourseStructureResponse getStructure(Long courseId) {
+        CachedStructure cached = cache.get(courseId);
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.validatedAt() < validateAfterMillis) {
+            return cached.structure();
+        }
+
+        CachedStructure current = cache.load(courseId, () -> readOnlyTransaction.execute(status -> {
+            // Edits made on other instances only show in the rows
+            String stamp = courseVersionRepository.findStructureStamp(courseId);
+            if (cached != null && Objects.equals(cached.stamp(), stamp)) {
+                return new CachedStructure(cached.structure(), stamp, now);
+            }
+            return new CachedStructure(build(courseId), stamp, now);
+        }));
+        return current.structure();
+    }
+
+    /**
+     * Evict the cached structure of a course once the current transaction commits
+     * Call after any change to the course's versions, chapters or lessons
+     */
+    public void evict(Long courseId) {
+        cache.evict(courseId);
+    }
+
+    private CourseStructureResponse build(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course", "id", courseId);
+        }
+
+        Optional<CourseVersion> version = resolveVersion(courseId);
+        if (version.isEmpty()) {
+            return new CourseStructureResponse(courseId, null, null, null, 0, 0, List.of());
+        }
+        Long versionId = version.get().getId();
+        log.debug("Building structure snapshot for course {} (version {})", courseId, versionId);
+
+        Map<Long, List<LessonNode>> lessonsByChapter = new HashMap<>();
+        int totalDuration = 0;
+        List<LessonOutline> lessons = lessonRepository.findOutlinesByVersionId(versionId);
+        for (LessonOutline lesson : lessons) {
+            lessonsByChapter.computeIfAbsent(lesson.getChapterId(), id -> new ArrayList<>())
+                    .add(new LessonNode(lesson.getId(), lesson.getTitle(), lesson.getSequence(), lesson.getType(),
+                            lesson.getEstimatedDuration()));
+            if (lesson.getEstimatedDuration() != null) {
+                totalDuration += lesson.getEstimatedDuration();
+            }
+        }
+
+        List<ChapterNode> chapters = new ArrayList<>();
+        for (ChapterOutline chapter : chapterRepository.findOutlinesByVersionId(versionId)) {
+            chapters.add(new ChapterNode(chapter.getId(), chapter.getTitle(), chapter.getSequence(),
+                    lessonsByChapter.getOrDefault(chapter.getId(), List.of())));
+        }
+
+        return new CourseStructureResponse(courseId, versionId, version.get().getVersion(),
+                version.get().getStatus(), lessons.size(), totalDuration, chapters);
+    }
+
+    // Prefer the published version; fall back to the draft being authored
+    private Optional<CourseVersion> resolveVersion(Long courseId) {
+        return courseVersionRepository.findFirstByCourseIdAndStatusOrderByIdDesc(courseId, VersionStatus.PUBLISHED)
+                .or(() -> courseVersionRepository.findFirstByCourseIdAndStatusOrderByIdDesc(courseId,
+                        VersionStatus.DRAFT));
+    }
+
+    /**
+     * @param stamp       Hash of the course's outlines read before the structure was built
+     * @param validatedAt When the stamp was last read
+     */
+    private record CachedStructure(CourseStructureResponse structure, String stamp, long validatedAt) {
+    }
+}
@@ -0,0 +1,62 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.repository.EnrollmentArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * Enrollment Archiver - Moves finished enrollments of past terms to enrollments_archive
+ * A COMPLETED or DROPPED enrollment is archived once its course ended more than the grace period
+ * ago. Each batch is moved by one statement in its own transaction, so the hot table shrinks
+ * without long locks, and concurrent runs on other instances skip each other's rows
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "application.enrollment-archive", name = "enabled", matchIfMissing = true)
+public class EnrollmentArchiver {
+
+    private final EnrollmentArchiveRepository enrollmentArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Period gracePeriod;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public EnrollmentArchiver(EnrollmentArchiveRepository enrollmentArchiveRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${application.enrollment-archive.grace-period:P30D}") Period gracePeriod,
+            @Value("${application.enrollment-archive.batch-size:1000}") int batchSize,
+            @Value("${application.enrollment-archive.max-batches-per-run:500}") int maxBatchesPerRun) {
+        this.enrollmentArchiveRepository = enrollmentArchiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    /**
+     * Archive finished enrollments of ended courses (bounded per run)
+     */
+    @Scheduled(cron = "${application.enrollment-archive.cron:0 30 3 * * *}")
+    public void archive() {
+        LocalDate endedBefore = LocalDate.now().minus(gracePeriod);
+        long archived = 0;
+        for (int run = 0; run < maxBatchesPerRun; run++) {
+            Integer moved = transactionTemplate.execute(
+                    status -> enrollmentArchiveRepository.archiveFinished(endedBefore, batchSize));
+            archived += moved != null ? moved : 0;
+            if (moved == null || moved < batchSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} finished enrollments of courses ended before {}", archived, endedBefore);
+        }
+    }
+}
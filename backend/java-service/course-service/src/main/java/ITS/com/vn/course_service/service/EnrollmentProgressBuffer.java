@@ -0,0 +1,183 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.enums.EnrollmentStatus;
+import ITS.com.vn.course_service.dto.response.EnrollmentResponse;
+import ITS.com.vn.course_service.repository.EnrollmentJdbcRepository;
+import ITS.com.vn.course_service.repository.EnrollmentJdbcRepository.ProgressFlush;
+import ITS.com.vn.course_service.repository.EnrollmentJdbcRepository.ProgressUpdate;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enrollment Progress Buffer - Write-behind buffer for progress updates of ACTIVE enrollments
+ * Keeps the latest progress per enrollment in memory and flushes dirty entries as one batched
+ * UPDATE on a short interval. Completions (progress 100) never go through the buffer: they are
+ * persisted by EnrollmentService in the request's transaction
+ */
+@Component
+@Slf4j
+public class EnrollmentProgressBuffer {
+
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final EnrollmentJdbcRepository enrollmentJdbcRepository;
+    private final EnrollmentStatsService enrollmentStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final long idleTimeoutMillis;
+    private final int maxSize;
+
+    private final Map<Long, TrackedEnrollment> entries = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public EnrollmentProgressBuffer(EnrollmentJdbcRepository enrollmentJdbcRepository,
+            EnrollmentStatsService enrollmentStatsService,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.progress-buffer.idle-timeout:PT10M}") Duration idleTimeout,
+            @Value("${application.progress-buffer.max-size:50000}") int maxSize) {
+        this.enrollmentJdbcRepository = enrollmentJdbcRepository;
+        this.enrollmentStatsService = enrollmentStatsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Start tracking an ACTIVE enrollment just read or written by the service
+     */
+    public void track(EnrollmentResponse enrollment) {
+        if (enrollment.getStatus() != EnrollmentStatus.ACTIVE || entries.size() >= maxSize) {
+            return;
+        }
+        entries.putIfAbsent(enrollment.getId(),
+                new TrackedEnrollment(enrollment, null, 0, System.currentTimeMillis()));
+    }
+
+    /**
+     * Buffer a (non-completing) progress update of a tracked enrollment
+     * The enrollment's status is read first (one primary key read, no write): it may have been
+     * completed or dropped on another instance since it was tracked
+     *
+     * @return Enrollment with the new progress, or empty if the enrollment is not tracked or no
+     * longer ACTIVE (the caller then writes through)
+     * @throws IllegalStateException if the enrollment belongs to another student
+     */
+    public Optional<EnrollmentResponse> tryBuffer(Long enrollmentId, Long studentId, int progress) {
+        TrackedEnrollment current = entries.get(enrollmentId);
+        if (current == null) {
+            return Optional.empty();
+        }
+        if (!current.snapshot().getStudentId().equals(studentId)) {
+            throw new IllegalStateException("Enrollment does not belong to student ID: " + studentId);
+        }
+        boolean active = enrollmentJdbcRepository.findState(enrollmentId)
+                .map(state -> state.status() == EnrollmentStatus.ACTIVE)
+                .orElse(false);
+        if (!active) {
+            entries.remove(enrollmentId);
+            return Optional.empty();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        TrackedEnrollment updated = entries.computeIfPresent(enrollmentId, (id, entry) -> new TrackedEnrollment(
+                entry.snapshot().toBuilder().progress(progress).lastAccessAt(now).updatedAt(now).build(),
+                progress, versions.incrementAndGet(), System.currentTimeMillis()));
+        return Optional.ofNullable(updated).map(TrackedEnrollment::snapshot);
+    }
+
+    /**
+     * Stop tracking an enrollment (before it is completed or dropped in the database)
+     *
+     * @return Progress buffered but not yet flushed, or null
+     */
+    public Integer discard(Long enrollmentId) {
+        TrackedEnrollment removed = entries.remove(enrollmentId);
+        return removed != null ? removed.pendingProgress() : null;
+    }
+
+    /**
+     * Replace the persisted progress of an enrollment read from the database with the buffered one
+     */
+    public EnrollmentResponse overlay(EnrollmentResponse enrollment) {
+        TrackedEnrollment entry = entries.get(enrollment.getId());
+        if (entry == null || entry.pendingProgress() == null || enrollment.getStatus() != EnrollmentStatus.ACTIVE) {
+            return enrollment;
+        }
+        enrollment.setProgress(entry.pendingProgress());
+        enrollment.setLastAccessAt(entry.snapshot().getLastAccessAt());
+        enrollment.setUpdatedAt(entry.snapshot().getUpdatedAt());
+        return enrollment;
+    }
+
+    /**
+     * Flush dirty entries; entries updated while the flush runs stay dirty for the next one
+     * Entries whose row was not written (no longer ACTIVE, or written directly since) are dropped,
+     * so the next update of the enrollment reads it from the database
+     */
+    @Scheduled(fixedDelayString = "${application.progress-buffer.flush-interval:PT2S}")
+    public void flush() {
+        long idleBefore = System.currentTimeMillis() - idleTimeoutMillis;
+        List<PendingFlush> pending = new ArrayList<>();
+        entries.forEach((id, entry) -> {
+            if (entry.pendingProgress() != null) {
+                pending.add(new PendingFlush(new ProgressUpdate(id, entry.pendingProgress(),
+                        entry.snapshot().getLastAccessAt()), entry.version()));
+            } else if (entry.touchedAt() < idleBefore) {
+                entries.remove(id, entry);
+            }
+        });
+
+        for (int from = 0; from < pending.size(); from += FLUSH_BATCH_SIZE) {
+            List<PendingFlush> batch = pending.subList(from, Math.min(from + FLUSH_BATCH_SIZE, pending.size()));
+            ProgressFlush written;
+            try {
+                written = transactionTemplate.execute(status -> {
+                    ProgressFlush result = enrollmentJdbcRepository.updateActiveProgress(
+                            batch.stream().map(PendingFlush::update).toList());
+                    enrollmentStatsService.onProgressFlushed(result.progressDeltaByCourse());
+                    return result;
+                });
+            } catch (Exception e) {
+                // Entries stay dirty and are retried on the next flush
+                log.warn("Failed to flush progress of {} enrollments: {}", batch.size(), e.getMessage());
+                return;
+            }
+            batch.forEach(flushed -> entries.computeIfPresent(flushed.update().enrollmentId(), (id, entry) -> {
+                if (entry.version() != flushed.version()) {
+                    return entry; // Updated again meanwhile: stays dirty
+                }
+                return written.writtenIds().contains(id) ? entry.flushed() : null;
+            }));
+            log.debug("Flushed progress of {} enrollments", batch.size());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private record TrackedEnrollment(EnrollmentResponse snapshot, Integer pendingProgress, long version,
+            long touchedAt) {
+
+        TrackedEnrollment flushed() {
+            return new TrackedEnrollment(snapshot, null, version, touchedAt);
+        }
+    }
+
+    private record PendingFlush(ProgressUpdate update, long version) {
+    }
+}
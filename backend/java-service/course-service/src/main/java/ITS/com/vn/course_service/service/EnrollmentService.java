@@ -1,8 +1,15 @@
 package ITS.com.vn.course_service.service;
 
+import ITS.com.vn.course_service.domain.enums.EnrollmentStatus;
 import ITS.com.vn.course_service.dto.request.EnrollmentRequest;
+import ITS.com.vn.course_service.dto.response.BulkEnrollmentResponse;
 import ITS.com.vn.course_service.dto.response.EnrollmentResponse;
+import ITS.com.vn.course_service.exception.UnauthorizedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
+import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
 
 public interface EnrollmentService {
@@ -17,21 +24,73 @@ public interface EnrollmentService {
     EnrollmentResponse enrollStudent(Long courseId, Long studentId);
 
     /**
-     * Lấy tất cả enrollments của student hiện tại
+     * Đăng ký cả danh sách sinh viên vào khóa học (roster import)
+     * Sinh viên đã enroll được bỏ qua; số chỗ còn lại phải đủ cho toàn bộ sinh viên mới
+     * @param courseId ID của khóa học
+     * @param studentIds Danh sách ID sinh viên (trùng lặp được bỏ qua)
+     * @param instructorId ID của giảng viên sở hữu khóa học; null nếu là admin (không kiểm tra)
+     * @return BulkEnrollmentResponse
+     * @throws UnauthorizedException nếu giảng viên không sở hữu khóa học
+     * @throws IllegalStateException nếu course không đủ chỗ hoặc sinh viên thiếu prerequisite HARD
+     */
+    BulkEnrollmentResponse enrollStudents(Long courseId, Collection<Long> studentIds, Long instructorId);
+
+    /**
+     * Đăng ký danh sách sinh viên từ file CSV (một student ID ở cột đầu mỗi dòng, header tùy chọn)
+     * @param courseId ID của khóa học
+     * @param csv Nội dung CSV
+     * @param instructorId ID của giảng viên sở hữu khóa học; null nếu là admin (không kiểm tra)
+     * @return BulkEnrollmentResponse
+     */
+    BulkEnrollmentResponse enrollStudentsFromCsv(Long courseId, InputStream csv, Long instructorId);
+
+    /**
+     * Lấy tất cả enrollments của student hiện tại (một query, kèm thông tin course)
+     * @param studentId ID của sinh viên
+     * @param status Lọc theo trạng thái (nullable)
+     * @return List of EnrollmentResponse
+     */
+    List<EnrollmentResponse> getMyEnrollments(Long studentId, EnrollmentStatus status);
+
+    /**
+     * Lấy toàn bộ lịch sử học tập (transcript) của student, gồm cả enrollments đã archive
      * @param studentId ID của sinh viên
+     * @param status Lọc theo trạng thái (nullable)
      * @return List of EnrollmentResponse
      */
-    List<EnrollmentResponse> getMyEnrollments(Long studentId);
+    List<EnrollmentResponse> getTranscript(Long studentId, EnrollmentStatus status);
 
     /**
      * Lấy tất cả enrollments của một course (cho teacher)
      * @param courseId ID của khóa học
+     * @param status Lọc theo trạng thái (nullable)
      * @return List of EnrollmentResponse
      */
-    List<EnrollmentResponse> getCourseEnrollments(Long courseId);
+    List<EnrollmentResponse> getCourseEnrollments(Long courseId, EnrollmentStatus status);
+
+    /**
+     * Lấy enrollments của một course theo trang (cho teacher, danh sách lớn)
+     * @param courseId ID của khóa học
+     * @param status Lọc theo trạng thái (nullable)
+     * @param pageable Trang và thứ tự sắp xếp
+     * @return Page of EnrollmentResponse
+     */
+    Page<EnrollmentResponse> getCourseEnrollments(Long courseId, EnrollmentStatus status, Pageable pageable);
+
+    /**
+     * Đánh dấu sinh viên đã hoàn thành một bài học
+     * Bit của bài học được bật trong bitmap của enrollment, và tiến độ được tính lại từ bitmap
+     * (số bài đã hoàn thành / tổng số bài của version); đạt 100% thì enrollment tự động COMPLETED
+     * @param lessonId ID của bài học
+     * @param studentId ID của sinh viên (từ JWT)
+     * @return EnrollmentResponse
+     * @throws IllegalStateException nếu sinh viên chưa enroll hoặc đã drop khóa học
+     */
+    EnrollmentResponse completeLesson(Long lessonId, Long studentId);
 
     /**
-     * Cập nhật tiến độ học tập
+     * Cập nhật tiến độ học tập (do client gửi)
+     * Với khóa học có bài học, completeLesson tính lại tiến độ từ bitmap và ghi đè giá trị này
      * @param enrollmentId ID của enrollment
      * @param progress Tiến độ mới (0-100)
      * @param studentId ID của sinh viên (để verify ownership)
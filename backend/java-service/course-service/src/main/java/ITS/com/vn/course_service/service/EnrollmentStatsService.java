@@ -0,0 +1,142 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.CourseEnrollmentStats;
+import ITS.com.vn.course_service.domain.entity.Enrollment;
+import ITS.com.vn.course_service.domain.enums.EnrollmentStatus;
+import ITS.com.vn.course_service.repository.CourseEnrollmentStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enrollment Stats Service - Maintains per-course enrollment counters
+ * Writes join the caller's transaction so counters commit or roll back with the enrollment change
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class EnrollmentStatsService {
+
+    private final CourseEnrollmentStatsRepository statsRepository;
+
+    /**
+     * Reserve a seat for a new ACTIVE enrollment, counting it only if the course has capacity left
+     *
+     * @param maxStudents Course capacity (null means unlimited)
+     * @return true if the seat was reserved, false if the course is full
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryReserveSeat(Long courseId, Integer maxStudents) {
+        return tryReserveSeats(courseId, 1, maxStudents);
+    }
+
+    /**
+     * Reserve seats for a batch of new ACTIVE enrollments (all or nothing)
+     *
+     * @param seats       Number of seats to reserve
+     * @param maxStudents Course capacity (null means unlimited)
+     * @return true if all seats were reserved, false if the course does not have enough seats left
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryReserveSeats(Long courseId, int seats, Integer maxStudents) {
+        if (seats <= 0) {
+            return true;
+        }
+        if (maxStudents == null) {
+            statsRepository.applyDelta(courseId, seats, seats, seats, 0, 0);
+            return true;
+        }
+        if (seats > maxStudents) {
+            return false;
+        }
+        return statsRepository.tryReserveSeats(courseId, seats, maxStudents) > 0;
+    }
+
+    /**
+     * Give back seats reserved for enrollments that were not inserted after all
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseSeats(Long courseId, int seats) {
+        if (seats > 0) {
+            statsRepository.applyDelta(courseId, -seats, -seats, -seats, 0, 0);
+        }
+    }
+
+    /**
+     * Record a progress update
+     *
+     * @param previousStatus   Status before the update
+     * @param previousProgress Progress before the update
+     * @param enrollment       Enrollment after the update
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onProgressUpdated(EnrollmentStatus previousStatus, int previousProgress, Enrollment enrollment) {
+        if (previousStatus != EnrollmentStatus.ACTIVE) {
+            // Only ACTIVE enrollments contribute to the progress sum
+            return;
+        }
+        Long courseId = enrollment.getCourse().getId();
+        if (enrollment.isCompleted()) {
+            statsRepository.applyDelta(courseId, 0, 0, -1, 1, -previousProgress);
+        } else if (enrollment.getProgress() != previousProgress) {
+            statsRepository.applyDelta(courseId, 0, 0, 0, 0, enrollment.getProgress() - previousProgress);
+        }
+    }
+
+    /**
+     * Record a flush of buffered progress of ACTIVE enrollments
+     *
+     * @param progressDeltaByCourse Change of the summed progress per course ID
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onProgressFlushed(Map<Long, Long> progressDeltaByCourse) {
+        progressDeltaByCourse.forEach((courseId, delta) -> {
+            if (delta != 0) {
+                statsRepository.applyDelta(courseId, 0, 0, 0, 0, delta);
+            }
+        });
+    }
+
+    /**
+     * Record an ACTIVE enrollment being dropped
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onDropped(Long courseId, int progress) {
+        statsRepository.applyDelta(courseId, 0, -1, -1, 0, -progress);
+    }
+
+    /**
+     * Get counters of a course (all zero if nobody ever enrolled)
+     */
+    public CourseEnrollmentStats getStats(Long courseId) {
+        return statsRepository.findById(courseId)
+                .orElseGet(() -> CourseEnrollmentStats.builder().courseId(courseId).build());
+    }
+
+    /**
+     * Get current (non-dropped) enrollment count of a course
+     */
+    public long getCurrentCount(Long courseId) {
+        return getStats(courseId).getCurrentCount();
+    }
+
+    /**
+     * Get current (non-dropped) enrollment counts for a set of courses
+     */
+    public Map<Long, Long> getCurrentCounts(Collection<Long> courseIds) {
+        if (courseIds == null || courseIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Long> counts = new HashMap<>();
+        statsRepository.findAllById(courseIds)
+                .forEach(stats -> counts.put(stats.getCourseId(), stats.getCurrentCount()));
+        return counts;
+    }
+}
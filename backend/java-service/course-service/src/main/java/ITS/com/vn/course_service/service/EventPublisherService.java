@@ -2,8 +2,11 @@ package ITS.com.vn.course_service.service;
 
 import ITS.com.vn.course_service.dto.event.StudentEnrolledEvent;
 
+import java.util.List;
+
 /**
  * Service để publish events qua RabbitMQ
+ * Events are written to the outbox in the caller's transaction and relayed after commit
  */
 public interface EventPublisherService {
 
@@ -13,4 +16,11 @@ public interface EventPublisherService {
      * @param event StudentEnrolledEvent
      */
     void publishStudentEnrolled(StudentEnrolledEvent event);
+
+    /**
+     * Publish StudentEnrolled events for a bulk enrollment
+     * 
+     * @param events StudentEnrolledEvents
+     */
+    void publishStudentEnrolledBatch(List<StudentEnrolledEvent> events);
 }
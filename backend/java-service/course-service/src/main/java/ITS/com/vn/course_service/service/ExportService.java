@@ -0,0 +1,121 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.repository.ExportRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Export Service - Streams courses, course structure and enrollments as NDJSON (one JSON object
+ * per line) for the analytics warehouse
+ * Rows go from a server-side cursor straight to the response, so memory is constant and no count
+ * query runs. An export covers changes up to its watermark, a safety window before now, so rows of
+ * transactions still in flight (whose updatedAt is already set) are not skipped. Incremental
+ * exports pass the watermark of the previous export as updatedSince
+ * Deletes are not exported: a consumer detects them with a periodic full export
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    private final ExportRepository exportRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter lineWriter;
+    private final Duration safetyWindow;
+
+    public ExportService(ExportRepository exportRepository, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${application.export.safety-window:PT1M}") Duration safetyWindow) {
+        this.exportRepository = exportRepository;
+        this.safetyWindow = safetyWindow;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true); // Cursors only stream inside a transaction
+        // Let the generator buffer several rows per write instead of flushing after each one
+        this.lineWriter = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Get the watermark an export started now covers changes up to (exclusive)
+     */
+    public LocalDateTime watermark() {
+        return LocalDateTime.now().minus(safetyWindow);
+    }
+
+    /**
+     * Write courses updated between the previous watermark and this one
+     *
+     * @param updatedSince Previous watermark (inclusive), or null for a full export
+     * @param watermark    Watermark of this export (exclusive, see watermark())
+     * @return Number of exported rows
+     */
+    public long exportCourses(LocalDateTime updatedSince, LocalDateTime watermark, OutputStream out) {
+        return export("courses", out, () -> exportRepository.streamCourses(updatedSince, watermark));
+    }
+
+    /**
+     * Write lessons, with their chapter and version, changed between the previous watermark and this one
+     *
+     * @param updatedSince Previous watermark (inclusive), or null for a full export
+     * @param watermark    Watermark of this export (exclusive, see watermark())
+     * @return Number of exported rows
+     */
+    public long exportStructure(LocalDateTime updatedSince, LocalDateTime watermark, OutputStream out) {
+        return export("structure", out, () -> exportRepository.streamLessons(updatedSince, watermark));
+    }
+
+    /**
+     * Write enrollments (current and archived) changed between the previous watermark and this one
+     *
+     * @param updatedSince Previous watermark (inclusive), or null for a full export
+     * @param watermark    Watermark of this export (exclusive, see watermark())
+     * @param courseId     Only enrollments of this course (nullable)
+     * @return Number of exported rows
+     */
+    public long exportEnrollments(LocalDateTime updatedSince, LocalDateTime watermark, Long courseId,
+            OutputStream out) {
+        return export("enrollments", out,
+                () -> exportRepository.streamEnrollments(updatedSince, watermark, courseId));
+    }
+
+    private <T> long export(String name, OutputStream out, Supplier<Stream<T>> rows) {
+        long startedAt = System.currentTimeMillis();
+        Long count = readOnlyTransaction.execute(status -> {
+            long written = 0;
+            try (Stream<T> stream = rows.get(); SequenceWriter writer = lineWriter.writeValues(out)) {
+                for (T row : (Iterable<T>) stream::iterator) {
+                    writer.write(row);
+                    written++;
+                }
+                writer.flush();
+                if (written > 0) {
+                    out.write('\n'); // The separator only goes between rows
+                }
+                out.flush();
+            } catch (IOException ex) {
+                // Typically the client went away: closing the stream releases the cursor
+                throw new UncheckedIOException(ex);
+            }
+            return written;
+        });
+        log.info("Exported {} {} rows in {} ms", count, name, System.currentTimeMillis() - startedAt);
+        return count != null ? count : 0;
+    }
+}
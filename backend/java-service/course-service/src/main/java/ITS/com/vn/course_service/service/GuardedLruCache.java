@@ -0,0 +1,131 @@
+package ITS.com.vn.course_service.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded LRU cache of values loaded from the database
+ * An eviction applies at once and again when the current transaction completes, and a value whose
+ * load overlapped an eviction of its key is returned but not cached, so a reader that loaded the
+ * old rows while an edit was committing cannot put them back. Evictions are only counted for keys
+ * with a load in flight, so bookkeeping never outgrows the loads running at the time
+ */
+final class GuardedLruCache<K, V> {
+
+    private final Map<K, V> entries;
+    private final Map<K, Load> loads = new HashMap<>();
+    private long clears;
+
+    GuardedLruCache(int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get a cached value, or null if there is none
+     */
+    synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Cache a value known to be committed
+     */
+    synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * Load a value and cache it, unless the key was evicted while it was loading
+     *
+     * @param loader Reads the value; a null value is returned but not cached
+     */
+    V load(K key, Supplier<V> loader) {
+        Load load;
+        long evictions;
+        long clearsAtStart;
+        synchronized (this) {
+            load = loads.computeIfAbsent(key, k -> new Load());
+            load.running++;
+            evictions = load.evictions;
+            clearsAtStart = clears;
+        }
+        try {
+            V value = loader.get();
+            synchronized (this) {
+                if (value != null && load.evictions == evictions && clears == clearsAtStart) {
+                    entries.put(key, value);
+                }
+            }
+            return value;
+        } finally {
+            synchronized (this) {
+                if (--load.running == 0) {
+                    loads.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evict a value now and again once the current transaction completes
+     * Evicting now makes the transaction's own reads reload; evicting again drops values that
+     * other readers loaded from the old rows meanwhile
+     */
+    void evict(K key) {
+        afterCompletion(() -> {
+            synchronized (this) {
+                entries.remove(key);
+                Load load = loads.get(key);
+                if (load != null) {
+                    load.evictions++;
+                }
+            }
+        });
+    }
+
+    /**
+     * Evict every value now and again once the current transaction completes
+     */
+    void evictAll() {
+        afterCompletion(() -> {
+            synchronized (this) {
+                entries.clear();
+                clears++;
+            }
+        });
+    }
+
+    /**
+     * Number of keys with a load in flight
+     */
+    synchronized int loadingKeys() {
+        return loads.size();
+    }
+
+    private static void afterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private static final class Load {
+        private int running;
+        private long evictions;
+    }
+}
@@ -0,0 +1,150 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.client.ProfileClient;
+import ITS.com.vn.course_service.dto.external.UserProfileResponse;
+import ITS.com.vn.course_service.dto.response.InstructorSummaryResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Instructor Profile Service - Resolves instructor summaries for course responses
+ * Keeps a bounded TTL cache in front of user-profile-service so that a catalog page
+ * costs at most one bulk call for the instructors that are not cached yet
+ */
+@Service
+@Slf4j
+public class InstructorProfileService {
+
+    private static final InstructorSummaryResponse NOT_FOUND = new InstructorSummaryResponse();
+
+    private final ProfileClient profileClient;
+    private final long ttlMillis;
+    private final Map<Long, CachedProfile> cache;
+
+    public InstructorProfileService(ProfileClient profileClient,
+            @Value("${application.cache.instructor-profile.ttl:PT10M}") Duration ttl,
+            @Value("${application.cache.instructor-profile.max-size:1000}") int maxSize) {
+        this.profileClient = profileClient;
+        this.ttlMillis = ttl.toMillis();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedProfile> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get instructor summary for a single instructor
+     *
+     * @param instructorId Instructor ID
+     * @return Instructor summary, or null if the profile is unavailable
+     */
+    public InstructorSummaryResponse getInstructor(Long instructorId) {
+        if (instructorId == null) {
+            return null;
+        }
+        return getInstructors(List.of(instructorId)).get(instructorId);
+    }
+
+    /**
+     * Get instructor summaries for a page of courses
+     * Only the distinct IDs missing from the cache are fetched, in a single bulk call
+     *
+     * @param instructorIds Instructor IDs (duplicates and nulls are ignored)
+     * @return Map of instructor ID to summary; unavailable profiles are absent
+     */
+    public Map<Long, InstructorSummaryResponse> getInstructors(Collection<Long> instructorIds) {
+        if (instructorIds == null || instructorIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, InstructorSummaryResponse> result = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        long now = System.currentTimeMillis();
+
+        synchronized (cache) {
+            for (Long instructorId : instructorIds) {
+                if (instructorId == null || result.containsKey(instructorId)) {
+                    continue;
+                }
+                CachedProfile cached = cache.get(instructorId);
+                if (cached != null && cached.expiresAt() > now) {
+                    result.put(instructorId, cached.profile());
+                } else {
+                    missing.add(instructorId);
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            result.putAll(fetchAndCache(missing));
+        }
+
+        result.values().removeIf(profile -> profile == NOT_FOUND);
+        return result;
+    }
+
+    private Map<Long, InstructorSummaryResponse> fetchAndCache(Set<Long> instructorIds) {
+        List<UserProfileResponse> profiles;
+        try {
+            profiles = profileClient.getProfiles(instructorIds.stream().map(String::valueOf).toList());
+        } catch (Exception ex) {
+            log.warn("Failed to fetch instructor profiles for {}: {}", instructorIds, ex.getMessage());
+            return Map.of();
+        }
+
+        Map<Long, InstructorSummaryResponse> fetched = new HashMap<>();
+        if (profiles != null) {
+            for (UserProfileResponse profile : profiles) {
+                Long instructorId = resolveInstructorId(profile, instructorIds);
+                if (instructorId != null) {
+                    fetched.put(instructorId, InstructorSummaryResponse.builder()
+                            .id(profile.getId())
+                            .fullName(profile.getFullName())
+                            .avatarUrl(profile.getAvatarUrl())
+                            .build());
+                }
+            }
+        }
+        // Remember misses too, so unknown instructors do not trigger a call on every page
+        instructorIds.forEach(id -> fetched.putIfAbsent(id, NOT_FOUND));
+
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        synchronized (cache) {
+            fetched.forEach((id, profile) -> cache.put(id, new CachedProfile(profile, expiresAt)));
+        }
+        return fetched;
+    }
+
+    private Long resolveInstructorId(UserProfileResponse profile, Set<Long> requestedIds) {
+        if (profile == null) {
+            return null;
+        }
+        if (profile.getId() != null && requestedIds.contains(profile.getId())) {
+            return profile.getId();
+        }
+        if (profile.getUserId() != null) {
+            String userId = profile.getUserId().toString();
+            return requestedIds.stream()
+                    .filter(id -> Objects.equals(String.valueOf(id), userId))
+                    .findFirst()
+                    .orElse(null);
+        }
+        return null;
+    }
+
+    private record CachedProfile(InstructorSummaryResponse profile, long expiresAt) {
+    }
+}
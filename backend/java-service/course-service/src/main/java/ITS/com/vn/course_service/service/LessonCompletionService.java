@@ -0,0 +1,141 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.repository.LessonCompletionRepository;
+import ITS.com.vn.course_service.repository.LessonCompletionRepository.LessonPlacement;
+import ITS.com.vn.course_service.repository.LessonCompletionRepository.StoredCompletion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Lesson Completion Service - Reads and aligns the lesson completion bitmaps of enrollments
+ * A bitmap has one bit per lesson of the course version students take, indexed by the lesson's
+ * position in reading order (see LessonNavigation), so a student's completion of a whole course is
+ * a single small column read. Each bitmap references the layout (lesson keys in reading order) it
+ * was written against; when lessons are added, removed or reordered later, or a new version is
+ * published, bits are remapped by the lessons' stable keys instead of silently shifting to other
+ * lessons. Lessons of a new version keep their completions when created with the key of the same
+ * lesson in the previous version. Layouts are immutable and cached
+ */
+@Service
+@Slf4j
+public class LessonCompletionService {
+
+    private final LessonCompletionRepository lessonCompletionRepository;
+    private final GuardedLruCache<Long, UUID[]> layouts;
+    private final GuardedLruCache<LayoutKey, Long> layoutIds;
+
+    public LessonCompletionService(LessonCompletionRepository lessonCompletionRepository,
+            @Value("${application.cache.lesson-layouts.max-size:2000}") int maxSize) {
+        this.lessonCompletionRepository = lessonCompletionRepository;
+        this.layouts = new GuardedLruCache<>(maxSize);
+        this.layoutIds = new GuardedLruCache<>(maxSize);
+    }
+
+    /**
+     * Course and version a lesson belongs to
+     */
+    public Optional<LessonPlacement> findLessonPlacement(Long lessonId) {
+        return lessonCompletionRepository.findLessonPlacement(lessonId);
+    }
+
+    /**
+     * Get the completed lessons of a student in the course of the navigation's version
+     *
+     * @return Completed positions of the navigation (empty if the student is not enrolled)
+     */
+    public BitSet getCompleted(LessonNavigation navigation, Long studentId) {
+        if (studentId == null) {
+            return new BitSet();
+        }
+        return lessonCompletionRepository.findCompletion(navigation.getVersionId(), studentId)
+                .map(stored -> align(navigation, stored))
+                .orElseGet(BitSet::new);
+    }
+
+    /**
+     * Align a stored bitmap with the current reading order of a version
+     *
+     * @param completedLessons Stored bitmap (nullable)
+     * @param layoutId         Layout the bitmap was written against (nullable)
+     * @return Completed positions of the navigation
+     */
+    public BitSet align(LessonNavigation navigation, byte[] completedLessons, Long layoutId) {
+        return align(navigation, new StoredCompletion(completedLessons, layoutId));
+    }
+
+    /**
+     * Get the layout ID of the navigation's reading order, recording the layout if it is new
+     * Call before writing a bitmap aligned with the navigation
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Long getLayoutId(LessonNavigation navigation) {
+        LayoutKey key = new LayoutKey(navigation.getVersionId(), navigation.getFingerprint());
+        Long cached = layoutIds.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        UUID[] lessonKeys = navigation.getLessonKeys();
+        Long layoutId = lessonCompletionRepository.saveLayout(key.versionId(), key.fingerprint(),
+                navigation.getLessonIds(), lessonKeys);
+        // A layout inserted by this transaction only exists for others once it commits
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                layouts.put(layoutId, lessonKeys);
+                layoutIds.put(key, layoutId);
+                log.debug("Cached lesson layout {} of version {} ({} lessons)", layoutId, key.versionId(),
+                        lessonKeys.length);
+            }
+        });
+        return layoutId;
+    }
+
+    /**
+     * Progress percentage of completed positions (100 only when every lesson is completed)
+     */
+    public static int progressOf(LessonNavigation navigation, BitSet completedPositions) {
+        if (navigation.size() == 0) {
+            return 0;
+        }
+        return (int) ((long) completedPositions.cardinality() * 100 / navigation.size());
+    }
+
+    private BitSet align(LessonNavigation navigation, StoredCompletion stored) {
+        if (stored.completedLessons() == null || stored.layoutId() == null) {
+            return new BitSet();
+        }
+        BitSet completed = BitSet.valueOf(stored.completedLessons());
+        Long currentLayoutId = layoutIds.get(new LayoutKey(navigation.getVersionId(), navigation.getFingerprint()));
+        if (stored.layoutId().equals(currentLayoutId)) {
+            return completed;
+        }
+
+        UUID[] layout = findLayout(stored.layoutId());
+        if (layout == null) {
+            // The version the bitmap was written against has been deleted
+            return new BitSet();
+        }
+        return navigation.remap(layout, completed);
+    }
+
+    private UUID[] findLayout(Long layoutId) {
+        UUID[] cached = layouts.get(layoutId);
+        if (cached != null) {
+            return cached;
+        }
+        return layouts.load(layoutId, () -> lessonCompletionRepository.findLayout(layoutId).orElse(null));
+    }
+
+    private record LayoutKey(Long versionId, long fingerprint) {
+    }
+}
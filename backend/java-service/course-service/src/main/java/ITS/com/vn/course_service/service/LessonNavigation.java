@@ -0,0 +1,180 @@
+package ITS.com.vn.course_service.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Lessons of one course version flattened into reading order (chapter sequence, then lesson sequence)
+ * Lookups by lesson ID are O(1); instances are immutable and shared between requests
+ */
+public final class LessonNavigation {
+
+    private final Long versionId;
+    private final long[] lessonIds;
+    private final UUID[] lessonKeys;
+    private final long[] chapterIds;
+    private final Map<Long, Integer> positions;
+    private final Map<UUID, Integer> keyPositions;
+    private final Map<Long, Integer> chapterStarts;
+    private final Map<Long, Integer> chapterEnds;
+    private final long fingerprint;
+
+    // Arrays in reading order: lesson IDs, their stable keys and the chapter of each lesson
+    LessonNavigation(Long versionId, long[] lessonIds, UUID[] lessonKeys, long[] chapterIds) {
+        this.versionId = versionId;
+        this.lessonIds = lessonIds;
+        this.lessonKeys = lessonKeys;
+        this.chapterIds = chapterIds;
+        this.positions = new HashMap<>(lessonIds.length * 2);
+        this.keyPositions = new HashMap<>(lessonIds.length * 2);
+        this.chapterStarts = new HashMap<>();
+        this.chapterEnds = new HashMap<>();
+        long hash = 0xcbf29ce484222325L; // FNV-1a over the IDs
+        for (int i = 0; i < lessonIds.length; i++) {
+            positions.put(lessonIds[i], i);
+            keyPositions.putIfAbsent(lessonKeys[i], i);
+            chapterStarts.putIfAbsent(chapterIds[i], i);
+            chapterEnds.put(chapterIds[i], i + 1);
+            hash = (hash ^ lessonIds[i]) * 0x100000001b3L;
+        }
+        this.fingerprint = hash;
+    }
+
+    public Long getVersionId() {
+        return versionId;
+    }
+
+    public int size() {
+        return lessonIds.length;
+    }
+
+    /**
+     * 64-bit hash of the lesson IDs in reading order; changes when lessons are added, removed or reordered
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Lesson IDs in reading order (a copy)
+     */
+    public long[] getLessonIds() {
+        return lessonIds.clone();
+    }
+
+    /**
+     * Stable lesson keys in reading order (a copy)
+     */
+    public UUID[] getLessonKeys() {
+        return lessonKeys.clone();
+    }
+
+    /**
+     * Position of a lesson in reading order, or -1 if it is not part of this version
+     */
+    public int positionOf(Long lessonId) {
+        Integer position = positions.get(lessonId);
+        return position != null ? position : -1;
+    }
+
+    public Long lessonIdAt(int position) {
+        return lessonIds[position];
+    }
+
+    public Long chapterIdAt(int position) {
+        return chapterIds[position];
+    }
+
+    /**
+     * First position of a chapter's lessons, which are contiguous in reading order; -1 if the chapter
+     * has no lessons in this version
+     */
+    public int chapterStart(Long chapterId) {
+        Integer start = chapterStarts.get(chapterId);
+        return start != null ? start : -1;
+    }
+
+    /**
+     * Position after the last lesson of a chapter; -1 if the chapter has no lessons in this version
+     */
+    public int chapterEnd(Long chapterId) {
+        Integer end = chapterEnds.get(chapterId);
+        return end != null ? end : -1;
+    }
+
+    /**
+     * Translate completion bits written against another reading order, of this version or of an
+     * earlier version of the course, to this one
+     * Bits follow their lesson's stable key, so they survive lessons being added, removed or
+     * reordered and a lesson being carried into a new version under the same key
+     *
+     * @param layoutLessonKeys   Lesson keys in the reading order the bits were written against
+     *                           (null for lessons deleted since)
+     * @param completedPositions Completed positions in that order
+     * @return Completed positions in this order; lessons without a match here are dropped
+     */
+    public BitSet remap(UUID[] layoutLessonKeys, BitSet completedPositions) {
+        if (Arrays.equals(layoutLessonKeys, lessonKeys)) {
+            BitSet aligned = (BitSet) completedPositions.clone();
+            aligned.clear(lessonKeys.length, Math.max(lessonKeys.length, aligned.length()));
+            return aligned;
+        }
+        BitSet aligned = new BitSet(lessonKeys.length);
+        for (int i = completedPositions.nextSetBit(0); i >= 0 && i < layoutLessonKeys.length;
+                i = completedPositions.nextSetBit(i + 1)) {
+            Integer position = layoutLessonKeys[i] != null ? keyPositions.get(layoutLessonKeys[i]) : null;
+            if (position != null) {
+                aligned.set(position);
+            }
+        }
+        return aligned;
+    }
+
+    /**
+     * Lesson before the given one, crossing into the previous chapter if needed; null for the first lesson
+     */
+    public Long previous(Long lessonId) {
+        int position = positionOf(lessonId);
+        return position > 0 ? lessonIds[position - 1] : null;
+    }
+
+    /**
+     * Lesson after the given one, crossing into the next chapter if needed; null for the last lesson
+     */
+    public Long next(Long lessonId) {
+        int position = positionOf(lessonId);
+        return position >= 0 && position < lessonIds.length - 1 ? lessonIds[position + 1] : null;
+    }
+
+    /**
+     * First lesson in reading order that is not completed
+     *
+     * @param completedPositions Positions (see {@link #positionOf}) of completed lessons
+     * @return Lesson ID, or null if every lesson is completed
+     */
+    public Long firstIncomplete(BitSet completedPositions) {
+        int position = completedPositions.nextClearBit(0);
+        return position < lessonIds.length ? lessonIds[position] : null;
+    }
+
+    /**
+     * First lesson in reading order that is not completed
+     *
+     * @param completedLessonIds IDs of completed lessons; IDs from other versions are ignored
+     * @return Lesson ID, or null if every lesson is completed
+     */
+    public Long firstIncomplete(Collection<Long> completedLessonIds) {
+        BitSet completed = new BitSet(lessonIds.length);
+        for (Long lessonId : completedLessonIds) {
+            int position = positionOf(lessonId);
+            if (position >= 0) {
+                completed.set(position);
+            }
+        }
+        return firstIncomplete(completed);
+    }
+}
@@ -0,0 +1,130 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.repository.ChapterRepository;
+import ITS.com.vn.course_service.repository.ChapterRepository.ChapterOutline;
+import ITS.com.vn.course_service.repository.LessonRepository;
+import ITS.com.vn.course_service.repository.LessonRepository.LessonOutline;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Lesson Navigation Service - Serves the reading order of a course version from memory
+ * Built once per version from the two outline queries and cached until a lesson or chapter
+ * is added, removed or reordered in that version. Evictions only reach this instance, so a cached
+ * order older than the validation interval is checked against a hash of the current order first
+ */
+@Service
+@Slf4j
+public class LessonNavigationService {
+
+    private final ChapterRepository chapterRepository;
+    private final LessonRepository lessonRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long validateAfterMillis;
+    private final GuardedLruCache<Long, CachedNavigation> cache;
+
+    public LessonNavigationService(ChapterRepository chapterRepository,
+            LessonRepository lessonRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.cache.lesson-navigation.max-size:2000}") int maxSize,
+            @Value("${application.cache.lesson-navigation.validate-after:PT10S}") Duration validateAfter) {
+        this.chapterRepository = chapterRepository;
+        this.lessonRepository = lessonRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.validateAfterMillis = validateAfter.toMillis();
+        this.cache = new GuardedLruCache<>(maxSize);
+    }
+
+    /**
+     * Get the reading order of a course version
+     *
+     * @param versionId Course version ID
+     * @return Navigation index (empty if the version has no lessons)
+     */
+    public LessonNavigation getNavigation(Long versionId) {
+        return getNavigation(versionId, validateAfterMillis);
+    }
+
+    /**
+     * Get the reading order of a course version, checked against the database even if it was
+     * validated recently
+     * Use before writing state indexed by the reading order (e.g. completion bitmaps)
+     *
+     * @param versionId Course version ID
+     * @return Navigation index (empty if the version has no lessons)
+     */
+    public LessonNavigation getCurrentNavigation(Long versionId) {
+        return getNavigation(versionId, 0);
+    }
+
+    private LessonNavigation getNavigation(Long versionId, long maxAgeMillis) {
+        CachedNavigation cached = cache.get(versionId);
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.validatedAt() < maxAgeMillis) {
+            return cached.navigation();
+        }
+
+        CachedNavigation current = cache.load(versionId, () -> readOnlyTransaction.execute(status -> {
+            // Edits made on other instances only show in the rows
+            String stamp = lessonRepository.findReadingOrderStamp(versionId);
+            if (cached != null && Objects.equals(cached.stamp(), stamp)) {
+                return new CachedNavigation(cached.navigation(), stamp, now);
+            }
+            return new CachedNavigation(build(versionId), stamp, now);
+        }));
+        return current.navigation();
+    }
+
+    /**
+     * Evict the navigation of a version once the current transaction commits
+     * Call after lessons or chapters of the version are created, deleted or reordered
+     */
+    public void evict(Long versionId) {
+        cache.evict(versionId);
+    }
+
+    private LessonNavigation build(Long versionId) {
+        List<LessonOutline> lessons = lessonRepository.findOutlinesByVersionId(versionId);
+        Map<Long, List<LessonOutline>> lessonsByChapter = new HashMap<>();
+        for (LessonOutline lesson : lessons) {
+            lessonsByChapter.computeIfAbsent(lesson.getChapterId(), id -> new ArrayList<>()).add(lesson);
+        }
+
+        // Lessons are already sorted by sequence within their chapter
+        long[] lessonIds = new long[lessons.size()];
+        UUID[] lessonKeys = new UUID[lessons.size()];
+        long[] chapterIds = new long[lessons.size()];
+        int position = 0;
+        for (ChapterOutline chapter : chapterRepository.findOutlinesByVersionId(versionId)) {
+            for (LessonOutline lesson : lessonsByChapter.getOrDefault(chapter.getId(), List.of())) {
+                lessonIds[position] = lesson.getId();
+                lessonKeys[position] = lesson.getLessonKey();
+                chapterIds[position] = chapter.getId();
+                position++;
+            }
+        }
+        log.debug("Built lesson navigation for version {} ({} lessons)", versionId, position);
+        return new LessonNavigation(versionId, Arrays.copyOf(lessonIds, position), Arrays.copyOf(lessonKeys, position),
+                Arrays.copyOf(chapterIds, position));
+    }
+
+    /**
+     * @param stamp       Hash of the reading order read before the navigation was built
+     * @param validatedAt When the stamp was last read
+     */
+    private record CachedNavigation(LessonNavigation navigation, String stamp, long validatedAt) {
+    }
+}
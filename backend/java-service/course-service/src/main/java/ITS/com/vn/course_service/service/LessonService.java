@@ -3,20 +3,33 @@ package ITS.com.vn.course_service.service;
 import ITS.com.vn.course_service.domain.entity.Chapter;
 import ITS.com.vn.course_service.domain.entity.Course;
 import ITS.com.vn.course_service.domain.entity.Lesson;
+import ITS.com.vn.course_service.domain.enums.VersionStatus;
 import ITS.com.vn.course_service.dto.request.CreateLessonRequest;
+import ITS.com.vn.course_service.dto.request.MoveLessonRequest;
+import ITS.com.vn.course_service.dto.request.ReorderLessonsRequest;
+import ITS.com.vn.course_service.dto.response.ChapterCompletionResponse;
 import ITS.com.vn.course_service.dto.response.LessonResponse;
+import ITS.com.vn.course_service.exception.BadRequestException;
 import ITS.com.vn.course_service.exception.ResourceNotFoundException;
 import ITS.com.vn.course_service.exception.UnauthorizedException;
 import ITS.com.vn.course_service.mapper.CourseMapper;
+import ITS.com.vn.course_service.repository.AssetMetadataRepository;
+import ITS.com.vn.course_service.repository.AssignmentRepository;
 import ITS.com.vn.course_service.repository.ChapterRepository;
+import ITS.com.vn.course_service.repository.CourseContentJdbcRepository;
 import ITS.com.vn.course_service.repository.LessonRepository;
+import ITS.com.vn.course_service.repository.LessonRepository.LessonSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Lesson Service - Manages lesson CRUD operations
@@ -30,6 +43,13 @@ public class LessonService {
 
     private final LessonRepository lessonRepository;
     private final ChapterRepository chapterRepository;
+    private final AssetMetadataRepository assetMetadataRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final CourseContentJdbcRepository courseContentJdbcRepository;
+    private final CourseStructureService courseStructureService;
+    private final AdaptiveRuleService adaptiveRuleService;
+    private final LessonNavigationService lessonNavigationService;
+    private final LessonCompletionService lessonCompletionService;
     private final CourseMapper courseMapper;
 
     /**
@@ -48,6 +68,12 @@ public class LessonService {
             throw new UnauthorizedException("You are not authorized to add lessons to this chapter");
         }
 
+        // A carried-over lesson key identifies one lesson per version
+        if (request.getLessonKey() != null && lessonRepository.existsByLessonKeyAndChapter_Version_Id(
+                request.getLessonKey(), chapter.getVersion().getId())) {
+            throw new BadRequestException("Lesson key already used in this version: " + request.getLessonKey());
+        }
+
         // Map request to entity
         Lesson lesson = courseMapper.toEntity(request);
         lesson.setChapter(chapter);
@@ -57,11 +83,17 @@ public class LessonService {
             lesson.setMasteryThreshold(0.8); // Default 80%
         }
 
-        // Set sequence (next available)
-        Integer maxSequence = lessonRepository.getMaxSequenceByChapterId(chapterId);
-        lesson.setSequence(maxSequence + 1);
+        // Set sequence (after the last lesson, leaving a gap for later moves)
+        int sequence = SequencePositions.after(lessonRepository.getMaxSequenceByChapterId(chapterId));
+        if (sequence < 0) {
+            courseContentJdbcRepository.renumberLessons(chapterId, SequencePositions.GAP);
+            sequence = SequencePositions.after(lessonRepository.getMaxSequenceByChapterId(chapterId));
+        }
+        lesson.setSequence(sequence);
 
         Lesson savedLesson = lessonRepository.save(lesson);
+        courseStructureService.evict(course.getId());
+        lessonNavigationService.evict(chapter.getVersion().getId());
         log.info("Lesson created successfully with ID: {}", savedLesson.getId());
 
         return courseMapper.toResponse(savedLesson);
@@ -69,28 +101,66 @@ public class LessonService {
 
     /**
      * Get lesson by ID
+     *
+     * @param userId Current authenticated user ID (nullable); isCompleted is computed for this user
      */
-    public LessonResponse getLessonById(Long id) {
+    public LessonResponse getLessonById(Long id, Long userId) {
         log.info("Fetching lesson with ID: {}", id);
 
         Lesson lesson = lessonRepository.findByIdWithDetails(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Lesson", "id", id));
 
         LessonResponse response = courseMapper.toResponse(lesson);
+        response.setAssets(courseMapper.toAssetResponseList(assetMetadataRepository.findByLessonIdOrderByIdAsc(id)));
+        response.setAssignments(courseMapper.toAssignmentResponseList(assignmentRepository.findByLessonId(id)));
 
-        // Set next lesson ID if exists
-        Optional<Lesson> nextLesson = lessonRepository.findNextLesson(
-                lesson.getChapter().getId(),
-                lesson.getSequence());
-        nextLesson.ifPresent(value -> response.setNextLessonId(value.getId()));
+        // Previous/next lesson in reading order, across chapter boundaries
+        LessonNavigation navigation = lessonNavigationService.getNavigation(lesson.getChapter().getVersion().getId());
+        response.setPreviousLessonId(navigation.previous(id));
+        response.setNextLessonId(navigation.next(id));
 
-        // TODO: Set isCompleted based on user progress (requires integration with
-        // progress tracking)
-        response.setIsCompleted(false);
+        // One read of the user's completion bitmap
+        int position = navigation.positionOf(id);
+        response.setIsCompleted(userId != null && position >= 0
+                && lessonCompletionService.getCompleted(navigation, userId).get(position));
 
         return response;
     }
 
+    /**
+     * Get completion of the lessons of a chapter for a student
+     * Lessons of a chapter are contiguous in the completion bitmap, so this is one read of the enrollment
+     */
+    public ChapterCompletionResponse getChapterCompletion(Long chapterId, Long studentId) {
+        Chapter chapter = chapterRepository.findById(chapterId)
+                .orElseThrow(() -> new ResourceNotFoundException("Chapter", "id", chapterId));
+
+        LessonNavigation navigation = lessonNavigationService.getNavigation(chapter.getVersion().getId());
+        BitSet completed = lessonCompletionService.getCompleted(navigation, studentId);
+
+        List<Long> completedLessonIds = new ArrayList<>();
+        Long nextLessonId = null;
+        int from = navigation.chapterStart(chapterId);
+        int to = navigation.chapterEnd(chapterId);
+        for (int position = Math.max(from, 0); position < to; position++) {
+            if (completed.get(position)) {
+                completedLessonIds.add(navigation.lessonIdAt(position));
+            } else if (nextLessonId == null) {
+                nextLessonId = navigation.lessonIdAt(position);
+            }
+        }
+
+        int lessonCount = Math.max(to - from, 0);
+        return ChapterCompletionResponse.builder()
+                .chapterId(chapterId)
+                .lessonCount(lessonCount)
+                .completedCount(completedLessonIds.size())
+                .isCompleted(lessonCount > 0 && completedLessonIds.size() == lessonCount)
+                .completedLessonIds(completedLessonIds)
+                .nextLessonId(nextLessonId)
+                .build();
+    }
+
     /**
      * Get all lessons for a chapter
      */
@@ -101,8 +171,8 @@ public class LessonService {
             throw new ResourceNotFoundException("Chapter", "id", chapterId);
         }
 
-        List<Lesson> lessons = lessonRepository.findByChapterIdOrderBySequenceAsc(chapterId);
-        return courseMapper.toLessonResponseList(lessons);
+        // List items only: content, assets and assignments are served by getLessonById
+        return courseMapper.toLessonSummaryResponseList(lessonRepository.findSummariesByChapterId(chapterId));
     }
 
     /**
@@ -142,11 +212,135 @@ public class LessonService {
         }
 
         Lesson updatedLesson = lessonRepository.save(lesson);
+        courseStructureService.evict(course.getId());
         log.info("Lesson updated successfully with ID: {}", updatedLesson.getId());
 
         return courseMapper.toResponse(updatedLesson);
     }
 
+    /**
+     * Reorder the lessons of a chapter
+     * All lessons of the chapter must be listed; their sequences are rewritten in one statement
+     */
+    @Transactional
+    public List<LessonResponse> reorderLessons(Long chapterId, ReorderLessonsRequest request, Long instructorId) {
+        log.info("Reordering lessons for chapter: {}", chapterId);
+
+        Chapter chapter = getEditableChapter(chapterId, instructorId);
+
+        // Validate that exactly the lessons of the chapter are provided, each once
+        Set<Long> existingIds = lessonRepository.findSummariesByChapterId(chapterId).stream()
+                .map(LessonSummary::getId)
+                .collect(Collectors.toSet());
+        List<Long> lessonIds = request.getLessonIds();
+        if (existingIds.size() != lessonIds.size() || new HashSet<>(lessonIds).size() != lessonIds.size()) {
+            throw new BadRequestException("All lesson IDs of the chapter must be provided for reordering");
+        }
+        for (Long lessonId : lessonIds) {
+            if (!existingIds.contains(lessonId)) {
+                throw new BadRequestException("Lesson not found in chapter with ID: " + lessonId);
+            }
+        }
+
+        List<Integer> sequences = new ArrayList<>(lessonIds.size());
+        for (int i = 0; i < lessonIds.size(); i++) {
+            sequences.add(SequencePositions.atPosition(i));
+        }
+        int changed = courseContentJdbcRepository.updateLessonSequences(chapterId, lessonIds, sequences);
+        evictStructure(chapter);
+        log.info("Lessons reordered successfully for chapter: {} ({} moved)", chapterId, changed);
+
+        return courseMapper.toLessonSummaryResponseList(lessonRepository.findSummariesByChapterId(chapterId));
+    }
+
+    /**
+     * Move a lesson after another one (or to the front), optionally into another chapter of the same version
+     * Only the moved lesson's row is updated unless its new neighbours have no free sequence between them
+     *
+     * @param chapterId Chapter the lesson is currently in
+     * @return Lessons of the chapter the lesson is now in
+     */
+    @Transactional
+    public List<LessonResponse> moveLesson(Long chapterId, Long id, MoveLessonRequest request, Long instructorId) {
+        log.info("Moving lesson {} after {} (chapter {})", id, request.getAfterLessonId(),
+                request.getTargetChapterId());
+
+        Lesson lesson = lessonRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Lesson", "id", id));
+        if (!lesson.getChapter().getId().equals(chapterId)) {
+            throw new BadRequestException("Lesson not found in chapter with ID: " + id);
+        }
+        Chapter source = getEditableChapter(chapterId, instructorId);
+
+        Chapter target = source;
+        if (request.getTargetChapterId() != null && !request.getTargetChapterId().equals(source.getId())) {
+            target = getEditableChapter(request.getTargetChapterId(), instructorId);
+            if (!target.getVersion().getId().equals(source.getVersion().getId())) {
+                throw new BadRequestException("Lessons can only be moved between chapters of the same version");
+            }
+        }
+
+        int sequence = newLessonSequence(target.getId(), id, request.getAfterLessonId());
+        if (sequence < 0) {
+            // Neighbours are adjacent: respace the chapter once, then there is room
+            courseContentJdbcRepository.renumberLessons(target.getId(), SequencePositions.GAP);
+            sequence = newLessonSequence(target.getId(), id, request.getAfterLessonId());
+        }
+        if (sequence > 0) {
+            courseContentJdbcRepository.moveLesson(id, target.getId(), sequence);
+            evictStructure(target);
+        }
+
+        return courseMapper.toLessonSummaryResponseList(lessonRepository.findSummariesByChapterId(target.getId()));
+    }
+
+    // Sequence that places the lesson after the given one; 0 if it is already there, -1 if there is no room
+    private int newLessonSequence(Long chapterId, Long lessonId, Long afterLessonId) {
+        List<LessonSummary> lessons = lessonRepository.findSummariesByChapterId(chapterId);
+        int from = -1;
+        int after = -1;
+        for (int i = 0; i < lessons.size(); i++) {
+            if (lessons.get(i).getId().equals(lessonId)) {
+                from = i;
+            }
+            if (lessons.get(i).getId().equals(afterLessonId)) {
+                after = i;
+            }
+        }
+        if (afterLessonId != null && (after < 0 || after == from)) {
+            throw new BadRequestException("Invalid lesson to move after: " + afterLessonId);
+        }
+
+        if (from >= 0 && after + 1 == from) {
+            return 0; // Already in place
+        }
+        // The lesson itself is never the next neighbour: that is the in-place case above
+        int previous = after >= 0 ? lessons.get(after).getSequence() : 0;
+        Integer next = after + 1 < lessons.size() ? lessons.get(after + 1).getSequence() : null;
+        return SequencePositions.between(previous, next);
+    }
+
+    private Chapter getEditableChapter(Long chapterId, Long instructorId) {
+        Chapter chapter = chapterRepository.findById(chapterId)
+                .orElseThrow(() -> new ResourceNotFoundException("Chapter", "id", chapterId));
+
+        // Check authorization
+        if (!chapter.getVersion().getCourse().getInstructorId().equals(instructorId)) {
+            throw new UnauthorizedException("You are not authorized to reorder lessons in this chapter");
+        }
+
+        // Only allow reordering in DRAFT version
+        if (chapter.getVersion().getStatus() != VersionStatus.DRAFT) {
+            throw new BadRequestException("Cannot reorder lessons in a published version");
+        }
+        return chapter;
+    }
+
+    private void evictStructure(Chapter chapter) {
+        courseStructureService.evict(chapter.getVersion().getCourse().getId());
+        lessonNavigationService.evict(chapter.getVersion().getId());
+    }
+
     /**
      * Delete lesson
      */
@@ -164,6 +358,9 @@ public class LessonService {
         }
 
         lessonRepository.delete(lesson);
+        courseStructureService.evict(course.getId());
+        lessonNavigationService.evict(lesson.getChapter().getVersion().getId());
+        adaptiveRuleService.evictAll(); // Rules of other lessons may have targeted this one
         log.info("Lesson deleted successfully with ID: {}", id);
     }
 }
@@ -0,0 +1,150 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.repository.OutboxEventRepository;
+import ITS.com.vn.course_service.repository.OutboxEventRepository.Backlog;
+import ITS.com.vn.course_service.repository.OutboxEventRepository.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox Relay - Drains outbox_events to RabbitMQ in batches
+ * Each batch is locked (SKIP LOCKED), published on one channel, and deleted only after
+ * the broker has confirmed every message, so delivery is at-least-once: consumers must
+ * tolerate duplicates (events carry their enrollment ID)
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "application.outbox.relay", name = "enabled", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long confirmTimeoutMillis;
+    private final Duration retryDelay;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+    private final Counter published;
+    private final Counter failed;
+    private final Timer deliveryDelay;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+            RabbitTemplate rabbitTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${application.outbox.relay.batch-size:200}") int batchSize,
+            @Value("${application.outbox.relay.max-batches-per-run:50}") int maxBatchesPerRun,
+            @Value("${application.outbox.relay.confirm-timeout:PT5S}") Duration confirmTimeout,
+            @Value("${application.outbox.relay.retry-delay:PT10S}") Duration retryDelay) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.confirmTimeoutMillis = confirmTimeout.toMillis();
+        this.retryDelay = retryDelay;
+
+        Gauge.builder("course.outbox.pending", pending, AtomicLong::get)
+                .description("Events waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("course.outbox.lag", oldestAgeMillis, age -> age.get() / 1000.0)
+                .description("Age of the oldest event waiting in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.published = Counter.builder("course.outbox.published")
+                .description("Events confirmed by the broker")
+                .register(meterRegistry);
+        this.failed = Counter.builder("course.outbox.failed")
+                .description("Events whose relay attempt failed and was postponed")
+                .register(meterRegistry);
+        this.deliveryDelay = Timer.builder("course.outbox.delivery.delay")
+                .description("Time from outbox write to broker confirm")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relay due events until the outbox is drained (bounded per run)
+     */
+    @Scheduled(fixedDelayString = "${application.outbox.relay.fixed-delay:PT0.5S}")
+    public void relay() {
+        for (int run = 0; run < maxBatchesPerRun; run++) {
+            Integer relayed = transactionTemplate.execute(status -> relayBatch());
+            if (relayed == null || relayed < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Refresh backlog gauges; done separately so lag keeps growing while the broker is down
+     */
+    @Scheduled(fixedDelayString = "${application.outbox.relay.metrics-interval:PT15S}")
+    public void refreshBacklog() {
+        Backlog backlog = outboxEventRepository.getBacklog();
+        pending.set(backlog.pending());
+        oldestAgeMillis.set(backlog.oldestCreatedAt() != null
+                ? Math.max(0, Duration.between(backlog.oldestCreatedAt(), LocalDateTime.now()).toMillis())
+                : 0);
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockDueEvents(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = events.stream().map(OutboxEvent::id).toList();
+
+        try {
+            rabbitTemplate.invoke(operations -> {
+                events.forEach(event -> operations.send(event.exchange(), event.routingKey(), toMessage(event)));
+                operations.waitForConfirmsOrDie(confirmTimeoutMillis);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to relay {} outbox events (first id {}), retrying in {}: {}",
+                    events.size(), ids.get(0), retryDelay, e.getMessage());
+            outboxEventRepository.markFailed(ids, e.getMessage(), retryDelay);
+            failed.increment(events.size());
+            return 0;
+        }
+
+        outboxEventRepository.delete(ids);
+        published.increment(events.size());
+        LocalDateTime now = LocalDateTime.now();
+        events.forEach(event -> deliveryDelay.record(Duration.between(event.createdAt(), now)));
+        log.debug("Relayed {} outbox events (ids {}..{})", events.size(), ids.get(0), ids.get(ids.size() - 1));
+        return events.size();
+    }
+
+    private Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setMessageId("outbox-" + event.id());
+        if (event.typeId() != null) {
+            properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.typeId());
+        }
+        return new Message(event.payload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
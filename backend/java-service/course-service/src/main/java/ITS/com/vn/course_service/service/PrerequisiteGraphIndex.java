@@ -0,0 +1,440 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.enums.PrerequisiteType;
+import ITS.com.vn.course_service.repository.PrerequisiteRepository;
+import ITS.com.vn.course_service.repository.PrerequisiteRepository.PrerequisiteEdge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Prerequisite Graph Index - In-memory DAG of course prerequisites
+ * Courses are numbered densely and every course keeps the bitset of all courses it transitively
+ * requires: once through HARD edges only (what enrollment enforces) and once through any edge (used
+ * to reject cycles). Snapshots are immutable; an edit copies the arrays, recomputes the closures of
+ * the edited course and of the courses that depend on it, and reuses every other bitset.
+ * Edits applied while a rebuild reads the edges are journaled and replayed onto the rebuilt graph.
+ */
+@Service
+@Slf4j
+public class PrerequisiteGraphIndex {
+
+    private final PrerequisiteRepository prerequisiteRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Object rebuildLock = new Object();
+
+    private volatile Graph graph = Graph.EMPTY;
+    private List<UnaryOperator<Graph>> journal; // Guarded by this; non-null while a rebuild runs
+
+    public PrerequisiteGraphIndex(PrerequisiteRepository prerequisiteRepository,
+            PlatformTransactionManager transactionManager) {
+        this.prerequisiteRepository = prerequisiteRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Rebuild the index from the database
+     * Runs at startup and periodically, to pick up edits made through other instances
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${application.prerequisite-index.refresh-interval:PT5M}",
+            fixedDelayString = "${application.prerequisite-index.refresh-interval:PT5M}")
+    public void rebuild() {
+        // Startup and scheduled runs may coincide: one rebuild at a time
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                journal = new ArrayList<>();
+            }
+            try {
+                List<PrerequisiteEdge> edges = readOnlyTransaction.execute(
+                        status -> prerequisiteRepository.findAllEdges());
+                Map<Long, Map<Long, PrerequisiteType>> requirements = new HashMap<>();
+                for (PrerequisiteEdge edge : edges) {
+                    requirements.computeIfAbsent(edge.getCourseId(), id -> new HashMap<>())
+                            .merge(edge.getRequiredCourseId(), edge.getType(), PrerequisiteGraphIndex::strongest);
+                }
+
+                Graph rebuilt = Graph.build(requirements);
+                int replayed;
+                synchronized (this) {
+                    // Edits committed after the edges were read would otherwise be lost
+                    for (UnaryOperator<Graph> edit : journal) {
+                        rebuilt = edit.apply(rebuilt);
+                    }
+                    replayed = journal.size();
+                    graph = rebuilt;
+                }
+                int cyclic = rebuilt.countCyclicCourses();
+                if (cyclic > 0) {
+                    log.warn("Prerequisite graph has {} courses on a cycle", cyclic);
+                }
+                log.info("Prerequisite index built: {} courses, {} edges, {} edits replayed", rebuilt.size(),
+                        edges.size(), replayed);
+            } finally {
+                synchronized (this) {
+                    journal = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Find a cycle that the given prerequisites of a course would create
+     *
+     * @param courseId          Course being edited
+     * @param requiredCourseIds Its new prerequisites
+     * @return Course IDs along the cycle, starting and ending with courseId; empty if there is none
+     */
+    public List<Long> findCycle(Long courseId, Collection<Long> requiredCourseIds) {
+        Graph snapshot = graph;
+        for (Long requiredId : requiredCourseIds) {
+            if (requiredId.equals(courseId)) {
+                return List.of(courseId, courseId);
+            }
+            List<Long> path = snapshot.path(requiredId, courseId);
+            if (!path.isEmpty()) {
+                List<Long> cycle = new ArrayList<>(path.size() + 1);
+                cycle.add(courseId);
+                cycle.addAll(path);
+                return cycle;
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Find a cycle that the given prerequisites of a course would create, checked against the
+     * committed edges under a lock that is held until the current transaction ends, so concurrent
+     * edits (on any instance) cannot together commit a cycle that each check missed
+     * Call from the transaction that writes the prerequisites
+     *
+     * @return Course IDs along the cycle, starting and ending with courseId; empty if there is none
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Long> findCycleForUpdate(Long courseId, Collection<Long> requiredCourseIds) {
+        List<Long> cycle = findCycle(courseId, requiredCourseIds);
+        if (!cycle.isEmpty() || requiredCourseIds.isEmpty()) {
+            return cycle;
+        }
+        prerequisiteRepository.lockEdits();
+        if (!prerequisiteRepository.isRequiredByAny(requiredCourseIds, courseId)) {
+            return List.of();
+        }
+        // Edited since this index was last updated (e.g. through another instance): catch up to report the path
+        log.info("Prerequisite index is behind the database, rebuilding to report the cycle of course {}", courseId);
+        rebuild();
+        cycle = findCycle(courseId, requiredCourseIds);
+        return cycle.isEmpty() ? List.of(courseId, courseId) : cycle;
+    }
+
+    /**
+     * Find the HARD prerequisites, direct or transitive, that a student has not completed
+     *
+     * @param courseId           Course to enroll in
+     * @param completedCourseIds Courses the student has completed
+     * @return Missing course IDs in ascending order; empty if the student is eligible
+     */
+    public List<Long> findMissingHardPrerequisites(Long courseId, Collection<Long> completedCourseIds) {
+        Graph snapshot = graph;
+        BitSet missing = snapshot.hardClosure(courseId);
+        if (missing.isEmpty()) {
+            return List.of();
+        }
+        missing = (BitSet) missing.clone();
+        missing.clear(snapshot.indexes.get(courseId)); // Only set if the data has a cycle
+        for (Long completedId : completedCourseIds) {
+            Integer index = snapshot.indexes.get(completedId);
+            if (index != null) {
+                missing.clear(index);
+            }
+        }
+        List<Long> missingIds = new ArrayList<>(missing.cardinality());
+        missing.stream().forEach(index -> missingIds.add(snapshot.ids[index]));
+        missingIds.sort(null);
+        return missingIds;
+    }
+
+    /**
+     * Check whether a course has any HARD prerequisite, so callers can skip loading student history
+     */
+    public boolean hasHardPrerequisites(Long courseId) {
+        return !graph.hardClosure(courseId).isEmpty();
+    }
+
+    /**
+     * Replace the prerequisites of a course once the current transaction commits
+     *
+     * @param requirements Required course ID to prerequisite type
+     */
+    public void updateAfterCommit(Long courseId, Map<Long, PrerequisiteType> requirements) {
+        Map<Long, PrerequisiteType> copy = Map.copyOf(requirements);
+        afterCommit(() -> apply(current -> current.withRequirements(courseId, copy)));
+    }
+
+    /**
+     * Remove a deleted course (and the prerequisites pointing to it) once the current transaction commits
+     */
+    public void removeAfterCommit(Long courseId) {
+        afterCommit(() -> apply(current -> current.withoutCourse(courseId)));
+    }
+
+    private synchronized void apply(UnaryOperator<Graph> edit) {
+        graph = edit.apply(graph);
+        if (journal != null) {
+            journal.add(edit);
+        }
+    }
+
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private static PrerequisiteType strongest(PrerequisiteType a, PrerequisiteType b) {
+        return a == PrerequisiteType.HARD || b == PrerequisiteType.HARD ? PrerequisiteType.HARD : PrerequisiteType.SOFT;
+    }
+
+    /**
+     * Immutable snapshot of the graph; bitsets are never modified once published
+     */
+    private static final class Graph {
+
+        static final Graph EMPTY = new Graph(Map.of(), new long[0], new int[0][], new int[0][], new BitSet[0],
+                new BitSet[0]);
+        private static final int[] NONE = new int[0];
+        private static final BitSet EMPTY_SET = new BitSet();
+
+        final Map<Long, Integer> indexes;
+        final long[] ids;
+        final int[][] required; // Direct prerequisites (any type)
+        final int[][] hardRequired; // Direct HARD prerequisites
+        final BitSet[] closure; // Transitive prerequisites through any edge
+        final BitSet[] hardClosure; // Transitive prerequisites through HARD edges
+
+        Graph(Map<Long, Integer> indexes, long[] ids, int[][] required, int[][] hardRequired, BitSet[] closure,
+                BitSet[] hardClosure) {
+            this.indexes = indexes;
+            this.ids = ids;
+            this.required = required;
+            this.hardRequired = hardRequired;
+            this.closure = closure;
+            this.hardClosure = hardClosure;
+        }
+
+        static Graph build(Map<Long, Map<Long, PrerequisiteType>> requirements) {
+            Map<Long, Integer> indexes = new HashMap<>();
+            List<Long> ids = new ArrayList<>();
+            requirements.forEach((courseId, required) -> {
+                for (Long id : concat(courseId, required.keySet())) {
+                    if (indexes.putIfAbsent(id, ids.size()) == null) {
+                        ids.add(id);
+                    }
+                }
+            });
+            int count = ids.size();
+            int[][] required = new int[count][];
+            int[][] hardRequired = new int[count][];
+            Arrays.fill(required, NONE);
+            Arrays.fill(hardRequired, NONE);
+            requirements.forEach((courseId, edges) -> {
+                int course = indexes.get(courseId);
+                required[course] = edges.keySet().stream().mapToInt(indexes::get).sorted().toArray();
+                hardRequired[course] = edges.entrySet().stream()
+                        .filter(entry -> entry.getValue() == PrerequisiteType.HARD)
+                        .mapToInt(entry -> indexes.get(entry.getKey())).sorted().toArray();
+            });
+            BitSet all = new BitSet(count);
+            all.set(0, count);
+            return EMPTY.recompute(indexes, ids.stream().mapToLong(Long::longValue).toArray(), required,
+                    hardRequired, all);
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        int countCyclicCourses() {
+            int cyclic = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (closure[i].get(i)) {
+                    cyclic++;
+                }
+            }
+            return cyclic;
+        }
+
+        BitSet hardClosure(Long courseId) {
+            Integer index = indexes.get(courseId);
+            return index != null ? hardClosure[index] : EMPTY_SET;
+        }
+
+        Graph withRequirements(Long courseId, Map<Long, PrerequisiteType> requirements) {
+            Map<Long, Integer> newIndexes = new HashMap<>(indexes);
+            long[] newIds = ids;
+            int n = ids.length;
+            newIds = Arrays.copyOf(newIds, n + 1 + requirements.size());
+            int count = n;
+            for (Long id : concat(courseId, requirements.keySet())) {
+                if (!newIndexes.containsKey(id)) {
+                    newIndexes.put(id, count);
+                    newIds[count++] = id;
+                }
+            }
+            newIds = Arrays.copyOf(newIds, count);
+
+            int[][] newRequired = Arrays.copyOf(required, count);
+            int[][] newHardRequired = Arrays.copyOf(hardRequired, count);
+            for (int i = n; i < count; i++) {
+                newRequired[i] = NONE;
+                newHardRequired[i] = NONE;
+            }
+            int course = newIndexes.get(courseId);
+            newRequired[course] = requirements.keySet().stream()
+                    .mapToInt(newIndexes::get).sorted().toArray();
+            newHardRequired[course] = requirements.entrySet().stream()
+                    .filter(entry -> entry.getValue() == PrerequisiteType.HARD)
+                    .mapToInt(entry -> newIndexes.get(entry.getKey())).sorted().toArray();
+
+            // Only the edited course and the courses that (transitively) require it can change
+            BitSet affected = new BitSet(count);
+            affected.set(course);
+            for (int i = 0; i < n; i++) {
+                if (closure[i].get(course)) {
+                    affected.set(i);
+                }
+            }
+            return recompute(newIndexes, newIds, newRequired, newHardRequired, affected);
+        }
+
+        Graph withoutCourse(Long courseId) {
+            Integer removed = indexes.get(courseId);
+            if (removed == null) {
+                return this;
+            }
+            // Keep the slot (indexes stay stable) but drop all edges from and to it
+            int[][] newRequired = Arrays.copyOf(required, required.length);
+            int[][] newHardRequired = Arrays.copyOf(hardRequired, hardRequired.length);
+            BitSet affected = new BitSet(ids.length);
+            affected.set(removed);
+            newRequired[removed] = NONE;
+            newHardRequired[removed] = NONE;
+            for (int i = 0; i < ids.length; i++) {
+                if (closure[i].get(removed)) {
+                    affected.set(i);
+                    newRequired[i] = without(newRequired[i], removed);
+                    newHardRequired[i] = without(newHardRequired[i], removed);
+                }
+            }
+            Map<Long, Integer> newIndexes = new HashMap<>(indexes);
+            return recompute(newIndexes, ids, newRequired, newHardRequired, affected);
+        }
+
+        private Graph recompute(Map<Long, Integer> newIndexes, long[] newIds, int[][] newRequired,
+                int[][] newHardRequired, BitSet affected) {
+            int count = newIds.length;
+            BitSet[] newClosure = Arrays.copyOf(closure, count);
+            BitSet[] newHardClosure = Arrays.copyOf(hardClosure, count);
+            for (int i = closure.length; i < count; i++) {
+                newClosure[i] = EMPTY_SET;
+                newHardClosure[i] = EMPTY_SET;
+            }
+            // Unaffected closures are still valid, so a search stops at them and reuses their bitset
+            affected.stream().forEach(i -> {
+                newClosure[i] = reach(i, newRequired, newClosure, affected);
+                newHardClosure[i] = reach(i, newHardRequired, newHardClosure, affected);
+            });
+            return new Graph(Map.copyOf(newIndexes), newIds, newRequired, newHardRequired, newClosure,
+                    newHardClosure);
+        }
+
+        // Nodes reachable from start; closures of unaffected nodes are taken as they are
+        private static BitSet reach(int start, int[][] edges, BitSet[] closures, BitSet affected) {
+            BitSet reached = new BitSet();
+            Deque<Integer> stack = new ArrayDeque<>();
+            stack.push(start);
+            while (!stack.isEmpty()) {
+                for (int next : edges[stack.pop()]) {
+                    if (reached.get(next)) {
+                        continue;
+                    }
+                    reached.set(next);
+                    if (affected.get(next)) {
+                        stack.push(next);
+                    } else {
+                        reached.or(closures[next]);
+                    }
+                }
+            }
+            return reached;
+        }
+
+        // Shortest prerequisite path from one course to another, both included
+        List<Long> path(Long fromId, Long toId) {
+            Integer from = indexes.get(fromId);
+            Integer to = indexes.get(toId);
+            if (from == null || to == null || !closure[from].get(to)) {
+                return List.of();
+            }
+            int[] parent = new int[ids.length];
+            Arrays.fill(parent, -1);
+            parent[from] = from;
+            Deque<Integer> queue = new ArrayDeque<>();
+            queue.add(from);
+            while (!queue.isEmpty() && parent[to] < 0) {
+                int current = queue.poll();
+                for (int next : required[current]) {
+                    if (parent[next] < 0) {
+                        parent[next] = current;
+                        queue.add(next);
+                    }
+                }
+            }
+            List<Long> path = new ArrayList<>();
+            for (int at = to; at != from; at = parent[at]) {
+                path.add(0, ids[at]);
+            }
+            path.add(0, ids[from]);
+            return path;
+        }
+
+        private static List<Long> concat(Long first, Collection<Long> rest) {
+            List<Long> all = new ArrayList<>(rest.size() + 1);
+            all.add(first);
+            all.addAll(rest);
+            return all;
+        }
+
+        private static int[] without(int[] values, int removed) {
+            return Arrays.stream(values).filter(value -> value != removed).toArray();
+        }
+    }
+}
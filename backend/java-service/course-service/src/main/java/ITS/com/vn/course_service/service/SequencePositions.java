@@ -0,0 +1,41 @@
+package ITS.com.vn.course_service.service;
+
+/**
+ * Sequence allocation for ordered chapters and lessons
+ * Sequences are spaced {@link #GAP} apart, so an item can be moved between two neighbours by
+ * giving it the midpoint; only when neighbours are adjacent does the list need renumbering
+ */
+final class SequencePositions {
+
+    static final int GAP = 1024;
+
+    private SequencePositions() {
+    }
+
+    /**
+     * Sequence of the item at a position in a freshly numbered list (0-based)
+     */
+    static int atPosition(int position) {
+        return (position + 1) * GAP;
+    }
+
+    /**
+     * Sequence for an item appended after the current maximum, or -1 if the list must be renumbered first
+     */
+    static int after(int maxSequence) {
+        return maxSequence <= Integer.MAX_VALUE - GAP ? maxSequence + GAP : -1;
+    }
+
+    /**
+     * Sequence strictly between two neighbours, or -1 if there is no room left
+     *
+     * @param previous Sequence of the item before (0 when moving to the front)
+     * @param next     Sequence of the item after, or null when moving to the end
+     */
+    static int between(int previous, Integer next) {
+        if (next == null) {
+            return after(previous);
+        }
+        return next - previous > 1 ? previous + (next - previous) / 2 : -1;
+    }
+}
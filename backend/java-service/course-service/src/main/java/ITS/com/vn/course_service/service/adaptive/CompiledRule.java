@@ -0,0 +1,12 @@
+package ITS.com.vn.course_service.service.adaptive;
+
+import ITS.com.vn.course_service.domain.enums.AdaptiveAction;
+
+/**
+ * Adaptive rule with its condition compiled, ready to be evaluated
+ *
+ * @param targetLessonId Lesson the action leads to (null for actions without a target)
+ */
+public record CompiledRule(Long ruleId, String condition, RuleCondition compiled, AdaptiveAction action,
+        Long targetLessonId) {
+}
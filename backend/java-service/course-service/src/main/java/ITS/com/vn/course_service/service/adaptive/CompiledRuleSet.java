@@ -0,0 +1,36 @@
+package ITS.com.vn.course_service.service.adaptive;
+
+import java.util.List;
+
+/**
+ * Compiled adaptive rules of one source lesson, in evaluation order
+ * Rules are tried in creation order and the first matching rule decides
+ */
+public final class CompiledRuleSet {
+
+    public static final CompiledRuleSet EMPTY = new CompiledRuleSet(List.of());
+
+    private final CompiledRule[] rules;
+
+    public CompiledRuleSet(List<CompiledRule> rules) {
+        this.rules = rules.toArray(CompiledRule[]::new);
+    }
+
+    /**
+     * Find the first rule whose condition matches
+     *
+     * @return Matching rule, or null if none matches
+     */
+    public CompiledRule firstMatch(LearnerMetrics metrics) {
+        for (CompiledRule rule : rules) {
+            if (rule.compiled().matches(metrics)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return rules.length;
+    }
+}
@@ -0,0 +1,19 @@
+package ITS.com.vn.course_service.service.adaptive;
+
+/**
+ * Learner results that adaptive rule conditions are evaluated against
+ * Score and mastery are percentages (0-100); use NaN when unknown, which no comparison matches
+ *
+ * @param score    Score on the source lesson in percent of the maximum score
+ * @param mastery  Mastery of the lesson's skill in percent
+ * @param attempts Number of attempts on the source lesson
+ */
+public record LearnerMetrics(double score, double mastery, int attempts) {
+
+    public static LearnerMetrics of(Double score, Double mastery, Integer attempts) {
+        return new LearnerMetrics(
+                score != null ? score : Double.NaN,
+                mastery != null ? mastery : Double.NaN,
+                attempts != null ? attempts : 0);
+    }
+}
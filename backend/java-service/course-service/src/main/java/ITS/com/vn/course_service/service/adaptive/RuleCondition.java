@@ -0,0 +1,88 @@
+package ITS.com.vn.course_service.service.adaptive;
+
+/**
+ * Compiled adaptive rule condition
+ * Built once by {@link RuleConditionCompiler}; immutable and safe to share between threads
+ */
+public sealed interface RuleCondition {
+
+    boolean matches(LearnerMetrics metrics);
+
+    enum Metric {
+        SCORE(true),
+        MASTERY(true),
+        ATTEMPTS(false);
+
+        private final boolean percentage;
+
+        Metric(boolean percentage) {
+            this.percentage = percentage;
+        }
+
+        public boolean isPercentage() {
+            return percentage;
+        }
+
+        double read(LearnerMetrics metrics) {
+            return switch (this) {
+                case SCORE -> metrics.score();
+                case MASTERY -> metrics.mastery();
+                case ATTEMPTS -> metrics.attempts();
+            };
+        }
+    }
+
+    enum Operator {
+        LT("<"), LE("<="), GT(">"), GE(">="), EQ("="), NE("!=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String symbol() {
+            return symbol;
+        }
+
+        // Comparisons with NaN (unknown metric) are false, except !=
+        boolean apply(double value, double threshold) {
+            return switch (this) {
+                case LT -> value < threshold;
+                case LE -> value <= threshold;
+                case GT -> value > threshold;
+                case GE -> value >= threshold;
+                case EQ -> value == threshold;
+                case NE -> value != threshold && !Double.isNaN(value);
+            };
+        }
+    }
+
+    record Comparison(Metric metric, Operator operator, double threshold) implements RuleCondition {
+        @Override
+        public boolean matches(LearnerMetrics metrics) {
+            return operator.apply(metric.read(metrics), threshold);
+        }
+    }
+
+    record And(RuleCondition left, RuleCondition right) implements RuleCondition {
+        @Override
+        public boolean matches(LearnerMetrics metrics) {
+            return left.matches(metrics) && right.matches(metrics);
+        }
+    }
+
+    record Or(RuleCondition left, RuleCondition right) implements RuleCondition {
+        @Override
+        public boolean matches(LearnerMetrics metrics) {
+            return left.matches(metrics) || right.matches(metrics);
+        }
+    }
+
+    record Not(RuleCondition condition) implements RuleCondition {
+        @Override
+        public boolean matches(LearnerMetrics metrics) {
+            return !condition.matches(metrics);
+        }
+    }
+}
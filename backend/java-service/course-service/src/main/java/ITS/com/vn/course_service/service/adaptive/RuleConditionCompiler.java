@@ -0,0 +1,201 @@
+package ITS.com.vn.course_service.service.adaptive;
+
+import ITS.com.vn.course_service.service.adaptive.RuleCondition.And;
+import ITS.com.vn.course_service.service.adaptive.RuleCondition.Comparison;
+import ITS.com.vn.course_service.service.adaptive.RuleCondition.Metric;
+import ITS.com.vn.course_service.service.adaptive.RuleCondition.Not;
+import ITS.com.vn.course_service.service.adaptive.RuleCondition.Operator;
+import ITS.com.vn.course_service.service.adaptive.RuleCondition.Or;
+
+import java.util.Locale;
+
+/**
+ * Compiles adaptive rule condition text into a {@link RuleCondition} tree
+ *
+ * <pre>
+ * condition  := or
+ * or         := and ( OR and )*
+ * and        := unary ( AND unary )*
+ * unary      := NOT unary | '(' or ')' | comparison
+ * comparison := metric ( '&lt;' | '&lt;=' | '&gt;' | '&gt;=' | '=' | '==' | '!=' | '&lt;&gt;' ) number [ '%' ]
+ * metric     := SCORE | MASTERY | ATTEMPTS
+ * </pre>
+ *
+ * Keywords are case-insensitive. SCORE and MASTERY are percentages (0-100, the '%' sign is optional);
+ * ATTEMPTS is a non-negative whole number. Examples: "SCORE &lt; 60%", "SCORE &gt;= 95% AND ATTEMPTS &lt;= 1"
+ */
+public final class RuleConditionCompiler {
+
+    private static final int MAX_DEPTH = 16;
+
+    private final String source;
+    private int pos;
+    private int depth;
+
+    private RuleConditionCompiler(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Compile a condition
+     *
+     * @param condition Condition text
+     * @return Compiled condition
+     * @throws RuleSyntaxException if the condition is not valid
+     */
+    public static RuleCondition compile(String condition) {
+        if (condition == null || condition.isBlank()) {
+            throw new RuleSyntaxException("Condition is empty", 0);
+        }
+        RuleConditionCompiler compiler = new RuleConditionCompiler(condition);
+        RuleCondition compiled = compiler.parseOr();
+        compiler.skipWhitespace();
+        if (compiler.pos < condition.length()) {
+            throw new RuleSyntaxException("Unexpected '" + condition.charAt(compiler.pos) + "'", compiler.pos);
+        }
+        return compiled;
+    }
+
+    private RuleCondition parseOr() {
+        RuleCondition left = parseAnd();
+        while (acceptKeyword("OR")) {
+            left = new Or(left, parseAnd());
+        }
+        return left;
+    }
+
+    private RuleCondition parseAnd() {
+        RuleCondition left = parseUnary();
+        while (acceptKeyword("AND")) {
+            left = new And(left, parseUnary());
+        }
+        return left;
+    }
+
+    private RuleCondition parseUnary() {
+        if (++depth > MAX_DEPTH) {
+            throw new RuleSyntaxException("Condition is nested too deeply", pos);
+        }
+        try {
+            if (acceptKeyword("NOT")) {
+                return new Not(parseUnary());
+            }
+            if (accept("(")) {
+                RuleCondition inner = parseOr();
+                if (!accept(")")) {
+                    throw new RuleSyntaxException("Expected ')'", pos);
+                }
+                return inner;
+            }
+            return parseComparison();
+        } finally {
+            depth--;
+        }
+    }
+
+    private RuleCondition parseComparison() {
+        skipWhitespace();
+        int metricPos = pos;
+        String word = readWord();
+        Metric metric;
+        try {
+            metric = Metric.valueOf(word.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new RuleSyntaxException(word.isEmpty()
+                    ? "Expected SCORE, MASTERY or ATTEMPTS"
+                    : "Unknown metric '" + word + "'; expected SCORE, MASTERY or ATTEMPTS", metricPos);
+        }
+
+        Operator operator = parseOperator();
+
+        skipWhitespace();
+        int numberPos = pos;
+        double threshold = parseNumber();
+        boolean percent = accept("%");
+
+        if (metric.isPercentage()) {
+            if (threshold < 0 || threshold > 100) {
+                throw new RuleSyntaxException(metric + " threshold must be between 0% and 100%", numberPos);
+            }
+        } else {
+            if (percent) {
+                throw new RuleSyntaxException(metric + " is a count, not a percentage", numberPos);
+            }
+            if (threshold < 0 || threshold != Math.rint(threshold)) {
+                throw new RuleSyntaxException(metric + " threshold must be a non-negative whole number", numberPos);
+            }
+        }
+        return new Comparison(metric, operator, threshold);
+    }
+
+    private Operator parseOperator() {
+        skipWhitespace();
+        int start = pos;
+        if (accept("<=")) {
+            return Operator.LE;
+        }
+        if (accept(">=")) {
+            return Operator.GE;
+        }
+        if (accept("!=") || accept("<>")) {
+            return Operator.NE;
+        }
+        if (accept("==") || accept("=")) {
+            return Operator.EQ;
+        }
+        if (accept("<")) {
+            return Operator.LT;
+        }
+        if (accept(">")) {
+            return Operator.GT;
+        }
+        throw new RuleSyntaxException("Expected a comparison operator (<, <=, >, >=, =, !=)", start);
+    }
+
+    private double parseNumber() {
+        int start = pos;
+        while (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.')) {
+            pos++;
+        }
+        try {
+            return Double.parseDouble(source.substring(start, pos));
+        } catch (NumberFormatException ex) {
+            throw new RuleSyntaxException("Expected a number", start);
+        }
+    }
+
+    private String readWord() {
+        int start = pos;
+        while (pos < source.length() && (Character.isLetter(source.charAt(pos)) || source.charAt(pos) == '_')) {
+            pos++;
+        }
+        return source.substring(start, pos);
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        skipWhitespace();
+        int end = pos + keyword.length();
+        if (end <= source.length()
+                && source.regionMatches(true, pos, keyword, 0, keyword.length())
+                && (end == source.length() || !Character.isLetterOrDigit(source.charAt(end)))) {
+            pos = end;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean accept(String token) {
+        skipWhitespace();
+        if (source.startsWith(token, pos)) {
+            pos += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+            pos++;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ITS.com.vn.course_service.service.adaptive;
+
+/**
+ * Thrown when an adaptive rule condition cannot be compiled
+ */
+public class RuleSyntaxException extends IllegalArgumentException {
+
+    private final int position;
+
+    public RuleSyntaxException(String message, int position) {
+        super(message + " at position " + (position + 1));
+        this.position = position;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+}
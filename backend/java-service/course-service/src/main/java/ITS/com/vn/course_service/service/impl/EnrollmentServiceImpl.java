@@ -5,19 +5,54 @@ import ITS.com.vn.course_service.domain.entity.Enrollment;
 import ITS.com.vn.course_service.domain.enums.EnrollmentStatus;
 import ITS.com.vn.course_service.dto.event.StudentEnrolledEvent;
 import ITS.com.vn.course_service.dto.request.EnrollmentRequest;
+import ITS.com.vn.course_service.dto.response.BulkEnrollmentResponse;
 import ITS.com.vn.course_service.dto.response.EnrollmentResponse;
+import ITS.com.vn.course_service.exception.BadRequestException;
+import ITS.com.vn.course_service.exception.UnauthorizedException;
 import ITS.com.vn.course_service.repository.CourseRepository;
+import ITS.com.vn.course_service.repository.EnrollmentArchiveRepository;
+import ITS.com.vn.course_service.repository.EnrollmentJdbcRepository;
+import ITS.com.vn.course_service.repository.EnrollmentJdbcRepository.InsertedEnrollment;
 import ITS.com.vn.course_service.repository.EnrollmentRepository;
+import ITS.com.vn.course_service.repository.EnrollmentRepository.CompletedCourse;
+import ITS.com.vn.course_service.repository.EnrollmentViewRepository;
+import ITS.com.vn.course_service.repository.LessonCompletionRepository.LessonPlacement;
+import ITS.com.vn.course_service.service.EnrollmentProgressBuffer;
 import ITS.com.vn.course_service.service.EnrollmentService;
+import ITS.com.vn.course_service.service.EnrollmentStatsService;
 import ITS.com.vn.course_service.service.EventPublisherService;
+import ITS.com.vn.course_service.service.LessonCompletionService;
+import ITS.com.vn.course_service.service.LessonNavigation;
+import ITS.com.vn.course_service.service.LessonNavigationService;
+import ITS.com.vn.course_service.service.PrerequisiteGraphIndex;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,9 +61,20 @@ import java.util.stream.Collectors;
 @Transactional
 public class EnrollmentServiceImpl implements EnrollmentService {
 
+    private static final int MAX_ROSTER_SIZE = 5000;
+
     private final EnrollmentRepository enrollmentRepository;
+    private final EnrollmentJdbcRepository enrollmentJdbcRepository;
+    private final EnrollmentViewRepository enrollmentViewRepository;
+    private final EnrollmentArchiveRepository enrollmentArchiveRepository;
     private final CourseRepository courseRepository;
     private final EventPublisherService eventPublisherService;
+    private final EnrollmentStatsService enrollmentStatsService;
+    private final EnrollmentProgressBuffer progressBuffer;
+    private final PrerequisiteGraphIndex prerequisiteGraphIndex;
+    private final LessonNavigationService lessonNavigationService;
+    private final LessonCompletionService lessonCompletionService;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public EnrollmentResponse enrollStudent(Long courseId, Long studentId) {
@@ -38,16 +84,18 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new EntityNotFoundException("Course not found with ID: " + courseId));
 
-        // 2. Kiểm tra đã enroll chưa
-        if (enrollmentRepository.existsByCourseIdAndStudentId(courseId, studentId)) {
+        // 2. Kiểm tra đã enroll chưa (kể cả enrollment đã archive)
+        if (enrollmentRepository.existsByCourseIdAndStudentId(courseId, studentId)
+                || enrollmentArchiveRepository.existsByCourseIdAndStudentId(courseId, studentId)) {
             throw new IllegalStateException("Student already enrolled in this course");
         }
 
-        // 3. Kiểm tra course đã đầy chưa (nếu có maxStudents)
-        if (course.getMaxStudents() != null) {
-            Long currentEnrollments = enrollmentRepository.countActiveByCourseId(courseId);
-            if (currentEnrollments >= course.getMaxStudents()) {
-                throw new IllegalStateException("Course is full. Maximum students: " + course.getMaxStudents());
+        // 3. Kiểm tra prerequisite HARD (kể cả gián tiếp) đã hoàn thành
+        if (prerequisiteGraphIndex.hasHardPrerequisites(courseId)) {
+            List<Long> missing = prerequisiteGraphIndex.findMissingHardPrerequisites(courseId,
+                    enrollmentRepository.findCompletedCourseIds(studentId));
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("Student has not completed required prerequisite courses: " + missing);
             }
         }
 
@@ -59,11 +107,24 @@ public class EnrollmentServiceImpl implements EnrollmentService {
                 .progress(0)
                 .build();
 
-        Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
+        Enrollment savedEnrollment;
+        try {
+            savedEnrollment = enrollmentRepository.saveAndFlush(enrollment);
+        } catch (DataIntegrityViolationException ex) {
+            // Concurrent enroll of the same student hit the (course_id, student_id) unique constraint
+            throw new IllegalStateException("Student already enrolled in this course");
+        }
+
+        // 5. Giữ chỗ (atomic, không overbook khi nhiều request đồng thời)
+        // Done after the insert so the counter row stays locked only until commit
+        if (!enrollmentStatsService.tryReserveSeat(courseId, course.getMaxStudents())) {
+            throw new IllegalStateException("Course is full. Maximum students: " + course.getMaxStudents());
+        }
+
         log.info("Successfully enrolled student {} to course {}. Enrollment ID: {}",
                 studentId, courseId, savedEnrollment.getId());
 
-        // 5. Publish StudentEnrolled event
+        // 6. Publish StudentEnrolled event
         StudentEnrolledEvent event = StudentEnrolledEvent.builder()
                 .enrollmentId(savedEnrollment.getId())
                 .courseId(course.getId())
@@ -80,21 +141,159 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         return mapToResponse(savedEnrollment);
     }
 
+    @Override
+    public BulkEnrollmentResponse enrollStudents(Long courseId, Collection<Long> studentIds, Long instructorId) {
+        Set<Long> roster = new LinkedHashSet<>(studentIds);
+        roster.remove(null);
+        if (roster.isEmpty()) {
+            throw new BadRequestException("Student IDs list cannot be empty");
+        }
+        if (roster.size() > MAX_ROSTER_SIZE) {
+            throw new BadRequestException("A roster must not exceed " + MAX_ROSTER_SIZE + " students");
+        }
+        log.info("Bulk enrolling {} students to course {}", roster.size(), courseId);
+
+        // 1. Kiểm tra course tồn tại
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new EntityNotFoundException("Course not found with ID: " + courseId));
+        if (instructorId != null && !course.getInstructorId().equals(instructorId)) {
+            throw new UnauthorizedException("You are not authorized to enroll students in this course");
+        }
+
+        // 2. Bỏ qua sinh viên đã enroll (một query cho cả danh sách)
+        Set<Long> alreadyEnrolled = new HashSet<>(enrollmentRepository.findEnrolledStudentIds(courseId, roster));
+        alreadyEnrolled.addAll(enrollmentArchiveRepository.findStudentIds(courseId, roster));
+        List<Long> newStudentIds = roster.stream()
+                .filter(studentId -> !alreadyEnrolled.contains(studentId))
+                .toList();
+
+        // 3. Kiểm tra prerequisite HARD (kể cả gián tiếp) cho cả danh sách (một query)
+        if (!newStudentIds.isEmpty() && prerequisiteGraphIndex.hasHardPrerequisites(courseId)) {
+            Map<Long, List<Long>> completedByStudent = new HashMap<>();
+            for (CompletedCourse completed : enrollmentRepository.findCompletedCourses(newStudentIds)) {
+                completedByStudent.computeIfAbsent(completed.getStudentId(), id -> new ArrayList<>())
+                        .add(completed.getCourseId());
+            }
+            Map<Long, List<Long>> missingByStudent = new LinkedHashMap<>();
+            for (Long studentId : newStudentIds) {
+                List<Long> missing = prerequisiteGraphIndex.findMissingHardPrerequisites(courseId,
+                        completedByStudent.getOrDefault(studentId, List.of()));
+                if (!missing.isEmpty()) {
+                    missingByStudent.put(studentId, missing);
+                }
+            }
+            if (!missingByStudent.isEmpty()) {
+                throw new IllegalStateException(
+                        "Students have not completed required prerequisite courses: " + missingByStudent);
+            }
+        }
+
+        // 4. Giữ chỗ cho toàn bộ danh sách (all or nothing)
+        if (!enrollmentStatsService.tryReserveSeats(courseId, newStudentIds.size(), course.getMaxStudents())) {
+            throw new IllegalStateException("Course does not have enough seats for " + newStudentIds.size()
+                    + " students. Maximum students: " + course.getMaxStudents());
+        }
+
+        // 5. Insert một lần cho cả danh sách
+        List<InsertedEnrollment> inserted = enrollmentJdbcRepository.insertActiveEnrollments(courseId, newStudentIds);
+
+        // Students enrolled concurrently since step 2 were skipped by the insert: give their seats back
+        Set<Long> insertedStudentIds = new LinkedHashSet<>();
+        inserted.forEach(row -> insertedStudentIds.add(row.studentId()));
+        newStudentIds.stream()
+                .filter(studentId -> !insertedStudentIds.contains(studentId))
+                .forEach(alreadyEnrolled::add);
+        enrollmentStatsService.releaseSeats(courseId, newStudentIds.size() - inserted.size());
+
+        log.info("Bulk enrolled {} students to course {} ({} already enrolled)",
+                inserted.size(), courseId, alreadyEnrolled.size());
+
+        // 6. Publish StudentEnrolled events
+        LocalDateTime now = LocalDateTime.now();
+        eventPublisherService.publishStudentEnrolledBatch(inserted.stream()
+                .map(row -> StudentEnrolledEvent.builder()
+                        .enrollmentId(row.id())
+                        .courseId(course.getId())
+                        .courseCode(course.getCode())
+                        .courseTitle(course.getTitle())
+                        .studentId(row.studentId())
+                        .enrolledAt(row.enrolledAt())
+                        .eventType("STUDENT_ENROLLED")
+                        .timestamp(now)
+                        .build())
+                .toList());
+
+        return BulkEnrollmentResponse.builder()
+                .courseId(courseId)
+                .requestedCount(roster.size())
+                .enrolledCount(inserted.size())
+                .enrolledStudentIds(List.copyOf(insertedStudentIds))
+                .alreadyEnrolledStudentIds(roster.stream().filter(alreadyEnrolled::contains).toList())
+                .build();
+    }
+
+    @Override
+    public BulkEnrollmentResponse enrollStudentsFromCsv(Long courseId, InputStream csv, Long instructorId) {
+        return enrollStudents(courseId, readRoster(csv), instructorId);
+    }
+
+    // Reads the first column of each line; a non-numeric first line is treated as a header
+    private Set<Long> readRoster(InputStream csv) {
+        Set<Long> studentIds = new LinkedHashSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int separator = line.indexOf(',');
+                String value = (separator >= 0 ? line.substring(0, separator) : line)
+                        .replace("\uFEFF", "")
+                        .replace("\"", "")
+                        .trim();
+                if (value.isEmpty()) {
+                    continue;
+                }
+                try {
+                    studentIds.add(Long.valueOf(value));
+                } catch (NumberFormatException ex) {
+                    if (lineNumber == 1) {
+                        continue; // Header
+                    }
+                    throw new BadRequestException("Invalid student ID '" + value + "' on line " + lineNumber);
+                }
+                if (studentIds.size() > MAX_ROSTER_SIZE) {
+                    throw new BadRequestException("A roster must not exceed " + MAX_ROSTER_SIZE + " students");
+                }
+            }
+        } catch (IOException ex) {
+            throw new BadRequestException("Failed to read roster CSV: " + ex.getMessage());
+        }
+        return studentIds;
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public List<EnrollmentResponse> getMyEnrollments(Long studentId) {
+    public List<EnrollmentResponse> getMyEnrollments(Long studentId, EnrollmentStatus status) {
         log.debug("Getting enrollments for student {}", studentId);
 
-        List<Enrollment> enrollments = enrollmentRepository.findByStudentId(studentId);
+        return enrollmentViewRepository.findByStudent(studentId, status).stream()
+                .map(progressBuffer::overlay)
+                .collect(Collectors.toList());
+    }
 
-        return enrollments.stream()
-                .map(this::mapToResponse)
+    @Override
+    @Transactional(readOnly = true)
+    public List<EnrollmentResponse> getTranscript(Long studentId, EnrollmentStatus status) {
+        log.debug("Getting transcript for student {}", studentId);
+
+        return enrollmentViewRepository.findTranscript(studentId, status).stream()
+                .map(progressBuffer::overlay)
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<EnrollmentResponse> getCourseEnrollments(Long courseId) {
+    public List<EnrollmentResponse> getCourseEnrollments(Long courseId, EnrollmentStatus status) {
         log.debug("Getting enrollments for course {}", courseId);
 
         // Verify course exists
@@ -102,14 +301,27 @@ public class EnrollmentServiceImpl implements EnrollmentService {
             throw new EntityNotFoundException("Course not found with ID: " + courseId);
         }
 
-        List<Enrollment> enrollments = enrollmentRepository.findByCourseId(courseId);
-
-        return enrollments.stream()
-                .map(this::mapToResponse)
+        return enrollmentViewRepository.findByCourse(courseId, status).stream()
+                .map(progressBuffer::overlay)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Page<EnrollmentResponse> getCourseEnrollments(Long courseId, EnrollmentStatus status, Pageable pageable) {
+        log.debug("Getting enrollments page {} for course {}", pageable.getPageNumber(), courseId);
+
+        // Verify course exists
+        if (!courseRepository.existsById(courseId)) {
+            throw new EntityNotFoundException("Course not found with ID: " + courseId);
+        }
+
+        return enrollmentViewRepository.findPageByCourse(courseId, status, pageable)
+                .map(progressBuffer::overlay);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public EnrollmentResponse updateProgress(Long enrollmentId, Integer progress, Long studentId) {
         log.debug("Updating progress for enrollment {} to {}%", enrollmentId, progress);
 
@@ -118,29 +330,101 @@ public class EnrollmentServiceImpl implements EnrollmentService {
             throw new IllegalArgumentException("Progress must be between 0 and 100");
         }
 
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
-                .orElseThrow(() -> new EntityNotFoundException("Enrollment not found with ID: " + enrollmentId));
+        // Progress thường xuyên: ghi vào buffer, flush theo batch (không round trip DB)
+        if (progress < 100) {
+            Optional<EnrollmentResponse> buffered = progressBuffer.tryBuffer(enrollmentId, studentId, progress);
+            if (buffered.isPresent()) {
+                return buffered.get();
+            }
+        }
 
-        // Verify ownership
-        if (!enrollment.getStudentId().equals(studentId)) {
-            throw new IllegalStateException("Enrollment does not belong to student ID: " + studentId);
+        // First update of an enrollment, or a completion: persist now
+        EnrollmentResponse response = transactionTemplate.execute(status -> {
+            // Khóa row trước khi bỏ entry khỏi buffer: flush đang chạy chờ lock, progress đọc được là mới nhất
+            Enrollment enrollment = enrollmentRepository.findByIdForUpdate(enrollmentId)
+                    .orElseThrow(() -> new EntityNotFoundException("Enrollment not found with ID: " + enrollmentId));
+
+            // Verify ownership
+            if (!enrollment.getStudentId().equals(studentId)) {
+                throw new IllegalStateException("Enrollment does not belong to student ID: " + studentId);
+            }
+
+            progressBuffer.discard(enrollmentId);
+            applyProgress(enrollment, progress);
+
+            Enrollment updatedEnrollment = enrollmentRepository.save(enrollment);
+            log.info("Updated progress for enrollment {} to {}%. Status: {}",
+                    enrollmentId, progress, updatedEnrollment.getStatus());
+
+            return mapToResponse(updatedEnrollment);
+        });
+
+        progressBuffer.track(response);
+        return response;
+    }
+
+    @Override
+    public EnrollmentResponse completeLesson(Long lessonId, Long studentId) {
+        log.debug("Student {} completing lesson {}", studentId, lessonId);
+
+        LessonPlacement lesson = lessonCompletionService.findLessonPlacement(lessonId)
+                .orElseThrow(() -> new EntityNotFoundException("Lesson not found with ID: " + lessonId));
+        // Bitmap chỉ theo version sinh viên đang học; bài học của DRAFT mới hoặc version cũ không được ghi
+        if (!lesson.isInStudentVersion()) {
+            throw new IllegalStateException("Lesson is not part of the course version students take: " + lessonId);
         }
 
-        // Update progress (helper method handles auto-completion)
-        enrollment.updateProgress(progress);
+        // Khóa enrollment: các lần hoàn thành đồng thời của cùng sinh viên không ghi đè bitmap của nhau
+        Enrollment enrollment = enrollmentRepository.findForUpdate(lesson.courseId(), studentId)
+                .orElseThrow(() -> new IllegalStateException("Student is not enrolled in this course"));
+        if (enrollment.getStatus() == EnrollmentStatus.DROPPED) {
+            throw new IllegalStateException("Enrollment already dropped");
+        }
+
+        // Thứ tự bài học được kiểm tra với DB: bitmap và tiến độ không được ghi theo thứ tự cũ trong cache
+        LessonNavigation navigation = lessonNavigationService.getCurrentNavigation(lesson.versionId());
+        int position = navigation.positionOf(lessonId);
+        if (position < 0) {
+            throw new IllegalStateException("Lesson is not part of the course version: " + lessonId);
+        }
+
+        // Bitmap được ghi lại theo thứ tự bài học hiện tại của version (bit của version trước theo lesson key)
+        BitSet completed = lessonCompletionService.align(navigation, enrollment.getCompletedLessons(),
+                enrollment.getCompletionLayoutId());
+        completed.set(position);
+        enrollment.setCompletedLessons(completed.toByteArray());
+        enrollment.setCompletionLayoutId(lessonCompletionService.getLayoutId(navigation));
+
+        // Tiến độ lấy từ bitmap; tiến độ client gửi còn trong buffer bị bỏ
+        progressBuffer.discard(enrollment.getId());
+        if (enrollment.isActive()) {
+            applyProgress(enrollment, LessonCompletionService.progressOf(navigation, completed));
+        } else {
+            enrollment.setLastAccessAt(LocalDateTime.now());
+        }
 
         Enrollment updatedEnrollment = enrollmentRepository.save(enrollment);
-        log.info("Updated progress for enrollment {} to {}%. Status: {}",
-                enrollmentId, progress, updatedEnrollment.getStatus());
+        log.info("Student {} completed lesson {} ({}/{} lessons). Progress: {}%. Status: {}", studentId, lessonId,
+                completed.cardinality(), navigation.size(), updatedEnrollment.getProgress(),
+                updatedEnrollment.getStatus());
 
         return mapToResponse(updatedEnrollment);
     }
 
+    // Update progress (helper method handles auto-completion) and the course counters
+    private void applyProgress(Enrollment enrollment, int progress) {
+        EnrollmentStatus previousStatus = enrollment.getStatus();
+        int previousProgress = enrollment.getProgress();
+        enrollment.updateProgress(progress);
+        enrollmentStatsService.onProgressUpdated(previousStatus, previousProgress, enrollment);
+    }
+
     @Override
     public void dropEnrollment(Long enrollmentId, Long studentId) {
         log.info("Dropping enrollment {} for student {}", enrollmentId, studentId);
 
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
+        // Khóa row: counters được tính từ progress đã flush, không từ bản đọc cũ
+        Enrollment enrollment = enrollmentRepository.findByIdForUpdate(enrollmentId)
                 .orElseThrow(() -> new EntityNotFoundException("Enrollment not found with ID: " + enrollmentId));
 
         // Verify ownership
@@ -157,8 +441,15 @@ public class EnrollmentServiceImpl implements EnrollmentService {
             throw new IllegalStateException("Cannot drop a completed course");
         }
 
+        // Persist progress still waiting in the buffer so the counters stay consistent
+        Integer bufferedProgress = progressBuffer.discard(enrollmentId);
+        if (bufferedProgress != null) {
+            applyProgress(enrollment, bufferedProgress);
+        }
+
         enrollment.drop();
         enrollmentRepository.save(enrollment);
+        enrollmentStatsService.onDropped(enrollment.getCourse().getId(), enrollment.getProgress());
 
         log.info("Successfully dropped enrollment {}", enrollmentId);
     }
@@ -169,7 +460,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new EntityNotFoundException("Enrollment not found with ID: " + enrollmentId));
 
-        return mapToResponse(enrollment);
+        return progressBuffer.overlay(mapToResponse(enrollment));
     }
 
     @Override
@@ -2,36 +2,62 @@ package ITS.com.vn.course_service.service.impl;
 
 import ITS.com.vn.course_service.config.RabbitMQConfig;
 import ITS.com.vn.course_service.dto.event.StudentEnrolledEvent;
+import ITS.com.vn.course_service.repository.OutboxEventRepository;
+import ITS.com.vn.course_service.repository.OutboxEventRepository.NewOutboxEvent;
 import ITS.com.vn.course_service.service.EventPublisherService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes events to the transactional outbox; OutboxRelay delivers them to RabbitMQ after commit
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(propagation = Propagation.MANDATORY)
 public class EventPublisherServiceImpl implements EventPublisherService {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final MessageConverter messageConverter;
 
     @Override
     public void publishStudentEnrolled(StudentEnrolledEvent event) {
-        try {
-            log.info("Publishing StudentEnrolled event: enrollmentId={}, courseId={}, studentId={}",
-                    event.getEnrollmentId(), event.getCourseId(), event.getStudentId());
-
-            rabbitTemplate.convertAndSend(
-                    RabbitMQConfig.COURSE_EXCHANGE,
-                    RabbitMQConfig.STUDENT_ENROLLED_ROUTING_KEY,
-                    event);
-
-            log.info("Successfully published StudentEnrolled event for enrollment {}", event.getEnrollmentId());
-        } catch (Exception e) {
-            log.error("Failed to publish StudentEnrolled event for enrollment {}: {}",
-                    event.getEnrollmentId(), e.getMessage(), e);
-            // Don't throw exception - enrollment already saved
-            // Event publishing failure should not rollback the transaction
+        log.info("Queueing StudentEnrolled event: enrollmentId={}, courseId={}, studentId={}",
+                event.getEnrollmentId(), event.getCourseId(), event.getStudentId());
+
+        outboxEventRepository.append(List.of(toOutboxEvent(event)));
+    }
+
+    @Override
+    public void publishStudentEnrolledBatch(List<StudentEnrolledEvent> events) {
+        if (events == null || events.isEmpty()) {
+            return;
         }
+        log.info("Queueing {} StudentEnrolled events for course {}", events.size(), events.get(0).getCourseId());
+
+        outboxEventRepository.append(events.stream().map(this::toOutboxEvent).toList());
+    }
+
+    // Serialize now with the same converter the relay's consumers expect
+    private NewOutboxEvent toOutboxEvent(StudentEnrolledEvent event) {
+        Message message = messageConverter.toMessage(event, new MessageProperties());
+        Object typeId = message.getMessageProperties().getHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        return new NewOutboxEvent(
+                event.getEnrollmentId(),
+                event.getEventType(),
+                RabbitMQConfig.COURSE_EXCHANGE,
+                RabbitMQConfig.STUDENT_ENROLLED_ROUTING_KEY,
+                typeId != null ? typeId.toString() : null,
+                new String(message.getBody(), StandardCharsets.UTF_8));
     }
 }
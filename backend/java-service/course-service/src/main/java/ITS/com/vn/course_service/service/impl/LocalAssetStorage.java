@@ -0,0 +1,94 @@
+package ITS.com.vn.course_service.service.impl;
+
+import ITS.com.vn.course_service.service.AssetStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Asset storage on the local filesystem (or a mounted volume)
+ * URLs look like local://lessons/12/intro.mp4 and resolve below the configured root directory
+ */
+@Service
+@Slf4j
+public class LocalAssetStorage implements AssetStorage {
+
+    public static final String URL_PREFIX = "local://";
+
+    private final Path rootDir;
+
+    public LocalAssetStorage(@Value("${application.storage.local.root-dir:./data/assets}") String rootDir) {
+        this.rootDir = Path.of(rootDir).toAbsolutePath().normalize();
+        log.info("Local asset storage root: {}", this.rootDir);
+    }
+
+    @Override
+    public boolean supports(String storageUrl) {
+        return storageUrl != null && storageUrl.startsWith(URL_PREFIX);
+    }
+
+    @Override
+    public long size(String storageUrl) throws IOException {
+        return Files.size(resolve(storageUrl));
+    }
+
+    @Override
+    public SeekableByteChannel openForRead(String storageUrl) throws IOException {
+        return FileChannel.open(resolve(storageUrl), StandardOpenOption.READ);
+    }
+
+    @Override
+    public Optional<Path> localFile(String storageUrl) {
+        return Optional.of(resolve(storageUrl));
+    }
+
+    @Override
+    public String importFile(String key, Path source) throws IOException {
+        String storageUrl = URL_PREFIX + key;
+        Path target = resolve(storageUrl);
+        Files.createDirectories(target.getParent());
+        move(source, target);
+        return storageUrl;
+    }
+
+    @Override
+    public void releaseFile(String storageUrl, Path target) throws IOException {
+        move(resolve(storageUrl), target);
+    }
+
+    @Override
+    public void delete(String storageUrl) throws IOException {
+        Files.deleteIfExists(resolve(storageUrl));
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            // Staging directory on another filesystem
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Path resolve(String storageUrl) {
+        if (!supports(storageUrl)) {
+            throw new IllegalArgumentException("Not a local storage URL: " + storageUrl);
+        }
+        Path path = rootDir.resolve(storageUrl.substring(URL_PREFIX.length())).normalize();
+        // Reject keys that escape the root directory (e.g. "../")
+        if (!path.startsWith(rootDir)) {
+            throw new IllegalArgumentException("Storage URL points outside the storage root: " + storageUrl);
+        }
+        return path;
+    }
+}
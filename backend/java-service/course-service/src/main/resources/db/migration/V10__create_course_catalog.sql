@@ -0,0 +1,85 @@
+-- Denormalized course catalog read model
+-- One row per course with the card fields, tags and prerequisites already flattened, so catalog
+-- listings are a single indexed query instead of Course aggregates with lazy collections
+
+CREATE TABLE IF NOT EXISTS course_catalog (
+    course_id BIGINT PRIMARY KEY REFERENCES courses(id) ON DELETE CASCADE,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    status VARCHAR(20) NOT NULL,
+    visibility VARCHAR(20) NOT NULL,
+    instructor_id BIGINT NOT NULL,
+    instructor_name VARCHAR(255),
+    instructor_avatar_url VARCHAR(500),
+    thumbnail_url VARCHAR(500),
+    objectives TEXT,
+    code VARCHAR(20),
+    credits INTEGER,
+    semester VARCHAR(50),
+    schedule VARCHAR(255),
+    max_students INTEGER,
+    start_date DATE,
+    end_date DATE,
+    tags JSONB NOT NULL DEFAULT '[]',
+    prerequisites JSONB NOT NULL DEFAULT '[]',
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    published_at TIMESTAMP,
+    refreshed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Projection of a course into its catalog row; kept in the database so the backfill below and
+-- the application refresh use exactly the same definition (instructor names come from
+-- user-profile-service and are filled in by the application)
+CREATE OR REPLACE VIEW course_catalog_source AS
+SELECT c.id AS course_id,
+       c.title,
+       c.description,
+       c.status,
+       c.visibility,
+       c.instructor_id,
+       c.thumbnail_url,
+       c.objectives,
+       c.code,
+       c.credits,
+       c.semester,
+       c.schedule,
+       c.max_students,
+       c.start_date,
+       c.end_date,
+       COALESCE((
+           SELECT jsonb_agg(jsonb_build_object(
+                       'id', t.id, 'name', t.name, 'type', t.type, 'description', t.description)
+                   ORDER BY ct.id)
+           FROM course_tags ct
+           JOIN tags t ON t.id = ct.tag_id
+           WHERE ct.course_id = c.id), '[]'::jsonb) AS tags,
+       COALESCE((
+           SELECT jsonb_agg(jsonb_build_object(
+                       'id', p.id, 'requiredCourseId', p.required_course_id,
+                       'type', p.type, 'description', p.description)
+                   ORDER BY p.id)
+           FROM prerequisites p
+           WHERE p.course_id = c.id), '[]'::jsonb) AS prerequisites,
+       c.created_at,
+       c.updated_at,
+       c.published_at
+FROM courses c;
+
+INSERT INTO course_catalog (course_id, title, description, status, visibility, instructor_id, thumbnail_url,
+                            objectives, code, credits, semester, schedule, max_students, start_date, end_date,
+                            tags, prerequisites, created_at, updated_at, published_at)
+SELECT course_id, title, description, status, visibility, instructor_id, thumbnail_url,
+       objectives, code, credits, semester, schedule, max_students, start_date, end_date,
+       tags, prerequisites, created_at, updated_at, published_at
+FROM course_catalog_source
+ON CONFLICT (course_id) DO NOTHING;
+
+-- Default listing orders (createdAt / publishedAt newest first) and keyset pagination by id
+CREATE INDEX IF NOT EXISTS idx_course_catalog_created ON course_catalog(created_at DESC, course_id DESC);
+CREATE INDEX IF NOT EXISTS idx_course_catalog_semester_created ON course_catalog(semester, created_at DESC, course_id DESC);
+CREATE INDEX IF NOT EXISTS idx_course_catalog_semester_id ON course_catalog(semester, course_id DESC);
+CREATE INDEX IF NOT EXISTS idx_course_catalog_instructor_created ON course_catalog(instructor_id, created_at DESC, course_id DESC);
+CREATE INDEX IF NOT EXISTS idx_course_catalog_instructor_id ON course_catalog(instructor_id, course_id DESC);
+CREATE INDEX IF NOT EXISTS idx_course_catalog_status_published ON course_catalog(status, published_at DESC, course_id DESC);
+CREATE INDEX IF NOT EXISTS idx_course_catalog_status_semester_published ON course_catalog(status, semester, published_at DESC, course_id DESC);
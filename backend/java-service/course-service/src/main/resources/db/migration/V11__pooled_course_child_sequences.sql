@@ -0,0 +1,5 @@
+-- Course tags and prerequisites switch from IDENTITY to pooled sequence ids (allocation size 50),
+-- so Hibernate can batch their inserts. The column defaults keep working for plain SQL inserts.
+
+ALTER SEQUENCE course_tags_id_seq INCREMENT BY 50;
+ALTER SEQUENCE prerequisites_id_seq INCREMENT BY 50;
@@ -0,0 +1,4 @@
+-- Enrollment listings (EnrollmentViewRepository): a student's courses newest first, and
+-- course rosters in enrollment order, optionally filtered by status
+CREATE INDEX IF NOT EXISTS idx_enrollments_student_enrolled ON enrollments(student_id, enrolled_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_enrollments_course_status_id ON enrollments(course_id, status, id);
@@ -0,0 +1,27 @@
+-- Cold storage for finished enrollments of past courses
+-- EnrollmentArchiver moves COMPLETED/DROPPED rows here once the course has ended, so the hot
+-- enrollments table (and every per-student/per-course query on it) only holds current terms.
+-- Rows keep their original id; the counters in course_enrollment_stats are not affected
+
+CREATE TABLE IF NOT EXISTS enrollments_archive (
+    id BIGINT PRIMARY KEY,
+    course_id BIGINT NOT NULL REFERENCES courses(id) ON DELETE CASCADE,
+    student_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    progress INTEGER NOT NULL,
+    enrolled_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP,
+    last_access_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_enrollment_archive_status CHECK (status IN ('COMPLETED','DROPPED')),
+    CONSTRAINT uk_enrollment_archive UNIQUE (course_id, student_id)
+);
+
+-- Transcripts and prerequisite checks read a student's archived enrollments
+CREATE INDEX IF NOT EXISTS idx_enrollments_archive_student ON enrollments_archive(student_id, enrolled_at DESC, id DESC);
+
+-- Archival candidates: finished enrollments, found through their course's end date
+CREATE INDEX IF NOT EXISTS idx_enrollments_finished_course ON enrollments(course_id, id)
+    WHERE status IN ('COMPLETED','DROPPED');
+CREATE INDEX IF NOT EXISTS idx_courses_end_date ON courses(end_date);
@@ -0,0 +1,9 @@
+-- Incremental (updatedSince) exports, see ExportRepository
+
+CREATE INDEX IF NOT EXISTS idx_courses_updated_at ON courses(updated_at);
+CREATE INDEX IF NOT EXISTS idx_course_versions_updated_at ON course_versions(updated_at);
+CREATE INDEX IF NOT EXISTS idx_chapters_updated_at ON chapters(updated_at);
+CREATE INDEX IF NOT EXISTS idx_lessons_updated_at ON lessons(updated_at);
+CREATE INDEX IF NOT EXISTS idx_enrollments_updated_at ON enrollments(updated_at);
+CREATE INDEX IF NOT EXISTS idx_enrollments_archive_updated_at ON enrollments_archive(updated_at);
+CREATE INDEX IF NOT EXISTS idx_enrollments_archive_archived_at ON enrollments_archive(archived_at);
@@ -0,0 +1,24 @@
+-- Per-enrollment lesson completion, stored as a bitmap instead of one row per completed lesson
+-- Bit i of completed_lessons (java.util.BitSet byte order) is the lesson at position i of the
+-- layout it was written against: the lesson IDs of one course version in reading order.
+-- Enrollment progress is derived from the bitmap (see EnrollmentService.completeLesson)
+
+-- Layouts are immutable and shared by every enrollment written against them; a new one is
+-- recorded only when lessons of a version are added, removed or reordered
+CREATE TABLE IF NOT EXISTS lesson_layouts (
+    id BIGSERIAL PRIMARY KEY,
+    version_id BIGINT NOT NULL REFERENCES course_versions(id) ON DELETE CASCADE,
+    fingerprint BIGINT NOT NULL,
+    lesson_ids BIGINT[] NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_lesson_layout UNIQUE (version_id, fingerprint)
+);
+
+-- No foreign key to lesson_layouts: a bitmap whose layout is gone (deleted version) reads as empty
+ALTER TABLE enrollments
+    ADD COLUMN IF NOT EXISTS completed_lessons BYTEA,
+    ADD COLUMN IF NOT EXISTS completion_layout_id BIGINT;
+
+ALTER TABLE enrollments_archive
+    ADD COLUMN IF NOT EXISTS completed_lessons BYTEA,
+    ADD COLUMN IF NOT EXISTS completion_layout_id BIGINT;
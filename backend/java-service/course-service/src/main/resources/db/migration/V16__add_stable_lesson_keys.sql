@@ -0,0 +1,21 @@
+-- Stable lesson identity across course versions
+-- A lesson keeps its lesson_key when it is carried into a new version of the course (given on
+-- create or in an import package), so completion bitmaps written against one version's layout
+-- carry over to the next one by key. Lessons without a given key get a fresh one
+
+ALTER TABLE lessons ADD COLUMN IF NOT EXISTS lesson_key UUID NOT NULL DEFAULT gen_random_uuid();
+
+-- Resolve the lessons of a version that share a key (at most one is allowed per version)
+CREATE INDEX IF NOT EXISTS idx_lessons_lesson_key ON lessons(lesson_key);
+
+-- Layouts are remapped by key; IDs of lessons deleted since the layout was recorded have no key
+ALTER TABLE lesson_layouts ADD COLUMN IF NOT EXISTS lesson_keys UUID[];
+
+UPDATE lesson_layouts ll
+SET lesson_keys = ARRAY(SELECT l.lesson_key
+                        FROM unnest(ll.lesson_ids) WITH ORDINALITY AS u(id, ord)
+                        LEFT JOIN lessons l ON l.id = u.id
+                        ORDER BY u.ord)
+WHERE ll.lesson_keys IS NULL;
+
+ALTER TABLE lesson_layouts ALTER COLUMN lesson_keys SET NOT NULL;
@@ -0,0 +1,32 @@
+-- Tag names are part of the search document (V4) and tag fields of the catalog row (V10), but tags
+-- are not edited through this service: refresh the courses carrying a tag whenever the tag changes,
+-- using the same definitions as the application refresh
+
+CREATE OR REPLACE FUNCTION refresh_courses_of_tag()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF NEW.name IS DISTINCT FROM OLD.name THEN
+        UPDATE courses c
+        SET search_vector = course_search_vector(c.id)
+        WHERE c.id IN (SELECT ct.course_id FROM course_tags ct WHERE ct.tag_id = NEW.id);
+    END IF;
+
+    UPDATE course_catalog cc
+    SET tags = s.tags, refreshed_at = CURRENT_TIMESTAMP
+    FROM course_catalog_source s
+    WHERE s.course_id = cc.course_id
+      AND cc.course_id IN (SELECT ct.course_id FROM course_tags ct WHERE ct.tag_id = NEW.id);
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_tags_refresh_courses ON tags;
+CREATE TRIGGER trg_tags_refresh_courses
+    AFTER UPDATE OF name, type, description ON tags
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name
+          OR OLD.type IS DISTINCT FROM NEW.type
+          OR OLD.description IS DISTINCT FROM NEW.description)
+    EXECUTE FUNCTION refresh_courses_of_tag();
@@ -0,0 +1,30 @@
+-- Full-text search over courses (title, code, tag names, objectives, description)
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+-- Builds the weighted search document of a course; kept in the database so the
+-- backfill below and the application refresh use exactly the same definition
+CREATE OR REPLACE FUNCTION course_search_vector(p_course_id BIGINT)
+RETURNS tsvector
+LANGUAGE sql
+STABLE
+AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(c.title, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(c.code, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce((
+                SELECT string_agg(t.name, ' ')
+                FROM course_tags ct
+                JOIN tags t ON t.id = ct.tag_id
+                WHERE ct.course_id = c.id), '')), 'B')
+        || setweight(to_tsvector('simple', coalesce(c.objectives, '')), 'C')
+        || setweight(to_tsvector('simple', coalesce(c.description, '')), 'D')
+    FROM courses c
+    WHERE c.id = p_course_id
+$$;
+
+UPDATE courses SET search_vector = course_search_vector(id);
+
+CREATE INDEX IF NOT EXISTS idx_courses_search_vector ON courses USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_courses_title_trgm ON courses USING GIN (lower(title) gin_trgm_ops);
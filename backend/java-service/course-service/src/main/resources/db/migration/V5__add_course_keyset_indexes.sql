@@ -0,0 +1,5 @@
+-- Indexes backing keyset (cursor) pagination of course listings
+
+CREATE INDEX IF NOT EXISTS idx_courses_status_published_id ON courses(status, published_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_courses_semester_id ON courses(semester, id DESC);
+CREATE INDEX IF NOT EXISTS idx_courses_instructor_id_id ON courses(instructor_id, id DESC);
@@ -0,0 +1,25 @@
+-- Incrementally maintained per-course enrollment counters
+-- Replaces GROUP BY / COUNT(*) scans over enrollments on catalog and stats reads
+
+CREATE TABLE IF NOT EXISTS course_enrollment_stats (
+    course_id BIGINT PRIMARY KEY REFERENCES courses(id) ON DELETE CASCADE,
+    total_count BIGINT NOT NULL DEFAULT 0,
+    current_count BIGINT NOT NULL DEFAULT 0,
+    active_count BIGINT NOT NULL DEFAULT 0,
+    completed_count BIGINT NOT NULL DEFAULT 0,
+    active_progress_sum BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Backfill from existing enrollments
+INSERT INTO course_enrollment_stats (course_id, total_count, current_count, active_count, completed_count, active_progress_sum)
+SELECT c.id,
+       COUNT(e.id),
+       COUNT(e.id) FILTER (WHERE e.status <> 'DROPPED'),
+       COUNT(e.id) FILTER (WHERE e.status = 'ACTIVE'),
+       COUNT(e.id) FILTER (WHERE e.status = 'COMPLETED'),
+       COALESCE(SUM(e.progress) FILTER (WHERE e.status = 'ACTIVE'), 0)
+FROM courses c
+LEFT JOIN enrollments e ON e.course_id = c.id
+GROUP BY c.id
+ON CONFLICT (course_id) DO NOTHING;
@@ -0,0 +1,19 @@
+-- Transactional outbox: events are written in the same transaction as the state change
+-- and relayed to RabbitMQ by a background job (at-least-once delivery)
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_id BIGINT,
+    event_type VARCHAR(100) NOT NULL,
+    exchange VARCHAR(255) NOT NULL,
+    routing_key VARCHAR(255) NOT NULL,
+    type_id VARCHAR(255),
+    payload TEXT NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Relay polls in id order among rows that are due
+CREATE INDEX IF NOT EXISTS idx_outbox_events_available ON outbox_events(available_at, id);
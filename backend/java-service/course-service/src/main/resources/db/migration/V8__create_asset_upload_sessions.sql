@@ -0,0 +1,22 @@
+-- Resumable (chunked) lesson asset uploads
+-- The bytes live in a staging file; this row records how many of them have been received
+
+CREATE TABLE IF NOT EXISTS asset_upload_sessions (
+    id VARCHAR(36) PRIMARY KEY,
+    lesson_id BIGINT NOT NULL REFERENCES lessons(id) ON DELETE CASCADE,
+    instructor_id BIGINT NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    mime_type VARCHAR(100) NOT NULL,
+    total_size BIGINT NOT NULL CHECK (total_size > 0),
+    received_bytes BIGINT NOT NULL DEFAULT 0,
+    expected_checksum VARCHAR(255),
+    status VARCHAR(20) NOT NULL DEFAULT 'IN_PROGRESS',
+    asset_id BIGINT REFERENCES asset_metadata(id) ON DELETE SET NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT chk_upload_received CHECK (received_bytes >= 0 AND received_bytes <= total_size),
+    CONSTRAINT chk_upload_status CHECK (status IN ('IN_PROGRESS','COMPLETED','ABORTED'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_asset_upload_sessions_expiry ON asset_upload_sessions(status, expires_at);
@@ -0,0 +1,14 @@
+-- Chapters and lessons are ordered by sequences spaced 1024 apart, so an item can be moved
+-- between two neighbours by updating only its own row
+
+UPDATE chapters c
+SET sequence = r.position * 1024
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY version_id ORDER BY sequence, id) AS position
+      FROM chapters) r
+WHERE c.id = r.id;
+
+UPDATE lessons l
+SET sequence = r.position * 1024
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY chapter_id ORDER BY sequence, id) AS position
+      FROM lessons) r
+WHERE l.id = r.id;
@@ -0,0 +1,218 @@
+package ITS.com.vn.course_service.controller;
+
+import ITS.com.vn.course_service.service.AssetDeliveryService;
+import ITS.com.vn.course_service.service.AssetDeliveryService.AssetDownload;
+import ITS.com.vn.course_service.service.impl.LocalAssetStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AssetControllerTest {
+
+    private static final String URL = "/api/v1/lessons/12/assets/34/content";
+    private static final String ETAG = "\"sha256:abc\"";
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+    private static final int SIZE = 1000;
+
+    @TempDir
+    Path tempDir;
+
+    private final AssetDeliveryService assetDeliveryService = mock(AssetDeliveryService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AssetController(assetDeliveryService))
+            .build();
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        content = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            content[i] = (byte) i;
+        }
+        Path file = tempDir.resolve("lessons/12/intro.mp4");
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+
+        when(assetDeliveryService.getAsset(12L, 34L)).thenReturn(new AssetDownload("local://lessons/12/intro.mp4",
+                "video/mp4", "intro.mp4", SIZE, ETAG, LAST_MODIFIED, new LocalAssetStorage(tempDir.toString())));
+    }
+
+    @Test
+    void fullContentIsStreamedWithValidators() throws Exception {
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED / 1000 * 1000))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, SIZE))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "video/mp4"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void singleRangeIsServedAsPartialContent() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-99"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-99/1000"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+                .andExpect(content().bytes(slice(0, 100)));
+    }
+
+    @Test
+    void suffixRangeServesTheEndOfTheFile() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=-100"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 900-999/1000"))
+                .andExpect(content().bytes(slice(900, 1000)));
+    }
+
+    @Test
+    void openEndedRangeIsClampedToTheFileSize() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=990-5000"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 990-999/1000"))
+                .andExpect(content().bytes(slice(990, 1000)));
+    }
+
+    @Test
+    void multipleRangesFallBackToTheFullContent() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-9,20-29"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void malformedRangeFallsBackToTheFullContent() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "items=0-9"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void rangeBeyondTheEndIsNotSatisfiable() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=1000-1999"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */1000"))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void rangeIsHonouredOnlyWhileIfRangeMatches() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-99").header(HttpHeaders.IF_RANGE, ETAG))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(slice(0, 100)));
+
+        // The asset changed since the client cached the first part: send everything
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-99").header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void ifRangeDateMustMatchTheLastModifiedTime() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setDate(HttpHeaders.IF_RANGE, LAST_MODIFIED);
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-99").headers(headers))
+                .andExpect(status().isPartialContent());
+
+        headers.setDate(HttpHeaders.IF_RANGE, LAST_MODIFIED - 60_000);
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-99").headers(headers))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void resumeFromAnotherVersionIsAPreconditionFailure() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-99").header(HttpHeaders.IF_MATCH, "\"other\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-99")
+                        .header(HttpHeaders.IF_MATCH, "\"other\", " + ETAG))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(slice(0, 100)));
+    }
+
+    @Test
+    void assetModifiedAfterIfUnmodifiedSinceIsAPreconditionFailure() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setDate(HttpHeaders.IF_UNMODIFIED_SINCE, LAST_MODIFIED - 60_000);
+        mockMvc.perform(get(URL).headers(headers))
+                .andExpect(status().isPreconditionFailed());
+
+        headers.setDate(HttpHeaders.IF_UNMODIFIED_SINCE, LAST_MODIFIED);
+        mockMvc.perform(get(URL).headers(headers))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void headSendsHeadersWithoutABody() throws Exception {
+        mockMvc.perform(head(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, SIZE))
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(head(URL).header(HttpHeaders.RANGE, "bytes=0-99"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-99/1000"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void localFileIsHandedToSendfileWhenTheConnectorSupportsIt() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=100-199")
+                        .requestAttr("org.apache.tomcat.sendfile.support", true))
+                .andExpect(status().isPartialContent())
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename",
+                        tempDir.resolve("lessons/12/intro.mp4").toAbsolutePath().normalize().toString()))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.start", 100L))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.end", 200L))
+                // Tomcat writes the body itself after the handler returns
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void bodyIsCopiedWithoutSendfileSupport() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=100-199"))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename", nullValue()))
+                .andExpect(content().bytes(slice(100, 200)));
+    }
+
+    private byte[] slice(int from, int to) {
+        return Arrays.copyOfRange(content, from, to);
+    }
+}
@@ -0,0 +1,78 @@
+package ITS.com.vn.course_service.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalResponsesTest {
+
+    private static final String ETAG = "\"0123456789abcdef\"";
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/courses/1");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<String> body = () -> {
+        loads.incrementAndGet();
+        return "body";
+    };
+
+    @Test
+    void matchingIfNoneMatchAnswersNotModifiedWithoutLoadingTheBody() {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+
+        ResponseEntity<String> entity = ConditionalResponses.withETag(webRequest(), ETAG, body);
+
+        assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(entity.getBody()).isNull();
+        assertThat(entity.getHeaders().getCacheControl()).isEqualTo("no-cache, private");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    void staleIfNoneMatchLoadsTheBody() {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"fedcba9876543210\"");
+
+        ResponseEntity<String> entity = ConditionalResponses.withETag(webRequest(), ETAG, body);
+
+        assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(entity.getBody()).isEqualTo("body");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void requestWithoutValidatorLoadsTheBodyWithItsETag() {
+        ResponseEntity<String> entity = ConditionalResponses.withETag(webRequest(), ETAG, body);
+
+        assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(entity.getHeaders().getCacheControl()).isEqualTo("no-cache, private");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void unknownETagAlwaysLoadsTheBody() {
+        // A missing resource has no tag; the regular read answers 404
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+
+        ResponseEntity<String> entity = ConditionalResponses.withETag(webRequest(), null, body);
+
+        assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(loads).hasValue(1);
+    }
+
+    private ServletWebRequest webRequest() {
+        return new ServletWebRequest(request, response);
+    }
+}
@@ -0,0 +1,139 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.enums.AdaptiveAction;
+import ITS.com.vn.course_service.dto.request.EvaluateAdaptiveRulesRequest;
+import ITS.com.vn.course_service.dto.response.AdaptiveDecisionResponse;
+import ITS.com.vn.course_service.exception.ResourceNotFoundException;
+import ITS.com.vn.course_service.repository.AdaptiveRuleRepository;
+import ITS.com.vn.course_service.repository.AdaptiveRuleRepository.RuleDefinition;
+import ITS.com.vn.course_service.repository.LessonRepository;
+import ITS.com.vn.course_service.service.adaptive.CompiledRuleSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdaptiveRuleServiceTest {
+
+    private static final Long LESSON_ID = 10L;
+
+    private final AdaptiveRuleRepository adaptiveRuleRepository = mock(AdaptiveRuleRepository.class);
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final AdaptiveRuleService service = service(Duration.ofHours(1));
+
+    @BeforeEach
+    void setUp() {
+        when(lessonRepository.existsById(anyLong())).thenReturn(true);
+        when(adaptiveRuleRepository.findRulesStamp(anyLong())).thenReturn("stamp-1");
+        rules(List.of(rule(1L, "score < 50", "REDIRECT_TO_REMEDIATION", 11L)));
+    }
+
+    @Test
+    void firstMatchingRuleDecides() {
+        rules(List.of(rule(1L, "score < 50", "REDIRECT_TO_REMEDIATION", 11L),
+                rule(2L, "score < 80", "REPEAT_LESSON", null),
+                rule(3L, "score >= 90", "UNLOCK_CHALLENGE", 12L)));
+
+        assertThat(evaluate(service, 40)).extracting(AdaptiveDecisionResponse::getAction,
+                AdaptiveDecisionResponse::getNextLessonId).containsExactly(AdaptiveAction.REDIRECT_TO_REMEDIATION, 11L);
+        assertThat(evaluate(service, 70)).extracting(AdaptiveDecisionResponse::getAction,
+                AdaptiveDecisionResponse::getNextLessonId).containsExactly(AdaptiveAction.REPEAT_LESSON, LESSON_ID);
+        assertThat(evaluate(service, 85).getAction()).isEqualTo(AdaptiveAction.CONTINUE);
+    }
+
+    @Test
+    void rulesWithoutTheirTargetOrInvalidAreSkipped() {
+        rules(List.of(rule(1L, "score < 50", "REDIRECT_TO_REMEDIATION", null),
+                rule(2L, "score <", "REPEAT_LESSON", null),
+                rule(3L, "score < 60", "REPEAT_LESSON", null)));
+
+        assertThat(service.getCompiledRules(LESSON_ID).size()).isEqualTo(1);
+        assertThat(evaluate(service, 40).getRuleId()).isEqualTo(3L);
+    }
+
+    @Test
+    void recentlyValidatedRulesAreServedWithoutQueries() {
+        CompiledRuleSet first = service.getCompiledRules(LESSON_ID);
+
+        assertThat(service.getCompiledRules(LESSON_ID)).isSameAs(first);
+        verify(adaptiveRuleRepository, times(1)).findRulesStamp(LESSON_ID);
+        verify(adaptiveRuleRepository, times(1)).findDefinitionsBySourceLessonId(LESSON_ID);
+    }
+
+    @Test
+    void staleRulesAreKeptWhenTheirStampIsUnchanged() {
+        AdaptiveRuleService revalidating = service(Duration.ZERO);
+        CompiledRuleSet first = revalidating.getCompiledRules(LESSON_ID);
+
+        assertThat(revalidating.getCompiledRules(LESSON_ID)).isSameAs(first);
+        verify(adaptiveRuleRepository, times(2)).findRulesStamp(LESSON_ID);
+        verify(adaptiveRuleRepository, times(1)).findDefinitionsBySourceLessonId(LESSON_ID);
+    }
+
+    @Test
+    void ruleCreatedOnAnotherInstanceIsPickedUp() {
+        AdaptiveRuleService revalidating = service(Duration.ZERO);
+        assertThat(evaluate(revalidating, 70).getAction()).isEqualTo(AdaptiveAction.CONTINUE);
+
+        // No eviction reaches this instance, only the rows change
+        when(adaptiveRuleRepository.findRulesStamp(LESSON_ID)).thenReturn("stamp-2");
+        rules(List.of(rule(1L, "score < 50", "REDIRECT_TO_REMEDIATION", 11L),
+                rule(2L, "score < 80", "REPEAT_LESSON", null)));
+
+        assertThat(evaluate(revalidating, 70).getAction()).isEqualTo(AdaptiveAction.REPEAT_LESSON);
+    }
+
+    @Test
+    void evictedRulesAreRecompiled() {
+        CompiledRuleSet first = service.getCompiledRules(LESSON_ID);
+
+        service.evict(LESSON_ID);
+        CompiledRuleSet second = service.getCompiledRules(LESSON_ID);
+        service.evictAll();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(service.getCompiledRules(LESSON_ID)).isNotSameAs(second);
+        verify(adaptiveRuleRepository, times(3)).findDefinitionsBySourceLessonId(LESSON_ID);
+    }
+
+    @Test
+    void missingLessonIsNotCached() {
+        rules(List.of());
+        when(lessonRepository.existsById(9L)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.getCompiledRules(9L)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> service.getCompiledRules(9L)).isInstanceOf(ResourceNotFoundException.class);
+        verify(lessonRepository, times(2)).existsById(9L);
+    }
+
+    private AdaptiveRuleService service(Duration validateAfter) {
+        return new AdaptiveRuleService(adaptiveRuleRepository, lessonRepository, new NoOpTransactionManager(), 100,
+                validateAfter);
+    }
+
+    private void rules(List<RuleDefinition> definitions) {
+        when(adaptiveRuleRepository.findDefinitionsBySourceLessonId(anyLong())).thenReturn(definitions);
+    }
+
+    private static AdaptiveDecisionResponse evaluate(AdaptiveRuleService service, double score) {
+        return service.evaluate(LESSON_ID, EvaluateAdaptiveRulesRequest.builder().score(score).build());
+    }
+
+    private static RuleDefinition rule(Long id, String condition, String action, Long targetLessonId) {
+        RuleDefinition rule = mock(RuleDefinition.class);
+        when(rule.getId()).thenReturn(id);
+        when(rule.getCondition()).thenReturn(condition);
+        when(rule.getAction()).thenReturn(action);
+        when(rule.getTargetLessonId()).thenReturn(targetLessonId);
+        return rule;
+    }
+}
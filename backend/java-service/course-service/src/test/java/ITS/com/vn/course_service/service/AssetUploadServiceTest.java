@@ -0,0 +1,151 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.AssetUploadSession;
+import ITS.com.vn.course_service.domain.entity.Chapter;
+import ITS.com.vn.course_service.domain.entity.Course;
+import ITS.com.vn.course_service.domain.entity.CourseVersion;
+import ITS.com.vn.course_service.domain.entity.Lesson;
+import ITS.com.vn.course_service.domain.enums.UploadStatus;
+import ITS.com.vn.course_service.dto.request.CreateAssetUploadRequest;
+import ITS.com.vn.course_service.dto.response.AssetUploadResponse;
+import ITS.com.vn.course_service.mapper.CourseMapper;
+import ITS.com.vn.course_service.repository.AssetMetadataRepository;
+import ITS.com.vn.course_service.repository.AssetUploadSessionRepository;
+import ITS.com.vn.course_service.repository.LessonRepository;
+import ITS.com.vn.course_service.service.impl.LocalAssetStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AssetUploadServiceTest {
+
+    private static final Long LESSON_ID = 12L;
+    private static final Long INSTRUCTOR_ID = 7L;
+    private static final byte[] CONTENT = "lesson video bytes".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    private final AssetUploadSessionRepository sessionRepository = mock(AssetUploadSessionRepository.class);
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final AssetMetadataRepository assetMetadataRepository = mock(AssetMetadataRepository.class);
+    private final Map<String, AssetUploadSession> sessions = new HashMap<>();
+
+    private Path stagingDir;
+    private Path storageDir;
+    private AssetUploadService service;
+
+    @BeforeEach
+    void setUp() {
+        stagingDir = tempDir.resolve("uploads");
+        storageDir = tempDir.resolve("assets");
+        service = new AssetUploadService(sessionRepository, lessonRepository, assetMetadataRepository,
+                new LocalAssetStorage(storageDir.toString()), mock(CourseMapper.class),
+                new TransactionTemplate(new NoOpTransactionManager()), stagingDir.toString(),
+                DataSize.ofMegabytes(1), Duration.ofHours(1));
+
+        Lesson lesson = Lesson.builder()
+                .id(LESSON_ID)
+                .chapter(Chapter.builder()
+                        .version(CourseVersion.builder()
+                                .course(Course.builder().id(3L).instructorId(INSTRUCTOR_ID).build())
+                                .build())
+                        .build())
+                .build();
+        when(lessonRepository.findById(LESSON_ID)).thenReturn(Optional.of(lesson));
+        when(sessionRepository.save(any())).thenAnswer(invocation -> {
+            AssetUploadSession session = invocation.getArgument(0);
+            sessions.put(session.getId(), session);
+            return session;
+        });
+        when(sessionRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(sessions.get(invocation.<String>getArgument(0))));
+        when(sessionRepository.advanceOffset(anyString(), anyLong(), anyLong(), eq(UploadStatus.IN_PROGRESS)))
+                .thenAnswer(invocation -> {
+                    AssetUploadSession session = sessions.get(invocation.<String>getArgument(0));
+                    session.setReceivedBytes(invocation.getArgument(2));
+                    return 1;
+                });
+    }
+
+    @Test
+    void completedUploadIsMovedIntoStorage() throws IOException {
+        when(assetMetadataRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        String uploadId = start();
+
+        AssetUploadResponse response = service.appendChunk(LESSON_ID, uploadId, 0,
+                new ByteArrayInputStream(CONTENT), INSTRUCTOR_ID);
+
+        assertThat(response.getReceivedBytes()).isEqualTo(CONTENT.length);
+        assertThat(sessions.get(uploadId).getStatus()).isEqualTo(UploadStatus.COMPLETED);
+        assertThat(Files.exists(stagingDir.resolve(uploadId + ".part"))).isFalse();
+        assertThat(Files.readAllBytes(storedFile(uploadId))).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void failedCompletionRestoresStagingFileAndCanBeRetried() throws IOException {
+        when(assetMetadataRepository.save(any()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        String uploadId = start();
+
+        assertThatThrownBy(() -> service.appendChunk(LESSON_ID, uploadId, 0,
+                new ByteArrayInputStream(CONTENT), INSTRUCTOR_ID))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(sessions.get(uploadId).getStatus()).isEqualTo(UploadStatus.IN_PROGRESS);
+        assertThat(Files.readAllBytes(stagingDir.resolve(uploadId + ".part"))).isEqualTo(CONTENT);
+        assertThat(storedFiles()).isEmpty();
+
+        // Retrying at the final offset completes with the bytes already received
+        service.appendChunk(LESSON_ID, uploadId, CONTENT.length, new ByteArrayInputStream(new byte[0]),
+                INSTRUCTOR_ID);
+
+        assertThat(sessions.get(uploadId).getStatus()).isEqualTo(UploadStatus.COMPLETED);
+        assertThat(Files.readAllBytes(storedFile(uploadId))).isEqualTo(CONTENT);
+    }
+
+    private String start() {
+        CreateAssetUploadRequest request = new CreateAssetUploadRequest();
+        request.setFileName("intro.mp4");
+        request.setMimeType("video/mp4");
+        request.setTotalSize((long) CONTENT.length);
+        return service.startUpload(LESSON_ID, request, INSTRUCTOR_ID).getUploadId();
+    }
+
+    private Path storedFile(String uploadId) {
+        return storageDir.resolve("lessons/" + LESSON_ID + "/" + uploadId + "/intro.mp4");
+    }
+
+    private Stream<Path> storedFiles() throws IOException {
+        if (!Files.exists(storageDir)) {
+            return Stream.empty();
+        }
+        try (Stream<Path> files = Files.walk(storageDir)) {
+            return files.filter(Files::isRegularFile).toList().stream();
+        }
+    }
+}
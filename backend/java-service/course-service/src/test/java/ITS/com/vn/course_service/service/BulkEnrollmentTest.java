@@ -0,0 +1,85 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.Course;
+import ITS.com.vn.course_service.domain.entity.CourseEnrollmentStats;
+import ITS.com.vn.course_service.dto.response.BulkEnrollmentResponse;
+import ITS.com.vn.course_service.repository.CourseEnrollmentStatsRepository;
+import ITS.com.vn.course_service.repository.CourseRepository;
+import ITS.com.vn.course_service.repository.EnrollmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Roster enrollment writes the rows and the seat counter together: a roster either fits the
+ * remaining seats and is enrolled at once, or nothing is written. Needs Docker (skipped otherwise).
+ */
+class BulkEnrollmentTest extends MockedEventsIntegrationTest {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseEnrollmentStatsRepository statsRepository;
+
+    @Test
+    void rosterFillsRemainingSeatsAllOrNothing() {
+        Long courseId = createCourse(5);
+
+        BulkEnrollmentResponse first = enrollmentService.enrollStudents(courseId, List.of(1L, 2L, 3L), 1L);
+        assertThat(first.getEnrolledStudentIds()).containsExactlyInAnyOrder(1L, 2L, 3L);
+
+        // Three new students, two seats left: nobody from this roster is enrolled
+        assertThatThrownBy(() -> enrollmentService.enrollStudents(courseId, List.of(3L, 4L, 5L, 6L), 1L))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(enrollmentRepository.countActiveByCourseId(courseId)).isEqualTo(3);
+
+        BulkEnrollmentResponse second = enrollmentService.enrollStudents(courseId, List.of(3L, 4L, 5L), 1L);
+        assertThat(second.getEnrolledStudentIds()).containsExactlyInAnyOrder(4L, 5L);
+        assertThat(second.getAlreadyEnrolledStudentIds()).containsExactly(3L);
+
+        assertThat(enrollmentRepository.countActiveByCourseId(courseId)).isEqualTo(5);
+        assertThat(statsRepository.findById(courseId))
+                .get()
+                .extracting(CourseEnrollmentStats::getActiveCount)
+                .isEqualTo(5L);
+    }
+
+    @Test
+    void largeCsvRosterIsEnrolledInOneCall() {
+        Long courseId = createCourse(null);
+        StringBuilder csv = new StringBuilder("student_id,name\n");
+        LongStream.rangeClosed(10_001, 12_000).forEach(id -> csv.append(id).append(",Student ").append(id).append('\n'));
+
+        BulkEnrollmentResponse response = enrollmentService.enrollStudentsFromCsv(courseId,
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), 1L);
+
+        assertThat(response.getEnrolledCount()).isEqualTo(2_000);
+        assertThat(enrollmentRepository.countActiveByCourseId(courseId)).isEqualTo(2_000);
+        assertThat(statsRepository.findById(courseId))
+                .get()
+                .extracting(CourseEnrollmentStats::getActiveCount)
+                .isEqualTo(2_000L);
+    }
+
+    private Long createCourse(Integer maxStudents) {
+        return courseRepository.save(Course.builder()
+                .title("Bulk enrollment test")
+                .instructorId(1L)
+                .maxStudents(maxStudents)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,91 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.repository.ContentFingerprintRepository;
+import ITS.com.vn.course_service.repository.ContentFingerprintRepository.LessonFingerprint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ContentETagServiceTest {
+
+    private static final Long VERSION_ID = 3L;
+
+    private final ContentFingerprintRepository fingerprintRepository = mock(ContentFingerprintRepository.class);
+    private final LessonNavigationService lessonNavigationService = mock(LessonNavigationService.class);
+    private final ContentETagService service = new ContentETagService(fingerprintRepository, lessonNavigationService);
+
+    @BeforeEach
+    void setUp() {
+        // The viewers have no enrollment: the fingerprint is the same for both
+        when(fingerprintRepository.findCourseFingerprint(anyLong(), any())).thenReturn(Optional.of("1|2||"));
+        when(fingerprintRepository.findLessonFingerprint(anyLong(), any()))
+                .thenReturn(Optional.of(new LessonFingerprint(VERSION_ID, "1|a|b||")));
+        when(lessonNavigationService.getNavigation(VERSION_ID)).thenReturn(navigation(10L, 11L, 12L));
+    }
+
+    @Test
+    void courseTagsAreStrongAndStable() {
+        String eTag = service.getCourseETag(1L, 5L);
+
+        assertThat(eTag).matches("\"[0-9a-f]{32}\"");
+        assertThat(service.getCourseETag(1L, 5L)).isEqualTo(eTag);
+    }
+
+    @Test
+    void viewersGetTheirOwnCourseAndLessonTags() {
+        assertThat(service.getCourseETag(1L, 5L))
+                .isNotEqualTo(service.getCourseETag(1L, 6L))
+                .isNotEqualTo(service.getCourseETag(1L, null));
+        assertThat(service.getLessonETag(11L, 5L))
+                .isNotEqualTo(service.getLessonETag(11L, 6L))
+                .isNotEqualTo(service.getLessonETag(11L, null));
+    }
+
+    @Test
+    void sameFingerprintOfAnotherResourceGetsAnotherTag() {
+        when(fingerprintRepository.findChapterFingerprint(anyLong())).thenReturn(Optional.of("1|x"));
+        when(fingerprintRepository.findLessonListFingerprint(anyLong())).thenReturn(Optional.of("1|x"));
+
+        assertThat(service.getChapterETag(1L))
+                .isNotEqualTo(service.getChapterETag(2L))
+                .isNotEqualTo(service.getLessonListETag(1L));
+    }
+
+    @Test
+    void lessonTagChangesWithItsNeighbours() {
+        String eTag = service.getLessonETag(11L, 5L);
+
+        // A lesson inserted before this one changes its "previous" link only
+        when(lessonNavigationService.getNavigation(VERSION_ID)).thenReturn(navigation(10L, 13L, 11L, 12L));
+
+        assertThat(service.getLessonETag(11L, 5L)).isNotEqualTo(eTag);
+    }
+
+    @Test
+    void missingResourcesHaveNoTag() {
+        when(fingerprintRepository.findCourseFingerprint(9L, 5L)).thenReturn(Optional.empty());
+        when(fingerprintRepository.findLessonFingerprint(9L, 5L)).thenReturn(Optional.empty());
+
+        assertThat(service.getCourseETag(9L, 5L)).isNull();
+        assertThat(service.getLessonETag(9L, 5L)).isNull();
+        assertThat(service.getChapterListETag(9L)).isNull();
+    }
+
+    private static LessonNavigation navigation(long... lessonIds) {
+        UUID[] keys = new UUID[lessonIds.length];
+        long[] chapterIds = new long[lessonIds.length];
+        for (int i = 0; i < lessonIds.length; i++) {
+            keys[i] = UUID.randomUUID();
+            chapterIds[i] = 1L;
+        }
+        return new LessonNavigation(VERSION_ID, lessonIds, keys, chapterIds);
+    }
+}
@@ -0,0 +1,176 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.AssetMetadata;
+import ITS.com.vn.course_service.domain.enums.CourseVisibility;
+import ITS.com.vn.course_service.domain.enums.LessonType;
+import ITS.com.vn.course_service.dto.request.CreateChapterRequest;
+import ITS.com.vn.course_service.dto.request.CreateCourseRequest;
+import ITS.com.vn.course_service.dto.request.CreateLessonRequest;
+import ITS.com.vn.course_service.repository.AssetMetadataRepository;
+import ITS.com.vn.course_service.repository.LessonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ETags built from the fingerprint queries change with every committed write to the rows a
+ * response is mapped from, and only with those. Needs Docker (skipped otherwise).
+ */
+class ContentETagWriteTest extends MockedEventsIntegrationTest {
+
+    private static final Long INSTRUCTOR_ID = 601L;
+    private static final Long STUDENT_ID = 611L;
+    private static final Long OTHER_STUDENT_ID = 612L;
+
+    @Autowired
+    private ContentETagService contentETagService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private ChapterService chapterService;
+
+    @Autowired
+    private LessonService lessonService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private AssetMetadataRepository assetMetadataRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    private Long courseId;
+    private Long chapterId;
+    private Long lessonId;
+
+    @BeforeEach
+    void createCourse() {
+        courseId = courseService.createCourse(CreateCourseRequest.builder()
+                .title("ETag test")
+                .visibility(CourseVisibility.PUBLIC)
+                .build(), INSTRUCTOR_ID).getId();
+        chapterId = chapterService.createChapter(courseId, chapter("Basics"), INSTRUCTOR_ID).getId();
+        lessonId = lessonService.createLesson(chapterId, lesson("First steps"), INSTRUCTOR_ID).getId();
+    }
+
+    @Test
+    void lessonWriteChangesEveryTagThatShowsTheLesson() {
+        Tags before = tags();
+
+        lessonService.updateLesson(lessonId, lesson("First steps, revised"), INSTRUCTOR_ID);
+
+        Tags after = tags();
+        assertThat(after.chapters()).isNotEqualTo(before.chapters());
+        assertThat(after.chapter()).isNotEqualTo(before.chapter());
+        assertThat(after.lessons()).isNotEqualTo(before.lessons());
+        assertThat(after.lesson()).isNotEqualTo(before.lesson());
+    }
+
+    @Test
+    void newLessonChangesTheListsAndItsNeighboursNavigation() {
+        Tags before = tags();
+
+        lessonService.createLesson(chapterId, lesson("Second steps"), INSTRUCTOR_ID);
+
+        Tags after = tags();
+        assertThat(after.chapters()).isNotEqualTo(before.chapters());
+        assertThat(after.lessons()).isNotEqualTo(before.lessons());
+        // The first lesson now has a "next" link
+        assertThat(after.lesson()).isNotEqualTo(before.lesson());
+    }
+
+    @Test
+    void chapterWriteChangesChapterTagsOnly() {
+        Tags before = tags();
+
+        chapterService.updateChapter(chapterId, chapter("Basics, revised"), INSTRUCTOR_ID);
+
+        Tags after = tags();
+        assertThat(after.chapters()).isNotEqualTo(before.chapters());
+        assertThat(after.chapter()).isNotEqualTo(before.chapter());
+        assertThat(after.lessons()).isEqualTo(before.lessons());
+        assertThat(after.lesson()).isEqualTo(before.lesson());
+    }
+
+    @Test
+    void assetUploadChangesTheLessonTagOnly() {
+        Tags before = tags();
+
+        assetMetadataRepository.save(AssetMetadata.builder()
+                .lesson(lessonRepository.findById(lessonId).orElseThrow())
+                .storageUrl("local://lessons/" + lessonId + "/intro.mp4")
+                .mimeType("video/mp4")
+                .sizeBytes(1000L)
+                .build());
+
+        Tags after = tags();
+        assertThat(after.lesson()).isNotEqualTo(before.lesson());
+        assertThat(after.chapter()).isEqualTo(before.chapter());
+        assertThat(after.lessons()).isEqualTo(before.lessons());
+    }
+
+    @Test
+    void enrollmentWritesChangeTheViewersTags() {
+        String course = contentETagService.getCourseETag(courseId, STUDENT_ID);
+        String lesson = contentETagService.getLessonETag(lessonId, STUDENT_ID);
+        String otherLesson = contentETagService.getLessonETag(lessonId, OTHER_STUDENT_ID);
+
+        Long enrollmentId = enrollmentService.enrollStudent(courseId, STUDENT_ID).getId();
+
+        String enrolledCourse = contentETagService.getCourseETag(courseId, STUDENT_ID);
+        String enrolledLesson = contentETagService.getLessonETag(lessonId, STUDENT_ID);
+        assertThat(enrolledCourse).isNotEqualTo(course);
+        assertThat(enrolledLesson).isNotEqualTo(lesson);
+        assertThat(contentETagService.getLessonETag(lessonId, OTHER_STUDENT_ID)).isEqualTo(otherLesson);
+
+        enrollmentService.dropEnrollment(enrollmentId, STUDENT_ID);
+
+        assertThat(contentETagService.getCourseETag(courseId, STUDENT_ID)).isNotEqualTo(enrolledCourse);
+        assertThat(contentETagService.getLessonETag(lessonId, STUDENT_ID)).isNotEqualTo(enrolledLesson);
+    }
+
+    @Test
+    void viewersGetDifferentTagsForTheSameContent() {
+        assertThat(contentETagService.getCourseETag(courseId, STUDENT_ID))
+                .isNotEqualTo(contentETagService.getCourseETag(courseId, OTHER_STUDENT_ID));
+        assertThat(contentETagService.getLessonETag(lessonId, STUDENT_ID))
+                .isNotEqualTo(contentETagService.getLessonETag(lessonId, OTHER_STUDENT_ID));
+    }
+
+    @Test
+    void unchangedContentKeepsItsTags() {
+        assertThat(tags()).isEqualTo(tags());
+        assertThat(contentETagService.getCourseETag(courseId, STUDENT_ID))
+                .isEqualTo(contentETagService.getCourseETag(courseId, STUDENT_ID));
+    }
+
+    @Test
+    void missingResourcesHaveNoTag() {
+        assertThat(contentETagService.getCourseETag(-1L, STUDENT_ID)).isNull();
+        assertThat(contentETagService.getChapterETag(-1L)).isNull();
+        assertThat(contentETagService.getLessonListETag(-1L)).isNull();
+        assertThat(contentETagService.getLessonETag(-1L, STUDENT_ID)).isNull();
+    }
+
+    private Tags tags() {
+        return new Tags(contentETagService.getChapterListETag(courseId), contentETagService.getChapterETag(chapterId),
+                contentETagService.getLessonListETag(chapterId), contentETagService.getLessonETag(lessonId, null));
+    }
+
+    private static CreateChapterRequest chapter(String title) {
+        return CreateChapterRequest.builder().title(title).build();
+    }
+
+    private static CreateLessonRequest lesson(String title) {
+        return CreateLessonRequest.builder().title(title).type(LessonType.TEXT).content("Text").build();
+    }
+
+    private record Tags(String chapters, String chapter, String lessons, String lesson) {
+    }
+}
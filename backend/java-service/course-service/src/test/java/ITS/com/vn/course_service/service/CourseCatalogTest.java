@@ -0,0 +1,180 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.Tag;
+import ITS.com.vn.course_service.domain.enums.CourseStatus;
+import ITS.com.vn.course_service.domain.enums.CourseVisibility;
+import ITS.com.vn.course_service.domain.enums.LessonType;
+import ITS.com.vn.course_service.domain.enums.TagType;
+import ITS.com.vn.course_service.dto.request.CreateChapterRequest;
+import ITS.com.vn.course_service.dto.request.CreateCourseRequest;
+import ITS.com.vn.course_service.dto.request.CreateLessonRequest;
+import ITS.com.vn.course_service.dto.request.UpdateCourseRequest;
+import ITS.com.vn.course_service.dto.response.CourseResponse;
+import ITS.com.vn.course_service.dto.response.InstructorSummaryResponse;
+import ITS.com.vn.course_service.dto.response.TagResponse;
+import ITS.com.vn.course_service.repository.TagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Course writes keep the course_catalog read model in step, and catalog listings return the same
+ * responses the aggregate mapping (CourseMapper) produces. Needs Docker (skipped otherwise).
+ */
+class CourseCatalogTest extends MockedEventsIntegrationTest {
+
+    private static final Long INSTRUCTOR_ID = 701L;
+    private static final String SEMESTER = "CAT-2026";
+
+    @MockitoBean
+    private InstructorProfileService instructorProfileService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseCatalogService courseCatalogService;
+
+    @Autowired
+    private ChapterService chapterService;
+
+    @Autowired
+    private LessonService lessonService;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    private String instructorName = "Ada Lovelace";
+
+    @BeforeEach
+    void setUp() {
+        when(instructorProfileService.getInstructor(anyLong())).thenAnswer(invocation ->
+                instructor(invocation.getArgument(0)));
+        when(instructorProfileService.getInstructors(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().collect(Collectors.toMap(Function.identity(), this::instructor));
+        });
+    }
+
+    @Test
+    void listingMatchesTheMappedCourse() {
+        Long required = createCourse("Catalog basics", List.of(), List.of());
+        Tag topic = tag("catalog-topic");
+        Tag skill = tag("catalog-skill");
+        Long course = createCourse("Catalog advanced", List.of(topic.getId(), skill.getId()), List.of(required));
+
+        CourseResponse listed = listed(course);
+
+        assertThat(listed.getTags()).extracting(TagResponse::getName)
+                .containsExactlyInAnyOrder("catalog-topic", "catalog-skill");
+        assertThat(listed.getPrerequisites()).singleElement()
+                .satisfies(prerequisite -> assertThat(prerequisite.getRequiredCourseId()).isEqualTo(required));
+        assertThat(listed.getInstructor().getFullName()).isEqualTo("Ada Lovelace");
+        assertThat(listed)
+                .usingRecursiveComparison()
+                .ignoringCollectionOrder()
+                .isEqualTo(courseService.getCourseById(course));
+    }
+
+    @Test
+    void updatePublishAndArchiveRefreshTheCatalogRow() {
+        Tag first = tag("catalog-first");
+        Tag second = tag("catalog-second");
+        Long course = createCourse("Catalog lifecycle", List.of(first.getId()), List.of());
+
+        courseService.updateCourse(course, UpdateCourseRequest.builder()
+                .title("Catalog lifecycle, revised")
+                .maxStudents(30)
+                .tagIds(List.of(second.getId()))
+                .build(), INSTRUCTOR_ID);
+        CourseResponse updated = listed(course);
+        assertThat(updated.getTitle()).isEqualTo("Catalog lifecycle, revised");
+        assertThat(updated.getMaxStudents()).isEqualTo(30);
+        assertThat(updated.getTags()).extracting(TagResponse::getName).containsExactly("catalog-second");
+        assertThat(updated).usingRecursiveComparison().isEqualTo(courseService.getCourseById(course));
+        assertThat(published()).doesNotContain(course);
+
+        Long chapter = chapterService.createChapter(course, CreateChapterRequest.builder().title("Intro").build(),
+                INSTRUCTOR_ID).getId();
+        lessonService.createLesson(chapter, CreateLessonRequest.builder().title("Welcome").type(LessonType.TEXT)
+                .build(), INSTRUCTOR_ID);
+        courseService.publishCourse(course, INSTRUCTOR_ID);
+        CourseResponse published = listed(course);
+        assertThat(published.getStatus()).isEqualTo(CourseStatus.PUBLISHED);
+        assertThat(published.getPublishedAt()).isNotNull();
+        assertThat(published).usingRecursiveComparison().isEqualTo(courseService.getCourseById(course));
+        assertThat(published()).contains(course);
+
+        courseService.archiveCourse(course, INSTRUCTOR_ID);
+        assertThat(listed(course).getStatus()).isEqualTo(CourseStatus.ARCHIVED);
+        assertThat(published()).doesNotContain(course);
+    }
+
+    @Test
+    void instructorRefreshCopiesChangedProfiles() {
+        Long course = createCourse("Catalog instructor", List.of(), List.of());
+
+        instructorName = "Ada King";
+        courseCatalogService.refreshInstructors();
+
+        assertThat(courseCatalogService.getAllById(List.of(course))).singleElement()
+                .satisfies(listed -> {
+                    assertThat(listed.getInstructorName()).isEqualTo("Ada King");
+                    assertThat(listed.getInstructor().getFullName()).isEqualTo("Ada King");
+                });
+    }
+
+    private Long createCourse(String title, List<Long> tagIds, List<Long> prerequisiteCourseIds) {
+        return courseService.createCourse(CreateCourseRequest.builder()
+                .title(title)
+                .description(title + " description")
+                .visibility(CourseVisibility.PUBLIC)
+                .code("CAT")
+                .credits(3)
+                .semester(SEMESTER)
+                .tagIds(tagIds)
+                .prerequisiteCourseIds(prerequisiteCourseIds)
+                .build(), INSTRUCTOR_ID).getId();
+    }
+
+    private Tag tag(String name) {
+        return tagRepository.save(Tag.builder().name(name).type(TagType.TOPIC).description(name).build());
+    }
+
+    private CourseResponse listed(Long courseId) {
+        Map<Long, CourseResponse> byId = courseService.getCoursesByInstructor(INSTRUCTOR_ID,
+                        PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "createdAt")))
+                .stream()
+                .collect(Collectors.toMap(CourseResponse::getId, Function.identity()));
+        assertThat(byId).containsKey(courseId);
+        return byId.get(courseId);
+    }
+
+    private List<Long> published() {
+        return courseService.getPublishedCourses(PageRequest.of(0, 100), null, SEMESTER).stream()
+                .map(CourseResponse::getId)
+                .toList();
+    }
+
+    private InstructorSummaryResponse instructor(Long instructorId) {
+        return InstructorSummaryResponse.builder()
+                .id(instructorId)
+                .fullName(instructorName)
+                .avatarUrl("https://cdn.example.com/avatars/" + instructorId + ".png")
+                .build();
+    }
+}
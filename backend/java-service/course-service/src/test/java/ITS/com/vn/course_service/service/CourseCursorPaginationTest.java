@@ -0,0 +1,138 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.enums.CourseVisibility;
+import ITS.com.vn.course_service.dto.request.CreateCourseRequest;
+import ITS.com.vn.course_service.dto.response.CourseResponse;
+import ITS.com.vn.course_service.dto.response.CursorPageResponse;
+import ITS.com.vn.course_service.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Walking the cursor listings page by page must return every matching course exactly once, in
+ * keyset order, even when rows share a sort value or are inserted between pages. Needs Docker
+ * (skipped otherwise).
+ */
+class CourseCursorPaginationTest extends MockedEventsIntegrationTest {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void instructorListingPagesNewestFirstWithoutGapsOrDuplicates() {
+        Long instructorId = 301L;
+        List<Long> created = createCourses(instructorId, "Keyset walk", null, 7);
+
+        List<Long> walked = walk(cursor -> courseService.getCoursesByInstructorByCursor(instructorId, cursor, 3));
+
+        assertThat(walked).isEqualTo(created.stream().sorted(Comparator.reverseOrder()).toList());
+    }
+
+    @Test
+    void coursesCreatedBetweenPagesDoNotShiftLaterPages() {
+        Long instructorId = 302L;
+        List<Long> created = createCourses(instructorId, "Keyset insert", null, 5);
+
+        CursorPageResponse<CourseResponse> first = courseService.getCoursesByInstructorByCursor(instructorId, null, 2);
+        Long newer = createCourses(instructorId, "Keyset insert late", null, 1).get(0);
+
+        List<Long> walked = new ArrayList<>(ids(first));
+        walked.addAll(walk(first.getNextCursor(),
+                cursor -> courseService.getCoursesByInstructorByCursor(instructorId, cursor, 2)));
+
+        assertThat(walked).isEqualTo(created.stream().sorted(Comparator.reverseOrder()).toList());
+        assertThat(walked).doesNotContain(newer);
+    }
+
+    @Test
+    void publishedListingBreaksPublishedAtTiesById() {
+        String semester = "KS-2026";
+        List<Long> created = createCourses(303L, "Keyset published", semester, 5);
+        LocalDateTime older = LocalDateTime.of(2026, 1, 1, 8, 0);
+        LocalDateTime newer = older.plusDays(1);
+        // Three courses share one publication time
+        publish(created.get(0), older);
+        publish(created.get(1), newer);
+        publish(created.get(2), newer);
+        publish(created.get(3), newer);
+
+        List<Long> walked = walk(cursor -> courseService.getPublishedCoursesByCursor(cursor, 2, null, semester));
+
+        assertThat(walked).containsExactly(created.get(3), created.get(2), created.get(1), created.get(0));
+    }
+
+    @Test
+    void searchListingPagesMatchesOnly() {
+        Long instructorId = 304L;
+        List<Long> matching = createCourses(instructorId, "Wombat husbandry", null, 4);
+        createCourses(instructorId, "Unrelated", null, 2);
+
+        List<Long> walked = walk(cursor -> courseService.searchCoursesByCursor("wombat", cursor, 3));
+
+        assertThat(walked).isEqualTo(matching.stream().sorted(Comparator.reverseOrder()).toList());
+        assertThat(courseService.searchCoursesByCursor("  ", null, 3).getContent()).isEmpty();
+    }
+
+    @Test
+    void idCursorIsRejectedByPublishedListing() {
+        Long id = createCourses(305L, "Keyset cursor kind", null, 1).get(0);
+        String idCursor = new CourseCursor(null, id).encode();
+
+        assertThatThrownBy(() -> courseService.getPublishedCoursesByCursor(idCursor, 2, null, null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private List<Long> createCourses(Long instructorId, String title, String semester, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(courseService.createCourse(CreateCourseRequest.builder()
+                    .title(title + " " + i)
+                    .semester(semester)
+                    .visibility(CourseVisibility.PUBLIC)
+                    .build(), instructorId).getId());
+        }
+        return ids;
+    }
+
+    // Published state set directly, so that publication times can be chosen
+    private void publish(Long courseId, LocalDateTime publishedAt) {
+        jdbcTemplate.update("UPDATE courses SET status = 'PUBLISHED', published_at = ? WHERE id = ?",
+                Timestamp.valueOf(publishedAt), courseId);
+        jdbcTemplate.update("UPDATE course_catalog SET status = 'PUBLISHED', published_at = ? WHERE course_id = ?",
+                Timestamp.valueOf(publishedAt), courseId);
+    }
+
+    private static List<Long> walk(Function<String, CursorPageResponse<CourseResponse>> page) {
+        return walk(null, page);
+    }
+
+    private static List<Long> walk(String cursor, Function<String, CursorPageResponse<CourseResponse>> page) {
+        List<Long> ids = new ArrayList<>();
+        CursorPageResponse<CourseResponse> current;
+        do {
+            current = page.apply(cursor);
+            ids.addAll(ids(current));
+            cursor = current.getNextCursor();
+            assertThat(current.getHasNext()).isEqualTo(cursor != null);
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static List<Long> ids(CursorPageResponse<CourseResponse> page) {
+        return page.getContent().stream().map(CourseResponse::getId).toList();
+    }
+}
@@ -0,0 +1,49 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.dto.response.CourseResponse;
+import ITS.com.vn.course_service.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CourseCursorTest {
+
+    @Test
+    void idCursorRoundTrips() {
+        CourseResponse course = CourseResponse.builder().id(42L).publishedAt(LocalDateTime.now()).build();
+
+        CourseCursor cursor = CourseCursor.afterId(course);
+
+        assertThat(CourseCursor.decode(cursor.encode())).isEqualTo(new CourseCursor(null, 42L));
+    }
+
+    @Test
+    void publishedCursorRoundTripsWithFullPrecision() {
+        LocalDateTime publishedAt = LocalDateTime.of(2026, 3, 1, 9, 30, 15, 123_456_000);
+        CourseResponse course = CourseResponse.builder().id(7L).publishedAt(publishedAt).build();
+
+        String encoded = CourseCursor.afterPublished(course).encode();
+
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(CourseCursor.decode(encoded)).isEqualTo(new CourseCursor(publishedAt, 7L));
+    }
+
+    @Test
+    void missingCursorMeansFirstPage() {
+        assertThat(CourseCursor.decode(null)).isNull();
+        assertThat(CourseCursor.decode(" ")).isNull();
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        assertThatThrownBy(() -> CourseCursor.decode("not base64!"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CourseCursor.decode(new CourseCursor(null, 1L).encode() + "x"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CourseCursor.decode("MjAyNi0xMy0wMVQwMDowMHwx")) // "2026-13-01T00:00|1"
+                .isInstanceOf(BadRequestException.class);
+    }
+}
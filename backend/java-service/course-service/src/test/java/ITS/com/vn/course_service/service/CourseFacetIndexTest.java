@@ -0,0 +1,171 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.Course;
+import ITS.com.vn.course_service.domain.entity.CourseTag;
+import ITS.com.vn.course_service.domain.entity.Tag;
+import ITS.com.vn.course_service.domain.enums.CourseFacet;
+import ITS.com.vn.course_service.domain.enums.CourseStatus;
+import ITS.com.vn.course_service.domain.enums.CourseVisibility;
+import ITS.com.vn.course_service.dto.request.FacetFilter;
+import ITS.com.vn.course_service.repository.CourseFacetRepository;
+import ITS.com.vn.course_service.repository.CourseFacetRepository.CourseFacets;
+import ITS.com.vn.course_service.service.CourseFacetIndex.FacetSearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseFacetIndexTest {
+
+    private final CourseFacetRepository repository = mock(CourseFacetRepository.class);
+    private final CourseFacetIndex index = new CourseFacetIndex(repository, new NoOpTransactionManager());
+
+    @Test
+    void searchReturnsNewestFirstWithCounts() {
+        when(repository.findAllFacets()).thenReturn(List.of(facets(1, 10), facets(2), facets(3, 10)));
+        index.rebuild();
+
+        FacetSearchResult all = index.search(null, 0, 10, null);
+        assertThat(all.courseIds()).containsExactly(3L, 2L, 1L);
+        assertThat(all.facets().get(CourseFacet.TAG)).isEqualTo(Map.of("10", 2L));
+
+        FacetSearchResult tagged = index.search(tag(10), 1, 10, Set.of(CourseFacet.TAG));
+        assertThat(tagged.courseIds()).containsExactly(1L);
+        assertThat(tagged.total()).isEqualTo(2);
+    }
+
+    @Test
+    void courseCommittedOutOfOrderIsSlottedByItsId() {
+        when(repository.findAllFacets()).thenReturn(List.of(facets(1, 10), facets(3), facets(5, 10)));
+        index.rebuild();
+
+        index.updateAfterCommit(course(4, 10));
+        index.updateAfterCommit(course(2));
+
+        assertThat(index.search(null, 0, 10, null).courseIds()).containsExactly(5L, 4L, 3L, 2L, 1L);
+        assertThat(index.search(tag(10), 0, 10, null).courseIds()).containsExactly(5L, 4L, 1L);
+        assertThat(index.search(new FacetFilter.Not(tag(10)), 0, 10, null).courseIds()).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void editsAndDeletesKeepOrder() {
+        when(repository.findAllFacets()).thenReturn(List.of(facets(1), facets(3, 10), facets(5)));
+        index.rebuild();
+
+        index.removeAfterCommit(3L);
+        index.updateAfterCommit(course(2, 10));
+        index.updateAfterCommit(course(5, 10));
+
+        assertThat(index.search(null, 0, 10, null).courseIds()).containsExactly(5L, 2L, 1L);
+        assertThat(index.search(tag(10), 0, 10, null).courseIds()).containsExactly(5L, 2L);
+    }
+
+    @Test
+    void courseCreatedDuringRebuildIsKept() {
+        when(repository.findAllFacets()).thenAnswer(invocation -> {
+            // Commits after the rows were read, with a lower ID than a course that is in them
+            index.updateAfterCommit(course(6, 10));
+            return List.of(facets(1), facets(7));
+        });
+
+        index.rebuild();
+
+        assertThat(index.search(null, 0, 10, null).courseIds()).containsExactly(7L, 6L, 1L);
+        assertThat(index.search(tag(10), 0, 10, null).courseIds()).containsExactly(6L);
+    }
+
+    @Test
+    void concurrentCreatesAndRebuildsConverge() throws Exception {
+        List<CourseFacets> committed = new CopyOnWriteArrayList<>(List.of(facets(1)));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(repository.findAllFacets()).thenAnswer(invocation -> {
+            List<CourseFacets> rows = committed.stream()
+                    .sorted((a, b) -> Long.compare(a.courseId(), b.courseId()))
+                    .toList();
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(1);
+            running.decrementAndGet();
+            return rows;
+        });
+        index.rebuild();
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?> rebuilds = pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20; i++) {
+                    index.rebuild();
+                }
+                return null;
+            });
+            Future<?> startupRebuild = pool.submit(() -> {
+                start.await();
+                index.rebuild();
+                return null;
+            });
+            // Creates commit in an order that is not their ID order
+            Future<?> creates = pool.submit(() -> {
+                start.await();
+                for (long id = 200; id > 1; id--) {
+                    committed.add(facets(id, id % 2 == 0 ? List.of(10L) : List.of()));
+                    index.updateAfterCommit(course(id, id % 2 == 0 ? new long[]{10} : new long[0]));
+                }
+                return null;
+            });
+            start.countDown();
+            creates.get(30, TimeUnit.SECONDS);
+            rebuilds.get(30, TimeUnit.SECONDS);
+            startupRebuild.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(maxRunning.get()).isEqualTo(1);
+        List<Long> all = index.search(null, 0, 500, null).courseIds();
+        assertThat(all).hasSize(200);
+        assertThat(all).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(index.search(tag(10), 0, 500, null).courseIds())
+                .isEqualTo(all.stream().filter(id -> id % 2 == 0).collect(Collectors.toList()));
+    }
+
+    private static FacetFilter tag(long tagId) {
+        return new FacetFilter.Match(CourseFacet.TAG, List.of(String.valueOf(tagId)));
+    }
+
+    private static CourseFacets facets(long courseId, long... tagIds) {
+        return facets(courseId, Arrays.stream(tagIds).boxed().toList());
+    }
+
+    private static CourseFacets facets(long courseId, List<Long> tagIds) {
+        return new CourseFacets(courseId, CourseStatus.PUBLISHED.name(), CourseVisibility.PUBLIC.name(), null, null,
+                tagIds);
+    }
+
+    private static Course course(long courseId, long... tagIds) {
+        Course course = Course.builder()
+                .id(courseId)
+                .status(CourseStatus.PUBLISHED)
+                .visibility(CourseVisibility.PUBLIC)
+                .build();
+        for (long tagId : tagIds) {
+            course.getCourseTags().add(CourseTag.builder().course(course).tag(Tag.builder().id(tagId).build()).build());
+        }
+        return course;
+    }
+}
@@ -0,0 +1,268 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.enums.ImportStatus;
+import ITS.com.vn.course_service.dto.response.CourseImportResponse;
+import ITS.com.vn.course_service.dto.response.CourseResponse;
+import ITS.com.vn.course_service.exception.BadRequestException;
+import ITS.com.vn.course_service.repository.CourseImportJdbcRepository;
+import ITS.com.vn.course_service.repository.CourseImportJdbcRepository.AssetRow;
+import ITS.com.vn.course_service.repository.CourseImportJdbcRepository.ChapterRow;
+import ITS.com.vn.course_service.repository.CourseImportJdbcRepository.LessonRow;
+import ITS.com.vn.course_service.service.impl.LocalAssetStorage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseImportServiceTest {
+
+    private static final Long INSTRUCTOR_ID = 7L;
+    private static final Long COURSE_ID = 3L;
+
+    private static final String DOCUMENT = """
+            { "course": { "title": "Algorithms", "visibility": "PUBLIC" },
+              "version": "2.0.0",
+              "chapters": [
+                { "lessons": [
+                    { "title": "Intro", "type": "VIDEO",
+                      "assets": [ { "file": "media/intro.mp4", "mimeType": "video/mp4" } ] },
+                    { "title": "Notes", "type": "TEXT", "content": "..." } ],
+                  "title": "Basics" },
+                { "title": "Sorting", "lessons": [ { "title": "Quick sort", "type": "QUIZ" } ] } ] }
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private final CourseService courseService = mock(CourseService.class);
+    private final CourseImportJdbcRepository importRepository = mock(CourseImportJdbcRepository.class);
+    // Batches are cleared once written, so rows are copied as they are inserted
+    private final List<ChapterRow> insertedChapters = new ArrayList<>();
+    private final List<LessonRow> insertedLessons = new ArrayList<>();
+
+    private Path stagingDir;
+    private Path storageDir;
+    private CourseImportService service;
+
+    @BeforeEach
+    void setUp() {
+        stagingDir = tempDir.resolve("uploads");
+        storageDir = tempDir.resolve("assets");
+        service = new CourseImportService(courseService, importRepository, mock(CourseStructureService.class),
+                mock(LessonNavigationService.class), new LocalAssetStorage(storageDir.toString()),
+                new ObjectMapper().findAndRegisterModules(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(new NoOpTransactionManager()), stagingDir.toString(), 2,
+                DataSize.ofMegabytes(1), Duration.ofHours(1));
+
+        when(courseService.createCourse(any(), eq(INSTRUCTOR_ID)))
+                .thenReturn(CourseResponse.builder().id(COURSE_ID).build());
+        when(importRepository.insertVersion(eq(COURSE_ID), anyString(), any())).thenReturn(20L);
+        AtomicLong ids = new AtomicLong(100);
+        when(importRepository.nextIds(anyString(), anyInt())).thenAnswer(invocation -> LongStream
+                .range(0, invocation.<Integer>getArgument(1))
+                .mapToObj(i -> ids.getAndIncrement())
+                .toList());
+        doAnswer(invocation -> insertedChapters.addAll(invocation.getArgument(0)))
+                .when(importRepository).insertChapters(anyList());
+        doAnswer(invocation -> insertedLessons.addAll(invocation.getArgument(0)))
+                .when(importRepository).insertLessons(anyList());
+    }
+
+    @Test
+    void zipPackageIsWrittenWithItsAssets() throws IOException {
+        CourseImportResponse response = service.importPackage(zip(DOCUMENT), true, INSTRUCTOR_ID);
+
+        assertThat(response.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(response.getCourseId()).isEqualTo(COURSE_ID);
+        assertThat(response.getChapters()).isEqualTo(2);
+        assertThat(response.getLessons()).isEqualTo(3);
+        assertThat(response.getAssets()).isEqualTo(1);
+        verify(importRepository).insertVersion(COURSE_ID, "2.0.0", null);
+
+        List<ChapterRow> chapters = insertedChapters;
+        assertThat(chapters).extracting(ChapterRow::title).containsExactly("Basics", "Sorting");
+        List<LessonRow> lessons = insertedLessons;
+        assertThat(lessons).extracting(LessonRow::title).containsExactly("Intro", "Notes", "Quick sort");
+        assertThat(lessons).extracting(LessonRow::chapterId)
+                .containsExactly(chapters.get(0).id(), chapters.get(0).id(), chapters.get(1).id());
+
+        ArgumentCaptor<List<AssetRow>> assets = listCaptor();
+        verify(importRepository).insertAssets(assets.capture());
+        AssetRow asset = assets.getValue().get(0);
+        assertThat(asset.lessonId()).isEqualTo(lessons.get(0).id());
+        assertThat(asset.mimeType()).isEqualTo("video/mp4");
+        assertThat(asset.originalFileName()).isEqualTo("intro.mp4");
+        assertThat(Files.readString(storageDir.resolve(asset.storageUrl().substring("local://".length()))))
+                .isEqualTo("video");
+        assertThat(stagingDir.resolve("imports")).isEmptyDirectory();
+    }
+
+    @Test
+    void jsonPackageWithoutAssetsIsImported() {
+        String document = DOCUMENT.replace(
+                ",\n          \"assets\": [ { \"file\": \"media/intro.mp4\", \"mimeType\": \"video/mp4\" } ]", "");
+
+        CourseImportResponse response = service.importPackage(json(document), false, INSTRUCTOR_ID);
+
+        assertThat(response.getLessons()).isEqualTo(3);
+        verify(importRepository, never()).insertAssets(anyList());
+    }
+
+    @Test
+    void chaptersBeforeCourseAreRejected() {
+        String document = """
+                { "chapters": [ { "title": "Basics" } ], "course": { "title": "Algorithms", "visibility": "PUBLIC" } }
+                """;
+
+        assertThatThrownBy(() -> service.importPackage(json(document), false, INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("\"course\" must come before chapters[0]");
+    }
+
+    @Test
+    void invalidLessonIsReportedWithItsPath() {
+        String document = """
+                { "course": { "title": "Algorithms", "visibility": "PUBLIC" },
+                  "chapters": [ { "title": "Basics", "lessons": [ { "title": "Intro" } ] } ] }
+                """;
+
+        assertThatThrownBy(() -> service.importPackage(json(document), false, INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("chapters[0].lessons[0].type");
+    }
+
+    @Test
+    void malformedJsonIsRejected() {
+        assertThatThrownBy(() -> service.importPackage(json("{ \"course\": "), false, INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageStartingWith("Invalid course package");
+    }
+
+    @Test
+    void zipWithoutDocumentIsRejectedBeforeAnythingIsWritten() throws IOException {
+        assertThatThrownBy(() -> service.importPackage(zip(null), true, INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Package does not contain course.json");
+        verify(courseService, never()).createCourse(any(), any());
+    }
+
+    @Test
+    void missingAssetFileIsRejected() {
+        assertThatThrownBy(() -> service.importPackage(json(DOCUMENT), false, INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Asset file not found in package: media/intro.mp4");
+    }
+
+    @Test
+    void packagePathsAreNormalized() {
+        assertThat(CourseImportService.normalizeEntryName("./media/intro.mp4")).isEqualTo("media/intro.mp4");
+        assertThat(CourseImportService.normalizeEntryName("/media\\intro.mp4")).isEqualTo("media/intro.mp4");
+        assertThat(CourseImportService.normalizeEntryName("media/..intro.mp4")).isEqualTo("media/..intro.mp4");
+    }
+
+    @Test
+    void packagePathsEscapingThePackageAreRejected() {
+        assertThatThrownBy(() -> CourseImportService.normalizeEntryName("../etc/passwd"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CourseImportService.normalizeEntryName("media/../../intro.mp4"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CourseImportService.normalizeEntryName("media\\..\\intro.mp4"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void assetReferenceEscapingThePackageIsRejected() throws IOException {
+        String document = DOCUMENT.replace("media/intro.mp4", "../media/intro.mp4");
+
+        assertThatThrownBy(() -> service.importPackage(zip(document), true, INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Invalid path in package: ../media/intro.mp4");
+    }
+
+    @Test
+    void rollbackDeletesStoredAssets() throws IOException {
+        doThrow(new DataAccessResourceFailureException("connection lost"))
+                .when(importRepository).insertAssets(anyList());
+
+        assertThatThrownBy(() -> service.importPackage(zip(DOCUMENT), true, INSTRUCTOR_ID))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(service.getImports(INSTRUCTOR_ID)).singleElement()
+                .satisfies(progress -> {
+                    assertThat(progress.getStatus()).isEqualTo(ImportStatus.FAILED);
+                    assertThat(progress.getCourseId()).isNull();
+                });
+        assertThat(storedFiles()).isEmpty();
+        assertThat(stagingDir.resolve("imports")).isEmptyDirectory();
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private static <T> ArgumentCaptor<List<T>> listCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private List<Path> storedFiles() throws IOException {
+        if (!Files.exists(storageDir)) {
+            return List.of();
+        }
+        try (var files = Files.walk(storageDir)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    private static InputStream json(String document) {
+        return new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The asset comes before course.json, as it may in any archive
+    private static InputStream zip(String document) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("media/intro.mp4"));
+            zip.write("video".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            if (document != null) {
+                zip.putNextEntry(new ZipEntry("course.json"));
+                zip.write(document.getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
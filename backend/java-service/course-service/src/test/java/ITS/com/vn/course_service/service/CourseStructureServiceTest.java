@@ -0,0 +1,229 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.CourseVersion;
+import ITS.com.vn.course_service.domain.enums.LessonType;
+import ITS.com.vn.course_service.domain.enums.VersionStatus;
+import ITS.com.vn.course_service.dto.response.CourseStructureResponse;
+import ITS.com.vn.course_service.dto.response.CourseStructureResponse.ChapterNode;
+import ITS.com.vn.course_service.dto.response.CourseStructureResponse.LessonNode;
+import ITS.com.vn.course_service.exception.ResourceNotFoundException;
+import ITS.com.vn.course_service.repository.ChapterRepository;
+import ITS.com.vn.course_service.repository.ChapterRepository.ChapterOutline;
+import ITS.com.vn.course_service.repository.CourseRepository;
+import ITS.com.vn.course_service.repository.CourseVersionRepository;
+import ITS.com.vn.course_service.repository.LessonRepository;
+import ITS.com.vn.course_service.repository.LessonRepository.LessonOutline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseStructureServiceTest {
+
+    private static final Long COURSE_ID = 1L;
+    private static final Long VERSION_ID = 11L;
+
+    private final CourseRepository courseRepository = mock(CourseRepository.class);
+    private final CourseVersionRepository courseVersionRepository = mock(CourseVersionRepository.class);
+    private final ChapterRepository chapterRepository = mock(ChapterRepository.class);
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final NoOpTransactionManager transactionManager = new NoOpTransactionManager();
+    private final CourseStructureService service = service(100, Duration.ofHours(1));
+
+    @BeforeEach
+    void setUp() {
+        when(courseRepository.existsById(anyLong())).thenReturn(true);
+        when(courseVersionRepository.findFirstByCourseIdAndStatusOrderByIdDesc(anyLong(), any()))
+                .thenReturn(Optional.empty());
+        version(COURSE_ID, VERSION_ID, VersionStatus.PUBLISHED);
+        when(courseVersionRepository.findStructureStamp(anyLong())).thenReturn("stamp-1");
+        outline(List.of(chapter(100L, 1024)), List.of(lesson(1000L, 100L, 30)));
+    }
+
+    @Test
+    void treeGroupsLessonsUnderTheirChapters() {
+        outline(List.of(chapter(100L, 1024), chapter(200L, 2048), chapter(300L, 3072)),
+                List.of(lesson(1000L, 100L, 30), lesson(1001L, 100L, null), lesson(2000L, 200L, 15)));
+
+        CourseStructureResponse structure = service.getStructure(COURSE_ID);
+
+        assertThat(structure.versionId()).isEqualTo(VERSION_ID);
+        assertThat(structure.versionStatus()).isEqualTo(VersionStatus.PUBLISHED);
+        assertThat(structure.totalLessons()).isEqualTo(3);
+        assertThat(structure.totalDuration()).isEqualTo(45);
+        assertThat(structure.chapters()).extracting(ChapterNode::id).containsExactly(100L, 200L, 300L);
+        assertThat(structure.chapters().get(0).lessons()).extracting(LessonNode::id).containsExactly(1000L, 1001L);
+        assertThat(structure.chapters().get(2).lessons()).isEmpty();
+    }
+
+    @Test
+    void draftIsServedWhenNothingIsPublished() {
+        version(2L, 21L, VersionStatus.DRAFT);
+
+        CourseStructureResponse structure = service.getStructure(2L);
+
+        assertThat(structure.versionId()).isEqualTo(21L);
+        assertThat(structure.versionStatus()).isEqualTo(VersionStatus.DRAFT);
+    }
+
+    @Test
+    void structureIsBuiltOnceUntilEvicted() {
+        CourseStructureResponse first = service.getStructure(COURSE_ID);
+        assertThat(service.getStructure(COURSE_ID)).isSameAs(first);
+        verify(lessonRepository, times(1)).findOutlinesByVersionId(VERSION_ID);
+
+        service.evict(COURSE_ID);
+
+        assertThat(service.getStructure(COURSE_ID)).isNotSameAs(first);
+        verify(lessonRepository, times(2)).findOutlinesByVersionId(VERSION_ID);
+    }
+
+    @Test
+    void evictionInATransactionIsRepeatedAfterCommit() {
+        service.getStructure(COURSE_ID);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            service.evict(COURSE_ID);
+            // A reader rebuilding before the edit commits caches the old rows
+            CourseStructureResponse rebuilt = service.getStructure(COURSE_ID);
+            assertThat(service.getStructure(COURSE_ID)).isSameAs(rebuilt);
+        });
+        verify(lessonRepository, times(2)).findOutlinesByVersionId(VERSION_ID);
+
+        // ...and that entry is dropped once the edit is committed
+        service.getStructure(COURSE_ID);
+        verify(lessonRepository, times(3)).findOutlinesByVersionId(VERSION_ID);
+    }
+
+    @Test
+    void evictionAlsoRepeatsAfterRollback() {
+        service.getStructure(COURSE_ID);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            service.evict(COURSE_ID);
+            service.getStructure(COURSE_ID);
+            status.setRollbackOnly();
+        });
+
+        service.getStructure(COURSE_ID);
+        verify(lessonRepository, times(3)).findOutlinesByVersionId(VERSION_ID);
+    }
+
+    @Test
+    void buildRacingWithAnEvictionIsNotCached() {
+        // An edit commits while the tree is being built from the old rows
+        List<LessonOutline> lessons = List.of(lesson(1000L, 100L, 30));
+        when(lessonRepository.findOutlinesByVersionId(VERSION_ID)).thenAnswer(inv -> {
+            service.evict(COURSE_ID);
+            return lessons;
+        });
+
+        service.getStructure(COURSE_ID);
+        service.getStructure(COURSE_ID);
+
+        verify(lessonRepository, times(2)).findOutlinesByVersionId(VERSION_ID);
+    }
+
+    @Test
+    void recentlyValidatedTreeIsServedWithoutQueries() {
+        service.getStructure(COURSE_ID);
+        service.getStructure(COURSE_ID);
+
+        verify(courseVersionRepository, times(1)).findStructureStamp(COURSE_ID);
+        verify(lessonRepository, times(1)).findOutlinesByVersionId(VERSION_ID);
+    }
+
+    @Test
+    void staleTreeIsKeptWhenItsStampIsUnchanged() {
+        CourseStructureService revalidating = service(100, Duration.ZERO);
+
+        CourseStructureResponse first = revalidating.getStructure(COURSE_ID);
+
+        assertThat(revalidating.getStructure(COURSE_ID)).isSameAs(first);
+        verify(courseVersionRepository, times(2)).findStructureStamp(COURSE_ID);
+        verify(lessonRepository, times(1)).findOutlinesByVersionId(VERSION_ID);
+    }
+
+    @Test
+    void treeEditedOnAnotherInstanceIsRebuilt() {
+        CourseStructureService revalidating = service(100, Duration.ZERO);
+        CourseStructureResponse first = revalidating.getStructure(COURSE_ID);
+
+        // No eviction reaches this instance, only the rows change
+        when(courseVersionRepository.findStructureStamp(COURSE_ID)).thenReturn("stamp-2");
+        outline(List.of(chapter(100L, 1024)), List.of(lesson(1000L, 100L, 30), lesson(1001L, 100L, 20)));
+
+        CourseStructureResponse second = revalidating.getStructure(COURSE_ID);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.totalLessons()).isEqualTo(2);
+        assertThat(revalidating.getStructure(COURSE_ID)).isSameAs(second);
+    }
+
+    @Test
+    void leastRecentlyUsedCourseIsDroppedBeyondTheMaxSize() {
+        CourseStructureService small = service(1, Duration.ofHours(1));
+        version(2L, 21L, VersionStatus.PUBLISHED);
+
+        small.getStructure(COURSE_ID);
+        small.getStructure(2L);
+        small.getStructure(COURSE_ID);
+
+        verify(lessonRepository, times(2)).findOutlinesByVersionId(VERSION_ID);
+        verify(lessonRepository, times(1)).findOutlinesByVersionId(21L);
+    }
+
+    @Test
+    void missingCourseIsNotCached() {
+        when(courseRepository.existsById(9L)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.getStructure(9L)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> service.getStructure(9L)).isInstanceOf(ResourceNotFoundException.class);
+        verify(courseRepository, times(2)).existsById(9L);
+    }
+
+    private CourseStructureService service(int maxSize, Duration validateAfter) {
+        return new CourseStructureService(courseRepository, courseVersionRepository, chapterRepository,
+                lessonRepository, transactionManager, maxSize, validateAfter);
+    }
+
+    private void outline(List<ChapterOutline> chapters, List<LessonOutline> lessons) {
+        when(chapterRepository.findOutlinesByVersionId(VERSION_ID)).thenReturn(chapters);
+        when(lessonRepository.findOutlinesByVersionId(VERSION_ID)).thenReturn(lessons);
+    }
+
+    private void version(Long courseId, Long versionId, VersionStatus status) {
+        when(courseVersionRepository.findFirstByCourseIdAndStatusOrderByIdDesc(courseId, status))
+                .thenReturn(Optional.of(CourseVersion.builder().id(versionId).version("1.0.0").status(status)
+                        .build()));
+    }
+
+    private static ChapterOutline chapter(Long id, int sequence) {
+        ChapterOutline chapter = mock(ChapterOutline.class);
+        when(chapter.getId()).thenReturn(id);
+        when(chapter.getTitle()).thenReturn("Chapter " + id);
+        when(chapter.getSequence()).thenReturn(sequence);
+        return chapter;
+    }
+
+    private static LessonOutline lesson(Long id, Long chapterId, Integer duration) {
+        LessonOutline lesson = mock(LessonOutline.class);
+        when(lesson.getId()).thenReturn(id);
+        when(lesson.getChapterId()).thenReturn(chapterId);
+        when(lesson.getTitle()).thenReturn("Lesson " + id);
+        when(lesson.getType()).thenReturn(LessonType.TEXT);
+        when(lesson.getEstimatedDuration()).thenReturn(duration);
+        return lesson;
+    }
+}
@@ -0,0 +1,169 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.Tag;
+import ITS.com.vn.course_service.domain.enums.CourseVisibility;
+import ITS.com.vn.course_service.domain.enums.TagType;
+import ITS.com.vn.course_service.dto.request.CreateCourseRequest;
+import ITS.com.vn.course_service.dto.request.UpdateCourseRequest;
+import ITS.com.vn.course_service.exception.BadRequestException;
+import ITS.com.vn.course_service.repository.TagRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tag and prerequisite updates touch only the links that change, and the pooled ids Hibernate
+ * allocates for them never collide with ids that plain SQL inserts take from the same sequences.
+ * Needs Docker (skipped otherwise).
+ */
+class CourseTagPrerequisiteTest extends MockedEventsIntegrationTest {
+
+    private static final Long INSTRUCTOR_ID = 801L;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void tagUpdateKeepsUnchangedLinks() {
+        List<Long> tags = tags("apply-tags", 3);
+        Long course = createCourse("Tag links", tags.subList(0, 2), List.of());
+        Map<Long, Long> before = tagLinks(course);
+
+        updateTags(course, List.of(tags.get(1), tags.get(2), tags.get(2)));
+
+        Map<Long, Long> after = tagLinks(course);
+        assertThat(after).containsOnlyKeys(tags.get(1), tags.get(2));
+        // The kept link is the same row, not a delete and re-insert
+        assertThat(after.get(tags.get(1))).isEqualTo(before.get(tags.get(1)));
+
+        updateTags(course, List.of());
+        assertThat(tagLinks(course)).isEmpty();
+    }
+
+    @Test
+    void unchangedTagsAndPrerequisitesDoNotTouchTheCourse() {
+        List<Long> tags = tags("same-tags", 2);
+        Long required = createCourse("Same prerequisites basics", List.of(), List.of());
+        Long course = createCourse("Same prerequisites", tags, List.of(required));
+        LocalDateTime updatedAt = updatedAt(course);
+        Map<Long, Long> links = tagLinks(course);
+
+        courseService.updateCourse(course, UpdateCourseRequest.builder()
+                .tagIds(List.of(tags.get(1), tags.get(0)))
+                .prerequisiteCourseIds(List.of(required))
+                .build(), INSTRUCTOR_ID);
+
+        assertThat(updatedAt(course)).isEqualTo(updatedAt);
+        assertThat(tagLinks(course)).isEqualTo(links);
+    }
+
+    @Test
+    void unknownPrerequisitesAreReportedInOneError() {
+        Long required = createCourse("Prerequisite check basics", List.of(), List.of());
+        Long course = createCourse("Prerequisite check", List.of(), List.of(required));
+
+        assertThatThrownBy(() -> courseService.updateCourse(course, UpdateCourseRequest.builder()
+                .prerequisiteCourseIds(List.of(required, -2L, -3L))
+                .build(), INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Prerequisite course not found with ID: -2, -3");
+
+        assertThat(requiredCourses(course)).containsExactly(required);
+    }
+
+    @Test
+    void pooledTagLinkIdsDoNotCollideWithPlainInserts() {
+        List<Long> tags = tags("pooled-tags", 60);
+        Long plainCourse = createCourse("Pooled tags plain", List.of(), List.of());
+        List<Long> courses = new ArrayList<>();
+
+        // Each course takes 60 ids, more than one allocation block, with plain inserts in between
+        for (int round = 0; round < 3; round++) {
+            courses.add(createCourse("Pooled tags " + round, tags, List.of()));
+            jdbcTemplate.update("INSERT INTO course_tags (course_id, tag_id) VALUES (?, ?)", plainCourse,
+                    tags.get(round));
+        }
+        courses.add(createCourse("Pooled tags last", tags, List.of()));
+
+        courses.forEach(course -> assertThat(tagLinks(course)).hasSize(60));
+        assertThat(tagLinks(plainCourse)).hasSize(3);
+    }
+
+    @Test
+    void pooledPrerequisiteIdsDoNotCollideWithPlainInserts() {
+        List<Long> required = IntStream.range(0, 3)
+                .mapToObj(i -> createCourse("Pooled prerequisite " + i, List.of(), List.of()))
+                .toList();
+        Long plainCourse = createCourse("Pooled prerequisites plain", List.of(), List.of());
+        List<Long> courses = new ArrayList<>();
+
+        // 25 courses with 3 prerequisites each cross the 50-id allocation block
+        for (int i = 0; i < 25; i++) {
+            courses.add(createCourse("Pooled prerequisites " + i, List.of(), required));
+            if (i % 5 == 0) {
+                jdbcTemplate.update("INSERT INTO prerequisites (course_id, required_course_id) VALUES (?, ?)",
+                        plainCourse, required.get(0));
+            }
+        }
+
+        courses.forEach(course -> assertThat(requiredCourses(course)).containsExactlyInAnyOrderElementsOf(required));
+        assertThat(requiredCourses(plainCourse)).hasSize(5);
+    }
+
+    private Long createCourse(String title, List<Long> tagIds, List<Long> prerequisiteCourseIds) {
+        return courseService.createCourse(CreateCourseRequest.builder()
+                .title(title)
+                .visibility(CourseVisibility.PUBLIC)
+                .tagIds(tagIds)
+                .prerequisiteCourseIds(prerequisiteCourseIds)
+                .build(), INSTRUCTOR_ID).getId();
+    }
+
+    private void updateTags(Long courseId, List<Long> tagIds) {
+        courseService.updateCourse(courseId, UpdateCourseRequest.builder().tagIds(tagIds).build(), INSTRUCTOR_ID);
+    }
+
+    private List<Long> tags(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> tagRepository.save(Tag.builder().name(prefix + "-" + i).type(TagType.TOPIC).build())
+                        .getId())
+                .toList();
+    }
+
+    // Tag id -> course_tags row id
+    private Map<Long, Long> tagLinks(Long courseId) {
+        return jdbcTemplate.query("SELECT tag_id, id FROM course_tags WHERE course_id = ?", rs -> {
+            Map<Long, Long> links = new HashMap<>();
+            while (rs.next()) {
+                links.put(rs.getLong("tag_id"), rs.getLong("id"));
+            }
+            return links;
+        }, courseId);
+    }
+
+    private List<Long> requiredCourses(Long courseId) {
+        return jdbcTemplate.queryForList("SELECT required_course_id FROM prerequisites WHERE course_id = ?",
+                Long.class, courseId);
+    }
+
+    private LocalDateTime updatedAt(Long courseId) {
+        return jdbcTemplate.queryForObject("SELECT updated_at FROM courses WHERE id = ?", LocalDateTime.class,
+                courseId);
+    }
+}
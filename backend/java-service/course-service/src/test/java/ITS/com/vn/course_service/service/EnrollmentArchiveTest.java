@@ -0,0 +1,177 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.Course;
+import ITS.com.vn.course_service.domain.enums.EnrollmentStatus;
+import ITS.com.vn.course_service.dto.response.BulkEnrollmentResponse;
+import ITS.com.vn.course_service.dto.response.EnrollmentResponse;
+import ITS.com.vn.course_service.repository.CourseRepository;
+import ITS.com.vn.course_service.repository.EnrollmentArchiveRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * The archiver moves only finished enrollments of courses past the grace period, keeping their
+ * data, and transcripts and enrollment checks still see them. Needs Docker (skipped otherwise).
+ */
+class EnrollmentArchiveTest extends MockedEventsIntegrationTest {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EnrollmentArchiver enrollmentArchiver;
+
+    @Autowired
+    private EnrollmentArchiveRepository enrollmentArchiveRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void onlyFinishedEnrollmentsOfEndedCoursesAreMoved() {
+        Long ended = createCourse(LocalDate.now().minusDays(60));
+        Long recent = createCourse(LocalDate.now().minusDays(5));
+        Long completed = enroll(ended, 101L, EnrollmentStatus.COMPLETED, LocalDateTime.now().minusDays(90));
+        Long dropped = enroll(ended, 102L, EnrollmentStatus.DROPPED, LocalDateTime.now().minusDays(90));
+        Long active = enroll(ended, 103L, EnrollmentStatus.ACTIVE, LocalDateTime.now().minusDays(90));
+        Long inGracePeriod = enroll(recent, 101L, EnrollmentStatus.COMPLETED, LocalDateTime.now().minusDays(30));
+
+        enrollmentArchiver.archive();
+
+        assertThat(hotIds(ended)).containsExactly(active);
+        assertThat(hotIds(recent)).containsExactly(inGracePeriod);
+        Map<String, Object> archived = jdbcTemplate.queryForMap(
+                "SELECT course_id, student_id, status, progress, completed_at FROM enrollments_archive WHERE id = ?",
+                completed);
+        assertThat(archived).containsEntry("course_id", ended)
+                .containsEntry("student_id", 101L)
+                .containsEntry("status", "COMPLETED")
+                .containsEntry("progress", 100);
+        assertThat(archived.get("completed_at")).isNotNull();
+        assertThat(enrollmentArchiveRepository.existsByCourseIdAndStudentId(ended, 102L)).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM enrollments_archive WHERE id = ?", String.class,
+                dropped)).isEqualTo("DROPPED");
+    }
+
+    @Test
+    void batchIsLimitedAndSkipsLockedRows() throws Exception {
+        // Ended before every other test's course, so the batch only sees this course's rows
+        Long ended = createCourse(LocalDate.now().minusDays(400));
+        Long first = enroll(ended, 201L, EnrollmentStatus.COMPLETED, LocalDateTime.now().minusDays(90));
+        enroll(ended, 202L, EnrollmentStatus.COMPLETED, LocalDateTime.now().minusDays(90));
+        Long third = enroll(ended, 203L, EnrollmentStatus.COMPLETED, LocalDateTime.now().minusDays(90));
+
+        // Another transaction (e.g. a progress update) holds the first row
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.queryForObject("SELECT id FROM enrollments WHERE id = ? FOR UPDATE", Long.class,
+                            first);
+                    locked.countDown();
+                    await(release);
+                }));
+        assertThat(locked.await(30, TimeUnit.SECONDS)).isTrue();
+
+        Integer moved = transactionTemplate.execute(status ->
+                enrollmentArchiveRepository.archiveFinished(LocalDate.now().minusDays(399), 1));
+        release.countDown();
+        holder.get(30, TimeUnit.SECONDS);
+
+        assertThat(moved).isEqualTo(1);
+        assertThat(hotIds(ended)).containsExactlyInAnyOrder(first, third);
+        assertThat(enrollmentArchiveRepository.existsByCourseIdAndStudentId(ended, 202L)).isTrue();
+    }
+
+    @Test
+    void transcriptListsActiveAndArchivedEnrollmentsMostRecentFirst() {
+        Long pastCourse = createCourse(LocalDate.now().minusDays(60));
+        Long currentCourse = createCourse(null);
+        Long archived = enroll(pastCourse, 301L, EnrollmentStatus.COMPLETED, LocalDateTime.now().minusDays(90));
+        Long current = enroll(currentCourse, 301L, EnrollmentStatus.ACTIVE, LocalDateTime.now().minusDays(1));
+        enroll(currentCourse, 302L, EnrollmentStatus.ACTIVE, LocalDateTime.now().minusDays(1));
+
+        enrollmentArchiver.archive();
+
+        assertThat(enrollmentService.getTranscript(301L, null))
+                .extracting(EnrollmentResponse::getId, EnrollmentResponse::getCourseId)
+                .containsExactly(
+                        tuple(current, currentCourse),
+                        tuple(archived, pastCourse));
+        assertThat(enrollmentService.getTranscript(301L, EnrollmentStatus.COMPLETED))
+                .singleElement()
+                .satisfies(enrollment -> {
+                    assertThat(enrollment.getId()).isEqualTo(archived);
+                    assertThat(enrollment.getCourseTitle()).isEqualTo("Archive test");
+                    assertThat(enrollment.getProgress()).isEqualTo(100);
+                });
+        // Listings other than the transcript read the hot table only
+        assertThat(enrollmentService.getMyEnrollments(301L, null))
+                .extracting(EnrollmentResponse::getId)
+                .containsExactly(current);
+    }
+
+    @Test
+    void archivedStudentCannotBeEnrolledAgain() {
+        Long ended = createCourse(LocalDate.now().minusDays(60));
+        enroll(ended, 401L, EnrollmentStatus.COMPLETED, LocalDateTime.now().minusDays(90));
+        enrollmentArchiver.archive();
+
+        assertThatThrownBy(() -> enrollmentService.enrollStudent(ended, 401L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Student already enrolled in this course");
+
+        BulkEnrollmentResponse response = enrollmentService.enrollStudents(ended, List.of(401L, 402L), 1L);
+        assertThat(response.getEnrolledStudentIds()).containsExactly(402L);
+        assertThat(response.getAlreadyEnrolledStudentIds()).containsExactly(401L);
+    }
+
+    private Long createCourse(LocalDate endDate) {
+        return courseRepository.save(Course.builder()
+                .title("Archive test")
+                .instructorId(1L)
+                .endDate(endDate)
+                .build()).getId();
+    }
+
+    private Long enroll(Long courseId, Long studentId, EnrollmentStatus status, LocalDateTime enrolledAt) {
+        Long id = enrollmentService.enrollStudent(courseId, studentId).getId();
+        boolean completed = status == EnrollmentStatus.COMPLETED;
+        jdbcTemplate.update("UPDATE enrollments SET status = ?, progress = ?, enrolled_at = ?, completed_at = ? "
+                        + "WHERE id = ?", status.name(), completed ? 100 : 0, enrolledAt,
+                completed ? enrolledAt.plusDays(30) : null, id);
+        return id;
+    }
+
+    private List<Long> hotIds(Long courseId) {
+        return jdbcTemplate.queryForList("SELECT id FROM enrollments WHERE course_id = ?", Long.class, courseId);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
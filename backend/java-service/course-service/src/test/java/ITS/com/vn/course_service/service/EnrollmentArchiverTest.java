@@ -0,0 +1,61 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.repository.EnrollmentArchiveRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EnrollmentArchiverTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final int MAX_BATCHES = 3;
+
+    private final EnrollmentArchiveRepository repository = mock(EnrollmentArchiveRepository.class);
+    private final EnrollmentArchiver archiver = new EnrollmentArchiver(repository,
+            new TransactionTemplate(new NoOpTransactionManager()), Period.ofDays(30), BATCH_SIZE, MAX_BATCHES);
+
+    @Test
+    void coursesEndedBeforeTheGracePeriodAreArchived() {
+        when(repository.archiveFinished(any(), anyInt())).thenReturn(0);
+
+        archiver.archive();
+
+        verify(repository).archiveFinished(LocalDate.now().minusDays(30), BATCH_SIZE);
+    }
+
+    @Test
+    void batchesRunUntilOneIsNotFull() {
+        when(repository.archiveFinished(any(), anyInt())).thenReturn(BATCH_SIZE, 1, BATCH_SIZE);
+
+        archiver.archive();
+
+        verify(repository, times(2)).archiveFinished(any(), anyInt());
+    }
+
+    @Test
+    void runStopsAtTheBatchLimit() {
+        when(repository.archiveFinished(any(), anyInt())).thenReturn(BATCH_SIZE);
+
+        archiver.archive();
+
+        verify(repository, times(MAX_BATCHES)).archiveFinished(any(), anyInt());
+    }
+
+    @Test
+    void nothingToArchiveEndsTheRun() {
+        when(repository.archiveFinished(any(), anyInt())).thenReturn(0);
+
+        archiver.archive();
+
+        verify(repository, times(1)).archiveFinished(any(), anyInt());
+    }
+}
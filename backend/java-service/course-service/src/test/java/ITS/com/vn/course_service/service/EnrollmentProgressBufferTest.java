@@ -0,0 +1,186 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.enums.EnrollmentStatus;
+import ITS.com.vn.course_service.dto.response.EnrollmentResponse;
+import ITS.com.vn.course_service.repository.EnrollmentJdbcRepository;
+import ITS.com.vn.course_service.repository.EnrollmentJdbcRepository.EnrollmentState;
+import ITS.com.vn.course_service.repository.EnrollmentJdbcRepository.ProgressFlush;
+import ITS.com.vn.course_service.repository.EnrollmentJdbcRepository.ProgressUpdate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EnrollmentProgressBufferTest {
+
+    private static final Long ENROLLMENT_ID = 5L;
+    private static final Long COURSE_ID = 3L;
+    private static final Long STUDENT_ID = 9L;
+
+    private final EnrollmentJdbcRepository repository = mock(EnrollmentJdbcRepository.class);
+    private final EnrollmentStatsService statsService = mock(EnrollmentStatsService.class);
+    private final EnrollmentProgressBuffer buffer = new EnrollmentProgressBuffer(repository, statsService,
+            mock(PlatformTransactionManager.class), Duration.ofMinutes(10), 100);
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findState(ENROLLMENT_ID))
+                .thenReturn(Optional.of(new EnrollmentState(STUDENT_ID, EnrollmentStatus.ACTIVE)));
+        when(repository.updateActiveProgress(anyList()))
+                .thenAnswer(invocation -> written(invocation.getArgument(0)));
+    }
+
+    @Test
+    void untrackedEnrollmentIsNotBuffered() {
+        assertThat(buffer.tryBuffer(ENROLLMENT_ID, STUDENT_ID, 40)).isEmpty();
+    }
+
+    @Test
+    void bufferedProgressIsFlushedOnce() {
+        buffer.track(activeEnrollment(10));
+
+        assertThat(buffer.tryBuffer(ENROLLMENT_ID, STUDENT_ID, 40)).get()
+                .extracting(EnrollmentResponse::getProgress).isEqualTo(40);
+        buffer.flush();
+        buffer.flush();
+
+        List<ProgressUpdate> flushed = flushedUpdates(1);
+        assertThat(flushed).singleElement().extracting(ProgressUpdate::progress).isEqualTo(40);
+    }
+
+    @Test
+    void latestBufferedProgressWins() {
+        buffer.track(activeEnrollment(10));
+
+        buffer.tryBuffer(ENROLLMENT_ID, STUDENT_ID, 20);
+        buffer.tryBuffer(ENROLLMENT_ID, STUDENT_ID, 30);
+        buffer.flush();
+
+        assertThat(flushedUpdates(1)).singleElement().extracting(ProgressUpdate::progress).isEqualTo(30);
+    }
+
+    @Test
+    void updateDuringFlushStaysDirty() {
+        buffer.track(activeEnrollment(10));
+        buffer.tryBuffer(ENROLLMENT_ID, STUDENT_ID, 20);
+        when(repository.updateActiveProgress(anyList())).thenAnswer(invocation -> {
+            // A request buffers a newer value while the batch is being written
+            buffer.tryBuffer(ENROLLMENT_ID, STUDENT_ID, 50);
+            return written(invocation.getArgument(0));
+        }).thenAnswer(invocation -> written(invocation.getArgument(0)));
+
+        buffer.flush();
+        buffer.flush();
+
+        List<ProgressUpdate> flushed = flushedUpdates(2);
+        assertThat(flushed).extracting(ProgressUpdate::progress).containsExactly(20, 50);
+    }
+
+    @Test
+    void discardedProgressIsNotFlushed() {
+        buffer.track(activeEnrollment(10));
+        buffer.tryBuffer(ENROLLMENT_ID, STUDENT_ID, 60);
+
+        assertThat(buffer.discard(ENROLLMENT_ID)).isEqualTo(60);
+        buffer.flush();
+
+        verify(repository, never()).updateActiveProgress(anyList());
+        assertThat(buffer.tryBuffer(ENROLLMENT_ID, STUDENT_ID, 70)).isEmpty();
+    }
+
+    @Test
+    void enrollmentFinishedElsewhereIsWrittenThrough() {
+        buffer.track(activeEnrollment(10));
+        when(repository.findState(ENROLLMENT_ID))
+                .thenReturn(Optional.of(new EnrollmentState(STUDENT_ID, EnrollmentStatus.DROPPED)));
+
+        assertThat(buffer.tryBuffer(ENROLLMENT_ID, STUDENT_ID, 40)).isEmpty();
+
+        // No longer tracked: later updates also go to the database
+        when(repository.findState(ENROLLMENT_ID))
+                .thenReturn(Optional.of(new EnrollmentState(STUDENT_ID, EnrollmentStatus.ACTIVE)));
+        assertThat(buffer.tryBuffer(ENROLLMENT_ID, STUDENT_ID, 50)).isEmpty();
+    }
+
+    @Test
+    void entryNotWrittenByFlushIsDropped() {
+        buffer.track(activeEnrollment(10));
+        buffer.tryBuffer(ENROLLMENT_ID, STUDENT_ID, 40);
+        // Completed or dropped before the flush locked it
+        when(repository.updateActiveProgress(anyList())).thenReturn(new ProgressFlush(Map.of(), Set.of()));
+
+        buffer.flush();
+
+        assertThat(buffer.tryBuffer(ENROLLMENT_ID, STUDENT_ID, 50)).isEmpty();
+        assertThat(buffer.overlay(activeEnrollment(10)).getProgress()).isEqualTo(10);
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        buffer.track(activeEnrollment(10));
+        buffer.tryBuffer(ENROLLMENT_ID, STUDENT_ID, 40);
+        when(repository.updateActiveProgress(anyList()))
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenAnswer(invocation -> written(invocation.getArgument(0)));
+
+        buffer.flush();
+        buffer.flush();
+
+        assertThat(flushedUpdates(2)).extracting(ProgressUpdate::progress).containsExactly(40, 40);
+        verify(statsService, times(1)).onProgressFlushed(anyMap());
+    }
+
+    @Test
+    void overlayShowsPendingProgress() {
+        buffer.track(activeEnrollment(10));
+        buffer.tryBuffer(ENROLLMENT_ID, STUDENT_ID, 40);
+
+        assertThat(buffer.overlay(activeEnrollment(10)).getProgress()).isEqualTo(40);
+    }
+
+    @Test
+    void otherStudentsEnrollmentIsRejected() {
+        buffer.track(activeEnrollment(10));
+
+        assertThatThrownBy(() -> buffer.tryBuffer(ENROLLMENT_ID, 99L, 40))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private List<ProgressUpdate> flushedUpdates(int flushes) {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProgressUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(flushes)).updateActiveProgress(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private static ProgressFlush written(List<ProgressUpdate> updates) {
+        return new ProgressFlush(Map.of(COURSE_ID, 0L),
+                Set.copyOf(updates.stream().map(ProgressUpdate::enrollmentId).toList()));
+    }
+
+    private static EnrollmentResponse activeEnrollment(int progress) {
+        return EnrollmentResponse.builder()
+                .id(ENROLLMENT_ID)
+                .courseId(COURSE_ID)
+                .studentId(STUDENT_ID)
+                .status(EnrollmentStatus.ACTIVE)
+                .progress(progress)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.Course;
+import ITS.com.vn.course_service.domain.entity.CourseEnrollmentStats;
+import ITS.com.vn.course_service.repository.CourseEnrollmentStatsRepository;
+import ITS.com.vn.course_service.repository.CourseRepository;
+import ITS.com.vn.course_service.repository.EnrollmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stress test: thousands of concurrent enroll requests for one capacity-limited course
+ * must never overbook it. Needs Docker (skipped otherwise).
+ */
+@TestPropertySource(properties = "spring.datasource.hikari.maximum-pool-size=32")
+class EnrollmentSeatReservationConcurrencyTest extends MockedEventsIntegrationTest {
+
+    private static final int CAPACITY = 50;
+    private static final int STUDENTS = 2_000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseEnrollmentStatsRepository statsRepository;
+
+    @Test
+    void concurrentEnrollmentsNeverExceedCapacity() throws Exception {
+        Course course = courseRepository.save(Course.builder()
+                .title("Seat reservation stress test")
+                .instructorId(1L)
+                .maxStudents(CAPACITY)
+                .build());
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger enrolled = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (long studentId = 1; studentId <= STUDENTS; studentId++) {
+            long id = studentId;
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    enrollmentService.enrollStudent(course.getId(), id);
+                    enrolled.incrementAndGet();
+                } catch (IllegalStateException ex) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertThat(enrolled.get()).isEqualTo(CAPACITY);
+        assertThat(rejected.get()).isEqualTo(STUDENTS - CAPACITY);
+        assertThat(enrollmentRepository.countActiveByCourseId(course.getId())).isEqualTo(CAPACITY);
+        assertThat(statsRepository.findById(course.getId()))
+                .get()
+                .extracting(CourseEnrollmentStats::getActiveCount)
+                .isEqualTo((long) CAPACITY);
+    }
+}
@@ -0,0 +1,125 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.Course;
+import ITS.com.vn.course_service.domain.entity.CourseEnrollmentStats;
+import ITS.com.vn.course_service.repository.CourseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * The incrementally maintained course counters always equal a full recount of the enrollments,
+ * through enrollments, buffered progress, completions, flushes and drops. Needs Docker (skipped
+ * otherwise).
+ */
+class EnrollmentStatsConsistencyTest extends MockedEventsIntegrationTest {
+
+    private static final Long INSTRUCTOR_ID = 1001L;
+
+    private static final String RECOUNT = """
+            SELECT COUNT(*) AS total_count,
+                   COUNT(*) FILTER (WHERE status <> 'DROPPED') AS current_count,
+                   COUNT(*) FILTER (WHERE status = 'ACTIVE') AS active_count,
+                   COUNT(*) FILTER (WHERE status = 'COMPLETED') AS completed_count,
+                   COALESCE(SUM(progress) FILTER (WHERE status = 'ACTIVE'), 0) AS active_progress_sum,
+                   COALESCE(AVG(progress) FILTER (WHERE status = 'ACTIVE'), 0) AS average_progress
+            FROM enrollments
+            WHERE course_id = ?
+            """;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EnrollmentStatsService enrollmentStatsService;
+
+    @Autowired
+    private EnrollmentProgressBuffer progressBuffer;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countersFollowEveryEnrollmentChange() {
+        Long courseId = createCourse(null);
+
+        Long first = enrollmentService.enrollStudent(courseId, 1011L).getId();
+        Long second = enrollmentService.enrollStudent(courseId, 1012L).getId();
+        Long third = enrollmentService.enrollStudent(courseId, 1013L).getId();
+        enrollmentService.enrollStudents(courseId, List.of(1014L, 1015L), INSTRUCTOR_ID);
+        assertConsistent(courseId);
+
+        // First updates are written through, later ones are buffered until the flush
+        enrollmentService.updateProgress(first, 30, 1011L);
+        enrollmentService.updateProgress(second, 40, 1012L);
+        enrollmentService.updateProgress(third, 20, 1013L);
+        enrollmentService.updateProgress(first, 55, 1011L);
+        enrollmentService.updateProgress(third, 45, 1013L);
+        assertConsistent(courseId);
+        progressBuffer.flush();
+        assertConsistent(courseId);
+
+        enrollmentService.updateProgress(second, 100, 1012L);
+        assertConsistent(courseId);
+        enrollmentService.updateProgress(third, 70, 1013L);
+        enrollmentService.dropEnrollment(third, 1013L);
+        progressBuffer.flush();
+        assertConsistent(courseId);
+
+        CourseEnrollmentStats stats = enrollmentStatsService.getStats(courseId);
+        assertThat(stats.getTotalCount()).isEqualTo(5);
+        assertThat(stats.getCurrentCount()).isEqualTo(4);
+        assertThat(stats.getActiveCount()).isEqualTo(3);
+        assertThat(stats.getCompletedCount()).isEqualTo(1);
+        assertThat(stats.getActiveProgressSum()).isEqualTo(55);
+    }
+
+    @Test
+    void rejectedEnrollmentsLeaveNoCounts() {
+        Long courseId = createCourse(2);
+
+        enrollmentService.enrollStudent(courseId, 1021L);
+        // Three more students do not fit: the whole roster is rejected
+        assertThatThrownBy(() -> enrollmentService.enrollStudents(courseId, List.of(1022L, 1023L, 1024L),
+                INSTRUCTOR_ID)).isInstanceOf(IllegalStateException.class);
+        enrollmentService.enrollStudent(courseId, 1025L);
+
+        assertConsistent(courseId);
+        assertThat(enrollmentStatsService.getCurrentCount(courseId)).isEqualTo(2);
+    }
+
+    private Long createCourse(Integer maxStudents) {
+        return courseRepository.save(Course.builder()
+                .title("Stats test")
+                .instructorId(INSTRUCTOR_ID)
+                .maxStudents(maxStudents)
+                .build()).getId();
+    }
+
+    private void assertConsistent(Long courseId) {
+        Map<String, Object> recount = jdbcTemplate.queryForMap(RECOUNT, courseId);
+        CourseEnrollmentStats stats = enrollmentStatsService.getStats(courseId);
+
+        assertThat(stats.getTotalCount()).isEqualTo(number(recount, "total_count").longValue());
+        assertThat(stats.getCurrentCount()).isEqualTo(number(recount, "current_count").longValue());
+        assertThat(stats.getActiveCount()).isEqualTo(number(recount, "active_count").longValue());
+        assertThat(stats.getCompletedCount()).isEqualTo(number(recount, "completed_count").longValue());
+        assertThat(stats.getActiveProgressSum()).isEqualTo(number(recount, "active_progress_sum").longValue());
+        assertThat(stats.getAverageProgress())
+                .isCloseTo(number(recount, "average_progress").doubleValue(), within(1e-9));
+    }
+
+    private static Number number(Map<String, Object> row, String column) {
+        return (Number) row.get(column);
+    }
+}
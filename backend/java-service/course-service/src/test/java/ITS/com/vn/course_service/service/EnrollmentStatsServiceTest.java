@@ -0,0 +1,132 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.Course;
+import ITS.com.vn.course_service.domain.entity.CourseEnrollmentStats;
+import ITS.com.vn.course_service.domain.entity.Enrollment;
+import ITS.com.vn.course_service.domain.enums.EnrollmentStatus;
+import ITS.com.vn.course_service.repository.CourseEnrollmentStatsRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class EnrollmentStatsServiceTest {
+
+    private static final Long COURSE_ID = 3L;
+
+    private final CourseEnrollmentStatsRepository statsRepository = mock(CourseEnrollmentStatsRepository.class);
+    private final EnrollmentStatsService service = new EnrollmentStatsService(statsRepository);
+
+    @Test
+    void seatsOfUnlimitedCoursesAreCountedWithoutACapacityCheck() {
+        assertThat(service.tryReserveSeats(COURSE_ID, 3, null)).isTrue();
+
+        verify(statsRepository).applyDelta(COURSE_ID, 3, 3, 3, 0, 0);
+        verify(statsRepository, never()).tryReserveSeats(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void seatsOfLimitedCoursesAreReservedAtomically() {
+        when(statsRepository.tryReserveSeats(COURSE_ID, 2, 10)).thenReturn(1);
+        when(statsRepository.tryReserveSeats(COURSE_ID, 1, 10)).thenReturn(0);
+
+        assertThat(service.tryReserveSeats(COURSE_ID, 2, 10)).isTrue();
+        assertThat(service.tryReserveSeat(COURSE_ID, 10)).isFalse();
+        // More seats than the capacity can never fit
+        assertThat(service.tryReserveSeats(COURSE_ID, 11, 10)).isFalse();
+        verify(statsRepository, never()).tryReserveSeats(COURSE_ID, 11, 10);
+    }
+
+    @Test
+    void releasedSeatsUndoTheReservation() {
+        service.releaseSeats(COURSE_ID, 2);
+        service.releaseSeats(COURSE_ID, 0);
+
+        verify(statsRepository).applyDelta(COURSE_ID, -2, -2, -2, 0, 0);
+    }
+
+    @Test
+    void progressOfActiveEnrollmentsMovesTheProgressSum() {
+        Enrollment enrollment = enrollment(EnrollmentStatus.ACTIVE, 10);
+        enrollment.updateProgress(35);
+
+        service.onProgressUpdated(EnrollmentStatus.ACTIVE, 10, enrollment);
+
+        verify(statsRepository).applyDelta(COURSE_ID, 0, 0, 0, 0, 25);
+    }
+
+    @Test
+    void completionMovesTheEnrollmentOutOfTheActiveCounters() {
+        Enrollment enrollment = enrollment(EnrollmentStatus.ACTIVE, 60);
+        enrollment.updateProgress(100);
+
+        service.onProgressUpdated(EnrollmentStatus.ACTIVE, 60, enrollment);
+
+        verify(statsRepository).applyDelta(COURSE_ID, 0, 0, -1, 1, -60);
+    }
+
+    @Test
+    void unchangedOrInactiveProgressIsNotCounted() {
+        service.onProgressUpdated(EnrollmentStatus.ACTIVE, 40, enrollment(EnrollmentStatus.ACTIVE, 40));
+        service.onProgressUpdated(EnrollmentStatus.COMPLETED, 100, enrollment(EnrollmentStatus.COMPLETED, 100));
+        service.onProgressUpdated(EnrollmentStatus.DROPPED, 20, enrollment(EnrollmentStatus.DROPPED, 30));
+
+        verifyNoInteractions(statsRepository);
+    }
+
+    @Test
+    void flushedProgressIsAppliedPerCourse() {
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        deltas.put(COURSE_ID, 45L);
+        deltas.put(4L, 0L);
+        deltas.put(5L, -10L);
+
+        service.onProgressFlushed(deltas);
+
+        verify(statsRepository).applyDelta(COURSE_ID, 0, 0, 0, 0, 45);
+        verify(statsRepository).applyDelta(5L, 0, 0, 0, 0, -10);
+        verify(statsRepository, never()).applyDelta(4L, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void droppedEnrollmentLeavesCurrentAndActiveCounters() {
+        service.onDropped(COURSE_ID, 70);
+
+        verify(statsRepository).applyDelta(COURSE_ID, 0, -1, -1, 0, -70);
+    }
+
+    @Test
+    void coursesWithoutCountersReadAsZero() {
+        when(statsRepository.findById(COURSE_ID)).thenReturn(Optional.empty());
+        when(statsRepository.findById(4L)).thenReturn(Optional.of(CourseEnrollmentStats.builder()
+                .courseId(4L)
+                .currentCount(3L)
+                .activeCount(2L)
+                .activeProgressSum(90L)
+                .build()));
+
+        assertThat(service.getCurrentCount(COURSE_ID)).isZero();
+        assertThat(service.getStats(COURSE_ID).getAverageProgress()).isZero();
+        assertThat(service.getCurrentCount(4L)).isEqualTo(3);
+        assertThat(service.getStats(4L).getAverageProgress()).isEqualTo(45.0);
+    }
+
+    private static Enrollment enrollment(EnrollmentStatus status, int progress) {
+        return Enrollment.builder()
+                .course(Course.builder().id(COURSE_ID).build())
+                .studentId(9L)
+                .status(status)
+                .progress(progress)
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.Course;
+import ITS.com.vn.course_service.domain.enums.EnrollmentStatus;
+import ITS.com.vn.course_service.dto.response.EnrollmentResponse;
+import ITS.com.vn.course_service.exception.BadRequestException;
+import ITS.com.vn.course_service.repository.CourseRepository;
+import ITS.com.vn.course_service.repository.EnrollmentViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Paged course enrollment listings: whitelisted sorting, status filter and totals from
+ * COUNT(*) OVER (). Needs Docker (skipped otherwise).
+ */
+class EnrollmentViewRepositoryTest extends MockedEventsIntegrationTest {
+
+    // Progress of the enrolled students, in enrollment order; the last three drop out
+    private static final int[] PROGRESS = {40, 10, 40, 90, 20, 70, 30};
+
+    @Autowired
+    private EnrollmentViewRepository enrollmentViewRepository;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long courseId;
+    private final List<Long> enrollmentIds = new ArrayList<>();
+
+    @BeforeEach
+    void enrollStudents() {
+        courseId = courseRepository.save(Course.builder()
+                .title("Enrollment view test")
+                .code("EV101")
+                .instructorId(1L)
+                .build()).getId();
+        for (int i = 0; i < PROGRESS.length; i++) {
+            Long id = enrollmentService.enrollStudent(courseId, 901L + i).getId();
+            jdbcTemplate.update("UPDATE enrollments SET progress = ?, status = ? WHERE id = ?", PROGRESS[i],
+                    i >= 4 ? EnrollmentStatus.DROPPED.name() : EnrollmentStatus.ACTIVE.name(), id);
+            enrollmentIds.add(id);
+        }
+    }
+
+    @Test
+    void unsortedPagesFollowEnrollmentOrder() {
+        Page<EnrollmentResponse> first = page(null, PageRequest.of(0, 3));
+        Page<EnrollmentResponse> second = page(null, PageRequest.of(1, 3));
+
+        assertThat(first.getContent()).extracting(EnrollmentResponse::getId)
+                .containsExactlyElementsOf(enrollmentIds.subList(0, 3));
+        assertThat(second.getContent()).extracting(EnrollmentResponse::getId)
+                .containsExactlyElementsOf(enrollmentIds.subList(3, 6));
+        assertThat(first.getContent().get(0)).satisfies(enrollment -> {
+            assertThat(enrollment.getCourseId()).isEqualTo(courseId);
+            assertThat(enrollment.getCourseTitle()).isEqualTo("Enrollment view test");
+            assertThat(enrollment.getCourseCode()).isEqualTo("EV101");
+            assertThat(enrollment.getStudentId()).isEqualTo(901L);
+        });
+    }
+
+    @Test
+    void sortedPagesBreakTiesByEnrollmentOrder() {
+        Page<EnrollmentResponse> page = page(null, PageRequest.of(0, 4, Sort.by(Sort.Direction.DESC, "progress")));
+
+        // Students 901 and 903 share 40%: the earlier enrollment comes first
+        assertThat(page.getContent()).extracting(EnrollmentResponse::getId)
+                .containsExactly(enrollmentIds.get(3), enrollmentIds.get(5), enrollmentIds.get(0),
+                        enrollmentIds.get(2));
+        assertThat(page(null, PageRequest.of(0, 2, Sort.by("status", "studentId"))).getContent())
+                .extracting(EnrollmentResponse::getStudentId)
+                .containsExactly(901L, 902L);
+    }
+
+    @Test
+    void unsupportedSortPropertiesAreRejected() {
+        assertThatThrownBy(() -> page(null, PageRequest.of(0, 10, Sort.by("course.title"))))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Unsupported sort property: course.title");
+        assertThatThrownBy(() -> page(null, PageRequest.of(0, 10, Sort.by("progress; DROP TABLE enrollments"))))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void totalsComeWithTheFilteredPage() {
+        Page<EnrollmentResponse> dropped = page(EnrollmentStatus.DROPPED, PageRequest.of(0, 2));
+
+        assertThat(dropped.getContent()).extracting(EnrollmentResponse::getStatus)
+                .containsOnly(EnrollmentStatus.DROPPED);
+        assertThat(dropped.getTotalElements()).isEqualTo(3);
+        assertThat(dropped.getTotalPages()).isEqualTo(2);
+        assertThat(page(EnrollmentStatus.ACTIVE, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(4);
+        assertThat(page(EnrollmentStatus.COMPLETED, PageRequest.of(0, 10)).getTotalElements()).isZero();
+    }
+
+    @Test
+    void lastAndPastLastPagesKeepTheTotal() {
+        Page<EnrollmentResponse> last = page(null, PageRequest.of(3, 2));
+        Page<EnrollmentResponse> pastLast = page(null, PageRequest.of(5, 2));
+
+        assertThat(last.getContent()).extracting(EnrollmentResponse::getId).containsExactly(enrollmentIds.get(6));
+        assertThat(last.getTotalElements()).isEqualTo(7);
+        assertThat(pastLast.getContent()).isEmpty();
+        assertThat(pastLast.getTotalElements()).isEqualTo(7);
+        assertThat(page(EnrollmentStatus.DROPPED, PageRequest.of(4, 2)).getTotalElements()).isEqualTo(3);
+    }
+
+    private Page<EnrollmentResponse> page(EnrollmentStatus status, PageRequest pageable) {
+        return enrollmentViewRepository.findPageByCourse(courseId, status, pageable);
+    }
+}
@@ -0,0 +1,102 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.Tag;
+import ITS.com.vn.course_service.domain.enums.CourseVisibility;
+import ITS.com.vn.course_service.domain.enums.TagType;
+import ITS.com.vn.course_service.dto.request.CreateCourseRequest;
+import ITS.com.vn.course_service.dto.request.UpdateCourseRequest;
+import ITS.com.vn.course_service.repository.TagRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Consecutive incremental course exports, each starting at the previous watermark, must carry
+ * every change exactly once, including tag and prerequisite edits. Needs Docker (skipped otherwise).
+ */
+@TestPropertySource(properties = "application.export.safety-window=PT0S")
+class ExportIncrementalTest extends MockedEventsIntegrationTest {
+
+    private static final Long INSTRUCTOR_ID = 1L;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void tagAndPrerequisiteEditsAreExportedOnce() throws Exception {
+        Long required = createCourse("Export test basics");
+        Long course = createCourse("Export test advanced");
+        Tag tag = tagRepository.save(Tag.builder().name("export-test").type(TagType.TOPIC).build());
+
+        LocalDateTime first = nextWatermark();
+        assertThat(exportCourses(null, first)).extracting(row -> row.get("id").asLong()).contains(required, course);
+
+        courseService.updateCourse(course, UpdateCourseRequest.builder().tagIds(List.of(tag.getId())).build(),
+                INSTRUCTOR_ID);
+        LocalDateTime second = nextWatermark();
+        List<JsonNode> tagged = exportCourses(first, second);
+        assertThat(tagged).extracting(row -> row.get("id").asLong()).containsExactly(course);
+        assertThat(tagged.get(0).get("tagIds").get(0).asLong()).isEqualTo(tag.getId());
+
+        courseService.updateCourse(course, UpdateCourseRequest.builder().prerequisiteCourseIds(List.of(required))
+                .build(), INSTRUCTOR_ID);
+        LocalDateTime third = nextWatermark();
+        List<JsonNode> linked = exportCourses(second, third);
+        assertThat(linked).extracting(row -> row.get("id").asLong()).containsExactly(course);
+        assertThat(linked.get(0).get("prerequisiteCourseIds").get(0).asLong()).isEqualTo(required);
+
+        // Same tags and prerequisites again: nothing changed, nothing exported
+        courseService.updateCourse(course, UpdateCourseRequest.builder().tagIds(List.of(tag.getId()))
+                .prerequisiteCourseIds(List.of(required)).build(), INSTRUCTOR_ID);
+        assertThat(exportCourses(third, nextWatermark())).isEmpty();
+    }
+
+    private Long createCourse(String title) {
+        return courseService.createCourse(CreateCourseRequest.builder()
+                .title(title)
+                .visibility(CourseVisibility.PUBLIC)
+                .build(), INSTRUCTOR_ID).getId();
+    }
+
+    // Later updates must not share the watermark's timestamp
+    private LocalDateTime nextWatermark() throws InterruptedException {
+        Thread.sleep(5);
+        LocalDateTime watermark = exportService.watermark();
+        Thread.sleep(5);
+        return watermark;
+    }
+
+    private List<JsonNode> exportCourses(LocalDateTime updatedSince, LocalDateTime watermark) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportCourses(updatedSince, watermark, out);
+        return out.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readTree(line);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                })
+                .toList();
+    }
+}
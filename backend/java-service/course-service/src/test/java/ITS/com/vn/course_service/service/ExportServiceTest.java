@@ -0,0 +1,89 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.repository.ExportRepository;
+import ITS.com.vn.course_service.repository.ExportRepository.CourseExportRow;
+import ITS.com.vn.course_service.repository.ExportRepository.EnrollmentExportRow;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExportServiceTest {
+
+    private static final LocalDateTime SINCE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime WATERMARK = LocalDateTime.of(2025, 1, 2, 0, 0);
+
+    private final ExportRepository repository = mock(ExportRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final ExportService service = new ExportService(repository, new NoOpTransactionManager(),
+            objectMapper, Duration.ofMinutes(1));
+
+    @Test
+    void rowsAreWrittenOnePerLine() throws Exception {
+        when(repository.streamCourses(SINCE, WATERMARK)).thenReturn(Stream.of(course(1L, List.of(4L)),
+                course(2L, List.of())));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = service.exportCourses(SINCE, WATERMARK, out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(count).isEqualTo(2);
+        assertThat(body).endsWith("\n");
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("id").asLong()).isEqualTo(1L);
+        assertThat(first.get("tagIds").get(0).asLong()).isEqualTo(4L);
+        assertThat(first.get("updatedAt").asText()).isEqualTo("2025-01-01T12:00:00");
+        assertThat(objectMapper.readTree(lines.get(1)).get("id").asLong()).isEqualTo(2L);
+    }
+
+    @Test
+    void emptyExportHasEmptyBody() {
+        when(repository.streamCourses(null, WATERMARK)).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(service.exportCourses(null, WATERMARK, out)).isZero();
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    void enrollmentExportPassesWindowAndCourse() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(repository.streamEnrollments(SINCE, WATERMARK, 3L)).thenReturn(Stream.of(new EnrollmentExportRow(
+                        10L, 3L, 9L, "COMPLETED", 100, SINCE, SINCE, SINCE, SINCE, true, SINCE))
+                .onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(service.exportEnrollments(SINCE, WATERMARK, 3L, out)).isEqualTo(1);
+        verify(repository).streamEnrollments(SINCE, WATERMARK, 3L);
+        // The cursor (and its connection) is released once written
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void watermarkLagsBehindNowBySafetyWindow() {
+        assertThat(service.watermark()).isCloseTo(LocalDateTime.now().minusMinutes(1), within(Duration.ofSeconds(5)));
+    }
+
+    private static CourseExportRow course(Long id, List<Long> tagIds) {
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        return new CourseExportRow(id, "CS" + id, "Course " + id, null, "PUBLISHED", "PUBLIC", 7L, null, 3, null,
+                null, null, null, null, tagIds, List.of(), updatedAt, updatedAt, null);
+    }
+}
@@ -0,0 +1,119 @@
+package ITS.com.vn.course_service.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GuardedLruCacheTest {
+
+    private final GuardedLruCache<Long, String> cache = new GuardedLruCache<>(2);
+
+    @Test
+    void loadedValueIsCached() {
+        assertThat(cache.load(1L, () -> "one")).isEqualTo("one");
+
+        assertThat(cache.get(1L)).isEqualTo("one");
+        assertThat(cache.loadingKeys()).isZero();
+    }
+
+    @Test
+    void leastRecentlyUsedKeyIsDroppedBeyondTheMaxSize() {
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        cache.get(1L);
+        cache.put(3L, "three");
+
+        assertThat(cache.get(1L)).isEqualTo("one");
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.get(3L)).isEqualTo("three");
+    }
+
+    @Test
+    void loadRacingWithAnEvictionIsNotCached() {
+        assertThat(cache.load(1L, () -> {
+            cache.evict(1L);
+            return "stale";
+        })).isEqualTo("stale");
+
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    void loadRacingWithEvictAllIsNotCached() {
+        cache.put(2L, "two");
+
+        cache.load(1L, () -> {
+            cache.evictAll();
+            return "stale";
+        });
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L)).isNull();
+    }
+
+    @Test
+    void evictionOfAnotherKeyDoesNotAffectALoad() {
+        cache.load(1L, () -> {
+            cache.evict(2L);
+            return "one";
+        });
+
+        assertThat(cache.get(1L)).isEqualTo("one");
+    }
+
+    @Test
+    void overlappingLoadThatStartedAfterTheEvictionIsCached() {
+        cache.load(1L, () -> {
+            cache.evict(1L);
+            cache.load(1L, () -> "fresh");
+            return "stale";
+        });
+
+        assertThat(cache.get(1L)).isEqualTo("fresh");
+        assertThat(cache.loadingKeys()).isZero();
+    }
+
+    @Test
+    void evictionInATransactionIsRepeatedAfterCompletion() {
+        cache.put(1L, "old");
+
+        new TransactionTemplate(new NoOpTransactionManager()).executeWithoutResult(status -> {
+            cache.evict(1L);
+            assertThat(cache.get(1L)).isNull();
+            // A reader loading before the edit commits caches the old rows...
+            cache.load(1L, () -> "old");
+            assertThat(cache.get(1L)).isEqualTo("old");
+        });
+
+        // ...and that entry is dropped once the transaction completes
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    void failedOrEmptyLoadIsNotCachedAndNotTracked() {
+        AtomicInteger loads = new AtomicInteger();
+        assertThatThrownBy(() -> cache.load(1L, () -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(cache.load(2L, () -> null)).isNull();
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L)).isNull();
+        assertThat(loads).hasValue(1);
+        assertThat(cache.loadingKeys()).isZero();
+    }
+
+    @Test
+    void evictionsOfKeysWithoutLoadsInFlightLeaveNoBookkeeping() {
+        for (long key = 0; key < 10_000; key++) {
+            cache.evict(key);
+        }
+
+        assertThat(cache.loadingKeys()).isZero();
+    }
+}
@@ -0,0 +1,127 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.client.ProfileClient;
+import ITS.com.vn.course_service.dto.external.UserProfileResponse;
+import ITS.com.vn.course_service.dto.response.InstructorSummaryResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class InstructorProfileServiceTest {
+
+    private final ProfileClient profileClient = mock(ProfileClient.class);
+    private final InstructorProfileService service = service(Duration.ofMinutes(10), 100);
+
+    @Test
+    void cachedProfilesAreNotFetchedAgain() {
+        profiles(List.of("1"), profile(1L));
+
+        assertThat(service.getInstructor(1L).getFullName()).isEqualTo("Instructor 1");
+        assertThat(service.getInstructor(1L).getFullName()).isEqualTo("Instructor 1");
+
+        verify(profileClient, times(1)).getProfiles(anyList());
+    }
+
+    @Test
+    void onlyMissingDistinctIdsAreFetchedInOneCall() {
+        profiles(List.of("1"), profile(1L));
+        profiles(List.of("2", "3"), profile(2L), profile(3L));
+        service.getInstructor(1L);
+
+        Map<Long, InstructorSummaryResponse> instructors = service.getInstructors(Arrays.asList(1L, 2L, null, 3L, 2L));
+
+        assertThat(instructors).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(instructors.get(3L).getAvatarUrl()).isEqualTo("https://cdn.example.com/3.png");
+        verify(profileClient).getProfiles(List.of("1"));
+        verify(profileClient).getProfiles(List.of("2", "3"));
+        verifyNoMoreInteractions(profileClient);
+    }
+
+    @Test
+    void expiredProfilesAreFetchedAgain() {
+        InstructorProfileService expiring = service(Duration.ZERO, 100);
+        profiles(List.of("1"), profile(1L));
+
+        expiring.getInstructor(1L);
+        expiring.getInstructor(1L);
+
+        verify(profileClient, times(2)).getProfiles(List.of("1"));
+    }
+
+    @Test
+    void profilesMissingFromABulkResponseAreRememberedAsUnknown() {
+        profiles(List.of("1", "2", "3"), profile(1L), profile(3L));
+
+        assertThat(service.getInstructors(List.of(1L, 2L, 3L))).containsOnlyKeys(1L, 3L);
+        assertThat(service.getInstructor(2L)).isNull();
+
+        // The unknown instructor does not cost a call on every page
+        verify(profileClient, times(1)).getProfiles(anyList());
+    }
+
+    @Test
+    void failedCallsAreNotCached() {
+        when(profileClient.getProfiles(List.of("1")))
+                .thenThrow(new IllegalStateException("user-profile-service unavailable"))
+                .thenReturn(List.of(profile(1L)));
+
+        assertThat(service.getInstructor(1L)).isNull();
+        assertThat(service.getInstructor(1L).getFullName()).isEqualTo("Instructor 1");
+        verify(profileClient, times(2)).getProfiles(List.of("1"));
+    }
+
+    @Test
+    void leastRecentlyUsedProfilesAreDroppedBeyondTheMaxSize() {
+        InstructorProfileService small = service(Duration.ofMinutes(10), 2);
+        profiles(List.of("1"), profile(1L));
+        profiles(List.of("2"), profile(2L));
+        profiles(List.of("3"), profile(3L));
+
+        small.getInstructor(1L);
+        small.getInstructor(2L);
+        small.getInstructor(1L);
+        small.getInstructor(3L);
+        small.getInstructor(1L);
+        small.getInstructor(2L);
+
+        verify(profileClient, times(1)).getProfiles(List.of("1"));
+        verify(profileClient, times(2)).getProfiles(List.of("2"));
+    }
+
+    @Test
+    void emptyRequestsDoNotCallTheClient() {
+        assertThat(service.getInstructor(null)).isNull();
+        assertThat(service.getInstructors(List.of())).isEmpty();
+        assertThat(service.getInstructors(null)).isEmpty();
+
+        verify(profileClient, never()).getProfiles(anyList());
+    }
+
+    private InstructorProfileService service(Duration ttl, int maxSize) {
+        return new InstructorProfileService(profileClient, ttl, maxSize);
+    }
+
+    private void profiles(List<String> ids, UserProfileResponse... profiles) {
+        when(profileClient.getProfiles(ids)).thenReturn(List.of(profiles));
+    }
+
+    private static UserProfileResponse profile(Long id) {
+        return UserProfileResponse.builder()
+                .id(id)
+                .fullName("Instructor " + id)
+                .avatarUrl("https://cdn.example.com/" + id + ".png")
+                .build();
+    }
+}
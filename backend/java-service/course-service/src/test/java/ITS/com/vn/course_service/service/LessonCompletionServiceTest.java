@@ -0,0 +1,63 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.repository.LessonCompletionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.UUID;
+
+import static ITS.com.vn.course_service.service.LessonNavigationTest.bits;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LessonCompletionServiceTest {
+
+    private static final UUID K1 = UUID.randomUUID();
+    private static final UUID K2 = UUID.randomUUID();
+    private static final UUID K3 = UUID.randomUUID();
+
+    private final LessonCompletionRepository repository = mock(LessonCompletionRepository.class);
+    private final LessonCompletionService service = new LessonCompletionService(repository, 100);
+
+    private final LessonNavigation navigation = new LessonNavigation(7L,
+            new long[] { 1, 2, 3 }, new UUID[] { K1, K2, K3 }, new long[] { 1, 1, 2 });
+
+    @Test
+    void progressIsFlooredShareOfCompletedLessons() {
+        assertThat(LessonCompletionService.progressOf(navigation, bits())).isZero();
+        assertThat(LessonCompletionService.progressOf(navigation, bits(0))).isEqualTo(33);
+        assertThat(LessonCompletionService.progressOf(navigation, bits(0, 2))).isEqualTo(66);
+        assertThat(LessonCompletionService.progressOf(navigation, bits(0, 1, 2))).isEqualTo(100);
+    }
+
+    @Test
+    void progressOfVersionWithoutLessonsIsZero() {
+        LessonNavigation empty = new LessonNavigation(8L, new long[0], new UUID[0], new long[0]);
+
+        assertThat(LessonCompletionService.progressOf(empty, new BitSet())).isZero();
+    }
+
+    @Test
+    void nothingStoredAlignsToEmpty() {
+        assertThat(service.align(navigation, null, null)).isEqualTo(new BitSet());
+    }
+
+    @Test
+    void bitmapOfEarlierLayoutIsRemappedByKey() {
+        // Written when the version only had lessons 2 and 3
+        when(repository.findLayout(40L)).thenReturn(Optional.of(new UUID[] { K2, K3 }));
+
+        BitSet aligned = service.align(navigation, bits(0).toByteArray(), 40L);
+
+        assertThat(aligned).isEqualTo(bits(1));
+    }
+
+    @Test
+    void bitmapOfDeletedLayoutAlignsToEmpty() {
+        when(repository.findLayout(41L)).thenReturn(Optional.empty());
+
+        assertThat(service.align(navigation, bits(0, 1).toByteArray(), 41L)).isEqualTo(new BitSet());
+    }
+}
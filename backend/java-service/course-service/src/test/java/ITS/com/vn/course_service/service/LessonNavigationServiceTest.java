@@ -0,0 +1,132 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.repository.ChapterRepository;
+import ITS.com.vn.course_service.repository.ChapterRepository.ChapterOutline;
+import ITS.com.vn.course_service.repository.LessonRepository;
+import ITS.com.vn.course_service.repository.LessonRepository.LessonOutline;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LessonNavigationServiceTest {
+
+    private static final Long VERSION_ID = 7L;
+
+    private final ChapterRepository chapterRepository = mock(ChapterRepository.class);
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+
+    @Test
+    void navigationIsCachedWithinTheValidationInterval() {
+        LessonNavigationService service = service(Duration.ofHours(1));
+        outline(lesson(10, 1), lesson(11, 1));
+        when(lessonRepository.findReadingOrderStamp(VERSION_ID)).thenReturn("a");
+
+        LessonNavigation first = service.getNavigation(VERSION_ID);
+        LessonNavigation second = service.getNavigation(VERSION_ID);
+
+        assertThat(second).isSameAs(first);
+        verify(lessonRepository, times(1)).findOutlinesByVersionId(VERSION_ID);
+        verify(lessonRepository, times(1)).findReadingOrderStamp(VERSION_ID);
+    }
+
+    @Test
+    void unchangedStampKeepsTheCachedNavigation() {
+        LessonNavigationService service = service(Duration.ZERO);
+        outline(lesson(10, 1), lesson(11, 1));
+        when(lessonRepository.findReadingOrderStamp(VERSION_ID)).thenReturn("a");
+
+        LessonNavigation first = service.getNavigation(VERSION_ID);
+        LessonNavigation second = service.getNavigation(VERSION_ID);
+
+        assertThat(second).isSameAs(first);
+        verify(lessonRepository, times(1)).findOutlinesByVersionId(VERSION_ID);
+        verify(lessonRepository, times(2)).findReadingOrderStamp(VERSION_ID);
+    }
+
+    @Test
+    void orderChangedOnAnotherInstanceIsRebuiltOnceStale() {
+        LessonNavigationService service = service(Duration.ZERO);
+        outline(lesson(10, 1), lesson(11, 1));
+        when(lessonRepository.findReadingOrderStamp(VERSION_ID)).thenReturn("a");
+        assertThat(service.getNavigation(VERSION_ID).size()).isEqualTo(2);
+
+        // Lesson 12 added by another instance: no eviction reaches this one
+        outline(lesson(10, 1), lesson(11, 1), lesson(12, 1));
+        when(lessonRepository.findReadingOrderStamp(VERSION_ID)).thenReturn("b");
+
+        LessonNavigation rebuilt = service.getNavigation(VERSION_ID);
+        assertThat(rebuilt.size()).isEqualTo(3);
+        assertThat(rebuilt.positionOf(12L)).isEqualTo(2);
+    }
+
+    @Test
+    void currentNavigationIsValidatedWithinTheInterval() {
+        LessonNavigationService service = service(Duration.ofHours(1));
+        outline(lesson(10, 1), lesson(11, 1));
+        when(lessonRepository.findReadingOrderStamp(VERSION_ID)).thenReturn("a");
+        service.getNavigation(VERSION_ID);
+
+        outline(lesson(11, 1), lesson(10, 1));
+        when(lessonRepository.findReadingOrderStamp(VERSION_ID)).thenReturn("b");
+
+        // Plain reads may serve the cached order until the interval ends; writers may not
+        assertThat(service.getNavigation(VERSION_ID).positionOf(10L)).isZero();
+        assertThat(service.getCurrentNavigation(VERSION_ID).positionOf(10L)).isEqualTo(1);
+        assertThat(service.getNavigation(VERSION_ID).positionOf(10L)).isEqualTo(1);
+    }
+
+    @Test
+    void evictionRebuildsWithoutWaitingForTheInterval() {
+        LessonNavigationService service = service(Duration.ofHours(1));
+        outline(lesson(10, 1));
+        when(lessonRepository.findReadingOrderStamp(VERSION_ID)).thenReturn("a");
+        service.getNavigation(VERSION_ID);
+
+        outline(lesson(10, 1), lesson(20, 2));
+        when(lessonRepository.findReadingOrderStamp(VERSION_ID)).thenReturn("b");
+        service.evict(VERSION_ID);
+
+        LessonNavigation rebuilt = service.getNavigation(VERSION_ID);
+        assertThat(rebuilt.size()).isEqualTo(2);
+        assertThat(rebuilt.chapterStart(2L)).isEqualTo(1);
+    }
+
+    private LessonNavigationService service(Duration validateAfter) {
+        return new LessonNavigationService(chapterRepository, lessonRepository, new NoOpTransactionManager(), 100,
+                validateAfter);
+    }
+
+    // Chapters in ascending ID order, lessons in the order given
+    private void outline(LessonOutline... lessons) {
+        List<ChapterOutline> chapters = List.of(lessons).stream()
+                .map(LessonOutline::getChapterId)
+                .distinct()
+                .sorted()
+                .map(LessonNavigationServiceTest::chapter)
+                .toList();
+        when(chapterRepository.findOutlinesByVersionId(VERSION_ID)).thenReturn(chapters);
+        when(lessonRepository.findOutlinesByVersionId(VERSION_ID)).thenReturn(List.of(lessons));
+    }
+
+    private static ChapterOutline chapter(Long id) {
+        ChapterOutline chapter = mock(ChapterOutline.class);
+        when(chapter.getId()).thenReturn(id);
+        return chapter;
+    }
+
+    private static LessonOutline lesson(long id, long chapterId) {
+        LessonOutline lesson = mock(LessonOutline.class);
+        when(lesson.getId()).thenReturn(id);
+        when(lesson.getChapterId()).thenReturn(chapterId);
+        when(lesson.getLessonKey()).thenReturn(UUID.randomUUID());
+        return lesson;
+    }
+}
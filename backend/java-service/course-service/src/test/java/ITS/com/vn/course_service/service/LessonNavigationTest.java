@@ -0,0 +1,108 @@
+package ITS.com.vn.course_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LessonNavigationTest {
+
+    private static final UUID K10 = UUID.randomUUID();
+    private static final UUID K11 = UUID.randomUUID();
+    private static final UUID K12 = UUID.randomUUID();
+    private static final UUID K20 = UUID.randomUUID();
+    private static final UUID K21 = UUID.randomUUID();
+    private static final UUID K22 = UUID.randomUUID();
+
+    // Chapter 1: lessons 10, 11; chapter 2: lessons 20, 21, 22
+    private final LessonNavigation navigation = new LessonNavigation(1L,
+            new long[] { 10, 11, 20, 21, 22 },
+            new UUID[] { K10, K11, K20, K21, K22 },
+            new long[] { 1, 1, 2, 2, 2 });
+
+    @Test
+    void chapterRangesCoverContiguousPositions() {
+        assertThat(navigation.chapterStart(1L)).isZero();
+        assertThat(navigation.chapterEnd(1L)).isEqualTo(2);
+        assertThat(navigation.chapterStart(2L)).isEqualTo(2);
+        assertThat(navigation.chapterEnd(2L)).isEqualTo(5);
+    }
+
+    @Test
+    void chapterWithoutLessonsHasNoRange() {
+        assertThat(navigation.chapterStart(3L)).isEqualTo(-1);
+        assertThat(navigation.chapterEnd(3L)).isEqualTo(-1);
+    }
+
+    @Test
+    void remapToSameLayoutKeepsBits() {
+        BitSet completed = bits(0, 3);
+
+        assertThat(navigation.remap(navigation.getLessonKeys(), completed)).isEqualTo(bits(0, 3));
+    }
+
+    @Test
+    void remapToSameLayoutDropsBitsBeyondTheLessons() {
+        assertThat(navigation.remap(navigation.getLessonKeys(), bits(1, 7))).isEqualTo(bits(1));
+    }
+
+    @Test
+    void remapFollowsLessonsWhenLessonsAreAddedAndRemoved() {
+        // Lesson 12 added at the front of chapter 1, lesson 20 deleted
+        LessonNavigation edited = new LessonNavigation(1L,
+                new long[] { 12, 10, 11, 21, 22 },
+                new UUID[] { K12, K10, K11, K21, K22 },
+                new long[] { 1, 1, 1, 2, 2 });
+
+        BitSet remapped = edited.remap(navigation.getLessonKeys(), bits(0, 2, 3));
+
+        // 10 -> 1, 20 dropped, 21 -> 3
+        assertThat(remapped).isEqualTo(bits(1, 3));
+    }
+
+    @Test
+    void remapCarriesBitsIntoNewVersionByLessonKey() {
+        // New version with new lesson IDs; lesson 11 and 22 were carried over under their keys
+        LessonNavigation nextVersion = new LessonNavigation(2L,
+                new long[] { 110, 122, 130 },
+                new UUID[] { K11, K22, UUID.randomUUID() },
+                new long[] { 5, 5, 6 });
+
+        BitSet remapped = nextVersion.remap(navigation.getLessonKeys(), bits(1, 2, 4));
+
+        assertThat(remapped).isEqualTo(bits(0, 1));
+    }
+
+    @Test
+    void remapSkipsLessonsDeletedBeforeTheirKeysWereRecorded() {
+        UUID[] layout = { K10, null, K20 };
+
+        assertThat(navigation.remap(layout, bits(0, 1, 2))).isEqualTo(bits(0, 2));
+    }
+
+    @Test
+    void fingerprintChangesWithReadingOrder() {
+        LessonNavigation reordered = new LessonNavigation(1L,
+                new long[] { 11, 10, 20, 21, 22 },
+                new UUID[] { K11, K10, K20, K21, K22 },
+                new long[] { 1, 1, 2, 2, 2 });
+
+        assertThat(reordered.getFingerprint()).isNotEqualTo(navigation.getFingerprint());
+    }
+
+    @Test
+    void firstIncompleteSkipsCompletedLessons() {
+        assertThat(navigation.firstIncomplete(bits(0, 1))).isEqualTo(20L);
+        assertThat(navigation.firstIncomplete(bits(0, 1, 2, 3, 4))).isNull();
+    }
+
+    static BitSet bits(int... positions) {
+        BitSet bits = new BitSet();
+        for (int position : positions) {
+            bits.set(position);
+        }
+        return bits;
+    }
+}
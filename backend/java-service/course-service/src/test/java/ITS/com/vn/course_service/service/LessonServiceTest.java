@@ -0,0 +1,324 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.Chapter;
+import ITS.com.vn.course_service.domain.entity.Course;
+import ITS.com.vn.course_service.domain.entity.CourseVersion;
+import ITS.com.vn.course_service.domain.entity.Lesson;
+import ITS.com.vn.course_service.domain.enums.LessonType;
+import ITS.com.vn.course_service.domain.enums.VersionStatus;
+import ITS.com.vn.course_service.dto.request.MoveLessonRequest;
+import ITS.com.vn.course_service.dto.request.ReorderLessonsRequest;
+import ITS.com.vn.course_service.dto.response.LessonResponse;
+import ITS.com.vn.course_service.exception.BadRequestException;
+import ITS.com.vn.course_service.mapper.CourseMapper;
+import ITS.com.vn.course_service.repository.AssetMetadataRepository;
+import ITS.com.vn.course_service.repository.AssignmentRepository;
+import ITS.com.vn.course_service.repository.ChapterRepository;
+import ITS.com.vn.course_service.repository.CourseContentJdbcRepository;
+import ITS.com.vn.course_service.repository.LessonRepository;
+import ITS.com.vn.course_service.repository.LessonRepository.LessonSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Lesson reorder and move against an in-memory lessons table
+ */
+class LessonServiceTest {
+
+    private static final Long INSTRUCTOR_ID = 1L;
+    private static final Long VERSION_ID = 5L;
+    private static final Long CHAPTER_A = 10L;
+    private static final Long CHAPTER_B = 20L;
+    private static final Long OTHER_VERSION_CHAPTER = 30L;
+
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final ChapterRepository chapterRepository = mock(ChapterRepository.class);
+    private final CourseContentJdbcRepository courseContentJdbcRepository = mock(CourseContentJdbcRepository.class);
+    private final LessonNavigationService lessonNavigationService = mock(LessonNavigationService.class);
+    private final CourseMapper courseMapper = mock(CourseMapper.class);
+    private final LessonService lessonService = new LessonService(lessonRepository, chapterRepository,
+            mock(AssetMetadataRepository.class), mock(AssignmentRepository.class), courseContentJdbcRepository,
+            mock(CourseStructureService.class), mock(AdaptiveRuleService.class), lessonNavigationService,
+            mock(LessonCompletionService.class), courseMapper);
+
+    // Lesson ID -> row, the "lessons" table
+    private final Map<Long, LessonRow> lessons = new LinkedHashMap<>();
+    private final Map<Long, Chapter> chapters = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        Course course = Course.builder().id(100L).instructorId(INSTRUCTOR_ID).build();
+        CourseVersion version = CourseVersion.builder().id(VERSION_ID).course(course).status(VersionStatus.DRAFT)
+                .build();
+        CourseVersion otherVersion = CourseVersion.builder().id(6L).course(course).status(VersionStatus.DRAFT)
+                .build();
+        chapters.put(CHAPTER_A, Chapter.builder().id(CHAPTER_A).version(version).build());
+        chapters.put(CHAPTER_B, Chapter.builder().id(CHAPTER_B).version(version).build());
+        chapters.put(OTHER_VERSION_CHAPTER, Chapter.builder().id(OTHER_VERSION_CHAPTER).version(otherVersion).build());
+
+        when(chapterRepository.findById(anyLong()))
+                .thenAnswer(inv -> Optional.ofNullable(chapters.get(inv.<Long>getArgument(0))));
+        when(lessonRepository.findById(anyLong())).thenAnswer(inv -> {
+            LessonRow row = lessons.get(inv.<Long>getArgument(0));
+            return Optional.ofNullable(row == null ? null
+                    : Lesson.builder().id(row.id).chapter(chapters.get(row.chapterId)).sequence(row.sequence)
+                            .build());
+        });
+        when(lessonRepository.findSummariesByChapterId(anyLong()))
+                .thenAnswer(inv -> chapterLessons(inv.getArgument(0)));
+        when(courseMapper.toLessonSummaryResponseList(anyList())).thenAnswer(inv -> inv.<List<LessonSummary>>getArgument(0)
+                .stream()
+                .map(lesson -> LessonResponse.builder().id(lesson.getId()).sequence(lesson.getSequence()).build())
+                .toList());
+
+        doAnswer(inv -> {
+            LessonRow row = lessons.get(inv.<Long>getArgument(0));
+            row.chapterId = inv.getArgument(1);
+            row.sequence = inv.getArgument(2);
+            return null;
+        }).when(courseContentJdbcRepository).moveLesson(anyLong(), anyLong(), anyInt());
+        doAnswer(inv -> {
+            List<LessonSummary> ordered = chapterLessons(inv.getArgument(0));
+            for (int i = 0; i < ordered.size(); i++) {
+                lessons.get(ordered.get(i).getId()).sequence = (i + 1) * inv.<Integer>getArgument(1);
+            }
+            return null;
+        }).when(courseContentJdbcRepository).renumberLessons(anyLong(), anyInt());
+        when(courseContentJdbcRepository.updateLessonSequences(anyLong(), anyList(), anyList())).thenAnswer(inv -> {
+            List<Long> ids = inv.getArgument(1);
+            List<Integer> sequences = inv.getArgument(2);
+            int changed = 0;
+            for (int i = 0; i < ids.size(); i++) {
+                LessonRow row = lessons.get(ids.get(i));
+                if (row.sequence != sequences.get(i)) {
+                    row.sequence = sequences.get(i);
+                    changed++;
+                }
+            }
+            return changed;
+        });
+    }
+
+    @Test
+    void reorderRewritesSequencesInTheGivenOrder() {
+        lesson(1, CHAPTER_A, 1024);
+        lesson(2, CHAPTER_A, 2048);
+        lesson(3, CHAPTER_A, 3072);
+
+        List<LessonResponse> result = lessonService.reorderLessons(CHAPTER_A,
+                new ReorderLessonsRequest(List.of(3L, 1L, 2L)), INSTRUCTOR_ID);
+
+        assertThat(result).extracting(LessonResponse::getId).containsExactly(3L, 1L, 2L);
+        assertThat(result).extracting(LessonResponse::getSequence).containsExactly(1024, 2048, 3072);
+        verify(lessonNavigationService).evict(VERSION_ID);
+    }
+
+    @Test
+    void reorderRequiresEveryLessonOfTheChapterOnce() {
+        lesson(1, CHAPTER_A, 1024);
+        lesson(2, CHAPTER_A, 2048);
+        lesson(4, CHAPTER_B, 1024);
+
+        assertThatThrownBy(() -> lessonService.reorderLessons(CHAPTER_A,
+                new ReorderLessonsRequest(List.of(1L)), INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> lessonService.reorderLessons(CHAPTER_A,
+                new ReorderLessonsRequest(List.of(1L, 1L)), INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> lessonService.reorderLessons(CHAPTER_A,
+                new ReorderLessonsRequest(List.of(1L, 4L)), INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("4");
+        verify(courseContentJdbcRepository, never()).updateLessonSequences(anyLong(), anyList(), anyList());
+    }
+
+    @Test
+    void moveWritesOnlyTheMovedLessonIntoTheGap() {
+        lesson(1, CHAPTER_A, 1024);
+        lesson(2, CHAPTER_A, 2048);
+        lesson(3, CHAPTER_A, 3072);
+
+        List<LessonResponse> result = lessonService.moveLesson(CHAPTER_A, 3L, move(null, 1L), INSTRUCTOR_ID);
+
+        assertThat(result).extracting(LessonResponse::getId).containsExactly(1L, 3L, 2L);
+        verify(courseContentJdbcRepository).moveLesson(3L, CHAPTER_A, 1536);
+        verify(courseContentJdbcRepository, never()).renumberLessons(anyLong(), anyInt());
+        verify(lessonNavigationService).evict(VERSION_ID);
+    }
+
+    @Test
+    void moveToTheFrontAndTheEnd() {
+        lesson(1, CHAPTER_A, 1024);
+        lesson(2, CHAPTER_A, 2048);
+        lesson(3, CHAPTER_A, 3072);
+
+        assertThat(lessonService.moveLesson(CHAPTER_A, 3L, move(null, null), INSTRUCTOR_ID))
+                .extracting(LessonResponse::getId).containsExactly(3L, 1L, 2L);
+        assertThat(lessonService.moveLesson(CHAPTER_A, 3L, move(null, 2L), INSTRUCTOR_ID))
+                .extracting(LessonResponse::getId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void moveInPlaceWritesNothing() {
+        lesson(1, CHAPTER_A, 1024);
+        lesson(2, CHAPTER_A, 2048);
+
+        assertThat(lessonService.moveLesson(CHAPTER_A, 2L, move(null, 1L), INSTRUCTOR_ID))
+                .extracting(LessonResponse::getId).containsExactly(1L, 2L);
+        assertThat(lessonService.moveLesson(CHAPTER_A, 1L, move(null, null), INSTRUCTOR_ID))
+                .extracting(LessonResponse::getId).containsExactly(1L, 2L);
+        verify(courseContentJdbcRepository, never()).moveLesson(anyLong(), anyLong(), anyInt());
+        verify(lessonNavigationService, never()).evict(any());
+    }
+
+    @Test
+    void moveBetweenAdjacentNeighboursRenumbersTheChapterOnce() {
+        lesson(1, CHAPTER_A, 1024);
+        lesson(2, CHAPTER_A, 1025);
+        lesson(3, CHAPTER_A, 2048);
+
+        List<LessonResponse> result = lessonService.moveLesson(CHAPTER_A, 3L, move(null, 1L), INSTRUCTOR_ID);
+
+        assertThat(result).extracting(LessonResponse::getId).containsExactly(1L, 3L, 2L);
+        assertThat(result).extracting(LessonResponse::getSequence).containsExactly(1024, 1536, 2048);
+        verify(courseContentJdbcRepository).renumberLessons(CHAPTER_A, SequencePositions.GAP);
+    }
+
+    @Test
+    void moveIntoAnotherChapterOfTheVersion() {
+        lesson(1, CHAPTER_A, 1024);
+        lesson(2, CHAPTER_A, 2048);
+        lesson(4, CHAPTER_B, 1024);
+
+        List<LessonResponse> result = lessonService.moveLesson(CHAPTER_A, 1L, move(CHAPTER_B, 4L), INSTRUCTOR_ID);
+
+        assertThat(result).extracting(LessonResponse::getId).containsExactly(4L, 1L);
+        assertThat(chapterLessons(CHAPTER_A)).extracting(LessonSummary::getId).containsExactly(2L);
+        verify(courseContentJdbcRepository).moveLesson(1L, CHAPTER_B, 2048);
+    }
+
+    @Test
+    void moveRejectsLessonOutsideThePathChapter() {
+        lesson(1, CHAPTER_A, 1024);
+        lesson(4, CHAPTER_B, 1024);
+
+        assertThatThrownBy(() -> lessonService.moveLesson(CHAPTER_B, 1L, move(null, 4L), INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Lesson not found in chapter");
+        verify(courseContentJdbcRepository, never()).moveLesson(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void moveRejectsInvalidTargets() {
+        lesson(1, CHAPTER_A, 1024);
+        lesson(2, CHAPTER_A, 2048);
+        lesson(4, CHAPTER_B, 1024);
+
+        assertThatThrownBy(() -> lessonService.moveLesson(CHAPTER_A, 1L, move(null, 1L), INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class);
+        // The lesson to move after must be in the target chapter
+        assertThatThrownBy(() -> lessonService.moveLesson(CHAPTER_A, 1L, move(null, 4L), INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> lessonService.moveLesson(CHAPTER_A, 1L, move(OTHER_VERSION_CHAPTER, null),
+                INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("same version");
+        verify(courseContentJdbcRepository, never()).moveLesson(anyLong(), anyLong(), anyInt());
+    }
+
+    private static MoveLessonRequest move(Long targetChapterId, Long afterLessonId) {
+        return MoveLessonRequest.builder().targetChapterId(targetChapterId).afterLessonId(afterLessonId).build();
+    }
+
+    private void lesson(long id, Long chapterId, int sequence) {
+        lessons.put(id, new LessonRow(id, chapterId, sequence));
+    }
+
+    private List<LessonSummary> chapterLessons(Long chapterId) {
+        return lessons.values().stream()
+                .filter(row -> row.chapterId.equals(chapterId))
+                .sorted(Comparator.comparingInt((LessonRow row) -> row.sequence).thenComparingLong(row -> row.id))
+                .map(row -> (LessonSummary) row.snapshot())
+                .toList();
+    }
+
+    private static final class LessonRow {
+        private final long id;
+        private Long chapterId;
+        private int sequence;
+
+        private LessonRow(long id, Long chapterId, int sequence) {
+            this.id = id;
+            this.chapterId = chapterId;
+            this.sequence = sequence;
+        }
+
+        private Summary snapshot() {
+            return new Summary(id, chapterId, sequence);
+        }
+    }
+
+    private record Summary(Long getId, Long getChapterId, Integer getSequence) implements LessonSummary {
+
+        @Override
+        public UUID getLessonKey() {
+            return null;
+        }
+
+        @Override
+        public String getTitle() {
+            return "Lesson " + getId;
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public LessonType getType() {
+            return null;
+        }
+
+        @Override
+        public Double getMasteryThreshold() {
+            return null;
+        }
+
+        @Override
+        public Integer getEstimatedDuration() {
+            return null;
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return null;
+        }
+
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ITS.com.vn.course_service.service;
+
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+/**
+ * Base of the PostgreSQL tests that do not look at published events: the publisher is mocked, so
+ * their writes add no outbox rows
+ */
+@MockitoBean(types = EventPublisherService.class)
+abstract class MockedEventsIntegrationTest extends PostgresIntegrationTest {
+}
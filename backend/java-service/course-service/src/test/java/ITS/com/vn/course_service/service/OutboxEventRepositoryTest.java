@@ -0,0 +1,141 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.Course;
+import ITS.com.vn.course_service.dto.event.StudentEnrolledEvent;
+import ITS.com.vn.course_service.dto.response.EnrollmentResponse;
+import ITS.com.vn.course_service.repository.CourseRepository;
+import ITS.com.vn.course_service.repository.OutboxEventRepository;
+import ITS.com.vn.course_service.repository.OutboxEventRepository.OutboxEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Outbox rows commit and roll back with the change that produced them, and concurrent relays
+ * lock disjoint batches. Needs Docker (skipped otherwise).
+ */
+class OutboxEventRepositoryTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EventPublisherService eventPublisherService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clearOutbox() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+    }
+
+    @Test
+    void enrollmentWritesItsEventInTheSameTransaction() {
+        Course course = courseRepository.save(Course.builder().title("Outbox test").instructorId(1L).build());
+
+        EnrollmentResponse enrollment = enrollmentService.enrollStudent(course.getId(), 77L);
+
+        List<OutboxEvent> events = transactionTemplate.execute(status -> outboxEventRepository.lockDueEvents(10));
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.eventType()).isEqualTo("STUDENT_ENROLLED");
+            assertThat(event.routingKey()).isEqualTo("student.enrolled");
+            assertThat(event.payload()).contains("\"studentId\":77", "\"enrollmentId\":" + enrollment.getId());
+        });
+        assertThat(jdbcTemplate.queryForObject("SELECT aggregate_id FROM outbox_events", Long.class))
+                .isEqualTo(enrollment.getId());
+    }
+
+    @Test
+    void eventsRollBackWithTheirTransaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisherService.publishStudentEnrolled(event(1L));
+            status.setRollbackOnly();
+        });
+
+        assertThat(outboxEventRepository.getBacklog().pending()).isZero();
+    }
+
+    @Test
+    void concurrentRelaysLockDisjointBatches() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> eventPublisherService.publishStudentEnrolledBatch(
+                List.of(event(1L), event(2L), event(3L), event(4L), event(5L))));
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<OutboxEvent>> first = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    List<OutboxEvent> batch = outboxEventRepository.lockDueEvents(3);
+                    locked.countDown();
+                    await(release);
+                    return batch;
+                }));
+        assertThat(locked.await(30, TimeUnit.SECONDS)).isTrue();
+
+        List<OutboxEvent> second = transactionTemplate.execute(status -> outboxEventRepository.lockDueEvents(3));
+        release.countDown();
+
+        assertThat(first.get(30, TimeUnit.SECONDS)).hasSize(3);
+        assertThat(second).hasSize(2);
+        assertThat(second).extracting(OutboxEvent::id)
+                .doesNotContainAnyElementsOf(first.get().stream().map(OutboxEvent::id).toList());
+    }
+
+    @Test
+    void failedEventsWaitForTheirRetryTime() {
+        transactionTemplate.executeWithoutResult(status -> eventPublisherService.publishStudentEnrolledBatch(
+                List.of(event(1L), event(2L))));
+        List<Long> ids = transactionTemplate.execute(status -> outboxEventRepository.lockDueEvents(10).stream()
+                .map(OutboxEvent::id)
+                .toList());
+
+        outboxEventRepository.markFailed(ids.subList(0, 1), "broker down", Duration.ofHours(1));
+
+        List<OutboxEvent> due = transactionTemplate.execute(status -> outboxEventRepository.lockDueEvents(10));
+        assertThat(due).extracting(OutboxEvent::id).containsExactly(ids.get(1));
+        assertThat(jdbcTemplate.queryForObject("SELECT attempts FROM outbox_events WHERE id = ?", Integer.class,
+                ids.get(0))).isEqualTo(1);
+
+        outboxEventRepository.delete(ids);
+        assertThat(outboxEventRepository.getBacklog().pending()).isZero();
+    }
+
+    private static StudentEnrolledEvent event(Long enrollmentId) {
+        return StudentEnrolledEvent.builder()
+                .enrollmentId(enrollmentId)
+                .courseId(1L)
+                .studentId(100 + enrollmentId)
+                .enrolledAt(LocalDateTime.now())
+                .eventType("STUDENT_ENROLLED")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.repository.OutboxEventRepository;
+import ITS.com.vn.course_service.repository.OutboxEventRepository.Backlog;
+import ITS.com.vn.course_service.repository.OutboxEventRepository.OutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitOperations.OperationsCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final int MAX_BATCHES = 3;
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(10);
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final RabbitOperations operations = mock(RabbitOperations.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboxRelay relay = new OutboxRelay(repository, rabbitTemplate,
+            new TransactionTemplate(new NoOpTransactionManager()), meterRegistry, BATCH_SIZE, MAX_BATCHES,
+            Duration.ofSeconds(5), RETRY_DELAY);
+
+    @BeforeEach
+    void setUp() {
+        // Sends of a batch run on the one channel handed to the callback
+        when(rabbitTemplate.invoke(any()))
+                .thenAnswer(inv -> inv.<OperationsCallback<Object>>getArgument(0).doInRabbit(operations));
+    }
+
+    @Test
+    void confirmedBatchIsDeleted() {
+        when(repository.lockDueEvents(BATCH_SIZE)).thenReturn(List.of(event(1, "Event1"))).thenReturn(List.of());
+
+        relay.relay();
+
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        verify(operations).send(eq("course.exchange"), eq("student.enrolled"), message.capture());
+        verify(operations).waitForConfirmsOrDie(5000);
+        assertThat(new String(message.getValue().getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"n\":1}");
+        assertThat(message.getValue().getMessageProperties().getMessageId()).isEqualTo("outbox-1");
+        assertThat(message.getValue().getMessageProperties()
+                .<String>getHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME)).isEqualTo("Event1");
+        verify(repository).delete(List.of(1L));
+        verify(repository, times(1)).lockDueEvents(anyInt());
+        assertThat(meterRegistry.counter("course.outbox.published").count()).isEqualTo(1);
+    }
+
+    @Test
+    void fullBatchesAreDrainedUpToTheRunLimit() {
+        List<List<OutboxEvent>> batches = new ArrayList<>();
+        for (int batch = 0; batch < 5; batch++) {
+            batches.add(List.of(event(batch * 2 + 1, null), event(batch * 2 + 2, null)));
+        }
+        when(repository.lockDueEvents(BATCH_SIZE))
+                .thenReturn(batches.get(0), batches.get(1), batches.get(2), batches.get(3), batches.get(4));
+
+        relay.relay();
+
+        verify(repository, times(MAX_BATCHES)).lockDueEvents(BATCH_SIZE);
+        verify(repository).delete(List.of(5L, 6L));
+        verify(repository, never()).delete(List.of(7L, 8L));
+        assertThat(meterRegistry.counter("course.outbox.published").count()).isEqualTo(6);
+    }
+
+    @Test
+    void unconfirmedBatchIsPostponedNotDeleted() {
+        when(repository.lockDueEvents(BATCH_SIZE)).thenReturn(List.of(event(1, null), event(2, null)));
+        doThrow(new AmqpTimeoutException("no confirms")).when(operations).waitForConfirmsOrDie(anyLong());
+
+        relay.relay();
+
+        verify(repository).markFailed(List.of(1L, 2L), "no confirms", RETRY_DELAY);
+        verify(repository, never()).delete(anyCollection());
+        // A failed batch ends the run instead of spinning on the same rows
+        verify(repository, times(1)).lockDueEvents(anyInt());
+        assertThat(meterRegistry.counter("course.outbox.failed").count()).isEqualTo(2);
+    }
+
+    @Test
+    void emptyOutboxSendsNothing() {
+        when(repository.lockDueEvents(BATCH_SIZE)).thenReturn(List.of());
+
+        relay.relay();
+
+        verify(rabbitTemplate, never()).invoke(any());
+        verify(repository, never()).markFailed(anyCollection(), anyString(), any());
+    }
+
+    @Test
+    void backlogGaugesReportPendingEventsAndLag() {
+        when(repository.getBacklog()).thenReturn(new Backlog(42, LocalDateTime.now().minusMinutes(2)));
+
+        relay.refreshBacklog();
+
+        assertThat(meterRegistry.get("course.outbox.pending").gauge().value()).isEqualTo(42);
+        assertThat(meterRegistry.get("course.outbox.lag").gauge().value()).isBetween(119.0, 125.0);
+
+        when(repository.getBacklog()).thenReturn(new Backlog(0, null));
+        relay.refreshBacklog();
+        assertThat(meterRegistry.get("course.outbox.lag").gauge().value()).isZero();
+    }
+
+    private static OutboxEvent event(long id, String typeId) {
+        return new OutboxEvent(id, "STUDENT_ENROLLED", "course.exchange", "student.enrolled", typeId,
+                "{\"n\":" + id + "}", 0, LocalDateTime.now());
+    }
+}
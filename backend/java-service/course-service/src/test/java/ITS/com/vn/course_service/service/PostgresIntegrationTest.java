@@ -0,0 +1,32 @@
+package ITS.com.vn.course_service.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base of the tests that run against a real PostgreSQL. Needs Docker (skipped otherwise).
+ * The container is started once and shared by every subclass (stopped when the JVM exits), and
+ * subclasses with the same configuration share one application context, so tests must not rely
+ * on an empty database: use their own courses, instructors and students.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "application.outbox.relay.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.ITS.com.vn.course_service=INFO"
+})
+@Testcontainers(disabledWithoutDocker = true)
+abstract class PostgresIntegrationTest {
+
+    // Not a @Container: that would stop it after the first class while cached contexts still use it
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+}
@@ -0,0 +1,78 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.enums.CourseVisibility;
+import ITS.com.vn.course_service.dto.request.CreateCourseRequest;
+import ITS.com.vn.course_service.dto.request.UpdateCourseRequest;
+import ITS.com.vn.course_service.exception.BadRequestException;
+import ITS.com.vn.course_service.repository.PrerequisiteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two instructors making two courses require each other at the same time must not commit a
+ * cycle: exactly one of the edits wins. Needs Docker (skipped otherwise).
+ */
+class PrerequisiteCycleConcurrencyTest extends MockedEventsIntegrationTest {
+
+    private static final int ROUNDS = 50;
+    private static final Long INSTRUCTOR_ID = 1L;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private PrerequisiteRepository prerequisiteRepository;
+
+    @Test
+    void concurrentEditsNeverCommitACycle() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Long first = createCourse("Cycle test A" + round);
+                Long second = createCourse("Cycle test B" + round);
+
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Boolean> firstEdit = pool.submit(() -> require(start, first, second));
+                Future<Boolean> secondEdit = pool.submit(() -> require(start, second, first));
+                start.countDown();
+
+                boolean firstApplied = firstEdit.get(30, TimeUnit.SECONDS);
+                boolean secondApplied = secondEdit.get(30, TimeUnit.SECONDS);
+                assertThat(firstApplied ^ secondApplied)
+                        .as("exactly one edit of round %d is applied", round)
+                        .isTrue();
+                assertThat(prerequisiteRepository.isRequiredByAny(List.of(first), first)).isFalse();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Long createCourse(String title) {
+        return courseService.createCourse(CreateCourseRequest.builder()
+                .title(title)
+                .visibility(CourseVisibility.PUBLIC)
+                .build(), INSTRUCTOR_ID).getId();
+    }
+
+    private boolean require(CountDownLatch start, Long courseId, Long requiredCourseId) throws InterruptedException {
+        start.await();
+        try {
+            courseService.updateCourse(courseId, UpdateCourseRequest.builder()
+                    .prerequisiteCourseIds(List.of(requiredCourseId))
+                    .build(), INSTRUCTOR_ID);
+            return true;
+        } catch (BadRequestException ex) {
+            return false;
+        }
+    }
+}
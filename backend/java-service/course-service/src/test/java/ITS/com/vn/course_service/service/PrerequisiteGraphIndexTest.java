@@ -0,0 +1,160 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.enums.PrerequisiteType;
+import ITS.com.vn.course_service.repository.PrerequisiteRepository;
+import ITS.com.vn.course_service.repository.PrerequisiteRepository.PrerequisiteEdge;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrerequisiteGraphIndexTest {
+
+    private final PrerequisiteRepository repository = mock(PrerequisiteRepository.class);
+    private final PrerequisiteGraphIndex index = new PrerequisiteGraphIndex(repository, new NoOpTransactionManager());
+
+    @Test
+    void missingHardPrerequisitesAreTransitive() {
+        // 3 requires 2 (HARD), 2 requires 1 (HARD) and 4 (SOFT)
+        when(repository.findAllEdges()).thenReturn(List.of(
+                edge(3, 2, PrerequisiteType.HARD),
+                edge(2, 1, PrerequisiteType.HARD),
+                edge(2, 4, PrerequisiteType.SOFT)));
+        index.rebuild();
+
+        assertThat(index.hasHardPrerequisites(3L)).isTrue();
+        assertThat(index.hasHardPrerequisites(4L)).isFalse();
+        assertThat(index.findMissingHardPrerequisites(3L, List.of())).containsExactly(1L, 2L);
+        assertThat(index.findMissingHardPrerequisites(3L, List.of(1L))).containsExactly(2L);
+    }
+
+    @Test
+    void cycleIsReportedWithItsPath() {
+        when(repository.findAllEdges()).thenReturn(List.of(
+                edge(3, 2, PrerequisiteType.HARD),
+                edge(2, 1, PrerequisiteType.SOFT)));
+        index.rebuild();
+
+        assertThat(index.findCycle(1L, List.of(3L))).containsExactly(1L, 3L, 2L, 1L);
+        assertThat(index.findCycle(1L, List.of(1L))).containsExactly(1L, 1L);
+        assertThat(index.findCycle(3L, List.of(1L))).isEmpty();
+    }
+
+    @Test
+    void editsAreAppliedIncrementally() {
+        when(repository.findAllEdges()).thenReturn(List.of(edge(3, 2, PrerequisiteType.HARD)));
+        index.rebuild();
+
+        index.updateAfterCommit(2L, Map.of(1L, PrerequisiteType.HARD));
+        assertThat(index.findMissingHardPrerequisites(3L, List.of())).containsExactly(1L, 2L);
+
+        index.removeAfterCommit(2L);
+        assertThat(index.hasHardPrerequisites(3L)).isFalse();
+    }
+
+    @Test
+    void editsCommittedDuringRebuildAreReplayed() {
+        when(repository.findAllEdges()).thenAnswer(invocation -> {
+            // Committed after the edges were read
+            index.updateAfterCommit(5L, Map.of(6L, PrerequisiteType.HARD));
+            index.removeAfterCommit(2L);
+            return List.of(edge(3, 2, PrerequisiteType.HARD), edge(2, 1, PrerequisiteType.HARD));
+        });
+
+        index.rebuild();
+
+        assertThat(index.findMissingHardPrerequisites(5L, List.of())).containsExactly(6L);
+        assertThat(index.hasHardPrerequisites(3L)).isFalse();
+        assertThat(index.hasHardPrerequisites(2L)).isFalse();
+    }
+
+    @Test
+    void rebuildsDoNotOverlap() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<PrerequisiteEdge> committed = new CopyOnWriteArrayList<>(List.of(edge(3, 2, PrerequisiteType.HARD)));
+        when(repository.findAllEdges()).thenAnswer(invocation -> {
+            List<PrerequisiteEdge> snapshot = List.copyOf(committed);
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            running.decrementAndGet();
+            return snapshot;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(index::rebuild);
+            assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> second = executor.submit(index::rebuild);
+            committed.add(edge(7, 8, PrerequisiteType.HARD));
+            index.updateAfterCommit(7L, Map.of(8L, PrerequisiteType.HARD));
+            Thread.sleep(100);
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(index.findMissingHardPrerequisites(7L, List.of())).containsExactly(8L);
+    }
+
+    @Test
+    void cycleInIndexIsRejectedWithoutQuerying() {
+        when(repository.findAllEdges()).thenReturn(List.of(edge(2, 1, PrerequisiteType.HARD)));
+        index.rebuild();
+
+        assertThat(index.findCycleForUpdate(1L, List.of(2L))).containsExactly(1L, 2L, 1L);
+        verify(repository, never()).lockEdits();
+    }
+
+    @Test
+    void cycleCommittedElsewhereIsFoundUnderTheLock() {
+        when(repository.findAllEdges()).thenReturn(List.of());
+        index.rebuild();
+        // Another instance made 2 require 1 since this index was built
+        when(repository.isRequiredByAny(List.of(2L), 1L)).thenReturn(true);
+        when(repository.findAllEdges()).thenReturn(List.of(edge(2, 1, PrerequisiteType.HARD)));
+
+        assertThat(index.findCycleForUpdate(1L, List.of(2L))).containsExactly(1L, 2L, 1L);
+        verify(repository).lockEdits();
+    }
+
+    @Test
+    void acyclicPrerequisitesAreCheckedUnderTheLock() {
+        when(repository.findAllEdges()).thenReturn(List.of());
+        index.rebuild();
+        when(repository.isRequiredByAny(anyCollection(), anyLong())).thenReturn(false);
+
+        assertThat(index.findCycleForUpdate(1L, List.of(2L))).isEmpty();
+        verify(repository).lockEdits();
+        verify(repository).isRequiredByAny(List.of(2L), 1L);
+    }
+
+    private static PrerequisiteEdge edge(long courseId, long requiredCourseId, PrerequisiteType type) {
+        return new Edge(courseId, requiredCourseId, type);
+    }
+
+    private record Edge(Long getCourseId, Long getRequiredCourseId, PrerequisiteType getType)
+            implements PrerequisiteEdge {
+    }
+}
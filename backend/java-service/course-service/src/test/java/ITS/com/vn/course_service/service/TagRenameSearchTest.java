@@ -0,0 +1,65 @@
+package ITS.com.vn.course_service.service;
+
+import ITS.com.vn.course_service.domain.entity.Tag;
+import ITS.com.vn.course_service.domain.enums.CourseVisibility;
+import ITS.com.vn.course_service.domain.enums.TagType;
+import ITS.com.vn.course_service.dto.request.CreateCourseRequest;
+import ITS.com.vn.course_service.dto.response.CourseResponse;
+import ITS.com.vn.course_service.dto.response.TagResponse;
+import ITS.com.vn.course_service.repository.TagRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tags are renamed outside this service; search and catalog rows of the tagged courses must follow
+ * the new name. Needs Docker (skipped otherwise).
+ */
+class TagRenameSearchTest extends MockedEventsIntegrationTest {
+
+    private static final Long INSTRUCTOR_ID = 1L;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void renamedTagIsSearchableOnTaggedCourses() {
+        Tag tag = tagRepository.save(Tag.builder().name("marsupials").type(TagType.TOPIC).build());
+        Long tagged = courseService.createCourse(CreateCourseRequest.builder()
+                .title("Field biology")
+                .visibility(CourseVisibility.PUBLIC)
+                .tagIds(List.of(tag.getId()))
+                .build(), INSTRUCTOR_ID).getId();
+        Long untagged = courseService.createCourse(CreateCourseRequest.builder()
+                .title("Field chemistry")
+                .visibility(CourseVisibility.PUBLIC)
+                .build(), INSTRUCTOR_ID).getId();
+        assertThat(search("marsupials")).containsExactly(tagged);
+
+        jdbcTemplate.update("UPDATE tags SET name = ? WHERE id = ?", "quokkas", tag.getId());
+
+        assertThat(search("quokkas")).containsExactly(tagged);
+        assertThat(search("marsupials")).isEmpty();
+        assertThat(search("field")).contains(tagged, untagged);
+
+        CourseResponse course = courseService.searchCourses("quokkas", PageRequest.of(0, 10)).getContent().get(0);
+        assertThat(course.getTags()).extracting(TagResponse::getName).containsExactly("quokkas");
+    }
+
+    private List<Long> search(String keyword) {
+        return courseService.searchCourses(keyword, PageRequest.of(0, 10)).getContent().stream()
+                .map(CourseResponse::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,97 @@
+package ITS.com.vn.course_service.service.adaptive;
+
+import ITS.com.vn.course_service.domain.enums.AdaptiveAction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of adaptive rule evaluation against a typical lesson rule set, compared with
+ * parsing the condition text on every evaluation.
+ * Not run by Surefire; run after test-compile with:
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)"
+ * ITS.com.vn.course_service.service.adaptive.AdaptiveRuleEvaluationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdaptiveRuleEvaluationBenchmark {
+
+    private static final String[] CONDITIONS = {
+            "SCORE < 40% AND ATTEMPTS >= 3",
+            "SCORE < 60%",
+            "MASTERY < 50 OR (SCORE < 70% AND ATTEMPTS > 1)",
+            "NOT (SCORE >= 70%) AND MASTERY < 80%",
+            "SCORE >= 95% AND ATTEMPTS <= 1",
+            "SCORE >= 90% AND MASTERY >= 90%",
+    };
+
+    private static final int SAMPLES = 1024;
+
+    private CompiledRuleSet ruleSet;
+    private LearnerMetrics[] learners;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<CompiledRule> rules = new ArrayList<>();
+        for (int i = 0; i < CONDITIONS.length; i++) {
+            rules.add(new CompiledRule((long) i, CONDITIONS[i], RuleConditionCompiler.compile(CONDITIONS[i]),
+                    AdaptiveAction.REDIRECT_TO_REMEDIATION, 100L + i));
+        }
+        ruleSet = new CompiledRuleSet(rules);
+
+        SplittableRandom random = new SplittableRandom(42);
+        learners = new LearnerMetrics[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            learners[i] = new LearnerMetrics(random.nextDouble(0, 100), random.nextDouble(0, 100),
+                    random.nextInt(1, 6));
+        }
+    }
+
+    private LearnerMetrics nextLearner() {
+        next = (next + 1) & (SAMPLES - 1);
+        return learners[next];
+    }
+
+    @Benchmark
+    public CompiledRule evaluateCompiledRuleSet() {
+        return ruleSet.firstMatch(nextLearner());
+    }
+
+    @Benchmark
+    public void parseAndEvaluate(Blackhole blackhole) {
+        LearnerMetrics learner = nextLearner();
+        for (String condition : CONDITIONS) {
+            if (RuleConditionCompiler.compile(condition).matches(learner)) {
+                blackhole.consume(condition);
+                return;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AdaptiveRuleEvaluationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
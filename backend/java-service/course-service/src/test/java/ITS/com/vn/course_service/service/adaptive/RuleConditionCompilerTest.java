@@ -0,0 +1,121 @@
+package ITS.com.vn.course_service.service.adaptive;
+
+import ITS.com.vn.course_service.service.adaptive.RuleCondition.And;
+import ITS.com.vn.course_service.service.adaptive.RuleCondition.Comparison;
+import ITS.com.vn.course_service.service.adaptive.RuleCondition.Metric;
+import ITS.com.vn.course_service.service.adaptive.RuleCondition.Not;
+import ITS.com.vn.course_service.service.adaptive.RuleCondition.Operator;
+import ITS.com.vn.course_service.service.adaptive.RuleCondition.Or;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RuleConditionCompilerTest {
+
+    private static final Comparison SCORE_LT_50 = new Comparison(Metric.SCORE, Operator.LT, 50);
+    private static final Comparison SCORE_GT_90 = new Comparison(Metric.SCORE, Operator.GT, 90);
+    private static final Comparison ATTEMPTS_GE_3 = new Comparison(Metric.ATTEMPTS, Operator.GE, 3);
+
+    @Test
+    void andBindsTighterThanOr() {
+        assertThat(RuleConditionCompiler.compile("SCORE < 50 OR SCORE > 90 AND ATTEMPTS >= 3"))
+                .isEqualTo(new Or(SCORE_LT_50, new And(SCORE_GT_90, ATTEMPTS_GE_3)));
+    }
+
+    @Test
+    void parenthesesOverridePrecedence() {
+        assertThat(RuleConditionCompiler.compile("(SCORE < 50 OR SCORE > 90) AND ATTEMPTS >= 3"))
+                .isEqualTo(new And(new Or(SCORE_LT_50, SCORE_GT_90), ATTEMPTS_GE_3));
+    }
+
+    @Test
+    void notBindsTighterThanAnd() {
+        assertThat(RuleConditionCompiler.compile("NOT SCORE < 50 AND ATTEMPTS >= 3"))
+                .isEqualTo(new And(new Not(SCORE_LT_50), ATTEMPTS_GE_3));
+    }
+
+    @Test
+    void binaryOperatorsAreLeftAssociative() {
+        assertThat(RuleConditionCompiler.compile("SCORE < 50 OR SCORE > 90 OR ATTEMPTS >= 3"))
+                .isEqualTo(new Or(new Or(SCORE_LT_50, SCORE_GT_90), ATTEMPTS_GE_3));
+    }
+
+    @Test
+    void keywordsAreCaseInsensitiveAndOperatorsHaveAliases() {
+        assertThat(RuleConditionCompiler.compile("score < 50% and not Attempts <> 3"))
+                .isEqualTo(new And(SCORE_LT_50, new Not(new Comparison(Metric.ATTEMPTS, Operator.NE, 3))));
+        assertThat(RuleConditionCompiler.compile("MASTERY == 80"))
+                .isEqualTo(new Comparison(Metric.MASTERY, Operator.EQ, 80));
+        assertThat(RuleConditionCompiler.compile("MASTERY<=80.5%"))
+                .isEqualTo(new Comparison(Metric.MASTERY, Operator.LE, 80.5));
+    }
+
+    @Test
+    void unknownMetricIsReportedAtItsPosition() {
+        assertSyntaxError("SCORE < 50 AND GRADE > 2", 15, "Unknown metric 'GRADE'");
+        assertSyntaxError("SCORE < 50 AND", 14, "Expected SCORE, MASTERY or ATTEMPTS");
+    }
+
+    @Test
+    void syntaxErrorsReportTheirPosition() {
+        assertSyntaxError("  ", 0, "Condition is empty");
+        assertSyntaxError("SCORE ~ 50", 6, "Expected a comparison operator");
+        assertSyntaxError("SCORE << 50", 7, "Expected a number");
+        assertSyntaxError("(SCORE < 50", 11, "Expected ')'");
+        assertSyntaxError("SCORE < 50)", 10, "Unexpected ')'");
+        // A keyword must end at a word boundary
+        assertSyntaxError("SCORE < 50 ANDY", 11, "Unexpected 'A'");
+    }
+
+    @Test
+    void thresholdsAreValidatedPerMetric() {
+        assertSyntaxError("SCORE < 120%", 8, "between 0% and 100%");
+        assertSyntaxError("ATTEMPTS < 2%", 11, "is a count, not a percentage");
+        assertSyntaxError("ATTEMPTS < 1.5", 11, "non-negative whole number");
+    }
+
+    @Test
+    void deepNestingIsRejected() {
+        assertThatThrownBy(() -> RuleConditionCompiler.compile("NOT ".repeat(16) + "SCORE < 50"))
+                .isInstanceOf(RuleSyntaxException.class)
+                .hasMessageContaining("nested too deeply");
+        assertThat(RuleConditionCompiler.compile("NOT ".repeat(15) + "SCORE < 50"))
+                .isInstanceOf(Not.class);
+    }
+
+    @Test
+    void positionInMessageIsOneBased() {
+        assertThatThrownBy(() -> RuleConditionCompiler.compile("SCORE ~ 50"))
+                .hasMessage("Expected a comparison operator (<, <=, >, >=, =, !=) at position 7");
+    }
+
+    @Test
+    void conditionsEvaluateAgainstMetrics() {
+        RuleCondition remedial = RuleConditionCompiler.compile("SCORE < 50% OR (MASTERY < 40 AND ATTEMPTS >= 3)");
+
+        assertThat(remedial.matches(new LearnerMetrics(45, 90, 1))).isTrue();
+        assertThat(remedial.matches(new LearnerMetrics(70, 30, 3))).isTrue();
+        assertThat(remedial.matches(new LearnerMetrics(70, 30, 2))).isFalse();
+        assertThat(remedial.matches(new LearnerMetrics(50, 90, 5))).isFalse();
+    }
+
+    @Test
+    void unknownMetricsMatchNoComparison() {
+        LearnerMetrics unknown = LearnerMetrics.of(null, null, null);
+
+        assertThat(RuleConditionCompiler.compile("SCORE < 50").matches(unknown)).isFalse();
+        assertThat(RuleConditionCompiler.compile("SCORE >= 50").matches(unknown)).isFalse();
+        assertThat(RuleConditionCompiler.compile("SCORE != 50").matches(unknown)).isFalse();
+        assertThat(RuleConditionCompiler.compile("NOT SCORE >= 50").matches(unknown)).isTrue();
+        assertThat(RuleConditionCompiler.compile("ATTEMPTS = 0").matches(unknown)).isTrue();
+    }
+
+    private static void assertSyntaxError(String condition, int position, String message) {
+        assertThatThrownBy(() -> RuleConditionCompiler.compile(condition))
+                .isInstanceOfSatisfying(RuleSyntaxException.class, ex -> {
+                    assertThat(ex.getPosition()).isEqualTo(position);
+                    assertThat(ex.getMessage()).contains(message);
+                });
+    }
+}
@@ -0,0 +1,243 @@
+package ITS.com.vn.course_service.service.impl;
+
+import ITS.com.vn.course_service.domain.entity.Course;
+import ITS.com.vn.course_service.dto.event.StudentEnrolledEvent;
+import ITS.com.vn.course_service.dto.response.BulkEnrollmentResponse;
+import ITS.com.vn.course_service.exception.BadRequestException;
+import ITS.com.vn.course_service.exception.UnauthorizedException;
+import ITS.com.vn.course_service.repository.CourseRepository;
+import ITS.com.vn.course_service.repository.EnrollmentArchiveRepository;
+import ITS.com.vn.course_service.repository.EnrollmentJdbcRepository;
+import ITS.com.vn.course_service.repository.EnrollmentJdbcRepository.InsertedEnrollment;
+import ITS.com.vn.course_service.repository.EnrollmentRepository;
+import ITS.com.vn.course_service.repository.EnrollmentRepository.CompletedCourse;
+import ITS.com.vn.course_service.repository.EnrollmentViewRepository;
+import ITS.com.vn.course_service.service.EnrollmentProgressBuffer;
+import ITS.com.vn.course_service.service.EnrollmentStatsService;
+import ITS.com.vn.course_service.service.EventPublisherService;
+import ITS.com.vn.course_service.service.LessonCompletionService;
+import ITS.com.vn.course_service.service.LessonNavigationService;
+import ITS.com.vn.course_service.service.PrerequisiteGraphIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EnrollmentServiceImplBulkTest {
+
+    private static final Long COURSE_ID = 9L;
+    private static final Long INSTRUCTOR_ID = 5L;
+
+    private final EnrollmentRepository enrollmentRepository = mock(EnrollmentRepository.class);
+    private final EnrollmentJdbcRepository enrollmentJdbcRepository = mock(EnrollmentJdbcRepository.class);
+    private final EnrollmentArchiveRepository enrollmentArchiveRepository = mock(EnrollmentArchiveRepository.class);
+    private final CourseRepository courseRepository = mock(CourseRepository.class);
+    private final EventPublisherService eventPublisherService = mock(EventPublisherService.class);
+    private final EnrollmentStatsService enrollmentStatsService = mock(EnrollmentStatsService.class);
+    private final PrerequisiteGraphIndex prerequisiteGraphIndex = mock(PrerequisiteGraphIndex.class);
+    private final EnrollmentServiceImpl enrollmentService = new EnrollmentServiceImpl(enrollmentRepository,
+            enrollmentJdbcRepository, mock(EnrollmentViewRepository.class), enrollmentArchiveRepository,
+            courseRepository, eventPublisherService, enrollmentStatsService, mock(EnrollmentProgressBuffer.class),
+            prerequisiteGraphIndex, mock(LessonNavigationService.class),
+            mock(LessonCompletionService.class), mock(TransactionTemplate.class));
+
+    @BeforeEach
+    void setUp() {
+        when(courseRepository.findById(COURSE_ID)).thenReturn(Optional.of(Course.builder()
+                .id(COURSE_ID).instructorId(INSTRUCTOR_ID).title("Roster course").code("RC101").maxStudents(100).build()));
+        when(enrollmentRepository.findEnrolledStudentIds(eq(COURSE_ID), anyCollection())).thenReturn(List.of());
+        when(enrollmentArchiveRepository.findStudentIds(eq(COURSE_ID), anyCollection())).thenReturn(List.of());
+        when(enrollmentStatsService.tryReserveSeats(eq(COURSE_ID), anyInt(), any())).thenReturn(true);
+        // Every student passed to the insert gets a row
+        when(enrollmentJdbcRepository.insertActiveEnrollments(eq(COURSE_ID), anyCollection()))
+                .thenAnswer(inv -> inserted(inv.<Collection<Long>>getArgument(1)));
+    }
+
+    @Test
+    void enrollsOnlyStudentsNotEnrolledOrArchived() {
+        when(enrollmentRepository.findEnrolledStudentIds(eq(COURSE_ID), anyCollection())).thenReturn(List.of(2L));
+        when(enrollmentArchiveRepository.findStudentIds(eq(COURSE_ID), anyCollection())).thenReturn(List.of(3L));
+
+        BulkEnrollmentResponse response = enrollmentService.enrollStudents(COURSE_ID,
+                Arrays.asList(1L, 2L, 2L, 3L, null, 4L), INSTRUCTOR_ID);
+
+        assertThat(response.getRequestedCount()).isEqualTo(4);
+        assertThat(response.getEnrolledCount()).isEqualTo(2);
+        assertThat(response.getEnrolledStudentIds()).containsExactly(1L, 4L);
+        assertThat(response.getAlreadyEnrolledStudentIds()).containsExactly(2L, 3L);
+        verify(enrollmentStatsService).tryReserveSeats(COURSE_ID, 2, 100);
+        verify(enrollmentJdbcRepository).insertActiveEnrollments(COURSE_ID, List.of(1L, 4L));
+    }
+
+    @Test
+    void oneEventPerEnrolledStudentIsPublishedInOneBatch() {
+        enrollmentService.enrollStudents(COURSE_ID, List.of(5L, 6L, 7L), INSTRUCTOR_ID);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StudentEnrolledEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisherService).publishStudentEnrolledBatch(events.capture());
+        assertThat(events.getValue()).extracting(StudentEnrolledEvent::getStudentId).containsExactly(5L, 6L, 7L);
+        assertThat(events.getValue()).allSatisfy(event -> {
+            assertThat(event.getCourseId()).isEqualTo(COURSE_ID);
+            assertThat(event.getCourseCode()).isEqualTo("RC101");
+            assertThat(event.getEventType()).isEqualTo("STUDENT_ENROLLED");
+        });
+    }
+
+    @Test
+    void rosterIsRejectedWholeWhenSeatsAreShort() {
+        when(enrollmentStatsService.tryReserveSeats(eq(COURSE_ID), anyInt(), any())).thenReturn(false);
+
+        assertThatThrownBy(() -> enrollmentService.enrollStudents(COURSE_ID, List.of(1L, 2L, 3L), INSTRUCTOR_ID))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("enough seats for 3 students");
+        verify(enrollmentJdbcRepository, never()).insertActiveEnrollments(anyLong(), anyCollection());
+        verify(eventPublisherService, never()).publishStudentEnrolledBatch(any());
+    }
+
+    @Test
+    void seatsOfStudentsEnrolledConcurrentlyAreReleased() {
+        // Student 2 was enrolled by another request between the lookup and the insert
+        when(enrollmentJdbcRepository.insertActiveEnrollments(eq(COURSE_ID), anyCollection()))
+                .thenReturn(inserted(List.of(1L, 3L)));
+
+        BulkEnrollmentResponse response = enrollmentService.enrollStudents(COURSE_ID, List.of(1L, 2L, 3L), INSTRUCTOR_ID);
+
+        verify(enrollmentStatsService).tryReserveSeats(COURSE_ID, 3, 100);
+        verify(enrollmentStatsService).releaseSeats(COURSE_ID, 1);
+        assertThat(response.getEnrolledStudentIds()).containsExactly(1L, 3L);
+        assertThat(response.getAlreadyEnrolledStudentIds()).containsExactly(2L);
+    }
+
+    @Test
+    void rosterIsRejectedWholeWhenAStudentMissesAHardPrerequisite() {
+        when(prerequisiteGraphIndex.hasHardPrerequisites(COURSE_ID)).thenReturn(true);
+        when(enrollmentRepository.findEnrolledStudentIds(eq(COURSE_ID), anyCollection())).thenReturn(List.of(4L));
+        when(enrollmentRepository.findCompletedCourses(anyCollection()))
+                .thenReturn(List.of(completed(1L, 7L), completed(1L, 8L), completed(2L, 7L)));
+        // Course 9 requires 8, which requires 7
+        when(prerequisiteGraphIndex.findMissingHardPrerequisites(eq(COURSE_ID), anyCollection()))
+                .thenAnswer(inv -> {
+                    Collection<Long> done = inv.getArgument(1);
+                    return List.of(7L, 8L).stream().filter(id -> !done.contains(id)).toList();
+                });
+
+        assertThatThrownBy(() -> enrollmentService.enrollStudents(COURSE_ID, List.of(1L, 2L, 3L, 4L), INSTRUCTOR_ID))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Students have not completed required prerequisite courses: {2=[8], 3=[7, 8]}");
+        // Completed courses of the whole roster are loaded at once, without already enrolled students
+        verify(enrollmentRepository).findCompletedCourses(List.of(1L, 2L, 3L));
+        verify(enrollmentStatsService, never()).tryReserveSeats(anyLong(), anyInt(), any());
+        verify(enrollmentJdbcRepository, never()).insertActiveEnrollments(anyLong(), anyCollection());
+    }
+
+    @Test
+    void rosterMeetingHardPrerequisitesIsEnrolled() {
+        when(prerequisiteGraphIndex.hasHardPrerequisites(COURSE_ID)).thenReturn(true);
+        when(enrollmentRepository.findCompletedCourses(anyCollection()))
+                .thenReturn(List.of(completed(1L, 7L), completed(2L, 7L)));
+        when(prerequisiteGraphIndex.findMissingHardPrerequisites(eq(COURSE_ID), anyCollection()))
+                .thenAnswer(inv -> inv.<Collection<Long>>getArgument(1).contains(7L) ? List.of() : List.of(7L));
+
+        BulkEnrollmentResponse response = enrollmentService.enrollStudents(COURSE_ID, List.of(1L, 2L), INSTRUCTOR_ID);
+
+        assertThat(response.getEnrolledStudentIds()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void completedCoursesAreNotLoadedWithoutHardPrerequisites() {
+        enrollmentService.enrollStudents(COURSE_ID, List.of(1L, 2L), INSTRUCTOR_ID);
+
+        verify(enrollmentRepository, never()).findCompletedCourses(anyCollection());
+    }
+
+    @Test
+    void onlyTheOwningInstructorOrAnAdminMayEnrollARoster() {
+        assertThatThrownBy(() -> enrollmentService.enrollStudents(COURSE_ID, List.of(1L), 6L))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> enrollmentService.enrollStudentsFromCsv(COURSE_ID, stream("1\n"), 6L))
+                .isInstanceOf(UnauthorizedException.class);
+        verify(enrollmentStatsService, never()).tryReserveSeats(anyLong(), anyInt(), any());
+
+        // Admins pass no instructor ID
+        assertThat(enrollmentService.enrollStudents(COURSE_ID, List.of(1L), null).getEnrolledStudentIds())
+                .containsExactly(1L);
+    }
+
+    @Test
+    void emptyOrOversizedRosterIsRejected() {
+        assertThatThrownBy(() -> enrollmentService.enrollStudents(COURSE_ID, Arrays.asList((Long) null), INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class);
+        List<Long> oversized = LongStream.rangeClosed(1, 5001).boxed().toList();
+        assertThatThrownBy(() -> enrollmentService.enrollStudents(COURSE_ID, oversized, INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("5000");
+        verify(courseRepository, never()).findById(any());
+    }
+
+    @Test
+    void csvRosterReadsTheFirstColumnAfterAnOptionalHeader() {
+        String csv = "\uFEFFstudent_id,name\n\"11\",Ann\n12\n\n11,Ann again\n 13 ,Bo\n";
+
+        BulkEnrollmentResponse response = enrollmentService.enrollStudentsFromCsv(COURSE_ID, stream(csv), INSTRUCTOR_ID);
+
+        assertThat(response.getEnrolledStudentIds()).containsExactly(11L, 12L, 13L);
+    }
+
+    @Test
+    void csvRosterRejectsNonNumericRowsAfterTheHeader() {
+        assertThatThrownBy(() -> enrollmentService.enrollStudentsFromCsv(COURSE_ID, stream("11\nabc\n"),
+                INSTRUCTOR_ID))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Invalid student ID 'abc' on line 2");
+        verify(enrollmentJdbcRepository, never()).insertActiveEnrollments(anyLong(), anyCollection());
+    }
+
+    private static List<InsertedEnrollment> inserted(Collection<Long> studentIds) {
+        List<InsertedEnrollment> rows = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            rows.add(new InsertedEnrollment(1000 + studentId, studentId, LocalDateTime.now()));
+        }
+        return rows;
+    }
+
+    private static CompletedCourse completed(Long studentId, Long courseId) {
+        return new CompletedCourse() {
+            @Override
+            public Long getStudentId() {
+                return studentId;
+            }
+
+            @Override
+            public Long getCourseId() {
+                return courseId;
+            }
+        };
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
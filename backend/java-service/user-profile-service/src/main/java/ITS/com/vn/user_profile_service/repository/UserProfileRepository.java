@@ -4,6 +4,8 @@ import ITS.com.vn.user_profile_service.domain.entity.UserProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,6 +13,8 @@ import java.util.UUID;
 public interface UserProfileRepository extends JpaRepository<UserProfile, Long> {
     Optional<UserProfile> findByUserId(UUID userId);
 
+    List<UserProfile> findByUserIdIn(Collection<UUID> userIds);
+
     boolean existsByUserId(UUID userId);
 
     boolean existsByStudentIdAndUserIdNot(String studentId, UUID userId);
@@ -14,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -67,11 +68,8 @@ public class UserProfileServiceImpl implements UserProfileService {
     public List<UserProfileResponse> getProfiles(List<UUID> userIds) {
         log.debug("Getting profiles for {} users", userIds.size());
 
-        // Find all profiles by user IDs
-        List<UserProfile> profiles = userIds.stream()
-                .map(userId -> userProfileRepository.findByUserId(userId).orElse(null))
-                .filter(profile -> profile != null)
-                .collect(Collectors.toList());
+        // Find all profiles by user IDs in a single query
+        List<UserProfile> profiles = userProfileRepository.findByUserIdIn(new HashSet<>(userIds));
 
         log.debug("Found {} profiles out of {} requested", profiles.size(), userIds.size());
 
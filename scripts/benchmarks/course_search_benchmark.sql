@@ -0,0 +1,69 @@
+-- Course search benchmark: LIKE '%keyword%' scan vs. full-text/trigram index
+--
+-- Seeds 100,000 synthetic courses inside a transaction, compares the previous
+-- CourseRepository.searchByTitle query with the ranked full-text search used by
+-- CourseService.searchCourses, then rolls everything back.
+--
+-- Usage (against a course-service database migrated to V4 or later):
+--     psql -h localhost -p 5436 -U courseUser -d courseDb -f scripts/benchmarks/course_search_benchmark.sql
+--
+-- Adjust :course_count, :keyword and :ts_query below to try other sizes or terms.
+
+\set course_count 100000
+\set keyword 'algorit'
+\set ts_query 'algorit:*'
+\timing on
+
+BEGIN;
+
+INSERT INTO courses (title, description, objectives, status, visibility, instructor_id, code, created_at, updated_at)
+SELECT
+    (ARRAY['Algorithms', 'Data Structures', 'Operating Systems', 'Computer Networks', 'Databases',
+           'Machine Learning', 'Discrete Mathematics', 'Compilers', 'Software Engineering', 'Computer Graphics'])[1 + (g % 10)]
+        || ' ' || (g / 10),
+    'Synthetic course description number ' || g || ' covering lectures, labs and weekly assignments.',
+    'Understand the core concepts of topic ' || (g % 97) || ' and apply them in projects.',
+    CASE WHEN g % 3 = 0 THEN 'DRAFT' ELSE 'PUBLISHED' END,
+    'PUBLIC',
+    1 + (g % 500),
+    'BENCH' || g,
+    now(),
+    now()
+FROM generate_series(1, :course_count) AS g;
+
+UPDATE courses SET search_vector = course_search_vector(id) WHERE code LIKE 'BENCH%';
+ANALYZE courses;
+
+\echo '--- Previous query: LOWER(title) LIKE %keyword% (first page + count) ---'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.* FROM courses c
+WHERE LOWER(c.title) LIKE LOWER(CONCAT('%', :'keyword', '%'))
+ORDER BY c.created_at DESC
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM courses c
+WHERE LOWER(c.title) LIKE LOWER(CONCAT('%', :'keyword', '%'));
+
+\echo '--- Full-text + trigram search (first page + count) ---'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.* FROM courses c
+WHERE c.search_vector @@ to_tsquery('simple', :'ts_query')
+   OR lower(:'keyword') <% lower(c.title)
+ORDER BY ts_rank_cd(c.search_vector, to_tsquery('simple', :'ts_query'))
+       + word_similarity(lower(:'keyword'), lower(c.title)) DESC, c.id DESC
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM courses c
+WHERE c.search_vector @@ to_tsquery('simple', :'ts_query')
+   OR lower(:'keyword') <% lower(c.title);
+
+\echo '--- Typo tolerance: "algoritms" ---'
+SELECT c.title FROM courses c
+WHERE c.search_vector @@ to_tsquery('simple', 'algoritms:*')
+   OR lower('algoritms') <% lower(c.title)
+ORDER BY word_similarity(lower('algoritms'), lower(c.title)) DESC, c.id DESC
+LIMIT 5;
+
+ROLLBACK;
@@ -0,0 +1,75 @@
+-- Lesson list payload benchmark: full Lesson rows vs. list projections
+--
+-- Seeds one course with :chapter_count chapters of :lessons_per_chapter TEXT lessons
+-- (about :content_kb KB of content each) inside a transaction, then compares what the
+-- chapter/lesson list endpoints read before and after the projection change:
+--   before: full lessons rows (content TEXT detoasted), loaded per chapter
+--   after:  LessonRepository.findSummariesByChapterIdIn / findSummariesByChapterId
+-- "Payload" is the size of the rows rendered as JSON, a close proxy for the response body.
+-- Everything is rolled back at the end.
+--
+-- Usage (against a course-service database migrated to V7 or later):
+--     psql -h localhost -p 5436 -U courseUser -d courseDb -f scripts/benchmarks/lesson_payload_benchmark.sql
+
+\set chapter_count 20
+\set lessons_per_chapter 50
+\set content_kb 20
+\timing on
+
+BEGIN;
+
+INSERT INTO courses (title, status, visibility, instructor_id, code, created_at, updated_at)
+VALUES ('Lesson payload benchmark', 'DRAFT', 'PRIVATE', 1, 'BENCH-LESSONS', now(), now());
+
+INSERT INTO course_versions (course_id, version, status)
+SELECT id, '1.0.0', 'DRAFT' FROM courses WHERE code = 'BENCH-LESSONS';
+
+INSERT INTO chapters (version_id, title, description, sequence)
+SELECT v.id, 'Chapter ' || g, 'Synthetic chapter ' || g, g
+FROM course_versions v
+JOIN courses c ON c.id = v.course_id AND c.code = 'BENCH-LESSONS'
+CROSS JOIN generate_series(1, :chapter_count) AS g;
+
+-- md5 text barely compresses, so content is stored (and read) at close to full size
+INSERT INTO lessons (chapter_id, title, description, type, sequence, content, estimated_duration)
+SELECT ch.id, 'Lesson ' || ch.sequence || '.' || g, 'Synthetic lesson ' || g, 'TEXT', g,
+       (SELECT string_agg(md5(random()::text || g || ch.id), ' ') FROM generate_series(1, :content_kb * 30)),
+       10 + g % 20
+FROM chapters ch
+JOIN course_versions v ON v.id = ch.version_id
+JOIN courses c ON c.id = v.course_id AND c.code = 'BENCH-LESSONS'
+CROSS JOIN generate_series(1, :lessons_per_chapter) AS g;
+
+ANALYZE lessons;
+
+CREATE TEMP TABLE bench_chapters ON COMMIT DROP AS
+SELECT ch.id FROM chapters ch
+JOIN course_versions v ON v.id = ch.version_id
+JOIN courses c ON c.id = v.course_id AND c.code = 'BENCH-LESSONS';
+
+\echo '--- Payload of one chapter list (all chapters with lessons) ---'
+SELECT 'before: full rows' AS variant,
+       pg_size_pretty(SUM(octet_length(row_to_json(l)::text))) AS payload
+FROM lessons l WHERE l.chapter_id IN (SELECT id FROM bench_chapters)
+UNION ALL
+SELECT 'after: summaries',
+       pg_size_pretty(SUM(octet_length(row_to_json(s)::text)))
+FROM (SELECT l.id, l.chapter_id, l.title, l.description, l.type, l.sequence, l.mastery_threshold,
+             l.estimated_duration, l.created_at, l.updated_at
+      FROM lessons l WHERE l.chapter_id IN (SELECT id FROM bench_chapters)) AS s;
+
+\echo '--- Before: full lesson rows of every chapter ---'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT row_to_json(l)::text FROM lessons l
+WHERE l.chapter_id IN (SELECT id FROM bench_chapters)
+ORDER BY l.chapter_id, l.sequence;
+
+\echo '--- After: lesson summaries of every chapter (one query) ---'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT row_to_json(s)::text
+FROM (SELECT l.id, l.chapter_id, l.title, l.description, l.type, l.sequence, l.mastery_threshold,
+             l.estimated_duration, l.created_at, l.updated_at
+      FROM lessons l WHERE l.chapter_id IN (SELECT id FROM bench_chapters)
+      ORDER BY l.chapter_id, l.sequence) AS s;
+
+ROLLBACK;